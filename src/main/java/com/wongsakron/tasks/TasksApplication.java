@@ -2,8 +2,10 @@ package com.wongsakron.tasks;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling // Background jobs (replica lag checks, archiving, ...)
 public class TasksApplication {
 
 	public static void main(String[] args) {
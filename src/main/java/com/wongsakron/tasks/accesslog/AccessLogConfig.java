@@ -0,0 +1,55 @@
+package com.wongsakron.tasks.accesslog;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+// Access log of the task list and task routes, see AccessLogFilter and AccessLogWriter.
+@Configuration
+@ConditionalOnProperty(prefix = "tasks.access-log", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogConfig {
+
+    @Bean
+    public AccessLogRingBuffer accessLogRingBuffer(@Value("${tasks.access-log.buffer-size:8192}") int bufferSize) {
+        return new AccessLogRingBuffer(bufferSize);
+    }
+
+    @Bean(destroyMethod = "close")
+    public AccessLogWriter accessLogWriter(
+            AccessLogRingBuffer accessLogRingBuffer,
+            @Value("${tasks.access-log.directory:${java.io.tmpdir}/task-access-logs}") Path directory,
+            @Value("${tasks.access-log.max-file-size:100MB}") DataSize maxFileSize,
+            @Value("${tasks.access-log.max-files:10}") int maxFiles,
+            MeterRegistry meterRegistry
+    ) {
+        AccessLogWriter writer = new AccessLogWriter(accessLogRingBuffer, directory, maxFileSize.toBytes(), maxFiles);
+        FunctionCounter.builder("tasks.access-log.written", writer, AccessLogWriter::getWritten).register(meterRegistry);
+        FunctionCounter.builder("tasks.access-log.dropped", writer, AccessLogWriter::getDropped).register(meterRegistry);
+        Gauge.builder("tasks.access-log.queued", accessLogRingBuffer, AccessLogRingBuffer::size).register(meterRegistry);
+        return writer;
+    }
+
+    @Bean
+    public FilterRegistrationBean<AccessLogFilter> accessLogFilter(AccessLogRingBuffer accessLogRingBuffer) {
+        FilterRegistrationBean<AccessLogFilter> registration = new FilterRegistrationBean<>(new AccessLogFilter(accessLogRingBuffer));
+        registration.addUrlPatterns("/task-lists", "/task-lists/*"); // TaskListController and TasksController
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE); // Latency and status include everything in front of the controllers
+        return registration;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+}
@@ -0,0 +1,40 @@
+package com.wongsakron.tasks.accesslog;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// One request as written to the access log. route is the mapped pattern (e.g. /task-lists/{task_list_id}/tasks),
+// taskListId is null for routes without one, sqlStatements counts the statements Hibernate ran on the request thread.
+public record AccessLogEntry(long startedAtMillis, String method, String route, UUID taskListId, int status, long latencyMicros,
+                             int sqlStatements, long responseBytes) {
+
+    // One JSON object per line. Only route can hold caller input (an unmatched path), so it is the only field escaped.
+    void appendJson(StringBuilder out) {
+        out.append("{\"ts\":\"").append(Instant.ofEpochMilli(startedAtMillis))
+                .append("\",\"method\":\"").append(method)
+                .append("\",\"route\":\"");
+        escape(route, out);
+        out.append('"');
+        if (taskListId != null) {
+            out.append(",\"taskListId\":\"").append(taskListId).append('"');
+        }
+        out.append(",\"status\":").append(status)
+                .append(",\"latencyUs\":").append(latencyMicros)
+                .append(",\"sql\":").append(sqlStatements)
+                .append(",\"bytes\":").append(responseBytes)
+                .append("}\n");
+    }
+
+    private static void escape(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.wongsakron.tasks.accesslog;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.UUID;
+
+// Measures every request and hands one entry to the ring buffer. The request thread only does counting and one
+// non-blocking offer, formatting and file output happen on the writer thread.
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    static final String UNMATCHED_ROUTE = "unmatched";
+
+    private final AccessLogRingBuffer buffer;
+
+    public AccessLogFilter(AccessLogRingBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        long startedAtMillis = System.currentTimeMillis();
+        long startedAt = System.nanoTime();
+        CountingResponse counting = new CountingResponse(response);
+        SqlStatementCounter.start();
+        try {
+            filterChain.doFilter(request, counting);
+        } finally {
+            counting.flushWriter();
+            int sqlStatements = SqlStatementCounter.stop();
+            long latencyMicros = (System.nanoTime() - startedAt) / 1_000;
+            buffer.offer(new AccessLogEntry(startedAtMillis, request.getMethod(), route(request), taskListId(request),
+                    counting.getStatus(), latencyMicros, sqlStatements, counting.bytes));
+        }
+    }
+
+    // The mapped pattern keeps the route count small, ids end up in their own field
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? UNMATCHED_ROUTE : pattern.toString();
+    }
+
+    private static UUID taskListId(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (!(variables instanceof Map<?, ?> map) || !(map.get("task_list_id") instanceof String id)) {
+            return null;
+        }
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException ex) {
+            return null; // Rejected by the controller as well
+        }
+    }
+
+    // Counts the body bytes written through the stream or the writer
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private long bytes;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        private CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytes++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytes += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            flushWriter();
+            super.flushBuffer();
+        }
+
+        // The container only flushes its own writer, not this one
+        private void flushWriter() {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.wongsakron.tasks.accesslog;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Bounded lock-free queue of many producers (request threads) and one consumer (the writer thread).
+// A producer claims a slot by advancing head with a CAS and then publishes the entry into it; the consumer takes
+// published entries in claim order and frees their slots. When every slot is taken, offer drops the entry and
+// counts it instead of waiting, so a slow disk never holds up a request.
+public class AccessLogRingBuffer {
+
+    private final AtomicReferenceArray<AccessLogEntry> slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // Next slot to claim
+    private volatile long tail; // Next slot to consume, only written by the consumer
+    private final AtomicLong dropped = new AtomicLong();
+
+    public AccessLogRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Access log buffer size must be a power of two!");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    // Never blocks, returns false when the entry was dropped
+    public boolean offer(AccessLogEntry entry) {
+        while (true) {
+            long claim = head.get();
+            if (claim - tail >= slots.length()) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            if (head.compareAndSet(claim, claim + 1)) {
+                slots.set((int) claim & mask, entry); // The consumer waits for this before moving past the slot
+                return true;
+            }
+        }
+    }
+
+    // Moves up to max published entries into the list, in claim order. Consumer thread only.
+    public int drainTo(List<AccessLogEntry> into, int max) {
+        long next = tail;
+        int count = 0;
+        while (count < max) {
+            int slot = (int) next & mask;
+            AccessLogEntry entry = slots.get(slot);
+            if (entry == null) {
+                break; // Empty, or claimed but not published yet
+            }
+            slots.lazySet(slot, null);
+            into.add(entry);
+            next++;
+            count++;
+        }
+        tail = next; // Frees the slots for producers, after they were cleared
+        return count;
+    }
+
+    public int size() {
+        return (int) Math.max(0, head.get() - tail);
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+}
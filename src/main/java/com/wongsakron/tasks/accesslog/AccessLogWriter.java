@@ -0,0 +1,155 @@
+package com.wongsakron.tasks.accesslog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Background thread that empties the ring buffer into access.log: every drained batch becomes one write and one
+// flush. When the file passes maxFileBytes it is rolled to access.log.1, the older ones move up and the oldest past
+// maxFiles is deleted. A failing disk loses the batch at hand, counted as dropped, and the thread keeps going.
+public class AccessLogWriter implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessLogWriter.class);
+    static final String FILE_NAME = "access.log";
+    private static final int BATCH_SIZE = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final AccessLogRingBuffer buffer;
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final Thread thread;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile boolean closed;
+
+    private Writer out;
+    private long fileBytes;
+
+    public AccessLogWriter(AccessLogRingBuffer buffer, Path directory, long maxFileBytes, int maxFiles) {
+        if (maxFileBytes <= 0 || maxFiles < 1) {
+            throw new IllegalArgumentException("Access log file size and count must be positive!");
+        }
+        this.buffer = buffer;
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        try {
+            Files.createDirectories(directory);
+            open();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        this.thread = new Thread(this::run, "access-log-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    private void run() {
+        List<AccessLogEntry> batch = new ArrayList<>(BATCH_SIZE);
+        StringBuilder text = new StringBuilder(BATCH_SIZE * 160);
+        while (true) {
+            boolean stopping = closed; // Read before draining, so nothing offered before close is left behind
+            if (buffer.drainTo(batch, BATCH_SIZE) > 0) {
+                write(batch, text);
+            } else if (stopping) {
+                return;
+            } else {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void write(List<AccessLogEntry> batch, StringBuilder text) {
+        batch.forEach(entry -> entry.appendJson(text));
+        try {
+            if (out == null) {
+                open(); // Failed before, try again
+            }
+            out.write(text.toString());
+            out.flush();
+            written.addAndGet(batch.size());
+            fileBytes += text.length(); // Close enough, the lines are ASCII apart from odd routes
+            if (fileBytes >= maxFileBytes) {
+                roll();
+            }
+        } catch (IOException ex) {
+            failed.addAndGet(batch.size());
+            log.warn("Could not write {} access log entries to {}", batch.size(), directory, ex);
+            closeQuietly();
+        } finally {
+            batch.clear();
+            text.setLength(0);
+        }
+    }
+
+    private void open() throws IOException {
+        Path file = directory.resolve(FILE_NAME);
+        out = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE), 64 * 1024);
+        fileBytes = Files.size(file);
+    }
+
+    private void roll() throws IOException {
+        out.close();
+        out = null;
+        Files.deleteIfExists(directory.resolve(FILE_NAME + "." + maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path older = directory.resolve(FILE_NAME + "." + i);
+            if (Files.exists(older)) {
+                Files.move(older, directory.resolve(FILE_NAME + "." + (i + 1)), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(directory.resolve(FILE_NAME), directory.resolve(FILE_NAME + ".1"), StandardCopyOption.REPLACE_EXISTING);
+        open();
+    }
+
+    private void closeQuietly() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // Reopened on the next batch
+            }
+            out = null;
+        }
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    // Entries lost to a full buffer or to a failed write
+    public long getDropped() {
+        return buffer.getDropped() + failed.get();
+    }
+
+    // Writes out what is still buffered, then stops the thread
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (!thread.isAlive()) {
+            closeQuietly();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.wongsakron.tasks.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+// Hibernate second-level cache for TaskList, Task and TaskList.tasks, one bounded Caffeine (JCache) region each.
+// Writes through this instance update or evict the entries. The time-to-live bounds how long changes made
+// elsewhere (other instances, the reactive stack, manual SQL) can stay invisible.
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tasks.cache.enabled", havingValue = "true", matchIfMissing = true)
+    public CacheManager hibernateCacheManager(
+            @Value("${tasks.cache.task-lists.max-entries:10000}") long taskListEntries,
+            @Value("${tasks.cache.tasks.max-entries:100000}") long taskEntries,
+            @Value("${tasks.cache.task-list-tasks.max-entries:10000}") long taskListTasksEntries,
+            @Value("${tasks.cache.time-to-live:10m}") Duration timeToLive
+    ) {
+        // One manager per application context rather than the JVM-wide default, tests start several contexts
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("tasks-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(TaskList.CACHE_REGION, region(taskListEntries, timeToLive));
+        cacheManager.createCache(Task.CACHE_REGION, region(taskEntries, timeToLive));
+        cacheManager.createCache(TaskList.TASKS_CACHE_REGION, region(taskListTasksEntries, timeToLive));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(ObjectProvider<CacheManager> hibernateCacheManager) {
+        return properties -> {
+            CacheManager cacheManager = hibernateCacheManager.getIfAvailable();
+            if (cacheManager == null) {
+                properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false); // hibernate-jcache on the classpath would switch it on
+                return;
+            }
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail"); // Every region must be created above, with a size
+            properties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true); // Creating or removing a Task evicts its list's cached tasks
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true); // Published as hibernate.second.level.cache.* metrics
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxEntries, Duration timeToLive) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(timeToLive.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
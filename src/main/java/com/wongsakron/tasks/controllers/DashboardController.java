@@ -0,0 +1,109 @@
+package com.wongsakron.tasks.controllers;
+
+import com.wongsakron.tasks.domain.TaskDueEntry;
+import com.wongsakron.tasks.domain.TaskRollupCount;
+import com.wongsakron.tasks.domain.dto.TaskDashboardDto;
+import com.wongsakron.tasks.domain.dto.TaskDueDto;
+import com.wongsakron.tasks.domain.dto.TaskRollupDto;
+import com.wongsakron.tasks.domain.entities.TaskDueBucket;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import com.wongsakron.tasks.services.TaskDueService;
+import com.wongsakron.tasks.services.TaskRollupService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Task counts served from the rollup counters and due dates from the in-memory due date index, a read never scans the tasks
+@RestController
+public class DashboardController {
+
+    private final TaskRollupService taskRollupService;
+    private final TaskDueService taskDueService;
+
+    public DashboardController(TaskRollupService taskRollupService, TaskDueService taskDueService) {
+        this.taskRollupService = taskRollupService;
+        this.taskDueService = taskDueService;
+    }
+
+    @GetMapping(path = "/dashboard")
+    public TaskDashboardDto getDashboard() {
+        return toDto(null, taskRollupService.getRollup(null));
+    }
+
+    @GetMapping(path = "/task-lists/{task_list_id}/dashboard")
+    public TaskDashboardDto getTaskListDashboard(@PathVariable("task_list_id") UUID taskListId) {
+        return toDto(taskListId, taskRollupService.getRollup(taskListId));
+    }
+
+    @GetMapping(path = "/dashboard/next-due")
+    public List<TaskDueDto> getNextDue(@RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return toDtos(taskDueService.getNextDue(null, limit));
+    }
+
+    @GetMapping(path = "/dashboard/overdue")
+    public List<TaskDueDto> getOverdue(@RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return toDtos(taskDueService.getOverdue(null, limit));
+    }
+
+    @GetMapping(path = "/task-lists/{task_list_id}/dashboard/next-due")
+    public List<TaskDueDto> getTaskListNextDue(
+            @PathVariable("task_list_id") UUID taskListId,
+            @RequestParam(name = "limit", defaultValue = "10") int limit
+    ) {
+        return toDtos(taskDueService.getNextDue(taskListId, limit));
+    }
+
+    @GetMapping(path = "/task-lists/{task_list_id}/dashboard/overdue")
+    public List<TaskDueDto> getTaskListOverdue(
+            @PathVariable("task_list_id") UUID taskListId,
+            @RequestParam(name = "limit", defaultValue = "10") int limit
+    ) {
+        return toDtos(taskDueService.getOverdue(taskListId, limit));
+    }
+
+    private static List<TaskDueDto> toDtos(List<TaskDueEntry> entries) {
+        return entries.stream()
+                .map(entry -> new TaskDueDto(entry.taskListId(), entry.taskId(), entry.title(), entry.dueDate(), entry.priority()))
+                .toList();
+    }
+
+    private static TaskDashboardDto toDto(UUID taskListId, List<TaskRollupCount> rollup) {
+        Map<TaskStatus, Long> byStatus = zeros(TaskStatus.class);
+        Map<TaskPriority, Long> byPriority = zeros(TaskPriority.class);
+        Map<TaskDueBucket, Long> byDueDate = zeros(TaskDueBucket.class);
+        List<TaskRollupDto> counts = new ArrayList<>();
+        long total = 0;
+        long overdueOpen = 0;
+        for (TaskRollupCount row : rollup) {
+            long count = row.count() == null ? 0 : row.count();
+            if (count == 0) {
+                continue;
+            }
+            total += count;
+            byStatus.merge(row.status(), count, Long::sum);
+            byPriority.merge(row.priority(), count, Long::sum);
+            byDueDate.merge(row.dueBucket(), count, Long::sum);
+            if (row.status() == TaskStatus.OPEN && row.dueBucket() == TaskDueBucket.OVERDUE) {
+                overdueOpen += count;
+            }
+            counts.add(new TaskRollupDto(row.status(), row.priority(), row.dueBucket(), count));
+        }
+        return new TaskDashboardDto(taskListId, total, byStatus, byPriority, byDueDate, overdueOpen, counts);
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> zeros(Class<E> type) {
+        Map<E, Long> map = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            map.put(value, 0L);
+        }
+        return map;
+    }
+}
@@ -1,8 +1,10 @@
 package com.wongsakron.tasks.controllers;
 
 import com.wongsakron.tasks.domain.dto.ErrorResponse;
+import com.wongsakron.tasks.web.IdempotencyConflictException;
 import jakarta.validation.ConstraintViolationException;
-import org.springframework.boot.autoconfigure.graphql.GraphQlProperties;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -33,6 +35,34 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
     }
 
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorResponse> handleConflict(
+            IdempotencyConflictException ex,
+            WebRequest request
+    ){
+        var body = new ErrorResponse(HttpStatus.CONFLICT.value(), ex.getMessage(), request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    @ExceptionHandler(UnsupportedOperationException.class)
+    public ResponseEntity<ErrorResponse> handleNotImplemented(
+            UnsupportedOperationException ex,
+            WebRequest request
+    ){
+        var body = new ErrorResponse(HttpStatus.NOT_IMPLEMENTED.value(), ex.getMessage(), request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body(body);
+    }
+
+    // Deadlock victim or lock timeout: the transaction was rolled back and can simply be retried
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleLockFailure(
+            PessimisticLockingFailureException ex,
+            WebRequest request
+    ){
+        var body = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "Conflicting concurrent write, please retry!", request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(body);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleBeanValidation(
             MethodArgumentNotValidException ex,
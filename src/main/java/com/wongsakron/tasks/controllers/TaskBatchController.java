@@ -0,0 +1,52 @@
+package com.wongsakron.tasks.controllers;
+
+import com.wongsakron.tasks.domain.TaskKey;
+import com.wongsakron.tasks.domain.dto.MultiGetTasksRequest;
+import com.wongsakron.tasks.domain.dto.MultiGetTasksResponse;
+import com.wongsakron.tasks.domain.dto.TaskDto;
+import com.wongsakron.tasks.domain.dto.TaskRefDto;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.mappers.TaskMapper;
+import com.wongsakron.tasks.services.TaskService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping(path = "/tasks")
+public class TaskBatchController {
+
+    private final TaskService taskService;
+    private final TaskMapper taskMapper;
+
+    public TaskBatchController(TaskService taskService, TaskMapper taskMapper) {
+        this.taskService = taskService;
+        this.taskMapper = taskMapper;
+    }
+
+    // Fetches many tasks across lists in one round trip instead of one GET per task
+    @PostMapping(path = "/multi-get")
+    public MultiGetTasksResponse multiGetTasks(@RequestBody MultiGetTasksRequest request) {
+        if (request == null || request.items() == null) {
+            throw new IllegalArgumentException("At least one task must be requested!");
+        }
+        List<TaskRefDto> items = request.items();
+        List<Optional<Task>> results = taskService.getTasks(items.stream()
+                .map(item -> item == null ? null : new TaskKey(item.taskListId(), item.taskId()))
+                .toList());
+
+        List<TaskDto> tasks = new ArrayList<>();
+        List<TaskRefDto> missing = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            Optional<Task> result = results.get(i);
+            if (result.isPresent()) {
+                tasks.add(taskMapper.toDto(result.get()));
+            } else {
+                missing.add(items.get(i));
+            }
+        }
+        return new MultiGetTasksResponse(tasks, missing);
+    }
+}
@@ -0,0 +1,67 @@
+package com.wongsakron.tasks.controllers;
+
+import com.wongsakron.tasks.domain.TaskExportProgress;
+import com.wongsakron.tasks.domain.dto.TaskExportDto;
+import com.wongsakron.tasks.domain.dto.TaskExportRequest;
+import com.wongsakron.tasks.services.TaskExportService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+// Exports run in the background: POST starts one, GET polls its progress, download streams the finished ZIP
+@RestController
+@RequestMapping(path = "/exports")
+public class TaskExportController {
+
+    private static final MediaType APPLICATION_ZIP = MediaType.parseMediaType("application/zip");
+
+    private final TaskExportService taskExportService;
+
+    public TaskExportController(TaskExportService taskExportService) {
+        this.taskExportService = taskExportService;
+    }
+
+    @PostMapping
+    public TaskExportDto startExport(@RequestBody(required = false) TaskExportRequest request) {
+        return toDto(taskExportService.startExport(request == null ? null : request.taskListIds()));
+    }
+
+    @GetMapping(path = "/{export_id}")
+    public TaskExportDto getExport(@PathVariable("export_id") UUID exportId) {
+        return taskExportService.getExport(exportId)
+                .map(this::toDto)
+                .orElseThrow(() -> new IllegalStateException("Export not found!"));
+    }
+
+    @GetMapping(path = "/{export_id}/download")
+    public ResponseEntity<Resource> downloadExport(@PathVariable("export_id") UUID exportId) {
+        FileSystemResource file = new FileSystemResource(taskExportService.getExportFile(exportId));
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_ZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("tasks-" + exportId + ".zip")
+                        .build()
+                        .toString())
+                .body(file);
+    }
+
+    private TaskExportDto toDto(TaskExportProgress progress) {
+        return new TaskExportDto(
+                progress.id(),
+                progress.state(),
+                progress.totalLists(),
+                progress.exportedLists(),
+                progress.skippedLists(),
+                progress.bytes(),
+                progress.started(),
+                progress.finished(),
+                progress.error()
+        );
+    }
+}
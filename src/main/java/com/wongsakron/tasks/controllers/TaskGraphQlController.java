@@ -0,0 +1,89 @@
+package com.wongsakron.tasks.controllers;
+
+import com.wongsakron.tasks.domain.TaskCounts;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.services.TaskListService;
+import com.wongsakron.tasks.services.TaskService;
+import org.dataloader.DataLoader;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// GraphQL API over task lists and tasks. Nested fields are resolved through DataLoaders,
+// so each level of the query costs one database query no matter how many lists or tasks it returns.
+@Controller
+public class TaskGraphQlController {
+
+    private final TaskListService taskListService;
+    private final TaskService taskService;
+
+    public TaskGraphQlController(TaskListService taskListService, TaskService taskService, BatchLoaderRegistry registry) {
+        this.taskListService = taskListService;
+        this.taskService = taskService;
+
+        // Loaders are keyed by UUID rather than by entity, so batching never hashes (and lazily loads) an entity.
+        // count and progress share one loader, so asking for both still runs a single count query.
+        registry.forTypePair(UUID.class, TaskCounts.class)
+                .withName("taskCounts")
+                .registerMappedBatchLoader((taskListIds, env) -> Mono.fromSupplier(() -> taskService.countTasks(taskListIds)));
+
+        registry.<UUID, List<Task>>forName("tasksByTaskListId")
+                .registerMappedBatchLoader((taskListIds, env) -> Mono.fromSupplier(() -> taskService.listTasks(taskListIds)));
+
+        registry.forTypePair(UUID.class, TaskList.class)
+                .withName("taskListsById")
+                .registerMappedBatchLoader((taskListIds, env) -> Mono.fromSupplier(() -> taskListService.getTaskLists(taskListIds)
+                        .stream()
+                        .collect(Collectors.toMap(TaskList::getId, Function.identity()))));
+    }
+
+    @QueryMapping
+    public List<TaskList> taskLists() {
+        return taskListService.listTaskLists();
+    }
+
+    @QueryMapping
+    public Optional<TaskList> taskList(@Argument UUID id) {
+        return taskListService.getTaskList(id);
+    }
+
+    @QueryMapping
+    public Optional<Task> task(@Argument UUID taskListId, @Argument UUID id) {
+        return taskService.getTask(taskListId, id);
+    }
+
+    @SchemaMapping(typeName = "TaskList")
+    public CompletableFuture<Long> count(TaskList taskList, DataLoader<UUID, TaskCounts> taskCounts) {
+        return taskCounts.load(taskList.getId()).thenApply(counts -> counts.withArchived(taskList.getArchivedTaskCount()).total());
+    }
+
+    @SchemaMapping(typeName = "TaskList")
+    public CompletableFuture<Double> progress(TaskList taskList, DataLoader<UUID, TaskCounts> taskCounts) {
+        return taskCounts.load(taskList.getId()).thenApply(counts -> counts.withArchived(taskList.getArchivedTaskCount()).progress());
+    }
+
+    @SchemaMapping(typeName = "TaskList")
+    public CompletableFuture<List<Task>> tasks(TaskList taskList, DataLoader<UUID, List<Task>> tasksByTaskListId) {
+        return tasksByTaskListId.load(taskList.getId());
+    }
+
+    @SchemaMapping(typeName = "Task")
+    public CompletableFuture<TaskList> taskList(Task task, DataLoader<UUID, TaskList> taskListsById) {
+        if (task.getTaskList() == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return taskListsById.load(task.getTaskList().getId()); // Reads the id from the lazy proxy without loading the list
+    }
+}
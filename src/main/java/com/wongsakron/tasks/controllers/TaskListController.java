@@ -4,6 +4,8 @@ import com.wongsakron.tasks.domain.dto.TaskListDto;
 import com.wongsakron.tasks.domain.entities.TaskList;
 import com.wongsakron.tasks.mappers.TaskListMapper;
 import com.wongsakron.tasks.services.TaskListService;
+import com.wongsakron.tasks.web.IdempotencyStore;
+import com.wongsakron.tasks.web.SingleFlight;
 import org.springframework.web.bind.annotation.*;
 
 import javax.swing.text.html.Option;
@@ -17,33 +19,48 @@ public class TaskListController {
 
     private final TaskListService taskListService;
     private final TaskListMapper taskListMapper;
+    private final IdempotencyStore idempotencyStore;
+    private final SingleFlight<UUID, Optional<TaskListDto>> taskListReads;
 
-    public TaskListController(TaskListService taskListService, TaskListMapper taskListMapper) {
+    public TaskListController(
+            TaskListService taskListService,
+            TaskListMapper taskListMapper,
+            IdempotencyStore idempotencyStore,
+            SingleFlight<UUID, Optional<TaskListDto>> taskListReads
+    ) {
         this.taskListService = taskListService;
         this.taskListMapper = taskListMapper;
+        this.idempotencyStore = idempotencyStore;
+        this.taskListReads = taskListReads;
     }
 
     @GetMapping
     public List<TaskListDto> listTaskLists() {
         // get task lists and convert to DTOs
-        return taskListService.listTaskLists()
+        return taskListService.listTaskListsWithTasks()
                 .stream() // Stream the list of TaskList entities
                 .map(taskListMapper::toDto) // Convert TaskList entities to TaskListDto
                 .toList(); // Collect the converted DTOs into a list
     }
 
     @PostMapping
-    public TaskListDto createTaskList(@RequestBody TaskListDto taskListDto) {
-        TaskList createdTaskList = taskListService.createTaskList(
-                taskListMapper.fromDto(taskListDto)
-        ); // Convert TaskListDto to TaskList entity and create a new task list
-        return taskListMapper.toDto(createdTaskList); // Convert the created TaskList entity back to TaskListDto for the response
+    public TaskListDto createTaskList(
+            @RequestBody TaskListDto taskListDto,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey
+    ) {
+        return idempotencyStore.execute(idempotencyKey, "POST /task-lists", taskListDto, () -> {
+            TaskList createdTaskList = taskListService.createTaskList(
+                    taskListMapper.fromDto(taskListDto)
+            ); // Convert TaskListDto to TaskList entity and create a new task list
+            return taskListMapper.toDto(createdTaskList); // Convert the created TaskList entity back to TaskListDto for the response
+        });
     }
 
     @GetMapping(path = "/{task_list_id}")
     public Optional<TaskListDto> getTaskList(@PathVariable("task_list_id") UUID taskListId){
-        return taskListService.getTaskList(taskListId)
-                .map(taskListMapper::toDto); // Retrieve a task list by its ID and convert it to TaskListDto
+        // Concurrent requests for the same list share one load and one mapped result
+        return taskListReads.execute(taskListId, () -> taskListService.getTaskListWithTasks(taskListId)
+                .map(taskListMapper::toDto)); // Retrieve a task list by its ID and convert it to TaskListDto
     }
 
 
@@ -65,6 +82,11 @@ public class TaskListController {
         taskListService.deleteTaskList(taskListId);
     }
 
+    @PostMapping(path = "/{task_list_id}/restore")
+    public TaskListDto restoreTaskList(@PathVariable("task_list_id") UUID taskListId) {
+        return taskListMapper.toDto(taskListService.restoreTaskList(taskListId)); // Undoes a delete until the list is purged
+    }
+
     // dto is a Data Transfer Object, which is used to transfer data between layers of the application.
     // between the controller and the service layer, we use DTOs to avoid exposing the internal entity structure directly.
 }
@@ -0,0 +1,40 @@
+package com.wongsakron.tasks.controllers;
+
+import com.wongsakron.tasks.domain.TaskSnapshotSummary;
+import com.wongsakron.tasks.domain.dto.TaskSnapshotDto;
+import com.wongsakron.tasks.services.TaskSnapshotService;
+import org.springframework.web.bind.annotation.*;
+
+// Whole-database backup and restore, e.g. to refresh a staging environment from production far faster than the REST API
+@RestController
+@RequestMapping(path = "/snapshots")
+public class TaskSnapshotController {
+
+    private final TaskSnapshotService taskSnapshotService;
+
+    public TaskSnapshotController(TaskSnapshotService taskSnapshotService) {
+        this.taskSnapshotService = taskSnapshotService;
+    }
+
+    @PostMapping
+    public TaskSnapshotDto createSnapshot() {
+        return toDto(taskSnapshotService.createSnapshot());
+    }
+
+    @PostMapping(path = "/{name}/restore")
+    public TaskSnapshotDto restoreSnapshot(@PathVariable("name") String name) {
+        return toDto(taskSnapshotService.restoreSnapshot(name));
+    }
+
+    private TaskSnapshotDto toDto(TaskSnapshotSummary summary) {
+        return new TaskSnapshotDto(
+                summary.name(),
+                summary.taskLists(),
+                summary.tasks(),
+                summary.archivedTasks(),
+                summary.hierarchyLinks(),
+                summary.bytes(),
+                summary.millis()
+        );
+    }
+}
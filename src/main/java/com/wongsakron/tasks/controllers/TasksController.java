@@ -1,14 +1,34 @@
 package com.wongsakron.tasks.controllers;
 
+import com.wongsakron.tasks.domain.TaskCounts;
+import com.wongsakron.tasks.domain.TaskFilter;
+import com.wongsakron.tasks.domain.TaskKey;
+import com.wongsakron.tasks.domain.TaskTagQuery;
+import com.wongsakron.tasks.domain.dto.BulkUpdateTasksRequest;
+import com.wongsakron.tasks.domain.dto.BulkUpdateTasksResponse;
+import com.wongsakron.tasks.domain.dto.MoveSubtreeRequest;
+import com.wongsakron.tasks.domain.dto.MoveTaskRequest;
 import com.wongsakron.tasks.domain.dto.TaskDto;
+import com.wongsakron.tasks.domain.dto.TaskFilterDto;
+import com.wongsakron.tasks.domain.dto.TaskProgressDto;
 import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
 import com.wongsakron.tasks.mappers.TaskMapper;
+import com.wongsakron.tasks.services.TaskHierarchyService;
+import com.wongsakron.tasks.services.TaskRankService;
+import com.wongsakron.tasks.services.TaskSearchService;
 import com.wongsakron.tasks.services.TaskService;
+import com.wongsakron.tasks.web.IdempotencyStore;
+import com.wongsakron.tasks.web.SingleFlight;
+import com.wongsakron.tasks.web.SingleFlightConfig.TaskListingKey;
+import com.wongsakron.tasks.web.TaskCreateBatcher;
 import org.springframework.web.bind.annotation.*;
 
 import javax.swing.text.html.Option;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -16,34 +36,85 @@ import java.util.UUID;
 public class TasksController {
 
     private final TaskService taskService;
+    private final TaskRankService taskRankService;
+    private final TaskHierarchyService taskHierarchyService;
+    private final TaskSearchService taskSearchService;
     private final TaskMapper taskMapper;
+    private final IdempotencyStore idempotencyStore;
+    private final SingleFlight<TaskListingKey, List<TaskDto>> taskListingReads;
+    private final SingleFlight<TaskKey, Optional<TaskDto>> taskReads;
+    private final TaskCreateBatcher taskCreateBatcher;
 
-    public TasksController(TaskService taskService, TaskMapper taskMapper) {
+    public TasksController(
+            TaskService taskService,
+            TaskRankService taskRankService,
+            TaskHierarchyService taskHierarchyService,
+            TaskSearchService taskSearchService,
+            TaskMapper taskMapper,
+            IdempotencyStore idempotencyStore,
+            SingleFlight<TaskListingKey, List<TaskDto>> taskListingReads,
+            SingleFlight<TaskKey, Optional<TaskDto>> taskReads,
+            TaskCreateBatcher taskCreateBatcher
+    ) {
         this.taskService = taskService;
+        this.taskRankService = taskRankService;
+        this.taskHierarchyService = taskHierarchyService;
+        this.taskSearchService = taskSearchService;
         this.taskMapper = taskMapper;
+        this.idempotencyStore = idempotencyStore;
+        this.taskListingReads = taskListingReads;
+        this.taskReads = taskReads;
+        this.taskCreateBatcher = taskCreateBatcher;
     }
 
     @GetMapping
-    public List<TaskDto> listTasks(@PathVariable("task_list_id") UUID taskListId) {
-        return taskService.listTasks(taskListId)
-                .stream() // Streams the list of Task entities
-                .map(taskMapper::toDto)  // Converts Task entities to TaskDto
-                .toList(); // Retrieves all tasks for a specific task list and converts them to DTOs
+    public List<TaskDto> listTasks(
+            @PathVariable("task_list_id") UUID taskListId,
+            @RequestParam(name = "includeArchived", defaultValue = "false") boolean includeArchived
+    ) {
+        // Concurrent requests for the same list share one query and one mapped result
+        return taskListingReads.execute(new TaskListingKey(taskListId, includeArchived), () ->
+                taskService.listTasks(taskListId, includeArchived)
+                        .stream() // Streams the list of Task entities
+                        .map(taskMapper::toDto)  // Converts Task entities to TaskDto
+                        .toList()); // Retrieves all tasks for a specific task list and converts them to DTOs
+    }
+
+    // ?tag=a&tag=b (all of), ?anyTag=c&anyTag=d (at least one), ?notTag=e (none of), plus optional status and priority
+    @GetMapping(path = "/search")
+    public List<TaskDto> searchTasks(
+            @PathVariable("task_list_id") UUID taskListId,
+            @RequestParam(name = "tag", required = false) Set<String> tags,
+            @RequestParam(name = "anyTag", required = false) Set<String> anyTags,
+            @RequestParam(name = "notTag", required = false) Set<String> notTags,
+            @RequestParam(name = "status", required = false) TaskStatus status,
+            @RequestParam(name = "priority", required = false) TaskPriority priority
+    ) {
+        return taskSearchService.searchTasks(taskListId, new TaskTagQuery(tags, anyTags, notTags, status, priority)).stream()
+                .map(taskMapper::toDto)
+                .toList();
     }
 
     @PostMapping
-    public TaskDto createTask(@PathVariable("task_list_id") UUID taskListId, @RequestBody TaskDto taskDto) {
-        Task createdTask = taskService.createTask(
-                taskListId,
-                taskMapper.fromDto(taskDto)
-        );
-        return taskMapper.toDto(createdTask); // Converts the created Task entity back to TaskDto for the response
+    public TaskDto createTask(
+            @PathVariable("task_list_id") UUID taskListId,
+            @RequestBody TaskDto taskDto,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey
+    ) {
+        // A retried request with the same key gets the first response back instead of a second task
+        return idempotencyStore.execute(idempotencyKey, "POST /task-lists/" + taskListId + "/tasks", taskDto, () -> {
+            Task createdTask = taskCreateBatcher.create( // Shares a transaction with concurrent creates when batching is enabled
+                    taskListId,
+                    taskMapper.fromDto(taskDto)
+            );
+            return taskMapper.toDto(createdTask); // Converts the created Task entity back to TaskDto for the response
+        });
     }
 
     @GetMapping(path = "/{task_id}")
     public Optional<TaskDto> getTask(@PathVariable("task_list_id") UUID taskListId, @PathVariable("task_id") UUID taskId) {
-        return taskService.getTask(taskListId, taskId)
-                .map(taskMapper::toDto);
+        return taskReads.execute(new TaskKey(taskListId, taskId), () -> taskService.getTask(taskListId, taskId)
+                .map(taskMapper::toDto));
     }
 
     @PutMapping(path = "/{task_id}")
@@ -61,6 +132,61 @@ public class TasksController {
         return taskMapper.toDto(updatedTask); // Converts the updated Task entity back to TaskDto for the response
     }
 
+    // Changes every matching task of the list with one UPDATE instead of one PUT per task
+    @PatchMapping
+    public BulkUpdateTasksResponse bulkUpdateTasks(
+            @PathVariable("task_list_id") UUID taskListId,
+            @RequestBody BulkUpdateTasksRequest request
+    ) {
+        TaskFilterDto filter = request.filter();
+        int updated = taskService.bulkUpdateTasks(
+                taskListId,
+                null == filter ? null : new TaskFilter(filter.status(), filter.priority(), filter.dueBefore()),
+                request.status(),
+                request.priority()
+        );
+        return new BulkUpdateTasksResponse(updated);
+    }
+
+    // Drag and drop: only the moved task gets a new rank, the rest of the list is untouched
+    @PostMapping(path = "/{task_id}/move")
+    public TaskDto moveTask(
+            @PathVariable("task_list_id") UUID taskListId,
+            @PathVariable("task_id") UUID taskId,
+            @RequestBody MoveTaskRequest request
+    ) {
+        return taskMapper.toDto(taskRankService.moveTask(taskListId, taskId, request.afterTaskId()));
+    }
+
+    // The task first, then its sub-tasks level by level; each carries parentId to rebuild the tree
+    @GetMapping(path = "/{task_id}/subtree")
+    public List<TaskDto> getSubtree(
+            @PathVariable("task_list_id") UUID taskListId,
+            @PathVariable("task_id") UUID taskId
+    ) {
+        return taskHierarchyService.getSubtree(taskListId, taskId).stream()
+                .map(taskMapper::toDto)
+                .toList();
+    }
+
+    @GetMapping(path = "/{task_id}/progress")
+    public TaskProgressDto getSubtreeProgress(
+            @PathVariable("task_list_id") UUID taskListId,
+            @PathVariable("task_id") UUID taskId
+    ) {
+        TaskCounts counts = taskHierarchyService.countSubtree(taskListId, taskId);
+        return new TaskProgressDto(counts.total(), counts.closed(), counts.progress());
+    }
+
+    @PutMapping(path = "/{task_id}/parent")
+    public TaskDto moveSubtree(
+            @PathVariable("task_list_id") UUID taskListId,
+            @PathVariable("task_id") UUID taskId,
+            @RequestBody MoveSubtreeRequest request
+    ) {
+        return taskMapper.toDto(taskHierarchyService.moveSubtree(taskListId, taskId, request.parentId())); // Sub-tasks move along
+    }
+
     @DeleteMapping(path = "/{task_id}")
     public void deleteTask(
             @PathVariable("task_list_id") UUID taskListId,
@@ -68,4 +194,12 @@ public class TasksController {
     ){
         taskService.deleteTask(taskListId,taskId);
     }
+
+    @PostMapping(path = "/{task_id}/restore")
+    public TaskDto restoreTask(
+            @PathVariable("task_list_id") UUID taskListId,
+            @PathVariable("task_id") UUID taskId
+    ) {
+        return taskMapper.toDto(taskService.restoreTask(taskListId, taskId)); // Undoes a delete until the task is purged
+    }
 }
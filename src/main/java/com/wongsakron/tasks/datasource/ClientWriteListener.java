@@ -0,0 +1,22 @@
+package com.wongsakron.tasks.datasource;
+
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+// Records the calling client's write once its transaction has committed, so the client's next reads skip data
+// loaded before the write. Called by the transaction manager for each transaction it starts, not for joined ones.
+public class ClientWriteListener implements TransactionExecutionListener {
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ClientWriteListener(ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure == null && !transaction.isReadOnly()) {
+            readYourWritesTracker.recordWrite(RoutingClientHolder.get()); // Null off request threads, e.g. the batcher's writers
+        }
+    }
+}
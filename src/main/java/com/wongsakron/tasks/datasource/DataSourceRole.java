@@ -0,0 +1,5 @@
+package com.wongsakron.tasks.datasource;
+
+public enum DataSourceRole {
+    PRIMARY, REPLICA
+}
@@ -0,0 +1,35 @@
+package com.wongsakron.tasks.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+// Client writes are tracked with or without a replica: replica routing keeps a client that just wrote on the primary,
+// read coalescing (SingleFlight) keeps it out of loads that may have started before its write.
+@Configuration
+public class ReadYourWritesConfig {
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${tasks.datasource.routing.sticky-window:5s}") Duration stickyWindow
+    ) {
+        return new ReadYourWritesTracker(stickyWindow);
+    }
+
+    // Picked up by Spring Boot's transaction manager customizer
+    @Bean
+    public ClientWriteListener clientWriteListener(ReadYourWritesTracker readYourWritesTracker) {
+        return new ClientWriteListener(readYourWritesTracker);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RoutingClientFilter> routingClientFilter() {
+        FilterRegistrationBean<RoutingClientFilter> registration = new FilterRegistrationBean<>(new RoutingClientFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
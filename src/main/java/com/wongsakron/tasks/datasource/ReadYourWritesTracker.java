@@ -0,0 +1,51 @@
+package com.wongsakron.tasks.datasource;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Remembers when each client last wrote, so its reads stay on the primary until the replica has caught up.
+public class ReadYourWritesTracker {
+
+    private final long windowNanos;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void recordWrite(String clientKey) {
+        if (clientKey == null || windowNanos <= 0) {
+            return;
+        }
+        lastWrites.put(clientKey, System.nanoTime());
+    }
+
+    public boolean isSticky(String clientKey) {
+        if (clientKey == null) {
+            return false;
+        }
+        Long lastWrite = lastWrites.get(clientKey);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.nanoTime() - lastWrite < windowNanos) {
+            return true;
+        }
+        lastWrites.remove(clientKey, lastWrite); // Window is over, forget the client
+        return false;
+    }
+
+    // Drops clients whose window has expired so the map stays bounded by the number of recent writers
+    @Scheduled(fixedDelayString = "${tasks.datasource.routing.sticky-window:5s}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        lastWrites.entrySet().removeIf(entry -> now - entry.getValue() >= windowNanos);
+    }
+
+    public int size() {
+        return lastWrites.size();
+    }
+}
@@ -0,0 +1,63 @@
+package com.wongsakron.tasks.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+
+// Periodically measures how far the replica is behind the primary and marks it unusable when lag is too high.
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replica;
+    private final String lagQuery; // Must return the lag in seconds, blank means "only check connectivity"
+    private final Duration maxLag;
+
+    private volatile boolean replicaUsable = true;
+    private volatile Duration lastLag = Duration.ZERO;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public Duration getLastLag() {
+        return lastLag;
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.datasource.routing.lag-check-interval:5s}")
+    public void check() {
+        try (Connection connection = replica.getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                lastLag = Duration.ZERO;
+                replicaUsable = connection.isValid(1);
+                return;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                double seconds = rs.next() ? rs.getDouble(1) : 0d; // NULL means nothing to replay yet
+                lastLag = Duration.ofMillis((long) (seconds * 1000));
+                replicaUsable = lastLag.compareTo(maxLag) <= 0;
+            }
+        } catch (Exception ex) {
+            log.warn("Replica lag check failed, routing reads to primary: {}", ex.getMessage());
+            replicaUsable = false;
+        }
+    }
+
+    // Used by tests and operators to force traffic back to the primary
+    public void markUnusable() {
+        replicaUsable = false;
+    }
+}
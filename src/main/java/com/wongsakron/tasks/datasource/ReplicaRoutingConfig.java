@@ -0,0 +1,71 @@
+package com.wongsakron.tasks.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Only active when a replica is configured, otherwise Spring Boot's single datasource is used as before.
+// Client writes are tracked either way (ReadYourWritesConfig).
+@Configuration
+@ConditionalOnProperty(prefix = "tasks.datasource.replica", name = "jdbc-url")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("tasks.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return DataSourceBuilder.create().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${tasks.datasource.routing.lag-query:}") String lagQuery,
+            @Value("${tasks.datasource.routing.max-lag:5s}") Duration maxLag
+    ) {
+        return new ReplicaLagMonitor(replica, lagQuery, maxLag);
+    }
+
+    // Not named dataSource: SQL tracing (jdbc.excluded-data-source-bean-names) instruments the pools behind it instead,
+    // instrumenting the lazy proxy would fetch its connection before the read-only flag is set
+    @Bean
+    @Primary
+    public DataSource routingDataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            ReadYourWritesTracker readYourWritesTracker,
+            ReplicaLagMonitor replicaLagMonitor
+    ) {
+        // Lazy proxy defers fetching the connection until the transaction's read-only flag is set
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, readYourWritesTracker, replicaLagMonitor)
+        );
+    }
+
+    // Routing happens when a connection is fetched, so a session must not keep its connection from one transaction
+    // to the next: a write after a read-only transaction in the same session would otherwise run on the replica.
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -0,0 +1,59 @@
+package com.wongsakron.tasks.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Sends read-only transactions to the replica and everything else to the primary.
+// Must be wrapped in a LazyConnectionDataSourceProxy so the read-only flag is known when the connection is fetched.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRoutingDataSource(
+            DataSource primary,
+            DataSource replica,
+            ReadYourWritesTracker readYourWritesTracker,
+            ReplicaLagMonitor lagMonitor
+    ) {
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentRole();
+    }
+
+    public DataSourceRole currentRole() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return DataSourceRole.PRIMARY; // Schema setup and anything outside a transaction stays on primary
+        }
+
+        String clientKey = RoutingClientHolder.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                // The window starts once the write is visible, not when the connection is fetched
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        readYourWritesTracker.recordWrite(clientKey);
+                    }
+                });
+            }
+            return DataSourceRole.PRIMARY;
+        }
+
+        if (readYourWritesTracker.isSticky(clientKey) || !lagMonitor.isReplicaUsable()) {
+            return DataSourceRole.PRIMARY; // Client just wrote or replica is behind, read from primary
+        }
+        return DataSourceRole.REPLICA;
+    }
+}
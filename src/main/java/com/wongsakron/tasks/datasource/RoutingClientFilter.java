@@ -0,0 +1,34 @@
+package com.wongsakron.tasks.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Identifies the calling client so its reads can stick to the primary right after it writes.
+public class RoutingClientFilter extends OncePerRequestFilter {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        String clientKey = request.getHeader(CLIENT_ID_HEADER);
+        if (clientKey == null || clientKey.isBlank()) {
+            clientKey = request.getRemoteAddr(); // Fall back to the caller address
+        }
+
+        RoutingClientHolder.set(clientKey);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RoutingClientHolder.clear();
+        }
+    }
+}
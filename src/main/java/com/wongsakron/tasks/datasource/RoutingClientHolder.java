@@ -0,0 +1,22 @@
+package com.wongsakron.tasks.datasource;
+
+// Holds the key of the client behind the current request thread, used for read-your-writes stickiness.
+public final class RoutingClientHolder {
+
+    private static final ThreadLocal<String> CLIENT_KEY = new ThreadLocal<>();
+
+    private RoutingClientHolder() {
+    }
+
+    public static void set(String clientKey) {
+        CLIENT_KEY.set(clientKey);
+    }
+
+    public static String get() {
+        return CLIENT_KEY.get();
+    }
+
+    public static void clear() {
+        CLIENT_KEY.remove();
+    }
+}
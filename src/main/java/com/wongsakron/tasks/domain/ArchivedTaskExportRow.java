@@ -0,0 +1,12 @@
+package com.wongsakron.tasks.domain;
+
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// An archived task as written to an export, read with a projection like TaskExportRow.
+public record ArchivedTaskExportRow(UUID id, String title, String description, LocalDateTime dueDate, TaskPriority priority,
+                                    TaskStatus status, LocalDateTime created, LocalDateTime updated, LocalDateTime archived) {
+}
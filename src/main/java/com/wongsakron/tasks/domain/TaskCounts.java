@@ -0,0 +1,16 @@
+package com.wongsakron.tasks.domain;
+
+// Task totals of one task list, computed in the database instead of loading the tasks.
+public record TaskCounts(long total, long closed) {
+
+    public static final TaskCounts EMPTY = new TaskCounts(0, 0);
+
+    // Archived tasks are always CLOSED, the list keeps their number so they need no query of their own
+    public TaskCounts withArchived(int archivedTaskCount) {
+        return archivedTaskCount == 0 ? this : new TaskCounts(total + archivedTaskCount, closed + archivedTaskCount);
+    }
+
+    public Double progress() {
+        return total == 0 ? null : (double) closed / total; // Same ratio as TaskListMapperImpl, null for an empty list
+    }
+}
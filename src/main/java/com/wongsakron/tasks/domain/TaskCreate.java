@@ -0,0 +1,9 @@
+package com.wongsakron.tasks.domain;
+
+import com.wongsakron.tasks.domain.entities.Task;
+
+import java.util.UUID;
+
+// One task to create in a batch, the same arguments TaskService.createTask takes.
+public record TaskCreate(UUID taskListId, Task task) {
+}
@@ -0,0 +1,23 @@
+package com.wongsakron.tasks.domain;
+
+import com.wongsakron.tasks.domain.entities.Task;
+
+// Outcome of one create in a batch: the saved task, or the exception createTask would have thrown for it.
+public record TaskCreateResult(Task task, RuntimeException error) {
+
+    public static TaskCreateResult created(Task task) {
+        return new TaskCreateResult(task, null);
+    }
+
+    public static TaskCreateResult failed(RuntimeException error) {
+        return new TaskCreateResult(null, error);
+    }
+
+    // The saved task, or the error thrown as createTask would have
+    public Task getOrThrow() {
+        if (error != null) {
+            throw error;
+        }
+        return task;
+    }
+}
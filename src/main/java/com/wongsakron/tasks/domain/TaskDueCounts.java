@@ -0,0 +1,14 @@
+package com.wongsakron.tasks.domain;
+
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+
+import java.util.UUID;
+
+// Row of a "count tasks per list, status and priority by due bucket" query, the source a rollup is rebuilt from.
+public record TaskDueCounts(UUID taskListId, TaskStatus status, TaskPriority priority, Long noDueDate, Long overdue, Long upcoming) {
+
+    public TaskDueCounts(TaskStatus status, TaskPriority priority, Long noDueDate, Long overdue, Long upcoming) {
+        this(null, status, priority, noDueDate, overdue, upcoming); // Totals across all lists
+    }
+}
@@ -0,0 +1,21 @@
+package com.wongsakron.tasks.domain;
+
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// A task as the due date index keeps it, with the title so due-date widgets are served without loading the task.
+public record TaskDueEntry(UUID taskId, UUID taskListId, String title, TaskStatus status, TaskPriority priority, LocalDateTime dueDate) {
+
+    public static TaskDueEntry of(UUID taskListId, Task task) {
+        return new TaskDueEntry(task.getId(), taskListId, task.getTitle(), task.getStatus(), task.getPriority(), task.getDueDate());
+    }
+
+    // Only OPEN tasks with a due date are indexed, which bounds the index by the open work instead of all tasks
+    public boolean isTracked() {
+        return status == TaskStatus.OPEN && dueDate != null && priority != null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.wongsakron.tasks.domain;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Point-in-time view of a running or finished export.
+public record TaskExportProgress(UUID id, State state, int totalLists, int exportedLists, int skippedLists, long bytes,
+                                 LocalDateTime started, LocalDateTime finished, String error) {
+
+    public enum State {
+        RUNNING, DONE, FAILED
+    }
+}
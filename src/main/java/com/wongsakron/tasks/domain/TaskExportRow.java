@@ -0,0 +1,18 @@
+package com.wongsakron.tasks.domain;
+
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+// A task as written to an export, read with a projection so exports neither load entities nor fill the second-level cache.
+public record TaskExportRow(UUID id, String title, String description, LocalDateTime dueDate, TaskPriority priority, TaskStatus status,
+                            UUID parentId, Set<String> tags, LocalDateTime created, LocalDateTime updated) {
+
+    public TaskExportRow(UUID id, String title, String description, LocalDateTime dueDate, TaskPriority priority, TaskStatus status,
+                         UUID parentId, String tags, LocalDateTime created, LocalDateTime updated) {
+        this(id, title, description, dueDate, priority, status, parentId, TaskTags.parse(tags), created, updated); // Column form, see TaskTags
+    }
+}
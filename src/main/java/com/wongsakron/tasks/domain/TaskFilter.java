@@ -0,0 +1,12 @@
+package com.wongsakron.tasks.domain;
+
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+
+import java.time.LocalDateTime;
+
+// Selects the tasks of a list for a bulk change, null fields match every task.
+public record TaskFilter(TaskStatus status, TaskPriority priority, LocalDateTime dueBefore) {
+
+    public static final TaskFilter ALL = new TaskFilter(null, null, null);
+}
@@ -0,0 +1,20 @@
+package com.wongsakron.tasks.domain;
+
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+
+import java.util.Set;
+import java.util.UUID;
+
+// The fields of a task the tag index filters on, read with a projection instead of loading entities.
+public record TaskIndexEntry(UUID taskId, UUID taskListId, TaskStatus status, TaskPriority priority, String tags) {
+
+    public static TaskIndexEntry of(UUID taskListId, Task task) {
+        return new TaskIndexEntry(task.getId(), taskListId, task.getStatus(), task.getPriority(), TaskTags.join(task.getTags()));
+    }
+
+    public Set<String> tagSet() {
+        return TaskTags.parse(tags);
+    }
+}
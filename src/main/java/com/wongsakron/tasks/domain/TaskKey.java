@@ -0,0 +1,7 @@
+package com.wongsakron.tasks.domain;
+
+import java.util.UUID;
+
+// Identifies a task together with the task list it must belong to.
+public record TaskKey(UUID taskListId, UUID taskId) {
+}
@@ -0,0 +1,136 @@
+package com.wongsakron.tasks.domain;
+
+import com.wongsakron.tasks.domain.entities.Task;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Fractional rank keys for the user-defined order of tasks within a list. Keys are base-36 strings ("0-9a-z")
+// compared character by character, so a key between any two others always exists and a move rewrites one row.
+// Only ASCII digits and lowercase letters are used, which sort the same under every database collation.
+// Keys never end in '0', otherwise no key could be placed directly before them.
+public final class TaskRanks {
+
+    public static final int MAX_LENGTH = 64; // Column length, the rebalancer keeps keys far below it
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+
+    // Display order: ranked tasks first, unranked ones (not yet rebalanced) in creation order
+    public static final Comparator<Task> TASK_ORDER = Comparator
+            .comparing(Task::getRank, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Task::getCreated, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Task::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private TaskRanks() {
+    }
+
+    // A key strictly between before and after. A null before means the start of the list, a null after the end.
+    public static String between(String before, String after) {
+        String low = before == null ? "" : before;
+        if (!isValid(low, true) || (after != null && !isValid(after, false))) {
+            throw new IllegalArgumentException("Invalid task rank!");
+        }
+        if (after != null && low.compareTo(after) >= 0) {
+            throw new IllegalArgumentException("Task ranks must be ascending!");
+        }
+        if (after == null) {
+            return low.isEmpty() ? midpoint(low, null) : increment(low); // Appending, the common case of a create
+        }
+        return low.isEmpty() ? decrement(after) : midpoint(low, after);
+    }
+
+    // count evenly spaced keys of the same length, with room for several moves between neighbours
+    public static List<String> spread(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Rank count cannot be negative!");
+        }
+        int width = 1;
+        long slots = BASE;
+        while (slots < (count + 1L) * BASE) {
+            width++;
+            slots *= BASE;
+        }
+        long step = slots / (count + 1L);
+
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            keys.add(encode(step * i, width));
+        }
+        return keys;
+    }
+
+    // Port of the midpoint of rocicorp/fractional-indexing without the integer part: low is "" or a key, high a key or null
+    private static String midpoint(String low, String high) {
+        if (high != null) {
+            int prefix = 0;
+            while (prefix < high.length() && digitAt(low, prefix) == DIGITS.indexOf(high.charAt(prefix))) {
+                prefix++;
+            }
+            if (prefix > 0) {
+                return high.substring(0, prefix)
+                        + midpoint(prefix < low.length() ? low.substring(prefix) : "", high.substring(prefix));
+            }
+        }
+
+        int lowDigit = digitAt(low, 0);
+        int highDigit = high == null ? BASE : DIGITS.indexOf(high.charAt(0));
+        if (highDigit - lowDigit > 1) {
+            return String.valueOf(DIGITS.charAt((lowDigit + highDigit + 1) / 2)); // Room for a single digit
+        }
+        if (high != null && high.length() > 1) {
+            return high.substring(0, 1); // Shorter than high, so it sorts right before it
+        }
+        return DIGITS.charAt(lowDigit) + midpoint(low.isEmpty() ? "" : low.substring(1), null);
+    }
+
+    // Shortest key after key: bumps the first digit that is not the last one of the alphabet.
+    // Repeated appends grow a key by one character every 35 tasks, midpoints would grow it every few.
+    private static String increment(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            int digit = DIGITS.indexOf(key.charAt(i));
+            if (digit < BASE - 1) {
+                return key.substring(0, i) + DIGITS.charAt(digit + 1);
+            }
+        }
+        return key + DIGITS.charAt(1);
+    }
+
+    // Shortest key before key, mirroring increment. A bumped-down digit must not become a trailing '0'.
+    private static String decrement(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            int digit = DIGITS.indexOf(key.charAt(i));
+            if (digit > 1) {
+                return key.substring(0, i) + DIGITS.charAt(digit - 1);
+            }
+        }
+        return key.substring(0, key.length() - 1) + DIGITS.charAt(0) + DIGITS.charAt(BASE - 1);
+    }
+
+    private static int digitAt(String key, int index) {
+        return index < key.length() ? DIGITS.indexOf(key.charAt(index)) : 0;
+    }
+
+    private static boolean isValid(String key, boolean allowEmpty) {
+        if (key.isEmpty()) {
+            return allowEmpty;
+        }
+        if (key.length() > MAX_LENGTH || key.charAt(key.length() - 1) == '0') {
+            return false;
+        }
+        return key.chars().allMatch(c -> DIGITS.indexOf(c) >= 0);
+    }
+
+    private static String encode(long value, int width) {
+        char[] chars = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            chars[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        int length = width;
+        while (chars[length - 1] == '0') {
+            length--; // Same order without the trailing zeros
+        }
+        return new String(chars, 0, length);
+    }
+}
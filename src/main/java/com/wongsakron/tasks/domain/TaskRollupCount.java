@@ -0,0 +1,9 @@
+package com.wongsakron.tasks.domain;
+
+import com.wongsakron.tasks.domain.entities.TaskDueBucket;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+
+// Row of a rollup read: tasks of one status, priority and due bucket.
+public record TaskRollupCount(TaskStatus status, TaskPriority priority, TaskDueBucket dueBucket, Long count) {
+}
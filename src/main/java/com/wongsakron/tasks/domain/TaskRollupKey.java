@@ -0,0 +1,27 @@
+package com.wongsakron.tasks.domain;
+
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskDueBucket;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+// The rollup counter a task is counted in. Taken before and after a change to move the task between counters.
+// Ordered like the counters' primary key (enum ordinals), the order in which writers lock them.
+public record TaskRollupKey(TaskStatus status, TaskPriority priority, TaskDueBucket dueBucket) implements Comparable<TaskRollupKey> {
+
+    private static final Comparator<TaskRollupKey> ORDER = Comparator.comparing(TaskRollupKey::status)
+            .thenComparing(TaskRollupKey::priority)
+            .thenComparing(TaskRollupKey::dueBucket);
+
+    public static TaskRollupKey of(Task task, LocalDate today) {
+        return new TaskRollupKey(task.getStatus(), task.getPriority(), TaskDueBucket.of(task.getDueDate(), today));
+    }
+
+    @Override
+    public int compareTo(TaskRollupKey other) {
+        return ORDER.compare(this, other);
+    }
+}
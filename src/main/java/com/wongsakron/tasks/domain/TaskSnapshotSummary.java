@@ -0,0 +1,5 @@
+package com.wongsakron.tasks.domain;
+
+// Outcome of taking or restoring a snapshot: its file name, the rows of each table and how long it took.
+public record TaskSnapshotSummary(String name, long taskLists, long tasks, long archivedTasks, long hierarchyLinks, long bytes, long millis) {
+}
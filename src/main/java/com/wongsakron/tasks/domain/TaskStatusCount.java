@@ -0,0 +1,9 @@
+package com.wongsakron.tasks.domain;
+
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+
+import java.util.UUID;
+
+// Row of a "count tasks per list and status" query.
+public record TaskStatusCount(UUID taskListId, TaskStatus status, Long count) {
+}
@@ -0,0 +1,32 @@
+package com.wongsakron.tasks.domain;
+
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+
+import java.util.Collections;
+import java.util.Set;
+
+// Tag combination filter: every tag of allOf, at least one of anyOf (when given), none of noneOf,
+// plus optional status and priority. Empty sets and null fields match every task.
+public record TaskTagQuery(Set<String> allOf, Set<String> anyOf, Set<String> noneOf, TaskStatus status, TaskPriority priority) {
+
+    public TaskTagQuery {
+        allOf = TaskTags.normalize(allOf);
+        anyOf = TaskTags.normalize(anyOf);
+        noneOf = TaskTags.normalize(noneOf);
+    }
+
+    public boolean matches(Task task) {
+        return matches(task.getStatus(), task.getPriority(), task.getTags());
+    }
+
+    public boolean matches(TaskStatus taskStatus, TaskPriority taskPriority, Set<String> tags) {
+        Set<String> taskTags = tags == null ? Collections.emptySet() : tags;
+        return (status == null || status == taskStatus)
+                && (priority == null || priority == taskPriority)
+                && taskTags.containsAll(allOf)
+                && (anyOf.isEmpty() || anyOf.stream().anyMatch(taskTags::contains))
+                && noneOf.stream().noneMatch(taskTags::contains);
+    }
+}
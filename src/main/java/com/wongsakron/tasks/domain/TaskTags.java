@@ -0,0 +1,57 @@
+package com.wongsakron.tasks.domain;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Tag rules shared by the entity, the request DTOs and the tag index. Tags are stored on the task row
+// as one sorted, comma separated column, so listing tasks with their tags needs no extra query.
+public final class TaskTags {
+
+    public static final int MAX_TAGS = 20;
+    public static final int MAX_COLUMN_LENGTH = MAX_TAGS * 33; // 32 characters per tag plus separator
+    private static final Pattern TAG = Pattern.compile("[a-z0-9][a-z0-9_-]{0,31}");
+    private static final String SEPARATOR = ",";
+
+    private TaskTags() {
+    }
+
+    // Lower-cased, trimmed, de-duplicated and sorted. Blank entries are dropped, anything else invalid is rejected.
+    public static SortedSet<String> normalize(Collection<String> tags) {
+        SortedSet<String> normalized = new TreeSet<>();
+        if (tags == null) {
+            return normalized;
+        }
+        for (String tag : tags) {
+            if (tag == null || tag.isBlank()) {
+                continue;
+            }
+            String value = tag.trim().toLowerCase(Locale.ROOT);
+            if (!TAG.matcher(value).matches()) {
+                throw new IllegalArgumentException("Invalid tag '" + tag + "', use up to 32 letters, digits, '-' or '_'!");
+            }
+            normalized.add(value);
+        }
+        if (normalized.size() > MAX_TAGS) {
+            throw new IllegalArgumentException("A task can have at most " + MAX_TAGS + " tags!");
+        }
+        return normalized;
+    }
+
+    public static String join(Collection<String> tags) {
+        return tags == null || tags.isEmpty() ? null : String.join(SEPARATOR, normalize(tags));
+    }
+
+    public static SortedSet<String> parse(String column) {
+        if (column == null || column.isEmpty()) {
+            return Collections.emptySortedSet();
+        }
+        return Collections.unmodifiableSortedSet(Arrays.stream(column.split(SEPARATOR))
+                .collect(Collectors.toCollection(TreeSet::new)));
+    }
+}
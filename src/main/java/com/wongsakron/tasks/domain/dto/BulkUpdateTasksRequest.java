@@ -0,0 +1,11 @@
+package com.wongsakron.tasks.domain.dto;
+
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+
+public record BulkUpdateTasksRequest(
+        TaskFilterDto filter, // Which tasks of the list to change, all of them when absent
+        TaskStatus status, // New status, unchanged when absent
+        TaskPriority priority // New priority, unchanged when absent
+) {
+}
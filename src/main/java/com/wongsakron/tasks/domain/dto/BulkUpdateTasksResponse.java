@@ -0,0 +1,6 @@
+package com.wongsakron.tasks.domain.dto;
+
+public record BulkUpdateTasksResponse(
+        int updated // Tasks that actually changed, matching tasks that already had the new values are not counted
+) {
+}
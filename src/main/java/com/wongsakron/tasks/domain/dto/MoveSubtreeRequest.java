@@ -0,0 +1,8 @@
+package com.wongsakron.tasks.domain.dto;
+
+import java.util.UUID;
+
+public record MoveSubtreeRequest(
+        UUID parentId // New parent in the same list, the task becomes top-level when absent
+) {
+}
@@ -0,0 +1,8 @@
+package com.wongsakron.tasks.domain.dto;
+
+import java.util.UUID;
+
+public record MoveTaskRequest(
+        UUID afterTaskId // Task of the same list to place the moved task after, first in the list when absent
+) {
+}
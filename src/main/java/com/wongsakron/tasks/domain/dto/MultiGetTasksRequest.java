@@ -0,0 +1,8 @@
+package com.wongsakron.tasks.domain.dto;
+
+import java.util.List;
+
+public record MultiGetTasksRequest(
+        List<TaskRefDto> items
+) {
+}
@@ -0,0 +1,9 @@
+package com.wongsakron.tasks.domain.dto;
+
+import java.util.List;
+
+public record MultiGetTasksResponse(
+        List<TaskDto> tasks, // Found tasks, in request order
+        List<TaskRefDto> missing // Requested pairs that do not exist, in request order
+) {
+}
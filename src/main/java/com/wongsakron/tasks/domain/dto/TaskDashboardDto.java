@@ -0,0 +1,20 @@
+package com.wongsakron.tasks.domain.dto;
+
+import com.wongsakron.tasks.domain.entities.TaskDueBucket;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public record TaskDashboardDto(
+        UUID taskListId, // Null for the dashboard across all lists
+        long total, // Live tasks, archived ones are not counted
+        Map<TaskStatus, Long> byStatus, // Every value present, zero when there are none
+        Map<TaskPriority, Long> byPriority,
+        Map<TaskDueBucket, Long> byDueDate,
+        long overdueOpen, // OPEN tasks due before today
+        List<TaskRollupDto> counts // Non-zero counters, for breakdowns the maps above do not cover
+) {
+}
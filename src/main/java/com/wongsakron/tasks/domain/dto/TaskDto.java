@@ -1,5 +1,6 @@
 package com.wongsakron.tasks.domain.dto;
 
+import com.wongsakron.tasks.domain.TaskTags;
 import com.wongsakron.tasks.domain.entities.TaskPriority;
 import com.wongsakron.tasks.domain.entities.TaskStatus;
 import jakarta.validation.constraints.FutureOrPresent;
@@ -7,6 +8,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 import java.util.UUID;
 
 public record TaskDto(
@@ -22,7 +24,12 @@ public record TaskDto(
         LocalDateTime dueDate,
 
         TaskPriority priority,
-        TaskStatus status
+        TaskStatus status,
+
+        UUID parentId, // Parent task in the same list, set on create and changed through PUT .../parent only
+
+        @Size(max = TaskTags.MAX_TAGS, message = "at most " + TaskTags.MAX_TAGS + " tags are allowed")
+        Set<String> tags // Replaced as a whole by PUT, normalized to lower case
 ) {
 }
 // Data Transfer Object (DTO) for Task.
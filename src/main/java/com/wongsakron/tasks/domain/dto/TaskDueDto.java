@@ -0,0 +1,15 @@
+package com.wongsakron.tasks.domain.dto;
+
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record TaskDueDto(
+        UUID taskListId,
+        UUID id, // Task ID, fetch the task itself from its list for the remaining fields
+        String title,
+        LocalDateTime dueDate,
+        TaskPriority priority
+) {
+}
@@ -0,0 +1,19 @@
+package com.wongsakron.tasks.domain.dto;
+
+import com.wongsakron.tasks.domain.TaskExportProgress;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record TaskExportDto(
+        UUID id,
+        TaskExportProgress.State state,
+        int totalLists,
+        int exportedLists,
+        int skippedLists, // Deleted after the export started
+        long bytes, // Written so far, the archive size once DONE
+        LocalDateTime started,
+        LocalDateTime finished,
+        String error
+) {
+}
@@ -0,0 +1,9 @@
+package com.wongsakron.tasks.domain.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record TaskExportRequest(
+        List<UUID> taskListIds // Null or empty exports every list
+) {
+}
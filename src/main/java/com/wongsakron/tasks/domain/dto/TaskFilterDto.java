@@ -0,0 +1,13 @@
+package com.wongsakron.tasks.domain.dto;
+
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+
+import java.time.LocalDateTime;
+
+public record TaskFilterDto(
+        TaskStatus status, // Only tasks currently in this status
+        TaskPriority priority, // Only tasks with this priority
+        LocalDateTime dueBefore // Only tasks due before this time, tasks without a due date never match
+) {
+}
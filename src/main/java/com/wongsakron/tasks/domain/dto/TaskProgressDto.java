@@ -0,0 +1,8 @@
+package com.wongsakron.tasks.domain.dto;
+
+public record TaskProgressDto(
+        long count, // The task and all of its sub-tasks
+        long closed, // How many of them are CLOSED
+        Double progress // closed / count, same ratio as TaskListDto.progress
+) {
+}
@@ -0,0 +1,9 @@
+package com.wongsakron.tasks.domain.dto;
+
+import java.util.UUID;
+
+public record TaskRefDto(
+        UUID taskListId,
+        UUID taskId
+) {
+}
@@ -0,0 +1,13 @@
+package com.wongsakron.tasks.domain.dto;
+
+import com.wongsakron.tasks.domain.entities.TaskDueBucket;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+
+public record TaskRollupDto(
+        TaskStatus status,
+        TaskPriority priority,
+        TaskDueBucket due, // NO_DUE_DATE, OVERDUE (due before today) or UPCOMING
+        long count
+) {
+}
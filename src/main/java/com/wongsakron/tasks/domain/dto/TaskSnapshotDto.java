@@ -0,0 +1,12 @@
+package com.wongsakron.tasks.domain.dto;
+
+public record TaskSnapshotDto(
+        String name, // File name in tasks.snapshot.directory, pass it to restore
+        long taskLists, // Soft-deleted rows included
+        long tasks,
+        long archivedTasks,
+        long hierarchyLinks, // task_closure rows
+        long bytes,
+        long millis
+) {
+}
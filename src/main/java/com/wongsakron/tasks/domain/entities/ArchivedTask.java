@@ -0,0 +1,101 @@
+package com.wongsakron.tasks.domain.entities;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Cold copy of a CLOSED task moved out of the "tasks" table by the archiver.
+@Entity
+@Table(name = "archived_tasks", indexes = @Index(name = "idx_archived_tasks_task_list_id", columnList = "task_list_id"))
+public class ArchivedTask {
+
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id; // Same ID the task had while it was active
+
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @Column(name = "description")
+    private String description;
+
+    @Column(name = "due_date")
+    private LocalDateTime dueDate;
+
+    @Column(name = "status", nullable = false)
+    private TaskStatus status;
+
+    @Column(name = "priority", nullable = false)
+    private TaskPriority priority;
+
+    @Column(name = "task_list_id") // Plain column, archived rows do not need the association
+    private UUID taskListId;
+
+    @Column(name = "created", nullable = false)
+    private LocalDateTime created;
+
+    @Column(name = "updated", nullable = false)
+    private LocalDateTime updated;
+
+    @Column(name = "archived", nullable = false)
+    private LocalDateTime archived;
+
+    public ArchivedTask() {
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public UUID getTaskListId() {
+        return taskListId;
+    }
+
+    public LocalDateTime getCreated() {
+        return created;
+    }
+
+    public LocalDateTime getUpdated() {
+        return updated;
+    }
+
+    public LocalDateTime getArchived() {
+        return archived;
+    }
+
+    // Read-only view as a Task, used when a client asks to include archived tasks
+    public Task toTask() {
+        return new Task(id, title, description, dueDate, status, priority, null, created, updated);
+    }
+
+    @Override
+    public String toString() {
+        return "ArchivedTask{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", taskListId=" + taskListId +
+                ", archived=" + archived +
+                '}';
+    }
+}
@@ -1,15 +1,32 @@
 package com.wongsakron.tasks.domain.entities;
 
+import com.wongsakron.tasks.domain.TaskRanks;
+import com.wongsakron.tasks.domain.TaskTags;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDateTime;
-import java.util.Objects;
+import java.util.Collection;
+import java.util.SortedSet;
 import java.util.UUID;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_status_updated", columnList = "status, updated"), // Used by the archiver
+        @Index(name = "idx_tasks_deleted_at", columnList = "deleted_at"), // Used by the purger
+        @Index(name = "idx_tasks_list_rank", columnList = "task_list_id, rank_key") // Ordered reads of a list and rank lookups of a move
+})
+@SQLRestriction("deleted_at is null") // Soft-deleted tasks are invisible to every query and association
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Task.CACHE_REGION) // Second-level cache, sized in SecondLevelCacheConfig
+@DynamicUpdate // Updates write only the changed columns: a move or a rebalance writes the rank, never reverting a concurrent edit
 public class Task {
 
+    public static final String CACHE_REGION = "tasks";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name = "id", updatable = false, nullable = false)
@@ -40,6 +57,18 @@ public class Task {
     @Column(name = "updated", nullable = false)
     private LocalDateTime updated;
 
+    @Column(name = "parent_id") // Plain column, the hierarchy is queried through TaskClosure
+    private UUID parentId; // Direct parent task in the same list, null for a top-level task
+
+    @Column(name = "tags", length = TaskTags.MAX_COLUMN_LENGTH)
+    private String tags; // Sorted, comma separated (see TaskTags), null without tags
+
+    @Column(name = "rank_key", length = TaskRanks.MAX_LENGTH)
+    private String rank; // Position within the list (see TaskRanks), null until assigned by a create or the rebalancer
+
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt; // Tombstone set by delete, the row is purged after the retention period
+
 
     public Task() {
     }
@@ -130,16 +159,49 @@ public class Task {
         this.updated = updated;
     }
 
+    public UUID getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(UUID parentId) {
+        this.parentId = parentId;
+    }
+
+    public SortedSet<String> getTags() {
+        return TaskTags.parse(tags);
+    }
+
+    public void setTags(Collection<String> tags) {
+        this.tags = TaskTags.join(tags); // Validates and normalizes
+    }
+
+    public String getRank() {
+        return rank;
+    }
+
+    public void setRank(String rank) {
+        this.rank = rank;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    // Identity is the database id, so equals/hashCode never initialize the lazy taskList proxy.
     @Override
     public boolean equals(Object o) {
-        if (o == null || getClass() != o.getClass()) return false;
-        Task task = (Task) o;
-        return Objects.equals(id, task.id) && Objects.equals(title, task.title) && Objects.equals(description, task.description) && Objects.equals(dueDate, task.dueDate) && status == task.status && priority == task.priority && Objects.equals(taskList, task.taskList) && Objects.equals(created, task.created) && Objects.equals(updated, task.updated);
+        if (this == o) return true;
+        if (!(o instanceof Task other)) return false;
+        return id != null && id.equals(other.getId()); // Unsaved tasks are only equal to themselves
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, title, description, dueDate, status, priority, taskList, created, updated);
+        return Task.class.hashCode(); // Must not change when persist assigns the id
     }
 
     @Override
@@ -151,9 +213,13 @@ public class Task {
                 ", dueDate=" + dueDate +
                 ", status=" + status +
                 ", priority=" + priority +
-                ", taskList=" + taskList +
+                ", taskListId=" + (taskList == null ? null : taskList.getId()) + // getId() does not initialize a proxy
                 ", created=" + created +
                 ", updated=" + updated +
+                ", parentId=" + parentId +
+                ", tags='" + tags + '\'' +
+                ", rank='" + rank + '\'' +
+                ", deletedAt=" + deletedAt +
                 '}';
     }
 }
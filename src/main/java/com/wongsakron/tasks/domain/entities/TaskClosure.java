@@ -0,0 +1,55 @@
+package com.wongsakron.tasks.domain.entities;
+
+import jakarta.persistence.*;
+
+// One row per ancestor/descendant pair of the task hierarchy, at every distance (closure table).
+// A whole subtree is one indexed lookup by ancestor, all ancestors of a task one lookup by descendant.
+// Tasks without parent or children have no rows. Plain ID columns without foreign keys, so the purge
+// can remove tasks first and the orphaned rows afterwards.
+@Entity
+@Table(name = "task_closure", indexes = @Index(name = "idx_task_closure_descendant", columnList = "descendant_id, ancestor_id"))
+public class TaskClosure {
+
+    @EmbeddedId
+    private TaskClosureId id; // Primary key (ancestor_id, descendant_id) serves subtree lookups
+
+    @Column(name = "depth", nullable = false)
+    private int depth; // 1 for a direct child, 2 for a grandchild, ...
+
+    public TaskClosure() {
+    }
+
+    public TaskClosure(TaskClosureId id, int depth) {
+        this.id = id;
+        this.depth = depth;
+    }
+
+    public TaskClosureId getId() {
+        return id;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TaskClosure other)) return false;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return TaskClosure.class.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "TaskClosure{" +
+                "ancestorId=" + (id == null ? null : id.getAncestorId()) +
+                ", descendantId=" + (id == null ? null : id.getDescendantId()) +
+                ", depth=" + depth +
+                '}';
+    }
+}
@@ -0,0 +1,48 @@
+package com.wongsakron.tasks.domain.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+@Embeddable
+public class TaskClosureId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Column(name = "ancestor_id", nullable = false)
+    private UUID ancestorId;
+
+    @Column(name = "descendant_id", nullable = false)
+    private UUID descendantId;
+
+    public TaskClosureId() {
+    }
+
+    public TaskClosureId(UUID ancestorId, UUID descendantId) {
+        this.ancestorId = ancestorId;
+        this.descendantId = descendantId;
+    }
+
+    public UUID getAncestorId() {
+        return ancestorId;
+    }
+
+    public UUID getDescendantId() {
+        return descendantId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TaskClosureId other)) return false;
+        return Objects.equals(ancestorId, other.ancestorId) && Objects.equals(descendantId, other.descendantId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ancestorId, descendantId);
+    }
+}
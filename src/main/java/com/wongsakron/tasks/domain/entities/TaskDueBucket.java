@@ -0,0 +1,16 @@
+package com.wongsakron.tasks.domain.entities;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Due date class of a task in the rollups, by calendar day: due before today is overdue, today or later upcoming.
+public enum TaskDueBucket {
+    NO_DUE_DATE, OVERDUE, UPCOMING;
+
+    public static TaskDueBucket of(LocalDateTime dueDate, LocalDate today) {
+        if (dueDate == null) {
+            return NO_DUE_DATE;
+        }
+        return dueDate.toLocalDate().isBefore(today) ? OVERDUE : UPCOMING;
+    }
+}
@@ -1,16 +1,25 @@
 package com.wongsakron.tasks.domain.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Objects;
 import java.util.UUID;
 
 @Entity
 @Table(name = "task_lists")
+@SQLRestriction("deleted_at is null") // Soft-deleted task lists are invisible to every query
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = TaskList.CACHE_REGION) // Second-level cache, sized in SecondLevelCacheConfig
 public class TaskList {
 
+    public static final String CACHE_REGION = "task-lists";
+    public static final String TASKS_CACHE_REGION = "task-lists.tasks";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name = "id", updatable = false, nullable = false)
@@ -23,14 +32,23 @@ public class TaskList {
     private String description;
 
     @OneToMany(mappedBy = "taskList",cascade = {CascadeType.REMOVE, CascadeType.PERSIST}) // One TaskList can have many Tasks Mapped by the taskList field in Task
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = TaskList.TASKS_CACHE_REGION) // Caches the task IDs only, the tasks come from the Task region
     private List<Task> tasks; // Assuming Task is another entity that belongs to this TaskList
 
+    // Only ever changed by the archiver's increment query: an update of the list must not write back the count it read
+    @Column(name = "archived_task_count", nullable = false, updatable = false)
+    @ColumnDefault("0") // Existing rows start with nothing archived
+    private int archivedTaskCount; // Number of CLOSED tasks moved to archived_tasks, kept in sync by the archiver
+
     @Column(name = "created", nullable = false)
     private LocalDateTime created;
 
     @Column(name = "updated", nullable = false)
     private LocalDateTime updated;
 
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt; // Tombstone set by delete, the row is purged after the retention period
+
 
     public TaskList() {
     }
@@ -76,6 +94,14 @@ public class TaskList {
         this.tasks = tasks;
     }
 
+    public int getArchivedTaskCount() {
+        return archivedTaskCount;
+    }
+
+    public void setArchivedTaskCount(int archivedTaskCount) {
+        this.archivedTaskCount = archivedTaskCount;
+    }
+
     public LocalDateTime getCreated() {
         return created;
     }
@@ -92,16 +118,26 @@ public class TaskList {
         this.updated = updated;
     }
 
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    // Identity is the database id, so equals/hashCode never touch the lazy tasks collection. A TaskList proxy
+    // is a subclass of TaskList and answers getId() without loading, so it equals the loaded entity.
     @Override
     public boolean equals(Object o) {
-        if (o == null || getClass() != o.getClass()) return false;
-        TaskList taskList = (TaskList) o;
-        return Objects.equals(id, taskList.id) && Objects.equals(title, taskList.title) && Objects.equals(description, taskList.description) && Objects.equals(tasks, taskList.tasks) && Objects.equals(created, taskList.created) && Objects.equals(updated, taskList.updated);
+        if (this == o) return true;
+        if (!(o instanceof TaskList other)) return false;
+        return id != null && id.equals(other.getId()); // Unsaved lists are only equal to themselves
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, title, description, tasks, created, updated);
+        return TaskList.class.hashCode(); // Must not change when persist assigns the id
     }
 
     @Override
@@ -110,9 +146,10 @@ public class TaskList {
                 "id=" + id +
                 ", title='" + title + '\'' +
                 ", description='" + description + '\'' +
-                ", tasks=" + tasks +
+                ", archivedTaskCount=" + archivedTaskCount +
                 ", created=" + created +
                 ", updated=" + updated +
-                '}';
+                ", deletedAt=" + deletedAt +
+                '}'; // Leaves out tasks, printing them would load the collection
     }
 }
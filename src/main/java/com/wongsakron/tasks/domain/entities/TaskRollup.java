@@ -0,0 +1,83 @@
+package com.wongsakron.tasks.domain.entities;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.util.UUID;
+
+// Number of live tasks per status, priority and due bucket, kept per task list and across all lists (GLOBAL),
+// so the dashboard reads a handful of rows instead of counting tasks. Every combination has a row from the
+// moment its list exists, which keeps task writes to plain "count = count + delta" updates.
+// The global counters are split over GLOBAL_STRIPES rows picked at random per write and summed on read,
+// so concurrent writes to different lists rarely wait for the same row lock.
+@Entity
+@Table(name = "task_rollups", indexes = @Index(name = "idx_task_rollups_scope", columnList = "scope_id"))
+public class TaskRollup implements Persistable<TaskRollupId> {
+
+    public static final UUID GLOBAL = new UUID(0, 0);
+    public static final int GLOBAL_STRIPES = 16;
+
+    @EmbeddedId
+    private TaskRollupId id;
+
+    @Column(name = "task_count", nullable = false)
+    private long count;
+
+    @Transient
+    private boolean isNew = true; // Assigned ids, so save() would otherwise select every row before inserting it
+
+    public TaskRollup() {
+    }
+
+    public TaskRollup(TaskRollupId id, long count) {
+        this.id = id;
+        this.count = count;
+    }
+
+    public TaskRollupId getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TaskRollup other)) return false;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return TaskRollup.class.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "TaskRollup{" +
+                "scopeId=" + (id == null ? null : id.getScopeId()) +
+                ", stripe=" + (id == null ? null : id.getStripe()) +
+                ", status=" + (id == null ? null : id.getStatus()) +
+                ", priority=" + (id == null ? null : id.getPriority()) +
+                ", dueBucket=" + (id == null ? null : id.getDueBucket()) +
+                ", count=" + count +
+                '}';
+    }
+}
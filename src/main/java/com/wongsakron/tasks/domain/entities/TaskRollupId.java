@@ -0,0 +1,73 @@
+package com.wongsakron.tasks.domain.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+@Embeddable
+public class TaskRollupId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Column(name = "scope_id", nullable = false)
+    private UUID scopeId; // Task list ID, or TaskRollup.GLOBAL
+
+    @Column(name = "stripe", nullable = false)
+    private int stripe; // Always 0 for a list
+
+    @Column(name = "status", nullable = false)
+    private TaskStatus status;
+
+    @Column(name = "priority", nullable = false)
+    private TaskPriority priority;
+
+    @Column(name = "due_bucket", nullable = false)
+    private TaskDueBucket dueBucket;
+
+    public TaskRollupId() {
+    }
+
+    public TaskRollupId(UUID scopeId, int stripe, TaskStatus status, TaskPriority priority, TaskDueBucket dueBucket) {
+        this.scopeId = scopeId;
+        this.stripe = stripe;
+        this.status = status;
+        this.priority = priority;
+        this.dueBucket = dueBucket;
+    }
+
+    public UUID getScopeId() {
+        return scopeId;
+    }
+
+    public int getStripe() {
+        return stripe;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public TaskDueBucket getDueBucket() {
+        return dueBucket;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TaskRollupId other)) return false;
+        return stripe == other.stripe && Objects.equals(scopeId, other.scopeId) && status == other.status
+                && priority == other.priority && dueBucket == other.dueBucket;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(scopeId, stripe, status, priority, dueBucket);
+    }
+}
@@ -0,0 +1,73 @@
+package com.wongsakron.tasks.jobs;
+
+import com.wongsakron.tasks.services.TaskArchiveService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Moves old CLOSED tasks to archived_tasks in small, throttled batches so the hot table stays small.
+// Every batch is its own transaction and selection is by predicate, so an interrupted run simply resumes on the next one.
+@Component
+@ConditionalOnProperty(prefix = "tasks.archive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskArchiveJob {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiveJob.class);
+
+    private final TaskArchiveService taskArchiveService;
+    private final Duration closedFor;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration pauseBetweenBatches;
+
+    public TaskArchiveJob(
+            TaskArchiveService taskArchiveService,
+            @Value("${tasks.archive.closed-for:30d}") Duration closedFor,
+            @Value("${tasks.archive.batch-size:500}") int batchSize,
+            @Value("${tasks.archive.max-batches-per-run:100}") int maxBatchesPerRun,
+            @Value("${tasks.archive.pause-between-batches:200ms}") Duration pauseBetweenBatches
+    ) {
+        this.taskArchiveService = taskArchiveService;
+        this.closedFor = closedFor;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseBetweenBatches = pauseBetweenBatches;
+    }
+
+    @Scheduled(initialDelayString = "${tasks.archive.initial-delay:5m}", fixedDelayString = "${tasks.archive.interval:1h}")
+    public void run() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(closedFor);
+        int total = 0;
+
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int moved = taskArchiveService.archiveClosedTasks(cutoff, batchSize);
+            total += moved;
+            if (moved < batchSize) {
+                break; // Nothing left to archive
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Archived {} closed tasks updated before {}", total, cutoff);
+        }
+    }
+
+    // Gives the database room for regular traffic between batches
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseBetweenBatches.toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.wongsakron.tasks.jobs;
+
+import com.wongsakron.tasks.services.TaskDueService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Builds the in-memory due date index once the application is up and rebuilds it periodically, which picks up
+// changes this instance did not make itself (other instances, the reactive stack). Queries go to the database
+// until the first build is done.
+@Component
+@ConditionalOnProperty(prefix = "tasks.due.index", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskDueIndexRebuildJob {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskDueIndexRebuildJob.class);
+
+    private final TaskDueService taskDueService;
+
+    public TaskDueIndexRebuildJob(TaskDueService taskDueService) {
+        this.taskDueService = taskDueService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        run();
+    }
+
+    @Scheduled(initialDelayString = "${tasks.due.index.rebuild-interval:1h}", fixedDelayString = "${tasks.due.index.rebuild-interval:1h}")
+    public void run() {
+        long started = System.nanoTime();
+        int indexed = taskDueService.rebuildIndex();
+        log.info("Rebuilt the due date index with {} open tasks in {} ms", indexed, (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,30 @@
+package com.wongsakron.tasks.jobs;
+
+import com.wongsakron.tasks.services.TaskExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Deletes export archives once they are past tasks.export.retention, so finished exports do not fill the disk.
+@Component
+@ConditionalOnProperty(prefix = "tasks.export", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskExportCleanupJob {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskExportCleanupJob.class);
+
+    private final TaskExportService taskExportService;
+
+    public TaskExportCleanupJob(TaskExportService taskExportService) {
+        this.taskExportService = taskExportService;
+    }
+
+    @Scheduled(initialDelayString = "${tasks.export.cleanup-interval:1h}", fixedDelayString = "${tasks.export.cleanup-interval:1h}")
+    public void run() {
+        int purged = taskExportService.purgeExpired();
+        if (purged > 0) {
+            log.info("Deleted {} expired task exports", purged);
+        }
+    }
+}
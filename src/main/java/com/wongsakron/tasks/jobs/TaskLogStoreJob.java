@@ -0,0 +1,44 @@
+package com.wongsakron.tasks.jobs;
+
+import com.wongsakron.tasks.logstore.TaskLogStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Flushes the embedded task log to disk every sync-interval, and compacts it once superseded records make up most of it.
+// Soft-deleted records older than the retention are dropped by the compaction, the log store's counterpart of the purge job.
+@Component
+@Profile("embedded")
+public class TaskLogStoreJob {
+
+    private final TaskLogStore taskLogStore;
+    private final double compactionRatio;
+    private final long compactionMinRecords;
+    private final Duration deletedRetention;
+
+    public TaskLogStoreJob(
+            TaskLogStore taskLogStore,
+            @Value("${tasks.logstore.compaction.ratio:2.0}") double compactionRatio,
+            @Value("${tasks.logstore.compaction.min-records:100000}") long compactionMinRecords,
+            @Value("${tasks.logstore.deleted-retention:7d}") Duration deletedRetention
+    ) {
+        this.taskLogStore = taskLogStore;
+        this.compactionRatio = compactionRatio;
+        this.compactionMinRecords = compactionMinRecords;
+        this.deletedRetention = deletedRetention;
+    }
+
+    @Scheduled(initialDelayString = "${tasks.logstore.sync-interval:1s}", fixedDelayString = "${tasks.logstore.sync-interval:1s}")
+    public void sync() {
+        taskLogStore.sync();
+    }
+
+    @Scheduled(initialDelayString = "${tasks.logstore.compaction.check-interval:5m}", fixedDelayString = "${tasks.logstore.compaction.check-interval:5m}")
+    public void compact() {
+        taskLogStore.compactIfNeeded(compactionRatio, compactionMinRecords, LocalDateTime.now().minus(deletedRetention));
+    }
+}
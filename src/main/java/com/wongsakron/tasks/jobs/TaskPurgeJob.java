@@ -0,0 +1,73 @@
+package com.wongsakron.tasks.jobs;
+
+import com.wongsakron.tasks.services.TaskPurgeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Physically removes soft-deleted task lists and tasks once the retention window has passed.
+// Runs in a low-traffic cron window, in small throttled batches, so deletes never compete with user requests.
+@Component
+@ConditionalOnProperty(prefix = "tasks.purge", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskPurgeJob.class);
+
+    private final TaskPurgeService taskPurgeService;
+    private final Duration retention;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration pauseBetweenBatches;
+
+    public TaskPurgeJob(
+            TaskPurgeService taskPurgeService,
+            @Value("${tasks.purge.retention:7d}") Duration retention,
+            @Value("${tasks.purge.batch-size:500}") int batchSize,
+            @Value("${tasks.purge.max-batches-per-run:200}") int maxBatchesPerRun,
+            @Value("${tasks.purge.pause-between-batches:200ms}") Duration pauseBetweenBatches
+    ) {
+        this.taskPurgeService = taskPurgeService;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseBetweenBatches = pauseBetweenBatches;
+    }
+
+    @Scheduled(cron = "${tasks.purge.cron:0 0 3 * * *}")
+    public void run() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int total = 0;
+
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int purged = taskPurgeService.purgeDeleted(cutoff, batchSize);
+            total += purged;
+            if (purged < batchSize) {
+                break; // Nothing left to purge
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Purged {} soft-deleted rows deleted before {}", total, cutoff);
+        }
+    }
+
+    // Gives the database room for regular traffic between batches
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseBetweenBatches.toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.wongsakron.tasks.jobs;
+
+import com.wongsakron.tasks.services.TaskRankService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+// Re-spaces the rank keys of lists whose keys grew long from repeated moves into the same gap,
+// and ranks tasks stored before manual ordering existed. Every list is its own short transaction.
+@Component
+@ConditionalOnProperty(prefix = "tasks.ranks", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskRankRebalanceJob {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskRankRebalanceJob.class);
+
+    private final TaskRankService taskRankService;
+    private final int maxLength;
+    private final int maxListsPerRun;
+    private final Duration pauseBetweenLists;
+
+    public TaskRankRebalanceJob(
+            TaskRankService taskRankService,
+            @Value("${tasks.ranks.max-length:12}") int maxLength,
+            @Value("${tasks.ranks.max-lists-per-run:100}") int maxListsPerRun,
+            @Value("${tasks.ranks.pause-between-lists:50ms}") Duration pauseBetweenLists
+    ) {
+        this.taskRankService = taskRankService;
+        this.maxLength = maxLength;
+        this.maxListsPerRun = maxListsPerRun;
+        this.pauseBetweenLists = pauseBetweenLists;
+    }
+
+    @Scheduled(initialDelayString = "${tasks.ranks.initial-delay:1m}", fixedDelayString = "${tasks.ranks.interval:10m}")
+    public void run() {
+        List<UUID> taskListIds = taskRankService.findTaskListsToRebalance(maxLength, maxListsPerRun);
+        int total = 0;
+
+        for (UUID taskListId : taskListIds) {
+            total += taskRankService.rebalance(taskListId);
+            if (!pause()) {
+                break;
+            }
+        }
+
+        if (!taskListIds.isEmpty()) {
+            log.info("Rebalanced {} task ranks in {} lists", total, taskListIds.size());
+        }
+    }
+
+    // Gives the database room for regular traffic between lists
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseBetweenLists.toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
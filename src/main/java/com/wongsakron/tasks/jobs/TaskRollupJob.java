@@ -0,0 +1,108 @@
+package com.wongsakron.tasks.jobs;
+
+import com.wongsakron.tasks.services.TaskRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+// Keeps the dashboard counters honest. The check compares the counters of every list with its tasks and recounts the
+// lists that drifted (writes of the reactive stack, manual SQL). The nightly rebuild recounts every list, which also
+// moves tasks that became overdue at midnight. Both end with a recount of the global totals. Every list is its own
+// short transaction, pages of lists are read by keyset.
+@Component
+@ConditionalOnProperty(prefix = "tasks.rollups", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskRollupJob {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskRollupJob.class);
+
+    private final TaskRollupService taskRollupService;
+    private final int batchSize;
+    private final Duration pauseBetweenBatches;
+
+    public TaskRollupJob(
+            TaskRollupService taskRollupService,
+            @Value("${tasks.rollups.batch-size:200}") int batchSize,
+            @Value("${tasks.rollups.pause-between-batches:100ms}") Duration pauseBetweenBatches
+    ) {
+        this.taskRollupService = taskRollupService;
+        this.batchSize = batchSize;
+        this.pauseBetweenBatches = pauseBetweenBatches;
+    }
+
+    // First start with rollups: build every counter before the dashboard is trusted
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (!taskRollupService.isInitialized()) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${tasks.rollups.rebuild-cron:0 5 0 * * *}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        int lists = 0;
+        int fixed = 0;
+        UUID afterId = null;
+        List<UUID> page;
+        do {
+            page = taskRollupService.findTaskListIds(afterId, batchSize);
+            for (UUID taskListId : page) {
+                if (taskRollupService.recountTaskList(taskListId)) {
+                    fixed++;
+                }
+            }
+            lists += page.size();
+            afterId = page.isEmpty() ? null : page.get(page.size() - 1);
+        } while (page.size() == batchSize && pause());
+
+        boolean globalFixed = taskRollupService.rebuildGlobal();
+        log.info("Rebuilt the task rollups of {} lists in {} ms ({} lists recounted, totals {})",
+                lists, (System.nanoTime() - started) / 1_000_000, fixed, globalFixed ? "recounted" : "unchanged");
+    }
+
+    @Scheduled(initialDelayString = "${tasks.rollups.check-interval:1h}", fixedDelayString = "${tasks.rollups.check-interval:1h}")
+    public void check() {
+        int lists = 0;
+        int fixed = 0;
+        UUID afterId = null;
+        List<UUID> page;
+        do {
+            page = taskRollupService.findTaskListIds(afterId, batchSize);
+            for (UUID taskListId : taskRollupService.findTaskListsOutOfSync(page)) {
+                if (taskRollupService.recountTaskList(taskListId)) { // Re-checked under the lock, a concurrent write may have closed the gap
+                    log.warn("Task rollups of list {} were out of sync and have been recounted", taskListId);
+                    fixed++;
+                }
+            }
+            lists += page.size();
+            afterId = page.isEmpty() ? null : page.get(page.size() - 1);
+        } while (page.size() == batchSize && pause());
+
+        if (taskRollupService.rebuildGlobal()) {
+            log.warn("Global task rollups were out of sync and have been recounted");
+        }
+        if (fixed > 0) {
+            log.info("Checked the task rollups of {} lists, {} recounted", lists, fixed);
+        }
+    }
+
+    // Gives the database room for regular traffic between batches
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseBetweenBatches.toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
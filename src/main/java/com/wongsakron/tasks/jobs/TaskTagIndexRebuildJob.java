@@ -0,0 +1,38 @@
+package com.wongsakron.tasks.jobs;
+
+import com.wongsakron.tasks.services.TaskSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Builds the in-memory tag index once the application is up and rebuilds it periodically, which picks up
+// changes this instance did not make itself (other instances, the reactive stack, archiving and purging)
+// and compacts the ordinals of removed tasks. Searches filter in the database until the first build is done.
+@Component
+@ConditionalOnProperty(prefix = "tasks.tags.index", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskTagIndexRebuildJob {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskTagIndexRebuildJob.class);
+
+    private final TaskSearchService taskSearchService;
+
+    public TaskTagIndexRebuildJob(TaskSearchService taskSearchService) {
+        this.taskSearchService = taskSearchService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        run();
+    }
+
+    @Scheduled(initialDelayString = "${tasks.tags.index.rebuild-interval:1h}", fixedDelayString = "${tasks.tags.index.rebuild-interval:1h}")
+    public void run() {
+        long started = System.nanoTime();
+        int indexed = taskSearchService.rebuildIndex();
+        log.info("Rebuilt the tag index with {} tasks in {} ms", indexed, (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,133 @@
+package com.wongsakron.tasks.logstore;
+
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Body of a log frame: the number of records, then each record as a kind byte and its fields in declaration order.
+// Nullable fields are preceded by a presence byte, strings are length + UTF-8, timestamps epoch seconds + nanos.
+final class LogCodec {
+
+    private static final byte TASK_LIST = 1;
+    private static final byte TASK = 2;
+
+    private LogCodec() {
+    }
+
+    static byte[] encode(List<LogRecord> records) {
+        try {
+            ByteArrayOutputStream body = new ByteArrayOutputStream(256 * records.size());
+            DataOutputStream out = new DataOutputStream(body);
+            out.writeInt(records.size());
+            for (LogRecord record : records) {
+                switch (record) {
+                    case TaskListRecord list -> {
+                        out.writeByte(TASK_LIST);
+                        writeUuid(out, list.id());
+                        writeString(out, list.title());
+                        writeString(out, list.description());
+                        writeTime(out, list.created());
+                        writeTime(out, list.updated());
+                        writeTime(out, list.deletedAt());
+                    }
+                    case TaskRecord task -> {
+                        out.writeByte(TASK);
+                        writeUuid(out, task.id());
+                        writeUuid(out, task.taskListId());
+                        writeString(out, task.title());
+                        writeString(out, task.description());
+                        writeTime(out, task.dueDate());
+                        out.writeByte(task.status() == null ? -1 : task.status().ordinal());
+                        out.writeByte(task.priority() == null ? -1 : task.priority().ordinal());
+                        writeTime(out, task.created());
+                        writeTime(out, task.updated());
+                        writeUuid(out, task.parentId());
+                        writeString(out, task.tags());
+                        writeString(out, task.rank());
+                        writeTime(out, task.deletedAt());
+                    }
+                }
+            }
+            return body.toByteArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex); // Never thrown by an in-memory stream
+        }
+    }
+
+    static List<LogRecord> decode(ByteBuffer in) {
+        int count = in.getInt();
+        List<LogRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte kind = in.get();
+            if (kind == TASK_LIST) {
+                records.add(new TaskListRecord(readUuid(in), readString(in), readString(in), readTime(in), readTime(in), readTime(in)));
+            } else if (kind == TASK) {
+                records.add(new TaskRecord(readUuid(in), readUuid(in), readString(in), readString(in), readTime(in),
+                        readEnum(TaskStatus.values(), in.get()), readEnum(TaskPriority.values(), in.get()), readTime(in), readTime(in),
+                        readUuid(in), readString(in), readString(in), readTime(in)));
+            } else {
+                throw new IllegalStateException("Unknown record kind " + kind);
+            }
+        }
+        return records;
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getMostSignificantBits());
+            out.writeLong(value.getLeastSignificantBits());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static UUID readUuid(ByteBuffer in) {
+        return in.get() == 0 ? null : new UUID(in.getLong(), in.getLong());
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = StandardCharsets.UTF_8.decode(in.slice(in.position(), length)).toString();
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static LocalDateTime readTime(ByteBuffer in) {
+        return in.get() == 0 ? null : LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+    }
+
+    private static <E extends Enum<E>> E readEnum(E[] values, byte ordinal) {
+        return ordinal < 0 ? null : values[ordinal];
+    }
+}
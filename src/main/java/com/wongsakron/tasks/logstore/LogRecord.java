@@ -0,0 +1,9 @@
+package com.wongsakron.tasks.logstore;
+
+import java.util.UUID;
+
+// A row of the embedded store. Records are immutable: a change appends a new version, the latest one wins on replay.
+public sealed interface LogRecord permits TaskListRecord, TaskRecord {
+
+    UUID id();
+}
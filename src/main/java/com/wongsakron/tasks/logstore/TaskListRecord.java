@@ -0,0 +1,28 @@
+package com.wongsakron.tasks.logstore;
+
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskList;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Same columns as task_lists, a non-null deletedAt is a soft delete
+public record TaskListRecord(UUID id, String title, String description, LocalDateTime created, LocalDateTime updated,
+                             LocalDateTime deletedAt) implements LogRecord {
+
+    public boolean isLive() {
+        return deletedAt == null;
+    }
+
+    public TaskListRecord withDeletedAt(LocalDateTime deletedAt) {
+        return new TaskListRecord(id, title, description, created, updated, deletedAt);
+    }
+
+    // A detached entity, tasks are only set when given
+    public TaskList toTaskList(List<Task> tasks) {
+        TaskList taskList = new TaskList(id, title, description, tasks, created, updated);
+        taskList.setDeletedAt(deletedAt);
+        return taskList;
+    }
+}
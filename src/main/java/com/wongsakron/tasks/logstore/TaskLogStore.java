@@ -0,0 +1,400 @@
+package com.wongsakron.tasks.logstore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Embedded storage for task lists and tasks: an append-only log in memory-mapped segment files, with the latest
+// version of every record held in memory, by ID and the tasks also by list. Reads never touch the files.
+// A write appends one frame (length, CRC32C, records) to the active segment, so the records of one write are all
+// there after a crash or none are. The mapped pages belong to the OS page cache, so a crash of the process loses
+// nothing that was appended; sync() flushes them to disk against OS crashes and power loss.
+// On open, segments are replayed in order; a torn frame at the end of the last one is cut off. Compaction copies
+// the live records into a fresh segment and deletes the older ones, dropping records soft-deleted long enough ago.
+public class TaskLogStore implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskLogStore.class);
+
+    private static final int FRAME_HEADER = 8; // Body length and CRC32C
+    private static final String SEGMENT_SUFFIX = ".log";
+    static final int COMPACTION_BATCH = 1000; // Records per frame written by a compaction
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Object writeLock = new Object();
+    private final Map<UUID, TaskListRecord> taskLists = new ConcurrentHashMap<>();
+    private final Map<UUID, TaskRecord> tasks = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<UUID>> tasksByList = new ConcurrentHashMap<>(); // Secondary index, task IDs per list
+    private final List<Segment> segments = new ArrayList<>(); // Oldest first, the last one is written to
+    private long appendedRecords; // Records in the segments, live or superseded; compared with the live ones to decide on compaction
+    private boolean closed;
+
+    private TaskLogStore(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    // Opens the store in the directory, replaying the existing segments or starting an empty log
+    public static TaskLogStore open(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < 4096) {
+            throw new IllegalArgumentException("Task log segment size must be at least 4 KB!");
+        }
+        Files.createDirectories(directory);
+        TaskLogStore store = new TaskLogStore(directory, segmentSize);
+        try {
+            store.recover();
+        } catch (IOException | RuntimeException ex) {
+            store.close();
+            throw ex;
+        }
+        return store;
+    }
+
+    public Optional<TaskListRecord> taskList(UUID id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(taskLists.get(id));
+    }
+
+    public Collection<TaskListRecord> taskLists() {
+        return taskLists.values();
+    }
+
+    public Optional<TaskRecord> task(UUID id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(tasks.get(id));
+    }
+
+    // Every task of a list, soft-deleted ones included, in no particular order
+    public List<TaskRecord> tasksOf(UUID taskListId) {
+        Set<UUID> ids = taskListId == null ? null : tasksByList.get(taskListId);
+        if (ids == null) {
+            return List.of();
+        }
+        List<TaskRecord> result = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            TaskRecord task = tasks.get(id);
+            if (task != null && task.taskListId().equals(taskListId)) { // May have moved since the ID was read
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    // Runs change under the write lock, so nothing it reads can change before the records it adds to the list are
+    // appended. They are appended as one frame and applied to the in-memory index together. If change throws,
+    // nothing is written. Returns what change returns.
+    public <T> T write(Function<List<LogRecord>, T> change) {
+        synchronized (writeLock) {
+            checkOpen();
+            List<LogRecord> records = new ArrayList<>();
+            T result = change.apply(records);
+            if (!records.isEmpty()) {
+                append(LogCodec.encode(records));
+                records.forEach(this::apply);
+                appendedRecords += records.size();
+            }
+            return result;
+        }
+    }
+
+    // Flushes the appended frames to disk
+    public void sync() {
+        synchronized (writeLock) {
+            if (!closed) {
+                active().buffer.force();
+            }
+        }
+    }
+
+    // Compacts once the log holds more than ratio times as many records as are live, and at least minRecords
+    public boolean compactIfNeeded(double ratio, long minRecords, LocalDateTime purgeDeletedBefore) {
+        synchronized (writeLock) {
+            long live = taskLists.size() + tasks.size();
+            if (appendedRecords < minRecords || appendedRecords <= live * ratio) {
+                return false;
+            }
+            compact(purgeDeletedBefore);
+            return true;
+        }
+    }
+
+    // Rewrites the live records into a new segment and deletes the older ones. Records soft-deleted before
+    // purgeDeletedBefore are left out, and dropped from memory too. Writes wait until it is done.
+    public void compact(LocalDateTime purgeDeletedBefore) {
+        synchronized (writeLock) {
+            checkOpen();
+            long started = System.nanoTime();
+            List<Segment> old = List.copyOf(segments);
+            try {
+                roll();
+                purge(purgeDeletedBefore);
+                List<LogRecord> batch = new ArrayList<>(COMPACTION_BATCH);
+                rewrite(taskLists.values(), batch); // Lists first, so a replay never sees a task before its list
+                rewrite(tasks.values(), batch);
+                if (!batch.isEmpty()) {
+                    append(LogCodec.encode(batch));
+                }
+                for (Segment segment : segments) {
+                    segment.buffer.force(); // Durable before the old segments go
+                }
+                for (Segment segment : old) { // Oldest first, a crash in between replays to the same state
+                    segment.close();
+                    Files.delete(segment.path);
+                    segments.remove(segment);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            appendedRecords = taskLists.size() + tasks.size();
+            log.info("Compacted the task log to {} records in {} segment(s) in {} ms", appendedRecords, segments.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    public int taskListCount() {
+        return taskLists.size();
+    }
+
+    public int taskCount() {
+        return tasks.size();
+    }
+
+    // Bytes appended to the segments, superseded records included
+    public long logBytes() {
+        synchronized (writeLock) {
+            return segments.stream().mapToLong(segment -> segment.position).sum();
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (writeLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Segment segment : segments) {
+                try {
+                    segment.buffer.force();
+                    segment.close();
+                } catch (IOException ex) {
+                    log.warn("Could not close task log segment {}", segment.path, ex);
+                }
+            }
+            segments.clear();
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+        long frames = 0;
+        for (int i = 0; i < files.size(); i++) {
+            Segment segment = Segment.open(files.get(i), sequenceOf(files.get(i)), 0);
+            segments.add(segment);
+            boolean last = i == files.size() - 1;
+            frames += replay(segment, last);
+        }
+        if (segments.isEmpty()) {
+            segments.add(Segment.open(segmentPath(1), 1, segmentSize));
+        }
+        log.info("Opened task log {} with {} task lists and {} tasks ({} frames in {} segment(s))",
+                directory, taskLists.size(), tasks.size(), frames, segments.size());
+    }
+
+    // Applies every complete frame of the segment and positions it after the last one
+    private long replay(Segment segment, boolean last) {
+        MappedByteBuffer buffer = segment.buffer;
+        int position = 0;
+        long frames = 0;
+        while (position + FRAME_HEADER <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                break; // Never written
+            }
+            int crc = buffer.getInt(position + 4);
+            if (length < 0 || length > buffer.capacity() - position - FRAME_HEADER || crc != checksum(buffer, position + FRAME_HEADER, length)) {
+                if (!last) {
+                    throw new IllegalStateException("Task log segment " + segment.path + " is corrupted at offset " + position + "!");
+                }
+                log.warn("Cutting off a torn write at offset {} of task log segment {}", position, segment.path);
+                break;
+            }
+            List<LogRecord> records = LogCodec.decode(buffer.slice(position + FRAME_HEADER, length));
+            records.forEach(this::apply);
+            appendedRecords += records.size();
+            position += FRAME_HEADER + length;
+            frames++;
+        }
+        if (last) {
+            for (int i = position; i < buffer.capacity(); i++) {
+                if (buffer.get(i) != 0) {
+                    buffer.put(i, (byte) 0); // Leftovers of the torn frame, so they cannot be mistaken for a frame later
+                }
+            }
+        }
+        segment.position = position;
+        return frames;
+    }
+
+    private void append(byte[] body) {
+        if (body.length > segmentSize - FRAME_HEADER) {
+            throw new IllegalArgumentException("Task log write of " + body.length + " bytes does not fit into a segment!");
+        }
+        Segment segment = active();
+        if (segment.position + FRAME_HEADER + body.length > segment.buffer.capacity()) {
+            try {
+                roll();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            segment = active();
+        }
+        int position = segment.position;
+        MappedByteBuffer buffer = segment.buffer;
+        buffer.put(position + FRAME_HEADER, body);
+        buffer.putInt(position + 4, checksum(buffer, position + FRAME_HEADER, body.length));
+        buffer.putInt(position, body.length); // Last, a frame without length is never read
+        segment.position = position + FRAME_HEADER + body.length;
+    }
+
+    private void roll() throws IOException {
+        Segment current = active();
+        current.buffer.force();
+        segments.add(Segment.open(segmentPath(current.sequence + 1), current.sequence + 1, segmentSize));
+    }
+
+    private void rewrite(Collection<? extends LogRecord> records, List<LogRecord> batch) {
+        for (LogRecord record : records) {
+            batch.add(record);
+            if (batch.size() == COMPACTION_BATCH) {
+                append(LogCodec.encode(batch));
+                batch.clear();
+            }
+        }
+    }
+
+    private void apply(LogRecord record) {
+        switch (record) {
+            case TaskListRecord list -> taskLists.put(list.id(), list);
+            case TaskRecord task -> {
+                TaskRecord old = tasks.put(task.id(), task);
+                if (old != null && !old.taskListId().equals(task.taskListId())) {
+                    Set<UUID> oldList = tasksByList.get(old.taskListId());
+                    if (oldList != null) {
+                        oldList.remove(task.id());
+                    }
+                }
+                tasksByList.computeIfAbsent(task.taskListId(), id -> ConcurrentHashMap.newKeySet()).add(task.id());
+            }
+        }
+    }
+
+    private void purge(LocalDateTime deletedBefore) {
+        if (deletedBefore == null) {
+            return;
+        }
+        tasks.values().removeIf(task -> {
+            boolean purged = task.deletedAt() != null && task.deletedAt().isBefore(deletedBefore);
+            if (purged) {
+                Set<UUID> ids = tasksByList.get(task.taskListId());
+                if (ids != null) {
+                    ids.remove(task.id());
+                }
+            }
+            return purged;
+        });
+        taskLists.values().removeIf(list -> {
+            boolean purged = list.deletedAt() != null && list.deletedAt().isBefore(deletedBefore)
+                    && tasksByList.getOrDefault(list.id(), Set.of()).isEmpty(); // Like the purge job: children first
+            if (purged) {
+                tasksByList.remove(list.id());
+            }
+            return purged;
+        });
+    }
+
+    private Segment active() {
+        return segments.get(segments.size() - 1);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Task log is closed!");
+        }
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("%016d%s", sequence, SEGMENT_SUFFIX));
+    }
+
+    private static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    // One segment file, mapped as a whole
+    private static final class Segment {
+
+        private final Path path;
+        private final long sequence;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int position; // End of the last frame
+
+        private Segment(Path path, long sequence, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.sequence = sequence;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        // A size of 0 maps an existing file as it is, otherwise a new file of that size is created
+        private static Segment open(Path path, long sequence, int size) throws IOException {
+            FileChannel channel = size == 0
+                    ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                    : FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                long length = size == 0 ? channel.size() : size;
+                if (length > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("Task log segment " + path + " is too large!");
+                }
+                return new Segment(path, sequence, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, length)); // Grows a new file
+            } catch (IOException | RuntimeException ex) {
+                channel.close();
+                throw ex;
+            }
+        }
+
+        private void close() throws IOException {
+            channel.close(); // The mapping stays valid until collected
+        }
+    }
+}
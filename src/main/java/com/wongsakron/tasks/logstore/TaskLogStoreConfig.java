@@ -0,0 +1,46 @@
+package com.wongsakron.tasks.logstore;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Embedded storage for task lists and tasks, enabled with the "embedded" profile (see application-embedded.properties).
+// The log store services replace TaskServiceImpl and TaskListServiceImpl, so the controllers read and write the log.
+// Routes without a log store implementation answer 501 (UnavailableRouteInterceptor).
+@Configuration
+@Profile("embedded")
+public class TaskLogStoreConfig implements WebMvcConfigurer {
+
+    @Bean(destroyMethod = "close")
+    public TaskLogStore taskLogStore(
+            @Value("${tasks.logstore.directory:./data/task-log}") Path directory,
+            @Value("${tasks.logstore.segment-size:64MB}") DataSize segmentSize,
+            MeterRegistry meterRegistry
+    ) throws IOException {
+        if (segmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Task log segment size must be below 2 GB!"); // One mapping per segment
+        }
+        TaskLogStore store = TaskLogStore.open(directory, Math.toIntExact(segmentSize.toBytes())); // Replays the log before the application serves requests
+        Gauge.builder("tasks.logstore.task-lists", store, TaskLogStore::taskListCount).register(meterRegistry);
+        Gauge.builder("tasks.logstore.tasks", store, TaskLogStore::taskCount).register(meterRegistry);
+        Gauge.builder("tasks.logstore.log-bytes", store, TaskLogStore::logBytes).register(meterRegistry);
+        return store;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new UnavailableRouteInterceptor())
+                .addPathPatterns(UnavailableRouteInterceptor.ROUTES)
+                .order(Ordered.HIGHEST_PRECEDENCE); // Before the concurrency limiter, a 501 says nothing about load
+    }
+}
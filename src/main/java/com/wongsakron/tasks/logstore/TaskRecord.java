@@ -0,0 +1,48 @@
+package com.wongsakron.tasks.logstore;
+
+import com.wongsakron.tasks.domain.TaskTags;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.UUID;
+
+// Same columns as tasks, tags in their column form (see TaskTags), a non-null deletedAt is a soft delete
+public record TaskRecord(UUID id, UUID taskListId, String title, String description, LocalDateTime dueDate, TaskStatus status,
+                         TaskPriority priority, LocalDateTime created, LocalDateTime updated, UUID parentId, String tags, String rank,
+                         LocalDateTime deletedAt) implements LogRecord {
+
+    // Same display order as TaskRanks.TASK_ORDER
+    public static final Comparator<TaskRecord> ORDER = Comparator
+            .comparing(TaskRecord::rank, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(TaskRecord::created, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(TaskRecord::id);
+
+    // Takes every field from a task built by a service, so Task.setTags has already validated the tags
+    public static TaskRecord of(UUID taskListId, Task task) {
+        return new TaskRecord(task.getId(), taskListId, task.getTitle(), task.getDescription(), task.getDueDate(), task.getStatus(),
+                task.getPriority(), task.getCreated(), task.getUpdated(), task.getParentId(), TaskTags.join(task.getTags()), task.getRank(),
+                task.getDeletedAt());
+    }
+
+    public boolean isLive() {
+        return deletedAt == null;
+    }
+
+    public TaskRecord withDeletedAt(LocalDateTime deletedAt) {
+        return new TaskRecord(id, taskListId, title, description, dueDate, status, priority, created, updated, parentId, tags, rank, deletedAt);
+    }
+
+    // A detached entity, callers may change it freely
+    public Task toTask(TaskList taskList) {
+        Task task = new Task(id, title, description, dueDate, status, priority, taskList, created, updated);
+        task.setParentId(parentId);
+        task.setTags(TaskTags.parse(tags));
+        task.setRank(rank);
+        task.setDeletedAt(deletedAt);
+        return task;
+    }
+}
@@ -0,0 +1,30 @@
+package com.wongsakron.tasks.logstore;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// Rejects the routes that only have a JPA implementation. With embedded storage they would read the JPA tables,
+// which hold none of the log's task lists and tasks, and answer with empty or stale data instead of an error.
+public class UnavailableRouteInterceptor implements HandlerInterceptor {
+
+    // Patterns for InterceptorRegistration.addPathPatterns
+    public static final String[] ROUTES = {
+            "/task-lists/*/tasks/search",
+            "/task-lists/*/tasks/*/move",
+            "/task-lists/*/tasks/*/subtree",
+            "/task-lists/*/tasks/*/progress",
+            "/task-lists/*/tasks/*/parent",
+            "/task-lists/*/dashboard/**",
+            "/dashboard/**",
+            "/exports",
+            "/exports/**",
+            "/snapshots",
+            "/snapshots/**"
+    };
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        throw new UnsupportedOperationException(request.getRequestURI() + " is not available with embedded storage!");
+    }
+}
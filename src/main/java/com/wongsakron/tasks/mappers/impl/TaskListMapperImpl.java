@@ -1,5 +1,6 @@
 package com.wongsakron.tasks.mappers.impl;
 
+import com.wongsakron.tasks.domain.TaskRanks;
 import com.wongsakron.tasks.domain.dto.TaskListDto;
 import com.wongsakron.tasks.domain.entities.Task;
 import com.wongsakron.tasks.domain.entities.TaskList;
@@ -41,25 +42,27 @@ public class TaskListMapperImpl implements TaskListMapper {
                 taskList.getTitle(),
                 taskList.getDescription(),
                 Optional.ofNullable(taskList.getTasks())
-                        .map(List::size).orElse(0),
-                calculateTaskListProgress(taskList.getTasks()), // Calculate the progress of the task list
+                        .map(List::size).orElse(0) + taskList.getArchivedTaskCount(), // Archived tasks still belong to the list
+                calculateTaskListProgress(taskList.getTasks(), taskList.getArchivedTaskCount()), // Calculate the progress of the task list
                 Optional.ofNullable(taskList.getTasks()) // Convert List<Task> to List<TaskDto>
-                        .map(tasks -> tasks.stream().map(taskMapper::toDto).toList())
+                        .map(tasks -> tasks.stream()
+                                .sorted(TaskRanks.TASK_ORDER) // A cached collection keeps its ID order across moves, so sort by rank here
+                                .map(taskMapper::toDto).toList())
                         .orElse(null)
         );
     }
 
     // This method calculates the progress of the task list based on the number of closed tasks.
-    private  Double calculateTaskListProgress(List<Task> tasks) {
+    private  Double calculateTaskListProgress(List<Task> tasks, int archivedTaskCount) {
         if (null == tasks) {
             return null;
         } // If there are no tasks, return null
 
         long closedTaskCount = tasks.stream().filter(task ->
             TaskStatus.CLOSED == task.getStatus()
-        ).count(); // Count the number of tasks with CLOSED status
+        ).count() + archivedTaskCount; // Count the number of tasks with CLOSED status, archived tasks are always CLOSED
 
-        return (double) closedTaskCount / tasks.size(); // Calculate the progress as a percentage of closed tasks over total tasks
+        return (double) closedTaskCount / (tasks.size() + archivedTaskCount); // Calculate the progress as a percentage of closed tasks over total tasks
     }
 }
 // This implementation of the TaskListMapper interface provides methods to convert between TaskListDto and TaskList entities,
\ No newline at end of file
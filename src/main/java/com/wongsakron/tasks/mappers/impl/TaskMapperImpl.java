@@ -9,7 +9,7 @@ import org.springframework.stereotype.Component;
 public class TaskMapperImpl implements TaskMapper {
     @Override
     public Task fromDto(TaskDto taskDto) {
-        return new Task(
+        Task task = new Task(
                 taskDto.id(),
                 taskDto.title(),
                 taskDto.description(),
@@ -20,6 +20,9 @@ public class TaskMapperImpl implements TaskMapper {
                 null,
                 null
         );
+        task.setParentId(taskDto.parentId());
+        task.setTags(taskDto.tags());
+        return task;
     }
 
     @Override
@@ -30,7 +33,9 @@ public class TaskMapperImpl implements TaskMapper {
                 task.getDescription(),
                 task.getDueDate(),
                 task.getPriority(),
-                task.getStatus()
+                task.getStatus(),
+                task.getParentId(),
+                task.getTags()
         );
     }
 }
@@ -0,0 +1,79 @@
+package com.wongsakron.tasks.persistence;
+
+import org.hibernate.Hibernate;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Reports lazy loads nobody asked for: a collection or proxy initialized only because some code (a mapper, equals,
+// toString, a log statement) touched it. Explicit fetch plans never trigger it: join fetches and entity graphs
+// load during the query, and deliberate loads go through initialize().
+public class LazyLoadGuard implements InitializeCollectionEventListener, LoadEventListener {
+
+    public enum Mode { OFF, LOG, FAIL }
+
+    private static final Logger log = LoggerFactory.getLogger(LazyLoadGuard.class);
+    private static final ThreadLocal<Boolean> EXPLICIT = ThreadLocal.withInitial(() -> false);
+
+    private final Mode mode;
+    private final AtomicLong violations = new AtomicLong();
+
+    public LazyLoadGuard(Mode mode) {
+        this.mode = mode;
+    }
+
+    // Initializes a lazy collection or proxy as part of the caller's fetch plan, null and loaded values are returned as is
+    public static <T> T initialize(T proxyOrCollection) {
+        if (proxyOrCollection == null || Hibernate.isInitialized(proxyOrCollection)) {
+            return proxyOrCollection;
+        }
+        boolean nested = EXPLICIT.get();
+        EXPLICIT.set(true);
+        try {
+            Hibernate.initialize(proxyOrCollection);
+        } finally {
+            if (!nested) {
+                EXPLICIT.remove();
+            }
+        }
+        return proxyOrCollection;
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) {
+        check("collection " + event.getCollection().getRole() + "#" + event.getCollection().getKey());
+    }
+
+    @Override
+    public void onLoad(LoadEvent event, LoadType loadType) {
+        if (loadType == LoadEventListener.IMMEDIATE_LOAD) { // Proxy initialization, plain finds are explicit
+            check("proxy " + event.getEntityClassName() + "#" + event.getEntityId());
+        }
+    }
+
+    private void check(String what) {
+        if (mode == Mode.OFF || EXPLICIT.get()) {
+            return;
+        }
+        violations.incrementAndGet();
+        LazyLoadViolationException violation = new LazyLoadViolationException(
+                "Unexpected lazy load of " + what + ", fetch it explicitly (join fetch, entity graph or LazyLoadGuard.initialize)");
+        if (mode == Mode.FAIL) {
+            throw violation;
+        }
+        log.warn(violation.getMessage(), violation); // Stack trace shows who touched it
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public long getViolations() {
+        return violations.get();
+    }
+}
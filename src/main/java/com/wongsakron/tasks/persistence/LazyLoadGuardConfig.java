@@ -0,0 +1,32 @@
+package com.wongsakron.tasks.persistence;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LazyLoadGuardConfig {
+
+    @Bean
+    public LazyLoadGuard lazyLoadGuard(
+            EntityManagerFactory entityManagerFactory,
+            @Value("${tasks.jpa.lazy-load-guard:log}") LazyLoadGuard.Mode mode,
+            MeterRegistry meterRegistry
+    ) {
+        LazyLoadGuard guard = new LazyLoadGuard(mode);
+        if (mode != LazyLoadGuard.Mode.OFF) {
+            EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getServiceRegistry().getService(EventListenerRegistry.class);
+            listeners.prependListeners(EventType.INIT_COLLECTION, guard); // Before Hibernate's listener, FAIL stops the query
+            listeners.prependListeners(EventType.LOAD, guard);
+        }
+        FunctionCounter.builder("tasks.jpa.unexpected-lazy-loads", guard, LazyLoadGuard::getViolations).register(meterRegistry);
+        return guard;
+    }
+}
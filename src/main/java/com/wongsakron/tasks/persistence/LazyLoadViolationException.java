@@ -0,0 +1,11 @@
+package com.wongsakron.tasks.persistence;
+
+// Thrown by LazyLoadGuard in FAIL mode, the stack trace points at the code that touched the association.
+public class LazyLoadViolationException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LazyLoadViolationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,66 @@
+package com.wongsakron.tasks.reactive;
+
+import com.wongsakron.tasks.reactive.handlers.ReactiveResponses;
+import com.wongsakron.tasks.reactive.handlers.TaskHandler;
+import com.wongsakron.tasks.reactive.handlers.TaskListHandler;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+// Non-blocking variant of the task list and task API, enabled with the "reactive" profile (see application-reactive.properties).
+// Router functions are matched before annotated controllers, so these routes replace TaskListController and TasksController.
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveStackConfig {
+
+    // DataSourceAutoConfiguration backs off as soon as an R2DBC ConnectionFactory exists, so the JDBC pool JPA
+    // runs on is declared here, from the same spring.datasource.* properties. ReplicaRoutingConfig declares its
+    // own when a replica is configured.
+    @Bean
+    @ConditionalOnExpression("'${tasks.datasource.replica.jdbc-url:}'.isEmpty()")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> taskRoutes(TaskListHandler taskLists, TaskHandler tasks) {
+        return RouterFunctions.route()
+                .GET("/task-lists", taskLists::listTaskLists)
+                .POST("/task-lists", taskLists::createTaskList)
+                .GET("/task-lists/{task_list_id}", taskLists::getTaskList)
+                .PUT("/task-lists/{task_list_id}", taskLists::updateTaskList)
+                .DELETE("/task-lists/{task_list_id}", taskLists::deleteTaskList)
+                .POST("/task-lists/{task_list_id}/restore", taskLists::restoreTaskList)
+                .GET("/task-lists/{task_list_id}/tasks", tasks::listTasks)
+                .POST("/task-lists/{task_list_id}/tasks", tasks::createTask)
+                .GET("/task-lists/{task_list_id}/tasks/{task_id}", tasks::getTask)
+                .PUT("/task-lists/{task_list_id}/tasks/{task_id}", tasks::updateTask)
+                .DELETE("/task-lists/{task_list_id}/tasks/{task_id}", tasks::deleteTask)
+                .POST("/task-lists/{task_list_id}/tasks/{task_id}/restore", tasks::restoreTask)
+                .onError(IllegalArgumentException.class, (ex, request) -> ReactiveResponses.error(request, HttpStatus.BAD_REQUEST, ex))
+                .onError(IllegalStateException.class, (ex, request) -> ReactiveResponses.error(request, HttpStatus.NOT_FOUND, ex))
+                .build();
+    }
+
+    // JPA stays in use (GraphQL, jobs, batch reads). With the R2DBC transaction manager next to it,
+    // @Transactional without a qualifier needs a primary one, and that must stay the JPA manager.
+    @Bean
+    @Primary
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
@@ -0,0 +1,35 @@
+package com.wongsakron.tasks.reactive.handlers;
+
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.wongsakron.tasks.domain.dto.ErrorResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+// Response helpers that keep the reactive handlers' output identical to the servlet controllers.
+public final class ReactiveResponses {
+
+    private ReactiveResponses() {
+    }
+
+    public static Mono<ServerResponse> ok(Object body) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+    }
+
+    public static Mono<ServerResponse> okNull() {
+        return Mono.defer(() -> ok(NullNode.getInstance())); // Serialized as the literal null
+    }
+
+    public static <T> Mono<T> body(ServerRequest request, Class<T> type) {
+        return request.bodyToMono(type)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Request body is required!")));
+    }
+
+    // Same body as GlobalExceptionHandler, whose @ExceptionHandlers do not apply to router functions
+    public static Mono<ServerResponse> error(ServerRequest request, HttpStatus status, Throwable ex) {
+        var body = new ErrorResponse(status.value(), ex.getMessage(), "uri=" + request.path());
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+    }
+}
@@ -0,0 +1,79 @@
+package com.wongsakron.tasks.reactive.handlers;
+
+import com.wongsakron.tasks.domain.dto.TaskDto;
+import com.wongsakron.tasks.mappers.TaskMapper;
+import com.wongsakron.tasks.reactive.services.ReactiveTaskService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+// WebFlux handlers for the routes of TasksController, with the same request and response bodies.
+@Component
+@Profile("reactive")
+public class TaskHandler {
+
+    private final ReactiveTaskService taskService;
+    private final TaskMapper taskMapper;
+
+    public TaskHandler(ReactiveTaskService taskService, TaskMapper taskMapper) {
+        this.taskService = taskService;
+        this.taskMapper = taskMapper;
+    }
+
+    public Mono<ServerResponse> listTasks(ServerRequest request) {
+        boolean includeArchived = request.queryParam("includeArchived").map(Boolean::parseBoolean).orElse(false);
+        return taskService.listTasks(taskListId(request), includeArchived)
+                .map(taskMapper::toDto)
+                .collectList()
+                .flatMap(ReactiveResponses::ok);
+    }
+
+    public Mono<ServerResponse> createTask(ServerRequest request) {
+        UUID taskListId = taskListId(request);
+        return ReactiveResponses.body(request, TaskDto.class)
+                .map(taskMapper::fromDto)
+                .flatMap(task -> taskService.createTask(taskListId, task))
+                .map(taskMapper::toDto)
+                .flatMap(ReactiveResponses::ok);
+    }
+
+    public Mono<ServerResponse> getTask(ServerRequest request) {
+        return taskService.getTask(taskListId(request), taskId(request))
+                .map(taskMapper::toDto)
+                .flatMap(ReactiveResponses::ok)
+                .switchIfEmpty(ReactiveResponses.okNull());
+    }
+
+    public Mono<ServerResponse> updateTask(ServerRequest request) {
+        UUID taskListId = taskListId(request);
+        UUID taskId = taskId(request);
+        return ReactiveResponses.body(request, TaskDto.class)
+                .map(taskMapper::fromDto)
+                .flatMap(task -> taskService.updateTask(taskListId, taskId, task))
+                .map(taskMapper::toDto)
+                .flatMap(ReactiveResponses::ok);
+    }
+
+    public Mono<ServerResponse> deleteTask(ServerRequest request) {
+        return taskService.deleteTask(taskListId(request), taskId(request))
+                .then(ServerResponse.ok().build());
+    }
+
+    public Mono<ServerResponse> restoreTask(ServerRequest request) {
+        return taskService.restoreTask(taskListId(request), taskId(request))
+                .map(taskMapper::toDto)
+                .flatMap(ReactiveResponses::ok);
+    }
+
+    private UUID taskListId(ServerRequest request) {
+        return UUID.fromString(request.pathVariable("task_list_id"));
+    }
+
+    private UUID taskId(ServerRequest request) {
+        return UUID.fromString(request.pathVariable("task_id"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.wongsakron.tasks.reactive.handlers;
+
+import com.wongsakron.tasks.domain.dto.TaskListDto;
+import com.wongsakron.tasks.mappers.TaskListMapper;
+import com.wongsakron.tasks.reactive.services.ReactiveTaskListService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+// WebFlux handlers for the routes of TaskListController, with the same request and response bodies.
+@Component
+@Profile("reactive")
+public class TaskListHandler {
+
+    private final ReactiveTaskListService taskListService;
+    private final TaskListMapper taskListMapper;
+
+    public TaskListHandler(ReactiveTaskListService taskListService, TaskListMapper taskListMapper) {
+        this.taskListService = taskListService;
+        this.taskListMapper = taskListMapper;
+    }
+
+    public Mono<ServerResponse> listTaskLists(ServerRequest request) {
+        return taskListService.listTaskLists()
+                .map(taskListMapper::toDto)
+                .collectList()
+                .flatMap(ReactiveResponses::ok);
+    }
+
+    public Mono<ServerResponse> createTaskList(ServerRequest request) {
+        return ReactiveResponses.body(request, TaskListDto.class)
+                .map(taskListMapper::fromDto)
+                .flatMap(taskListService::createTaskList)
+                .map(taskListMapper::toDto)
+                .flatMap(ReactiveResponses::ok);
+    }
+
+    public Mono<ServerResponse> getTaskList(ServerRequest request) {
+        return taskListService.getTaskList(taskListId(request))
+                .map(taskListMapper::toDto)
+                .flatMap(ReactiveResponses::ok)
+                .switchIfEmpty(ReactiveResponses.okNull()); // Same "null" body the servlet stack returns for an empty Optional
+    }
+
+    public Mono<ServerResponse> updateTaskList(ServerRequest request) {
+        UUID taskListId = taskListId(request);
+        return ReactiveResponses.body(request, TaskListDto.class)
+                .map(taskListMapper::fromDto)
+                .flatMap(taskList -> taskListService.updateTaskList(taskListId, taskList))
+                .map(taskListMapper::toDto)
+                .flatMap(ReactiveResponses::ok);
+    }
+
+    public Mono<ServerResponse> deleteTaskList(ServerRequest request) {
+        return taskListService.deleteTaskList(taskListId(request))
+                .then(ServerResponse.ok().build());
+    }
+
+    public Mono<ServerResponse> restoreTaskList(ServerRequest request) {
+        return taskListService.restoreTaskList(taskListId(request))
+                .map(taskListMapper::toDto)
+                .flatMap(ReactiveResponses::ok);
+    }
+
+    private UUID taskListId(ServerRequest request) {
+        return UUID.fromString(request.pathVariable("task_list_id"));
+    }
+}
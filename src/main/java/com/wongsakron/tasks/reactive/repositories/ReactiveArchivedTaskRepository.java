@@ -0,0 +1,13 @@
+package com.wongsakron.tasks.reactive.repositories;
+
+import com.wongsakron.tasks.reactive.rows.ArchivedTaskRow;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+@Repository
+public interface ReactiveArchivedTaskRepository extends ReactiveCrudRepository<ArchivedTaskRow, UUID> {
+    Flux<ArchivedTaskRow> findByTaskListId(UUID taskListId); // Retrieves the archived tasks of a task list.
+}
@@ -0,0 +1,34 @@
+package com.wongsakron.tasks.reactive.repositories;
+
+import com.wongsakron.tasks.reactive.rows.TaskListRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Soft-deleted rows are filtered explicitly, R2DBC has no equivalent of @SQLRestriction.
+@Repository
+public interface ReactiveTaskListRepository extends ReactiveCrudRepository<TaskListRow, UUID> {
+    Flux<TaskListRow> findByDeletedAtIsNull(); // Retrieves all live task lists.
+
+    Mono<TaskListRow> findByIdAndDeletedAtIsNull(UUID id);
+
+    Mono<Boolean> existsByIdAndDeletedAtIsNull(UUID id);
+
+    @Modifying
+    @Query("update task_lists set deleted_at = :deletedAt where id = :id")
+    Mono<Integer> softDeleteById(@Param("id") UUID id, @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Query("select deleted_at from task_lists where id = :id and deleted_at is not null")
+    Mono<LocalDateTime> findDeletedAtById(@Param("id") UUID id);
+
+    @Modifying
+    @Query("update task_lists set deleted_at = null where id = :id and deleted_at is not null")
+    Mono<Integer> restoreById(@Param("id") UUID id);
+}
@@ -0,0 +1,58 @@
+package com.wongsakron.tasks.reactive.repositories;
+
+import com.wongsakron.tasks.reactive.rows.TaskRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+@Repository
+public interface ReactiveTaskRepository extends ReactiveCrudRepository<TaskRow, UUID> {
+    // Same order as the JPA stack: rank, then creation for tasks the rebalancer has not ranked yet
+    @Query("select * from tasks where task_list_id = :taskListId and deleted_at is null order by rank_key nulls last, created, id")
+    Flux<TaskRow> findByTaskListIdAndDeletedAtIsNull(@Param("taskListId") UUID taskListId); // Retrieves the live tasks of a task list.
+
+    @Query("select * from tasks where task_list_id in (:taskListIds) and deleted_at is null order by rank_key nulls last, created, id")
+    Flux<TaskRow> findByTaskListIdInAndDeletedAtIsNull(@Param("taskListIds") Collection<UUID> taskListIds); // One query for the tasks of many lists.
+
+    @Query("select coalesce(max(rank_key), '') from tasks where task_list_id = :taskListId and deleted_at is null")
+    Mono<String> findMaxRankByTaskListId(@Param("taskListId") UUID taskListId); // Empty string when the list has no ranked task yet.
+
+    Mono<TaskRow> findByTaskListIdAndIdAndDeletedAtIsNull(UUID taskListId, UUID id);
+
+    // Same hierarchy statements as TaskRepository and TaskClosureRepository on the JPA stack
+    @Modifying
+    @Query("insert into task_closure (ancestor_id, descendant_id, depth) " +
+            "select ancestor_id, cast(:childId as uuid), depth + 1 from task_closure where descendant_id = :parentId " +
+            "union all select cast(:parentId as uuid), cast(:childId as uuid), 1")
+    Mono<Integer> insertPathsToLeaf(@Param("parentId") UUID parentId, @Param("childId") UUID childId);
+
+    @Modifying
+    @Query("update tasks set deleted_at = :deletedAt where task_list_id = :taskListId and deleted_at is null " +
+            "and (id = :id or id in (select descendant_id from task_closure where ancestor_id = :id))")
+    Mono<Integer> softDeleteByTaskListIdAndId(@Param("taskListId") UUID taskListId, @Param("id") UUID id, @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying
+    @Query("update tasks set deleted_at = :deletedAt where task_list_id = :taskListId and deleted_at is null")
+    Mono<Integer> softDeleteByTaskListId(@Param("taskListId") UUID taskListId, @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying
+    @Query("update tasks set deleted_at = null " +
+            "where task_list_id = :taskListId and deleted_at is not null " +
+            "and (id = :id or id in (select descendant_id from task_closure where ancestor_id = :id)) " +
+            "and deleted_at = (select r.deleted_at from tasks r where r.id = :id) " +
+            "and exists (select 1 from task_lists l where l.id = :taskListId and l.deleted_at is null) " +
+            "and not exists (select 1 from tasks r join tasks p on p.id = r.parent_id where r.id = :id and p.deleted_at is not null)")
+    Mono<Integer> restoreByTaskListIdAndId(@Param("taskListId") UUID taskListId, @Param("id") UUID id);
+
+    @Modifying
+    @Query("update tasks set deleted_at = null where task_list_id = :taskListId and deleted_at = :deletedAt")
+    Mono<Integer> restoreByTaskListIdDeletedAt(@Param("taskListId") UUID taskListId, @Param("deletedAt") LocalDateTime deletedAt);
+}
@@ -0,0 +1,30 @@
+package com.wongsakron.tasks.reactive.rows;
+
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// R2DBC view of an "archived_tasks" row, read only.
+@Table("archived_tasks")
+public record ArchivedTaskRow(
+        @Id UUID id,
+        String title,
+        String description,
+        LocalDateTime dueDate,
+        Integer status,
+        Integer priority,
+        UUID taskListId,
+        LocalDateTime created,
+        LocalDateTime updated
+) {
+
+    public Task toTask() {
+        return new Task(id, title, description, dueDate,
+                TaskStatus.values()[status], TaskPriority.values()[priority], null, created, updated);
+    }
+}
@@ -0,0 +1,35 @@
+package com.wongsakron.tasks.reactive.rows;
+
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// R2DBC view of a "task_lists" row. The schema is owned by the JPA entity TaskList.
+@Table("task_lists")
+public record TaskListRow(
+        @Id UUID id,
+        String title,
+        String description,
+        @ReadOnlyProperty int archivedTaskCount, // Never written from here, only the archiver's increment changes it
+        LocalDateTime created,
+        LocalDateTime updated,
+        LocalDateTime deletedAt
+) {
+
+    public TaskListRow withTitleAndDescription(String title, String description, LocalDateTime updated) {
+        return new TaskListRow(id, title, description, archivedTaskCount, created, updated, deletedAt);
+    }
+
+    // Same shape the JPA stack hands to TaskListMapper, so both stacks render identical DTOs
+    public TaskList toTaskList(List<Task> tasks) {
+        TaskList taskList = new TaskList(id, title, description, tasks, created, updated);
+        taskList.setArchivedTaskCount(archivedTaskCount);
+        return taskList;
+    }
+}
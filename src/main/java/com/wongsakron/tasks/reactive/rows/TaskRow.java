@@ -0,0 +1,45 @@
+package com.wongsakron.tasks.reactive.rows;
+
+import com.wongsakron.tasks.domain.TaskTags;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// R2DBC view of a "tasks" row. Status and priority are stored as ordinals, the way Hibernate maps the enums.
+@Table("tasks")
+public record TaskRow(
+        @Id UUID id,
+        String title,
+        String description,
+        LocalDateTime dueDate,
+        Integer status,
+        Integer priority,
+        UUID taskListId,
+        LocalDateTime created,
+        LocalDateTime updated,
+        LocalDateTime deletedAt,
+        String rankKey,
+        UUID parentId,
+        String tags
+) {
+
+    public static TaskRow of(UUID id, UUID taskListId, Task task, String rankKey, UUID parentId, LocalDateTime created, LocalDateTime updated) {
+        return new TaskRow(id, task.getTitle(), task.getDescription(), task.getDueDate(),
+                task.getStatus().ordinal(), task.getPriority().ordinal(), taskListId, created, updated, null, rankKey, parentId,
+                TaskTags.join(task.getTags()));
+    }
+
+    public Task toTask() {
+        Task task = new Task(id, title, description, dueDate,
+                TaskStatus.values()[status], TaskPriority.values()[priority], null, created, updated);
+        task.setRank(rankKey);
+        task.setParentId(parentId);
+        task.setTags(TaskTags.parse(tags));
+        return task;
+    }
+}
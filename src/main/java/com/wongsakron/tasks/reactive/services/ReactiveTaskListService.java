@@ -0,0 +1,17 @@
+package com.wongsakron.tasks.reactive.services;
+
+import com.wongsakron.tasks.domain.entities.TaskList;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+// Non-blocking counterpart of TaskListService, same validation rules and error types.
+public interface ReactiveTaskListService {
+    Flux<TaskList> listTaskLists(); // Retrieves all task lists with their tasks
+    Mono<TaskList> createTaskList(TaskList taskList);
+    Mono<TaskList> getTaskList(UUID id); // Empty when the task list does not exist
+    Mono<TaskList> updateTaskList(UUID id, TaskList taskList);
+    Mono<Void> deleteTaskList(UUID id); // Soft deletes a task list and its tasks
+    Mono<TaskList> restoreTaskList(UUID id);
+}
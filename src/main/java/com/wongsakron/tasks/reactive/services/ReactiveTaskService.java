@@ -0,0 +1,17 @@
+package com.wongsakron.tasks.reactive.services;
+
+import com.wongsakron.tasks.domain.entities.Task;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+// Non-blocking counterpart of TaskService, same validation rules and error types.
+public interface ReactiveTaskService {
+    Flux<Task> listTasks(UUID taskListId, boolean includeArchived);
+    Mono<Task> createTask(UUID taskListId, Task task);
+    Mono<Task> getTask(UUID taskListId, UUID taskId); // Empty when the task does not exist
+    Mono<Task> updateTask(UUID taskListId, UUID taskId, Task task);
+    Mono<Void> deleteTask(UUID taskListId, UUID taskId); // Soft deletes a task
+    Mono<Task> restoreTask(UUID taskListId, UUID taskId);
+}
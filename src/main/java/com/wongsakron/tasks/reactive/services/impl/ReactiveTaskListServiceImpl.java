@@ -0,0 +1,127 @@
+package com.wongsakron.tasks.reactive.services.impl;
+
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.reactive.repositories.ReactiveTaskListRepository;
+import com.wongsakron.tasks.reactive.repositories.ReactiveTaskRepository;
+import com.wongsakron.tasks.reactive.rows.TaskListRow;
+import com.wongsakron.tasks.reactive.rows.TaskRow;
+import com.wongsakron.tasks.reactive.services.ReactiveTaskListService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+@Service
+@Profile("reactive")
+public class ReactiveTaskListServiceImpl implements ReactiveTaskListService {
+
+    private final ReactiveTaskListRepository taskListRepository;
+    private final ReactiveTaskRepository taskRepository;
+    private final R2dbcEntityTemplate template;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveTaskListServiceImpl(
+            ReactiveTaskListRepository taskListRepository,
+            ReactiveTaskRepository taskRepository,
+            R2dbcEntityTemplate template,
+            TransactionalOperator transactionalOperator
+    ) {
+        this.taskListRepository = taskListRepository;
+        this.taskRepository = taskRepository;
+        this.template = template;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    @Override
+    public Flux<TaskList> listTaskLists() {
+        return taskListRepository.findByDeletedAtIsNull()
+                .collectList()
+                .flatMapMany(this::withTasks); // Two queries in total, not one per list
+    }
+
+    @Override
+    public Mono<TaskList> createTaskList(TaskList taskList) {
+        if (null != taskList.getId()) {
+            return Mono.error(new IllegalArgumentException("Task list already has an Id!"));
+        }
+        if (null == taskList.getTitle() || taskList.getTitle().isBlank()) {
+            return Mono.error(new IllegalArgumentException("Task list title cannot be null or empty!"));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        TaskListRow row = new TaskListRow(UUID.randomUUID(), taskList.getTitle(), taskList.getDescription(), 0, now, now, null);
+        return template.insert(row) // Insert, the id is assigned here so save() would issue an update
+                .map(saved -> saved.toTaskList(null)); // A new list has no tasks loaded, same as the JPA stack
+    }
+
+    @Override
+    public Mono<TaskList> getTaskList(UUID id) {
+        return taskListRepository.findByIdAndDeletedAtIsNull(id)
+                .flatMap(this::withTasks);
+    }
+
+    @Override
+    public Mono<TaskList> updateTaskList(UUID taskListId, TaskList taskList) {
+        if (null == taskList.getId()) {
+            return Mono.error(new IllegalArgumentException("Task list must have an Id to be updated!"));
+        }
+        if (!Objects.equals(taskList.getId(), taskListId)) {
+            return Mono.error(new IllegalArgumentException("Attempt to change task list ID, this is not permitted!"));
+        }
+
+        return taskListRepository.findByIdAndDeletedAtIsNull(taskListId)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Task list not found!")))
+                .map(existing -> existing.withTitleAndDescription(taskList.getTitle(), taskList.getDescription(), LocalDateTime.now()))
+                .flatMap(taskListRepository::save)
+                .flatMap(this::withTasks);
+    }
+
+    @Override
+    public Mono<Void> deleteTaskList(UUID id) {
+        LocalDateTime deletedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS); // Shared by the list and its tasks, see restore
+        return taskListRepository.findByIdAndDeletedAtIsNull(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Task list not found!")))
+                .flatMap(existing -> taskRepository.softDeleteByTaskListId(id, deletedAt)
+                        .then(taskListRepository.softDeleteById(id, deletedAt)))
+                .as(transactionalOperator::transactional)
+                .then();
+    }
+
+    @Override
+    public Mono<TaskList> restoreTaskList(UUID id) {
+        return taskListRepository.findDeletedAtById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Deleted task list not found!")))
+                .flatMap(deletedAt -> taskListRepository.restoreById(id)
+                        .then(taskRepository.restoreByTaskListIdDeletedAt(id, deletedAt)))
+                .then(getTaskList(id))
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<TaskList> withTasks(TaskListRow row) {
+        return taskRepository.findByTaskListIdAndDeletedAtIsNull(row.id())
+                .map(TaskRow::toTask)
+                .collectList()
+                .map(tasks -> row.toTaskList(new ArrayList<>(tasks)));
+    }
+
+    private Flux<TaskList> withTasks(List<TaskListRow> rows) {
+        if (rows.isEmpty()) {
+            return Flux.empty();
+        }
+        List<UUID> ids = rows.stream().map(TaskListRow::id).toList();
+        return taskRepository.findByTaskListIdInAndDeletedAtIsNull(ids)
+                .collectMultimap(TaskRow::taskListId, TaskRow::toTask)
+                .flatMapMany(tasksByList -> Flux.fromIterable(rows)
+                        .map(row -> row.toTaskList(new ArrayList<Task>(tasksByList.getOrDefault(row.id(), List.of())))));
+    }
+}
@@ -0,0 +1,149 @@
+package com.wongsakron.tasks.reactive.services.impl;
+
+import com.wongsakron.tasks.domain.TaskRanks;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import com.wongsakron.tasks.reactive.repositories.ReactiveArchivedTaskRepository;
+import com.wongsakron.tasks.reactive.repositories.ReactiveTaskListRepository;
+import com.wongsakron.tasks.reactive.repositories.ReactiveTaskRepository;
+import com.wongsakron.tasks.reactive.rows.ArchivedTaskRow;
+import com.wongsakron.tasks.reactive.rows.TaskRow;
+import com.wongsakron.tasks.reactive.services.ReactiveTaskService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@Profile("reactive")
+public class ReactiveTaskServiceImpl implements ReactiveTaskService {
+
+    private final ReactiveTaskRepository taskRepository;
+    private final ReactiveTaskListRepository taskListRepository;
+    private final ReactiveArchivedTaskRepository archivedTaskRepository;
+    private final R2dbcEntityTemplate template;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveTaskServiceImpl(
+            ReactiveTaskRepository taskRepository,
+            ReactiveTaskListRepository taskListRepository,
+            ReactiveArchivedTaskRepository archivedTaskRepository,
+            R2dbcEntityTemplate template,
+            TransactionalOperator transactionalOperator
+    ) {
+        this.taskRepository = taskRepository;
+        this.taskListRepository = taskListRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.template = template;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    @Override
+    public Flux<Task> listTasks(UUID taskListId, boolean includeArchived) {
+        Flux<Task> tasks = taskRepository.findByTaskListIdAndDeletedAtIsNull(taskListId).map(TaskRow::toTask);
+        if (!includeArchived) {
+            return tasks;
+        }
+        Flux<Task> archived = taskListRepository.existsByIdAndDeletedAtIsNull(taskListId)
+                .flatMapMany(exists -> exists
+                        ? archivedTaskRepository.findByTaskListId(taskListId).map(ArchivedTaskRow::toTask)
+                        : Flux.empty()); // Archived tasks of a deleted list stay hidden until it is purged
+        return tasks.concatWith(archived); // Archived tasks come after the active ones
+    }
+
+    @Override
+    public Mono<Task> createTask(UUID taskListId, Task task) {
+        if (task == null) {
+            return Mono.error(new IllegalArgumentException("Task payload cannot be null!"));
+        }
+        if (task.getId() != null) {
+            return Mono.error(new IllegalArgumentException("Task already has an Id!"));
+        }
+        if (task.getTitle() == null) {
+            return Mono.error(new IllegalArgumentException("Task title cannot be null!"));
+        }
+        if (task.getTitle().trim().isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Task title cannot be blank!"));
+        }
+        if (taskListId == null) {
+            return Mono.error(new IllegalArgumentException("Invalid Task List ID provided!"));
+        }
+
+        TaskPriority taskPriority = Optional.ofNullable(task.getPriority())
+                .orElse(TaskPriority.MEDIUM); // Sets a default priority if none is provided
+        Task taskForSave = new Task(null, task.getTitle(), task.getDescription(), task.getDueDate(),
+                TaskStatus.OPEN, taskPriority, null, null, null);
+        taskForSave.setTags(task.getTags());
+        UUID parentId = task.getParentId();
+
+        return taskListRepository.existsByIdAndDeletedAtIsNull(taskListId)
+                .filter(exists -> exists)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Invalid Task List ID provided!")))
+                .flatMap(exists -> null == parentId
+                        ? Mono.just(true)
+                        : taskRepository.findByTaskListIdAndIdAndDeletedAtIsNull(taskListId, parentId)
+                                .map(parent -> true)
+                                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Parent task not found!")))) // Sub-tasks stay in the list of their parent
+                .flatMap(valid -> taskRepository.findMaxRankByTaskListId(taskListId))
+                .flatMap(maxRank -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    String rank = TaskRanks.between(maxRank, null); // New tasks go to the end of the list
+                    return template.insert(TaskRow.of(UUID.randomUUID(), taskListId, taskForSave, rank, parentId, now, now));
+                })
+                .flatMap(row -> null == parentId
+                        ? Mono.just(row)
+                        : taskRepository.insertPathsToLeaf(parentId, row.id()).thenReturn(row))
+                .map(TaskRow::toTask)
+                .as(transactionalOperator::transactional); // Row and hierarchy links commit together
+    }
+
+    @Override
+    public Mono<Task> getTask(UUID taskListId, UUID taskId) {
+        return taskRepository.findByTaskListIdAndIdAndDeletedAtIsNull(taskListId, taskId).map(TaskRow::toTask);
+    }
+
+    @Override
+    public Mono<Task> updateTask(UUID taskListId, UUID taskId, Task task) {
+        if (null == task.getId()) {
+            return Mono.error(new IllegalArgumentException("Task ID cannot be null!"));
+        }
+        if (!Objects.equals(taskId, task.getId())) {
+            return Mono.error(new IllegalArgumentException("Task ID does not match the provided ID!"));
+        }
+        if (null == task.getPriority()) {
+            return Mono.error(new IllegalArgumentException("Task priority cannot be null!"));
+        }
+        if (null == task.getStatus()) {
+            return Mono.error(new IllegalArgumentException("Task status cannot be null!"));
+        }
+
+        return taskRepository.findByTaskListIdAndIdAndDeletedAtIsNull(taskListId, taskId)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Task not found!")))
+                .map(existing -> TaskRow.of(existing.id(), existing.taskListId(), task, existing.rankKey(), existing.parentId(), existing.created(), LocalDateTime.now()))
+                .flatMap(taskRepository::save)
+                .map(TaskRow::toTask);
+    }
+
+    @Override
+    public Mono<Void> deleteTask(UUID taskListId, UUID taskId) {
+        return taskRepository.softDeleteByTaskListIdAndId(taskListId, taskId, LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
+                .then();
+    }
+
+    @Override
+    public Mono<Task> restoreTask(UUID taskListId, UUID taskId) {
+        return taskRepository.restoreByTaskListIdAndId(taskListId, taskId)
+                .filter(restored -> restored > 0)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Deleted task not found!"))) // Unknown, already purged, or its list is deleted
+                .then(getTask(taskListId, taskId));
+    }
+}
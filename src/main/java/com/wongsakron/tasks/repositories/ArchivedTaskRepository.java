@@ -0,0 +1,49 @@
+package com.wongsakron.tasks.repositories;
+
+import com.wongsakron.tasks.domain.ArchivedTaskExportRow;
+import com.wongsakron.tasks.domain.entities.ArchivedTask;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, UUID> {
+    List<ArchivedTask> findByTaskListId(UUID taskListId); // Retrieves the archived tasks of a task list.
+
+    // Archived tasks of a list for an export, oldest archive first. Fetched in chunks, consumed inside a transaction.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.wongsakron.tasks.domain.ArchivedTaskExportRow(a.id, a.title, a.description, a.dueDate, a.priority, " +
+            "a.status, a.created, a.updated, a.archived) from ArchivedTask a where a.taskListId = :taskListId order by a.archived, a.id")
+    Stream<ArchivedTaskExportRow> streamExportRowsByTaskListId(@Param("taskListId") UUID taskListId);
+
+    // Copies tasks into the archive in one statement, the caller deletes them from "tasks" in the same transaction.
+    @Modifying
+    @Query("insert into ArchivedTask (id, title, description, dueDate, status, priority, taskListId, created, updated, archived) " +
+            "select t.id, t.title, t.description, t.dueDate, t.status, t.priority, t.taskList.id, t.created, t.updated, local datetime " +
+            "from Task t where t.id in :ids")
+    int copyFromTasks(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("delete from ArchivedTask a where a.taskListId = :taskListId")
+    int deleteByTaskListId(@Param("taskListId") UUID taskListId); // Bulk delete of a list's archive.
+
+    // Archived tasks of lists soft-deleted before the cutoff, purged ahead of the lists themselves.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "archived_tasks"))
+    @Query(nativeQuery = true, value = "delete from archived_tasks where id in " +
+            "(select a.id from archived_tasks a join task_lists l on l.id = a.task_list_id " +
+            "where l.deleted_at < :deletedBefore limit :batchSize)")
+    int purgeOfListsDeletedBefore(@Param("deletedBefore") LocalDateTime deletedBefore, @Param("batchSize") int batchSize);
+}
+// This interface extends JpaRepository to provide CRUD operations for ArchivedTask entities.
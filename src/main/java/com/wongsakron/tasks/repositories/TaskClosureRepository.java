@@ -0,0 +1,58 @@
+package com.wongsakron.tasks.repositories;
+
+import com.wongsakron.tasks.domain.entities.TaskClosure;
+import com.wongsakron.tasks.domain.entities.TaskClosureId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+// Every statement below touches a whole subtree at once, however deep, so the number of queries
+// per hierarchy operation is fixed. Subtree rows are the root plus its descendants in task_closure.
+@Repository
+public interface TaskClosureRepository extends JpaRepository<TaskClosure, TaskClosureId> {
+
+    boolean existsByIdAncestorIdAndIdDescendantId(UUID ancestorId, UUID descendantId); // Whether descendantId lies below ancestorId.
+
+    boolean existsByIdAncestorIdOrIdDescendantId(UUID ancestorId, UUID descendantId); // Whether a task is part of any hierarchy.
+
+    // Links a new leaf to its parent and to every ancestor of the parent.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_closure"))
+    @Query(nativeQuery = true, value = "insert into task_closure (ancestor_id, descendant_id, depth) " +
+            "select ancestor_id, cast(:childId as uuid), depth + 1 from task_closure where descendant_id = :parentId " +
+            "union all select cast(:parentId as uuid), cast(:childId as uuid), 1")
+    int insertPathsToLeaf(@Param("parentId") UUID parentId, @Param("childId") UUID childId);
+
+    // Cuts a subtree loose from everything above its root, the links inside the subtree stay.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_closure"))
+    @Query(nativeQuery = true, value = "delete from task_closure " +
+            "where descendant_id in (select descendant_id from task_closure where ancestor_id = :rootId union all select cast(:rootId as uuid)) " +
+            "and ancestor_id not in (select descendant_id from task_closure where ancestor_id = :rootId union all select cast(:rootId as uuid))")
+    int detachSubtree(@Param("rootId") UUID rootId);
+
+    // Links every task of a detached subtree to the new parent and all of its ancestors.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_closure"))
+    @Query(nativeQuery = true, value = "insert into task_closure (ancestor_id, descendant_id, depth) " +
+            "select a.ancestor_id, s.descendant_id, a.depth + s.depth + 1 " +
+            "from (select ancestor_id, depth from task_closure where descendant_id = :parentId " +
+            "union all select cast(:parentId as uuid), 0) a " +
+            "cross join (select descendant_id, depth from task_closure where ancestor_id = :rootId " +
+            "union all select cast(:rootId as uuid), 0) s")
+    int attachSubtree(@Param("rootId") UUID rootId, @Param("parentId") UUID parentId);
+
+    // Rows of tasks the purge already removed, one batch at a time.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_closure"))
+    @Query(nativeQuery = true, value = "delete from task_closure where descendant_id in " +
+            "(select c.descendant_id from task_closure c where not exists (select 1 from tasks t where t.id = c.descendant_id) limit :batchSize)")
+    int purgeOrphans(@Param("batchSize") int batchSize);
+}
@@ -1,13 +1,62 @@
 package com.wongsakron.tasks.repositories;
 
 import com.wongsakron.tasks.domain.entities.TaskList;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface TaskListRepository extends JpaRepository<TaskList, UUID> {
 
+    @EntityGraph(attributePaths = "tasks")
+    @Query("select l from TaskList l")
+    List<TaskList> findAllWithTasks(); // All lists with their tasks in one query, for callers that map count/progress.
+
+    @Query("select l.id from TaskList l where :afterId is null or l.id > :afterId order by l.id")
+    List<UUID> findIdsAfter(@Param("afterId") UUID afterId, Limit limit); // One keyset page of the live lists, for jobs that visit every list.
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from TaskList l where l.id = :id")
+    Optional<TaskList> lockById(@Param("id") UUID id); // Row lock until commit, serializes changes spanning several tasks of the list.
+
+    @Modifying
+    @Query("update TaskList l set l.archivedTaskCount = l.archivedTaskCount + :count where l.id = :id")
+    int incrementArchivedTaskCount(@Param("id") UUID id, @Param("count") int count); // Keeps count/progress correct after archiving.
+
+    @Modifying
+    @Query("update TaskList l set l.deletedAt = :deletedAt where l.id = :id")
+    int softDeleteById(@Param("id") UUID id, @Param("deletedAt") LocalDateTime deletedAt); // Tombstones the list, its tasks are handled by TaskRepository.
+
+    // Native queries below see soft-deleted rows, which JPQL hides.
+    @Query(nativeQuery = true, value = "select deleted_at from task_lists where id = :id and deleted_at is not null")
+    Optional<LocalDateTime> findDeletedAtById(@Param("id") UUID id);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_lists"))
+    @Query(nativeQuery = true, value = "update task_lists set deleted_at = null where id = :id and deleted_at is not null")
+    int restoreById(@Param("id") UUID id);
+
+    // Only lists whose tasks and archived tasks are already purged, so no foreign key blocks the delete.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_lists"))
+    @Query(nativeQuery = true, value = "delete from task_lists where id in " +
+            "(select l.id from task_lists l where l.deleted_at < :deletedBefore " +
+            "and not exists (select 1 from tasks t where t.task_list_id = l.id) " +
+            "and not exists (select 1 from archived_tasks a where a.task_list_id = l.id) limit :batchSize)")
+    int purgeDeletedBefore(@Param("deletedBefore") LocalDateTime deletedBefore, @Param("batchSize") int batchSize);
 }
 // This interface extends JpaRepository to provide CRUD operations for TaskList entities.
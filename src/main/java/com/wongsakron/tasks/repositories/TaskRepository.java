@@ -1,17 +1,194 @@
 package com.wongsakron.tasks.repositories;
 
+import com.wongsakron.tasks.domain.TaskCounts;
+import com.wongsakron.tasks.domain.TaskDueCounts;
+import com.wongsakron.tasks.domain.TaskDueEntry;
+import com.wongsakron.tasks.domain.TaskExportRow;
+import com.wongsakron.tasks.domain.TaskIndexEntry;
+import com.wongsakron.tasks.domain.TaskKey;
+import com.wongsakron.tasks.domain.TaskStatusCount;
 import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, UUID> {
-    List<Task> findByTaskListId(UUID taskListId); // Retrieves all tasks associated with a specific task list by its ID.
+    @Query("select t from Task t where t.taskList.id = :taskListId order by t.rank nulls last, t.created, t.id")
+    List<Task> findByTaskListId(@Param("taskListId") UUID taskListId); // Retrieves all tasks of a task list in their user-defined order.
     Optional<Task> findByTaskListIdAndId(UUID taskListId, UUID id); // Retrieves a specific task by its ID within a given task list.
+    boolean existsByTaskListIdAndId(UUID taskListId, UUID id); // Checks that a task belongs to a given task list without loading it.
+    List<Task> findByIdIn(Collection<UUID> ids); // Retrieves many tasks with a single IN query, callers check the owning list.
+
+    @Query("select t.id from Task t where t.taskList.id = :taskListId and t.id in :ids")
+    List<UUID> findIdsByTaskListIdAndIdIn(@Param("taskListId") UUID taskListId, @Param("ids") Collection<UUID> ids); // Which of the IDs are live tasks of the list, without loading them.
+
+    @Query("select t from Task t where t.taskList.id in :taskListIds order by t.rank nulls last, t.created, t.id")
+    List<Task> findByTaskListIdIn(@Param("taskListIds") Collection<UUID> taskListIds); // Retrieves the tasks of many task lists with a single query, each in its order.
+
+    // Rank lookups of create and move, each served by idx_tasks_list_rank
+    @Query("select max(t.rank) from Task t where t.taskList.id = :taskListId")
+    Optional<String> findMaxRankByTaskListId(@Param("taskListId") UUID taskListId);
+
+    @Query("select min(t.rank) from Task t where t.taskList.id = :taskListId and t.rank > :rank and t.id <> :excludeId")
+    Optional<String> findNextRank(@Param("taskListId") UUID taskListId, @Param("rank") String rank, @Param("excludeId") UUID excludeId); // Rank of the task following rank, "" finds the first.
+
+    boolean existsByTaskListIdAndRankIsNull(UUID taskListId); // Unranked tasks are ranked by a rebalance before a move.
+
+    // Lists the rebalancer has to re-space: unranked tasks, or keys that grew longer than maxLength
+    @Query("select distinct t.taskList.id from Task t where t.rank is null or length(t.rank) > :maxLength")
+    List<UUID> findTaskListIdsToRebalance(@Param("maxLength") int maxLength, Limit limit);
+
+    // Projections feeding the in-memory tag index, no entities are loaded
+    @Query("select new com.wongsakron.tasks.domain.TaskIndexEntry(t.id, t.taskList.id, t.status, t.priority, t.tags) " +
+            "from Task t where t.taskList.id = :taskListId")
+    List<TaskIndexEntry> findIndexEntriesByTaskListId(@Param("taskListId") UUID taskListId);
+
+    @Query("select new com.wongsakron.tasks.domain.TaskIndexEntry(t.id, t.taskList.id, t.status, t.priority, t.tags) " +
+            "from Task t where :afterId is null or t.id > :afterId order by t.id")
+    List<TaskIndexEntry> findIndexEntriesAfter(@Param("afterId") UUID afterId, Limit limit); // One keyset page of a full rebuild.
+
+    // Projections feeding the in-memory due date index: OPEN tasks with a due date only
+    @Query("select new com.wongsakron.tasks.domain.TaskDueEntry(t.id, t.taskList.id, t.title, t.status, t.priority, t.dueDate) " +
+            "from Task t where t.taskList.id = :taskListId and t.status = com.wongsakron.tasks.domain.entities.TaskStatus.OPEN " +
+            "and t.dueDate is not null")
+    List<TaskDueEntry> findDueEntriesByTaskListId(@Param("taskListId") UUID taskListId);
+
+    @Query("select new com.wongsakron.tasks.domain.TaskDueEntry(t.id, t.taskList.id, t.title, t.status, t.priority, t.dueDate) " +
+            "from Task t where (:afterId is null or t.id > :afterId) and t.status = com.wongsakron.tasks.domain.entities.TaskStatus.OPEN " +
+            "and t.dueDate is not null order by t.id")
+    List<TaskDueEntry> findDueEntriesAfter(@Param("afterId") UUID afterId, Limit limit); // One keyset page of a full rebuild.
+
+    // Same answers as the due date index, for the time before it is built. A null list means all lists.
+    @Query("select new com.wongsakron.tasks.domain.TaskDueEntry(t.id, t.taskList.id, t.title, t.status, t.priority, t.dueDate) " +
+            "from Task t where (:taskListId is null or t.taskList.id = :taskListId) " +
+            "and t.status = com.wongsakron.tasks.domain.entities.TaskStatus.OPEN and t.dueDate >= :from " +
+            "order by t.dueDate, t.priority, t.id")
+    List<TaskDueEntry> findNextDueEntries(@Param("taskListId") UUID taskListId, @Param("from") LocalDateTime from, Limit limit);
+
+    @Query("select new com.wongsakron.tasks.domain.TaskDueEntry(t.id, t.taskList.id, t.title, t.status, t.priority, t.dueDate) " +
+            "from Task t where (:taskListId is null or t.taskList.id = :taskListId) " +
+            "and t.status = com.wongsakron.tasks.domain.entities.TaskStatus.OPEN and t.dueDate < :now " +
+            "order by t.dueDate, t.priority, t.id")
+    List<TaskDueEntry> findOverdueEntries(@Param("taskListId") UUID taskListId, @Param("now") LocalDateTime now, Limit limit);
+
+    // Tasks of a list for an export, in list order. Fetched in chunks, the caller consumes the stream inside a transaction.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.wongsakron.tasks.domain.TaskExportRow(t.id, t.title, t.description, t.dueDate, t.priority, t.status, " +
+            "t.parentId, t.tags, t.created, t.updated) from Task t where t.taskList.id = :taskListId order by t.rank nulls last, t.created, t.id")
+    Stream<TaskExportRow> streamExportRowsByTaskListId(@Param("taskListId") UUID taskListId);
+
+    @Query("select new com.wongsakron.tasks.domain.TaskStatusCount(t.taskList.id, t.status, count(t)) " +
+            "from Task t where t.taskList.id in :taskListIds group by t.taskList.id, t.status")
+    List<TaskStatusCount> countByTaskListIdsGroupByStatus(@Param("taskListIds") Collection<UUID> taskListIds); // Counts tasks per list and status without loading them.
+
+    // Sources of the dashboard rollups: tasks per status and priority, split by due date relative to the start of today
+    @Query("select new com.wongsakron.tasks.domain.TaskDueCounts(t.taskList.id, t.status, t.priority, " +
+            "sum(case when t.dueDate is null then 1L else 0L end), " +
+            "sum(case when t.dueDate < :startOfToday then 1L else 0L end), " +
+            "sum(case when t.dueDate >= :startOfToday then 1L else 0L end)) " +
+            "from Task t where t.taskList.id in :taskListIds group by t.taskList.id, t.status, t.priority")
+    List<TaskDueCounts> countByTaskListIdsGroupByStatusPriorityAndDue(@Param("taskListIds") Collection<UUID> taskListIds,
+                                                                      @Param("startOfToday") LocalDateTime startOfToday);
+
+    @Query("select new com.wongsakron.tasks.domain.TaskDueCounts(t.status, t.priority, " +
+            "sum(case when t.dueDate is null then 1L else 0L end), " +
+            "sum(case when t.dueDate < :startOfToday then 1L else 0L end), " +
+            "sum(case when t.dueDate >= :startOfToday then 1L else 0L end)) " +
+            "from Task t group by t.status, t.priority")
+    List<TaskDueCounts> countGroupByStatusPriorityAndDue(@Param("startOfToday") LocalDateTime startOfToday); // Across all lists, a full scan.
+
+    // Oldest tasks in a status that were last updated before the cutoff, served by idx_tasks_status_updated.
+    // Tasks of a hierarchy are skipped, so subtree progress never loses archived tasks.
+    @Query("select new com.wongsakron.tasks.domain.TaskKey(t.taskList.id, t.id) from Task t " +
+            "where t.status = :status and t.updated < :cutoff " +
+            "and not exists (select 1 from TaskClosure c where c.id.ancestorId = t.id or c.id.descendantId = t.id) " +
+            "order by t.updated")
+    List<TaskKey> findKeysByStatusUpdatedBefore(@Param("status") TaskStatus status, @Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    @Modifying
+    @Query("delete from Task t where t.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<UUID> ids); // Bulk delete without loading the tasks first.
+
+    @Modifying
+    @Query("update Task t set t.deletedAt = :deletedAt where t.taskList.id = :taskListId and t.deletedAt is null " +
+            "and (t.id = :id or t.id in (select c.id.descendantId from TaskClosure c where c.id.ancestorId = :id))")
+    int softDeleteByTaskListIdAndId(@Param("taskListId") UUID taskListId, @Param("id") UUID id, @Param("deletedAt") LocalDateTime deletedAt); // Tombstones one task and its sub-tasks.
+
+    // Sub-tasks of a task at every depth in one query, closest levels first
+    @Query("select t from Task t join TaskClosure c on c.id.descendantId = t.id where c.id.ancestorId = :rootId " +
+            "order by c.depth, t.rank nulls last, t.created, t.id")
+    List<Task> findDescendants(@Param("rootId") UUID rootId);
+
+    // Totals of a task and all of its sub-tasks, counted in the database
+    @Query("select new com.wongsakron.tasks.domain.TaskCounts(count(t), " +
+            "coalesce(sum(case when t.status = com.wongsakron.tasks.domain.entities.TaskStatus.CLOSED then 1L else 0L end), 0L)) " +
+            "from Task t where t.id = :rootId or t.id in (select c.id.descendantId from TaskClosure c where c.id.ancestorId = :rootId)")
+    TaskCounts countSubtree(@Param("rootId") UUID rootId);
+
+    @Modifying
+    @Query("update Task t set t.deletedAt = :deletedAt where t.taskList.id = :taskListId")
+    int softDeleteByTaskListId(@Param("taskListId") UUID taskListId, @Param("deletedAt") LocalDateTime deletedAt); // Tombstones every task of a list in one statement.
+
+    // One set-based UPDATE for a bulk change. Tasks that already have the new values are skipped,
+    // so the count and the bumped updated timestamp only cover real changes.
+    @Modifying
+    @Query("update Task t set t.status = coalesce(:newStatus, t.status), t.priority = coalesce(:newPriority, t.priority), " +
+            "t.updated = :updated " +
+            "where t.taskList.id = :taskListId " +
+            "and (:status is null or t.status = :status) " +
+            "and (:priority is null or t.priority = :priority) " +
+            "and (:dueBefore is null or t.dueDate < :dueBefore) " +
+            "and ((:newStatus is not null and t.status <> :newStatus) or (:newPriority is not null and t.priority <> :newPriority))")
+    int bulkUpdateStatusAndPriority(@Param("taskListId") UUID taskListId,
+                                    @Param("status") TaskStatus status,
+                                    @Param("priority") TaskPriority priority,
+                                    @Param("dueBefore") LocalDateTime dueBefore,
+                                    @Param("newStatus") TaskStatus newStatus,
+                                    @Param("newPriority") TaskPriority newPriority,
+                                    @Param("updated") LocalDateTime updated);
+
+    // JPQL bulk statements evict the Task cache regions by themselves. Native ones declare the table they write
+    // (HINT_NATIVE_SPACES), otherwise Hibernate would evict every second-level cache region.
+
+    // Native because soft-deleted rows are hidden from JPQL. Restores the sub-tasks deleted together with the task,
+    // and refuses to restore into a deleted list or under a deleted parent.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tasks"))
+    @Query(nativeQuery = true, value = "update tasks set deleted_at = null " +
+            "where task_list_id = :taskListId and deleted_at is not null " +
+            "and (id = :id or id in (select descendant_id from task_closure where ancestor_id = :id)) " +
+            "and deleted_at = (select r.deleted_at from tasks r where r.id = :id) " +
+            "and exists (select 1 from task_lists l where l.id = :taskListId and l.deleted_at is null) " +
+            "and not exists (select 1 from tasks r join tasks p on p.id = r.parent_id where r.id = :id and p.deleted_at is not null)")
+    int restoreByTaskListIdAndId(@Param("taskListId") UUID taskListId, @Param("id") UUID id);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tasks"))
+    @Query(nativeQuery = true, value = "update tasks set deleted_at = null where task_list_id = :taskListId and deleted_at = :deletedAt")
+    int restoreByTaskListIdDeletedAt(@Param("taskListId") UUID taskListId, @Param("deletedAt") LocalDateTime deletedAt); // Restores the tasks deleted together with their list.
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tasks"))
+    @Query(nativeQuery = true, value = "delete from tasks where id in " +
+            "(select id from tasks where deleted_at < :deletedBefore limit :batchSize)")
+    int purgeDeletedBefore(@Param("deletedBefore") LocalDateTime deletedBefore, @Param("batchSize") int batchSize); // Physically removes one batch of tombstoned tasks.
+
     void deleteByTaskListIdAndId(UUID taskListId, UUID id); // Deletes a specific task by its ID within a given task list.
 }
 // This interface extends JpaRepository to provide CRUD operations for Task entities.
@@ -0,0 +1,55 @@
+package com.wongsakron.tasks.repositories;
+
+import com.wongsakron.tasks.domain.TaskRollupCount;
+import com.wongsakron.tasks.domain.entities.TaskRollup;
+import com.wongsakron.tasks.domain.entities.TaskRollupId;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TaskRollupRepository extends JpaRepository<TaskRollup, TaskRollupId> {
+
+    @Modifying
+    @Query("update TaskRollup r set r.count = r.count + :delta where r.id = :id")
+    int increment(@Param("id") TaskRollupId id, @Param("delta") long delta); // Row lock held until commit, like any counter.
+
+    // Dashboard reads, served by idx_task_rollups_scope. Stripes of the global counters are summed here.
+    @Query("select new com.wongsakron.tasks.domain.TaskRollupCount(r.id.status, r.id.priority, r.id.dueBucket, sum(r.count)) " +
+            "from TaskRollup r where r.id.scopeId = :scopeId group by r.id.status, r.id.priority, r.id.dueBucket")
+    List<TaskRollupCount> sumByScopeId(@Param("scopeId") UUID scopeId);
+
+    @Query("select new com.wongsakron.tasks.domain.TaskRollupCount(r.id.status, r.id.priority, r.id.dueBucket, sum(r.count)) " +
+            "from TaskRollup r where r.id.scopeId = :taskListId and exists (select 1 from TaskList l where l.id = :taskListId) " +
+            "group by r.id.status, r.id.priority, r.id.dueBucket")
+    List<TaskRollupCount> sumByTaskListId(@Param("taskListId") UUID taskListId); // Empty for deleted lists.
+
+    // Locks the counters of a scope, so task writes wait while they are recounted
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from TaskRollup r where r.id.scopeId = :scopeId")
+    List<TaskRollup> lockByScopeId(@Param("scopeId") UUID scopeId);
+
+    @Query("select r from TaskRollup r where r.id.scopeId in :scopeIds")
+    List<TaskRollup> findByScopeIdIn(@Param("scopeIds") Collection<UUID> scopeIds);
+
+    boolean existsByIdScopeId(UUID scopeId);
+
+    // Counters of purged lists, one batch at a time. Native so rows of lists hidden by their tombstone are kept.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_rollups"))
+    @Query(nativeQuery = true, value = "delete from task_rollups where scope_id in " +
+            "(select r.scope_id from task_rollups r where r.scope_id <> :globalId " +
+            "and not exists (select 1 from task_lists l where l.id = r.scope_id) limit :batchSize)")
+    int purgeOrphans(@Param("globalId") UUID globalId, @Param("batchSize") int batchSize);
+}
@@ -0,0 +1,212 @@
+package com.wongsakron.tasks.search;
+
+import com.wongsakron.tasks.domain.TaskDueEntry;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+// In-memory index of the OPEN tasks with a due date, ordered by due date and then priority (HIGH first), per list
+// and across all lists. "Next due" and "overdue" are a walk from the current time in either direction, so top-K
+// queries read K entries and never touch the database. Readers do not lock: the skip lists are concurrent, writers
+// are serialized. Per instance like the tag index; changes made elsewhere show up after the next rebuild.
+public class TaskDueIndex {
+
+    private static final UUID MIN_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    private final Object writeLock = new Object();
+    private final Object rebuildLock = new Object();
+    private volatile Snapshot snapshot = new Snapshot();
+    private List<Consumer<Snapshot>> journal; // Changes committed while a rebuild is running, replayed on its result
+    private volatile boolean ready;
+
+    // False until the first rebuild completed, callers then query the database instead
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Writes are applied after the surrounding transaction commits, so a rollback never reaches the index.
+    // Entries that are not tracked (closed, no due date) remove the task.
+    public void put(TaskDueEntry entry) {
+        afterCommit(s -> s.put(entry));
+    }
+
+    public void remove(UUID taskId) {
+        afterCommit(s -> s.remove(taskId));
+    }
+
+    public void replaceList(UUID taskListId, Collection<TaskDueEntry> entries) {
+        List<TaskDueEntry> copy = List.copyOf(entries);
+        afterCommit(s -> {
+            s.removeList(taskListId);
+            copy.forEach(s::put);
+        });
+    }
+
+    public void removeList(UUID taskListId) {
+        afterCommit(s -> s.removeList(taskListId));
+    }
+
+    // Tasks due at or after from, soonest first. A null list means all lists.
+    public List<TaskDueEntry> nextDue(UUID taskListId, LocalDateTime from, int limit) {
+        NavigableMap<DueKey, TaskDueEntry> tasks = snapshot.tasks(taskListId);
+        return first(tasks.tailMap(DueKey.lowest(from), true), limit);
+    }
+
+    // Tasks due before now, longest overdue first. A null list means all lists.
+    public List<TaskDueEntry> overdue(UUID taskListId, LocalDateTime now, int limit) {
+        NavigableMap<DueKey, TaskDueEntry> tasks = snapshot.tasks(taskListId);
+        return first(tasks.headMap(DueKey.lowest(now), false), limit);
+    }
+
+    // Replaces the whole index with the entries the loader passes on. Queries keep using the old index until the
+    // new one is complete, and changes committed in the meantime are replayed on top of it. Returns the task count.
+    public int rebuild(Consumer<Consumer<TaskDueEntry>> loader) {
+        synchronized (rebuildLock) {
+            synchronized (writeLock) {
+                journal = new ArrayList<>();
+            }
+
+            Snapshot fresh = new Snapshot();
+            try {
+                loader.accept(fresh::put);
+            } catch (RuntimeException ex) {
+                synchronized (writeLock) {
+                    journal = null; // Keep the old index
+                }
+                throw ex;
+            }
+
+            synchronized (writeLock) {
+                journal.forEach(change -> change.accept(fresh));
+                journal = null;
+                snapshot = fresh;
+                ready = true;
+                return fresh.byTask.size();
+            }
+        }
+    }
+
+    public int size() {
+        return snapshot.byTask.size();
+    }
+
+    private static List<TaskDueEntry> first(NavigableMap<DueKey, TaskDueEntry> tasks, int limit) {
+        List<TaskDueEntry> result = new ArrayList<>(Math.min(limit, 64));
+        for (TaskDueEntry entry : tasks.values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+
+    private void afterCommit(Consumer<Snapshot> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Consumer<Snapshot> change) {
+        synchronized (writeLock) {
+            change.accept(snapshot);
+            if (journal != null) {
+                journal.add(change);
+            }
+        }
+    }
+
+    // Sort key of an entry. Priority is the enum ordinal, so HIGH sorts before LOW within the same due date.
+    private record DueKey(LocalDateTime dueDate, int priority, UUID taskId) implements Comparable<DueKey> {
+
+        private static final Comparator<DueKey> ORDER = Comparator
+                .comparing(DueKey::dueDate)
+                .thenComparingInt(DueKey::priority)
+                .thenComparing(DueKey::taskId);
+
+        static DueKey of(TaskDueEntry entry) {
+            return new DueKey(entry.dueDate(), entry.priority().ordinal(), entry.taskId());
+        }
+
+        // Sorts before every entry due at dueDate
+        static DueKey lowest(LocalDateTime dueDate) {
+            return new DueKey(dueDate, Integer.MIN_VALUE, MIN_ID);
+        }
+
+        @Override
+        public int compareTo(DueKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    // Only changed under the write lock, read concurrently
+    private static final class Snapshot {
+
+        private final Map<UUID, TaskDueEntry> byTask = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<DueKey, TaskDueEntry> all = new ConcurrentSkipListMap<>();
+        private final Map<UUID, ConcurrentSkipListMap<DueKey, TaskDueEntry>> byList = new ConcurrentHashMap<>();
+
+        private NavigableMap<DueKey, TaskDueEntry> tasks(UUID taskListId) {
+            if (taskListId == null) {
+                return all;
+            }
+            NavigableMap<DueKey, TaskDueEntry> inList = byList.get(taskListId);
+            return inList == null ? EMPTY : inList;
+        }
+
+        private void put(TaskDueEntry entry) {
+            remove(entry.taskId());
+            if (!entry.isTracked()) {
+                return;
+            }
+            DueKey key = DueKey.of(entry);
+            byTask.put(entry.taskId(), entry);
+            all.put(key, entry);
+            byList.computeIfAbsent(entry.taskListId(), id -> new ConcurrentSkipListMap<>()).put(key, entry);
+        }
+
+        private void remove(UUID taskId) {
+            TaskDueEntry old = byTask.remove(taskId);
+            if (old == null) {
+                return;
+            }
+            DueKey key = DueKey.of(old);
+            all.remove(key);
+            ConcurrentSkipListMap<DueKey, TaskDueEntry> inList = byList.get(old.taskListId());
+            inList.remove(key);
+            if (inList.isEmpty()) {
+                byList.remove(old.taskListId());
+            }
+        }
+
+        private void removeList(UUID taskListId) {
+            ConcurrentSkipListMap<DueKey, TaskDueEntry> inList = byList.remove(taskListId);
+            if (inList != null) {
+                for (TaskDueEntry entry : inList.values()) {
+                    byTask.remove(entry.taskId());
+                    all.remove(DueKey.of(entry));
+                }
+            }
+        }
+
+        private static final NavigableMap<DueKey, TaskDueEntry> EMPTY = new ConcurrentSkipListMap<>(); // Never modified, only read
+    }
+}
@@ -0,0 +1,17 @@
+package com.wongsakron.tasks.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TaskDueIndexConfig {
+
+    @Bean
+    public TaskDueIndex taskDueIndex(MeterRegistry meterRegistry) {
+        TaskDueIndex index = new TaskDueIndex();
+        Gauge.builder("tasks.due.index.tasks", index, TaskDueIndex::size).register(meterRegistry);
+        return index;
+    }
+}
@@ -0,0 +1,290 @@
+package com.wongsakron.tasks.search;
+
+import com.wongsakron.tasks.domain.TaskIndexEntry;
+import com.wongsakron.tasks.domain.TaskTagQuery;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// In-memory compressed bitmap index of the tasks per tag, status, priority and list, so tag combinations
+// are answered with bitmap AND/OR/ANDNOT instead of scanning the tasks of a list. Every task gets an int
+// ordinal, freed ordinals are not reused until the next rebuild. The index only narrows the candidates:
+// callers fetch the tasks by id from the database and re-check them, so a stale entry is never returned.
+// Per instance; changes made elsewhere (other instances, the reactive stack, archive and purge jobs)
+// show up after the next rebuild.
+public class TaskTagIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+    private Snapshot snapshot = new Snapshot();
+    private List<Consumer<Snapshot>> journal; // Changes committed while a rebuild is running, replayed on its result
+    private volatile boolean ready;
+
+    // False until the first rebuild completed, callers then filter in the database instead
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Writes are applied after the surrounding transaction commits, so a rollback never reaches the index
+    public void put(TaskIndexEntry entry) {
+        afterCommit(s -> s.put(entry));
+    }
+
+    public void remove(UUID taskId) {
+        afterCommit(s -> s.remove(taskId));
+    }
+
+    public void replaceList(UUID taskListId, Collection<TaskIndexEntry> entries) {
+        List<TaskIndexEntry> copy = List.copyOf(entries);
+        afterCommit(s -> {
+            s.removeList(taskListId);
+            copy.forEach(s::put);
+        });
+    }
+
+    public void removeList(UUID taskListId) {
+        afterCommit(s -> s.removeList(taskListId));
+    }
+
+    // IDs of the tasks of a list matching the query, at most limit of them, in no particular order
+    public List<UUID> query(UUID taskListId, TaskTagQuery query, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap inList = snapshot.byList.get(taskListId);
+            if (inList == null) {
+                return List.of();
+            }
+            RoaringBitmap result = inList.clone();
+            if (query.status() != null) {
+                result.and(snapshot.byStatus[query.status().ordinal()]);
+            }
+            if (query.priority() != null) {
+                result.and(snapshot.byPriority[query.priority().ordinal()]);
+            }
+            for (String tag : query.allOf()) {
+                result.and(snapshot.tag(tag));
+            }
+            if (!query.anyOf().isEmpty()) {
+                RoaringBitmap any = new RoaringBitmap();
+                query.anyOf().forEach(tag -> any.or(snapshot.tag(tag)));
+                result.and(any);
+            }
+            for (String tag : query.noneOf()) {
+                result.andNot(snapshot.tag(tag));
+            }
+
+            List<UUID> ids = new ArrayList<>(Math.min(limit, result.getCardinality()));
+            PeekableIntIterator ordinals = result.getIntIterator();
+            while (ordinals.hasNext() && ids.size() < limit) {
+                ids.add(snapshot.entries.get(ordinals.next()).taskId());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Replaces the whole index with the entries the loader passes on. Queries keep using the old index until the
+    // new one is complete, and changes committed in the meantime are replayed on top of it. Returns the task count.
+    public int rebuild(Consumer<Consumer<TaskIndexEntry>> loader) {
+        synchronized (rebuildLock) {
+            lock.writeLock().lock();
+            try {
+                journal = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Snapshot fresh = new Snapshot();
+            try {
+                loader.accept(fresh::put);
+            } catch (RuntimeException ex) {
+                lock.writeLock().lock();
+                try {
+                    journal = null; // Keep the old index
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw ex;
+            }
+
+            lock.writeLock().lock();
+            try {
+                journal.forEach(change -> change.accept(fresh));
+                journal = null;
+                snapshot = fresh;
+                ready = true;
+                return fresh.size;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return snapshot.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tagCount() {
+        lock.readLock().lock();
+        try {
+            return snapshot.byTag.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            return snapshot.sizeInBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void afterCommit(Consumer<Snapshot> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Consumer<Snapshot> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(snapshot);
+            if (journal != null) {
+                journal.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The bitmaps and the ordinal mapping, only touched under the lock once published
+    private static final class Snapshot {
+
+        private final Map<UUID, Integer> ordinals = new HashMap<>();
+        private final List<TaskIndexEntry> entries = new ArrayList<>(); // By ordinal, null once removed
+        private final Map<String, RoaringBitmap> byTag = new HashMap<>();
+        private final Map<UUID, RoaringBitmap> byList = new HashMap<>();
+        private final RoaringBitmap[] byStatus = bitmaps(TaskStatus.values().length);
+        private final RoaringBitmap[] byPriority = bitmaps(TaskPriority.values().length);
+        private int size;
+
+        private void put(TaskIndexEntry entry) {
+            Integer ordinal = ordinals.get(entry.taskId());
+            if (ordinal == null) {
+                ordinal = entries.size();
+                ordinals.put(entry.taskId(), ordinal);
+                entries.add(null);
+            } else {
+                clear(ordinal);
+            }
+            entries.set(ordinal, entry);
+            size++;
+            byList.computeIfAbsent(entry.taskListId(), id -> new RoaringBitmap()).add(ordinal);
+            byStatus[entry.status().ordinal()].add(ordinal);
+            byPriority[entry.priority().ordinal()].add(ordinal);
+            for (String tag : entry.tagSet()) {
+                byTag.computeIfAbsent(tag, t -> new RoaringBitmap()).add(ordinal);
+            }
+        }
+
+        private void remove(UUID taskId) {
+            Integer ordinal = ordinals.remove(taskId);
+            if (ordinal != null) {
+                clear(ordinal);
+            }
+        }
+
+        private void removeList(UUID taskListId) {
+            RoaringBitmap inList = byList.get(taskListId);
+            if (inList != null) {
+                for (int ordinal : inList.toArray()) {
+                    ordinals.remove(entries.get(ordinal).taskId());
+                    clear(ordinal);
+                }
+            }
+        }
+
+        // Drops the bits of an ordinal, empty bitmaps of tags and lists go with them
+        private void clear(int ordinal) {
+            TaskIndexEntry old = entries.set(ordinal, null);
+            if (old == null) {
+                return;
+            }
+            size--;
+            RoaringBitmap inList = byList.get(old.taskListId());
+            inList.remove(ordinal);
+            if (inList.isEmpty()) {
+                byList.remove(old.taskListId());
+            }
+            byStatus[old.status().ordinal()].remove(ordinal);
+            byPriority[old.priority().ordinal()].remove(ordinal);
+            for (String tag : old.tagSet()) {
+                RoaringBitmap tagged = byTag.get(tag);
+                tagged.remove(ordinal);
+                if (tagged.isEmpty()) {
+                    byTag.remove(tag);
+                }
+            }
+        }
+
+        private RoaringBitmap tag(String tag) {
+            return byTag.getOrDefault(tag, EMPTY);
+        }
+
+        private long sizeInBytes() {
+            long bytes = 0;
+            for (RoaringBitmap bitmap : byTag.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : byList.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : byStatus) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : byPriority) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            return bytes;
+        }
+
+        private static RoaringBitmap[] bitmaps(int count) {
+            RoaringBitmap[] bitmaps = new RoaringBitmap[count];
+            for (int i = 0; i < count; i++) {
+                bitmaps[i] = new RoaringBitmap();
+            }
+            return bitmaps;
+        }
+
+        private static final RoaringBitmap EMPTY = new RoaringBitmap(); // Never modified, only read
+    }
+}
@@ -0,0 +1,19 @@
+package com.wongsakron.tasks.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TaskTagIndexConfig {
+
+    @Bean
+    public TaskTagIndex taskTagIndex(MeterRegistry meterRegistry) {
+        TaskTagIndex index = new TaskTagIndex();
+        Gauge.builder("tasks.tags.index.tasks", index, TaskTagIndex::size).register(meterRegistry);
+        Gauge.builder("tasks.tags.index.tags", index, TaskTagIndex::tagCount).register(meterRegistry);
+        Gauge.builder("tasks.tags.index.bytes", index, TaskTagIndex::sizeInBytes).register(meterRegistry);
+        return index;
+    }
+}
@@ -0,0 +1,7 @@
+package com.wongsakron.tasks.services;
+
+import java.time.LocalDateTime;
+
+public interface TaskArchiveService {
+    int archiveClosedTasks(LocalDateTime closedBefore, int batchSize); // Moves one batch of CLOSED tasks to the archive, returns how many moved
+}
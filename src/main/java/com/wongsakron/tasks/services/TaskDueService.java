@@ -0,0 +1,12 @@
+package com.wongsakron.tasks.services;
+
+import com.wongsakron.tasks.domain.TaskDueEntry;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface TaskDueService {
+    List<TaskDueEntry> getNextDue(UUID taskListId, int limit); // OPEN tasks due from now on, soonest and then most important first; null list means all lists
+    List<TaskDueEntry> getOverdue(UUID taskListId, int limit); // OPEN tasks past their due date, longest overdue first; null list means all lists
+    int rebuildIndex(); // Reloads the due date index from the database, returns the number of indexed tasks
+}
@@ -0,0 +1,15 @@
+package com.wongsakron.tasks.services;
+
+import com.wongsakron.tasks.domain.TaskExportProgress;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface TaskExportService {
+    TaskExportProgress startExport(List<UUID> taskListIds); // Exports the given lists, or all lists when null or empty, in the background
+    Optional<TaskExportProgress> getExport(UUID exportId); // Progress of an export started on this instance
+    Path getExportFile(UUID exportId); // ZIP file of a finished export
+    int purgeExpired(); // Deletes exports finished longer than the retention ago, returns how many
+}
@@ -0,0 +1,13 @@
+package com.wongsakron.tasks.services;
+
+import com.wongsakron.tasks.domain.TaskCounts;
+import com.wongsakron.tasks.domain.entities.Task;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface TaskHierarchyService {
+    List<Task> getSubtree(UUID taskListId, UUID taskId); // A task followed by all of its sub-tasks, closest levels first
+    TaskCounts countSubtree(UUID taskListId, UUID taskId); // Total and closed tasks of a task and all of its sub-tasks
+    Task moveSubtree(UUID taskListId, UUID taskId, UUID parentId); // Re-parents a task together with its sub-tasks, top level when parentId is null
+}
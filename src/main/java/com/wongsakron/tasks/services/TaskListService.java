@@ -2,14 +2,19 @@ package com.wongsakron.tasks.services;
 
 import com.wongsakron.tasks.domain.entities.TaskList;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface TaskListService {
     List<TaskList> listTaskLists(); // Retrieves all task lists
+    List<TaskList> listTaskListsWithTasks(); // Same, with the tasks fetched for mapping count/progress
     TaskList createTaskList(TaskList taskList);
     Optional<TaskList> getTaskList(UUID id);
-    TaskList updateTaskList(UUID id, TaskList taskList); // Updates an existing task list by its ID
-    void deleteTaskList(UUID id); // Deletes a task list by its ID
+    Optional<TaskList> getTaskListWithTasks(UUID id); // Same, with the tasks fetched for mapping count/progress
+    List<TaskList> getTaskLists(Collection<UUID> ids); // Retrieves many task lists by ID with a single query
+    TaskList updateTaskList(UUID id, TaskList taskList); // Updates an existing task list by its ID, returned with its tasks
+    void deleteTaskList(UUID id); // Soft deletes a task list and its tasks by its ID
+    TaskList restoreTaskList(UUID id); // Restores a soft-deleted task list that has not been purged yet, returned with its tasks
 }
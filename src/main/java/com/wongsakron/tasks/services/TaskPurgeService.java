@@ -0,0 +1,7 @@
+package com.wongsakron.tasks.services;
+
+import java.time.LocalDateTime;
+
+public interface TaskPurgeService {
+    int purgeDeleted(LocalDateTime deletedBefore, int batchSize); // Physically removes one batch of soft-deleted rows, returns how many were removed
+}
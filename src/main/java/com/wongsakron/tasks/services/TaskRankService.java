@@ -0,0 +1,12 @@
+package com.wongsakron.tasks.services;
+
+import com.wongsakron.tasks.domain.entities.Task;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface TaskRankService {
+    Task moveTask(UUID taskListId, UUID taskId, UUID afterTaskId); // Places a task right after another one (first when afterTaskId is null), rewriting only its rank
+    List<UUID> findTaskListsToRebalance(int maxLength, int maxLists); // Lists with unranked tasks or rank keys longer than maxLength
+    int rebalance(UUID taskListId); // Re-spaces the ranks of a list in its current order, returns how many tasks changed
+}
@@ -0,0 +1,20 @@
+package com.wongsakron.tasks.services;
+
+import com.wongsakron.tasks.domain.TaskRollupCount;
+import com.wongsakron.tasks.domain.TaskRollupKey;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface TaskRollupService {
+    List<TaskRollupCount> getRollup(UUID taskListId); // Task counts per status, priority and due bucket of a list, or of all lists when null
+    void initTaskList(UUID taskListId); // Creates the zero counters of a new list
+    void recordChange(UUID taskListId, TaskRollupKey before, TaskRollupKey after); // Moves one task between counters, null before for a create
+    void recordCreates(Map<UUID, Map<TaskRollupKey, Long>> created); // Adds a batch of new tasks per list, one increment per counter
+    boolean recountTaskList(UUID taskListId); // Recounts a list after a set-based change, returns whether any counter was off
+    List<UUID> findTaskListIds(UUID afterId, int limit); // Keyset page of list IDs for the rebuild and check jobs
+    List<UUID> findTaskListsOutOfSync(List<UUID> taskListIds); // Lists whose counters differ from their tasks, for the check job
+    boolean rebuildGlobal(); // Recounts the totals across all lists, returns whether they were off
+    boolean isInitialized(); // Whether the global counters exist, otherwise a full rebuild is due
+}
@@ -0,0 +1,12 @@
+package com.wongsakron.tasks.services;
+
+import com.wongsakron.tasks.domain.TaskTagQuery;
+import com.wongsakron.tasks.domain.entities.Task;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface TaskSearchService {
+    List<Task> searchTasks(UUID taskListId, TaskTagQuery query); // Tasks of a list matching a tag/status/priority combination, in list order
+    int rebuildIndex(); // Reloads the tag index from the database, returns the number of indexed tasks
+}
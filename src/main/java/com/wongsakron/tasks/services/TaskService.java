@@ -1,15 +1,31 @@
 package com.wongsakron.tasks.services;
 
+import com.wongsakron.tasks.domain.TaskCounts;
+import com.wongsakron.tasks.domain.TaskCreate;
+import com.wongsakron.tasks.domain.TaskCreateResult;
+import com.wongsakron.tasks.domain.TaskFilter;
+import com.wongsakron.tasks.domain.TaskKey;
 import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface TaskService {
     List<Task> listTasks(UUID taskListId); // Retrieves all tasks for a specific task list
+    List<Task> listTasks(UUID taskListId, boolean includeArchived); // Same, optionally followed by the archived tasks of the list
+    Map<UUID, List<Task>> listTasks(Collection<UUID> taskListIds); // Retrieves the tasks of many task lists at once, grouped by list ID
+    Map<UUID, TaskCounts> countTasks(Collection<UUID> taskListIds); // Counts total and closed live tasks of many task lists at once
     Task createTask(UUID taskListId, Task task); // Creates a new task in a specific task list
+    List<TaskCreateResult> createTasks(List<TaskCreate> creates); // Creates many tasks in one transaction, result is aligned with the requests, invalid ones fail on their own
     Optional<Task> getTask(UUID taskListId, UUID taskId); // Retrieves a specific task by its ID
+    List<Optional<Task>> getTasks(List<TaskKey> keys); // Retrieves many tasks at once, result is aligned with the requested keys
     Task updateTask(UUID taskListId, UUID taskId, Task task); // Updates an existing task in a specific task list
-    void deleteTask(UUID taskListId, UUID taskId); // Deletes a specific task by its ID
+    int bulkUpdateTasks(UUID taskListId, TaskFilter filter, TaskStatus status, TaskPriority priority); // Changes status/priority of all matching tasks at once, returns how many changed
+    void deleteTask(UUID taskListId, UUID taskId); // Soft deletes a specific task by its ID
+    Task restoreTask(UUID taskListId, UUID taskId); // Restores a soft-deleted task that has not been purged yet
 }
@@ -0,0 +1,8 @@
+package com.wongsakron.tasks.services;
+
+import com.wongsakron.tasks.domain.TaskSnapshotSummary;
+
+public interface TaskSnapshotService {
+    TaskSnapshotSummary createSnapshot(); // Writes every task list, task and hierarchy link to a new file in the snapshot directory
+    TaskSnapshotSummary restoreSnapshot(String name); // Loads a snapshot into an empty database, then rebuilds counters and indexes
+}
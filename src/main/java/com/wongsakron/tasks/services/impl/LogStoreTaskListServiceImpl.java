@@ -0,0 +1,151 @@
+package com.wongsakron.tasks.services.impl;
+
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.logstore.TaskListRecord;
+import com.wongsakron.tasks.logstore.TaskLogStore;
+import com.wongsakron.tasks.logstore.TaskRecord;
+import com.wongsakron.tasks.services.TaskListService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+// TaskListService on the embedded task log, same validations and errors as TaskListServiceImpl
+@Service
+@Profile("embedded")
+public class LogStoreTaskListServiceImpl implements TaskListService {
+
+    private static final Comparator<TaskListRecord> LIST_ORDER = Comparator
+            .comparing(TaskListRecord::created)
+            .thenComparing(TaskListRecord::id); // findAll has no order, this one is at least stable
+
+    private final TaskLogStore taskLogStore;
+
+    public LogStoreTaskListServiceImpl(TaskLogStore taskLogStore) {
+        this.taskLogStore = taskLogStore;
+    }
+
+    @Override
+    public List<TaskList> listTaskLists() {
+        return liveLists().stream().map(list -> list.toTaskList(null)).toList();
+    }
+
+    @Override
+    public List<TaskList> listTaskListsWithTasks() {
+        return liveLists().stream().map(this::withTasks).toList();
+    }
+
+    @Override
+    public TaskList createTaskList(TaskList taskList) {
+        if (null != taskList.getId()) {
+            throw new IllegalArgumentException("Task list already has an Id!");
+        }
+        if (null == taskList.getTitle() || taskList.getTitle().isBlank()) {
+            throw new IllegalArgumentException("Task list title cannot be null or empty!");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        TaskListRecord created = new TaskListRecord(UUID.randomUUID(), taskList.getTitle(), taskList.getDescription(), now, now, null);
+        taskLogStore.write(records -> records.add(created));
+        return created.toTaskList(null);
+    }
+
+    @Override
+    public Optional<TaskList> getTaskList(UUID id) {
+        return liveList(id).map(list -> list.toTaskList(null));
+    }
+
+    @Override
+    public Optional<TaskList> getTaskListWithTasks(UUID id) {
+        return liveList(id).map(this::withTasks);
+    }
+
+    @Override
+    public List<TaskList> getTaskLists(Collection<UUID> ids) {
+        return ids.stream()
+                .distinct()
+                .flatMap(id -> liveList(id).stream())
+                .map(list -> list.toTaskList(null))
+                .toList();
+    }
+
+    @Override
+    public TaskList updateTaskList(UUID taskListId, TaskList taskList) {
+        if (null == taskList.getId()) {
+            throw new IllegalArgumentException("Task list must have an Id to be updated!");
+        }
+        if (!Objects.equals(taskList.getId(), taskListId)) {
+            throw new IllegalArgumentException("Attempt to change task list ID, this is not permitted!");
+        }
+
+        TaskListRecord updated = taskLogStore.write(records -> {
+            TaskListRecord existing = liveList(taskListId).orElseThrow(() -> new IllegalStateException("Task list not found!"));
+            TaskListRecord list = new TaskListRecord(existing.id(), taskList.getTitle(), taskList.getDescription(), existing.created(),
+                    LocalDateTime.now(), null);
+            records.add(list);
+            return list;
+        });
+        return withTasks(updated);
+    }
+
+    @Override
+    public void deleteTaskList(UUID id) {
+        taskLogStore.write(records -> {
+            TaskListRecord existing = liveList(id).orElseThrow(() -> new IllegalArgumentException("Task list not found!"));
+            // List and tasks share one timestamp so a restore brings back exactly this delete,
+            // the compaction drops them once the retention has passed
+            LocalDateTime deletedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            taskLogStore.tasksOf(id).stream()
+                    .filter(TaskRecord::isLive)
+                    .forEach(task -> records.add(task.withDeletedAt(deletedAt)));
+            records.add(existing.withDeletedAt(deletedAt));
+            return null;
+        });
+    }
+
+    @Override
+    public TaskList restoreTaskList(UUID id) {
+        TaskListRecord restored = taskLogStore.write(records -> {
+            TaskListRecord deleted = taskLogStore.taskList(id)
+                    .filter(list -> !list.isLive())
+                    .orElseThrow(() -> new IllegalStateException("Deleted task list not found!")); // Already purged or never deleted
+            TaskListRecord list = deleted.withDeletedAt(null);
+            records.add(list);
+            taskLogStore.tasksOf(id).stream()
+                    .filter(task -> deleted.deletedAt().equals(task.deletedAt())) // Tasks deleted on their own before the list stay deleted
+                    .forEach(task -> records.add(task.withDeletedAt(null)));
+            return list;
+        });
+        return withTasks(restored);
+    }
+
+    private Optional<TaskListRecord> liveList(UUID id) {
+        return taskLogStore.taskList(id).filter(TaskListRecord::isLive);
+    }
+
+    private List<TaskListRecord> liveLists() {
+        return taskLogStore.taskLists().stream()
+                .filter(TaskListRecord::isLive)
+                .sorted(LIST_ORDER)
+                .toList();
+    }
+
+    private TaskList withTasks(TaskListRecord list) {
+        List<Task> tasks = new ArrayList<>();
+        TaskList taskList = list.toTaskList(tasks);
+        taskLogStore.tasksOf(list.id()).stream()
+                .filter(TaskRecord::isLive)
+                .sorted(TaskRecord.ORDER)
+                .forEach(task -> tasks.add(task.toTask(taskList)));
+        return taskList;
+    }
+}
@@ -0,0 +1,276 @@
+package com.wongsakron.tasks.services.impl;
+
+import com.wongsakron.tasks.domain.TaskCounts;
+import com.wongsakron.tasks.domain.TaskCreate;
+import com.wongsakron.tasks.domain.TaskCreateResult;
+import com.wongsakron.tasks.domain.TaskFilter;
+import com.wongsakron.tasks.domain.TaskKey;
+import com.wongsakron.tasks.domain.TaskRanks;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import com.wongsakron.tasks.logstore.LogRecord;
+import com.wongsakron.tasks.logstore.TaskListRecord;
+import com.wongsakron.tasks.logstore.TaskLogStore;
+import com.wongsakron.tasks.logstore.TaskRecord;
+import com.wongsakron.tasks.services.TaskService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Predicate;
+
+// TaskService on the embedded task log, same validations and errors as TaskServiceImpl. Reads come from the log
+// store's in-memory index, every write is one atomic append. There is no archive, so includeArchived changes nothing.
+@Service
+@Profile("embedded")
+public class LogStoreTaskServiceImpl implements TaskService {
+
+    private final TaskLogStore taskLogStore;
+
+    public LogStoreTaskServiceImpl(TaskLogStore taskLogStore) {
+        this.taskLogStore = taskLogStore;
+    }
+
+    @Override
+    public List<Task> listTasks(UUID taskListId) {
+        return liveList(taskListId)
+                .map(list -> toTasks(list, liveTasks(taskListId)))
+                .orElseGet(List::of);
+    }
+
+    @Override
+    public List<Task> listTasks(UUID taskListId, boolean includeArchived) {
+        return listTasks(taskListId);
+    }
+
+    @Override
+    public Map<UUID, List<Task>> listTasks(Collection<UUID> taskListIds) {
+        Map<UUID, List<Task>> tasksByList = new HashMap<>();
+        taskListIds.forEach(id -> tasksByList.put(id, new ArrayList<>(listTasks(id)))); // Lists without tasks still get an entry
+        return tasksByList;
+    }
+
+    @Override
+    public Map<UUID, TaskCounts> countTasks(Collection<UUID> taskListIds) {
+        Map<UUID, TaskCounts> counts = new HashMap<>();
+        for (UUID taskListId : taskListIds) {
+            List<TaskRecord> tasks = liveList(taskListId).isPresent() ? liveTasks(taskListId) : List.of();
+            long closed = tasks.stream().filter(task -> task.status() == TaskStatus.CLOSED).count();
+            counts.put(taskListId, new TaskCounts(tasks.size(), closed));
+        }
+        return counts;
+    }
+
+    @Override
+    public Task createTask(UUID taskListId, Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task payload cannot be null!");
+        }
+        if (task.getId() != null) {
+            throw new IllegalArgumentException("Task already has an Id!");
+        }
+        if (task.getTitle() == null) {
+            throw new IllegalArgumentException("Task title cannot be null!");
+        }
+        if (task.getTitle().trim().isEmpty()) {
+            throw new IllegalArgumentException("Task title cannot be blank!");
+        }
+        if (taskListId == null) {
+            throw new IllegalArgumentException("Invalid Task List ID provided!");
+        }
+        TaskPriority taskPriority = Optional.ofNullable(task.getPriority()).orElse(TaskPriority.MEDIUM);
+        TaskRecord[] created = new TaskRecord[1];
+
+        TaskListRecord list = taskLogStore.write(records -> {
+            TaskListRecord taskList = liveList(taskListId)
+                    .orElseThrow(() -> new IllegalStateException("Invalid Task List ID provided!"));
+            UUID parentId = task.getParentId();
+            if (parentId != null && taskLogStore.task(parentId).filter(parent -> parent.isLive() && parent.taskListId().equals(taskListId)).isEmpty()) {
+                throw new IllegalStateException("Parent task not found!"); // Sub-tasks stay in the list of their parent
+            }
+            String maxRank = taskLogStore.tasksOf(taskListId).stream()
+                    .filter(TaskRecord::isLive)
+                    .map(TaskRecord::rank)
+                    .filter(Objects::nonNull)
+                    .max(Comparator.naturalOrder())
+                    .orElse(null);
+
+            LocalDateTime now = LocalDateTime.now();
+            Task taskForSave = new Task(UUID.randomUUID(), task.getTitle(), task.getDescription(), task.getDueDate(), TaskStatus.OPEN,
+                    taskPriority, null, now, now);
+            taskForSave.setRank(TaskRanks.between(maxRank, null)); // New tasks go to the end of the list
+            taskForSave.setParentId(parentId);
+            taskForSave.setTags(task.getTags());
+            created[0] = TaskRecord.of(taskListId, taskForSave);
+            records.add(created[0]);
+            return taskList;
+        });
+        return created[0].toTask(list.toTaskList(null));
+    }
+
+    @Override
+    public List<TaskCreateResult> createTasks(List<TaskCreate> creates) {
+        List<TaskCreateResult> results = new ArrayList<>(creates.size());
+        for (TaskCreate create : creates) { // An append per task costs no more than a batch, there is no commit to share
+            try {
+                results.add(TaskCreateResult.created(createTask(create.taskListId(), create.task())));
+            } catch (RuntimeException ex) {
+                results.add(TaskCreateResult.failed(ex));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public Optional<Task> getTask(UUID taskListId, UUID taskId) {
+        return liveList(taskListId).flatMap(list -> liveTask(taskListId, taskId)
+                .map(task -> task.toTask(list.toTaskList(null))));
+    }
+
+    @Override
+    public List<Optional<Task>> getTasks(List<TaskKey> keys) {
+        if (keys == null || keys.isEmpty()) {
+            throw new IllegalArgumentException("At least one task must be requested!");
+        }
+        if (keys.size() > TaskServiceImpl.MULTI_GET_MAX_KEYS) {
+            throw new IllegalArgumentException("At most " + TaskServiceImpl.MULTI_GET_MAX_KEYS + " tasks can be requested at once!");
+        }
+        if (keys.stream().anyMatch(key -> key == null || key.taskListId() == null || key.taskId() == null)) {
+            throw new IllegalArgumentException("Task list ID and task ID must be provided for every item!");
+        }
+        return keys.stream()
+                .map(key -> getTask(key.taskListId(), key.taskId())) // Task must belong to the requested list
+                .toList();
+    }
+
+    @Override
+    public Task updateTask(UUID taskListId, UUID taskId, Task task) {
+        if (null == task.getId()) {
+            throw new IllegalArgumentException("Task ID cannot be null!");
+        }
+        if (!Objects.equals(taskId, task.getId())) {
+            throw new IllegalArgumentException("Task ID does not match the provided ID!");
+        }
+        if (null == task.getPriority()) {
+            throw new IllegalArgumentException("Task priority cannot be null!");
+        }
+        if (null == task.getStatus()) {
+            throw new IllegalArgumentException("Task status cannot be null!");
+        }
+
+        return taskLogStore.write(records -> {
+            TaskListRecord list = liveList(taskListId).orElseThrow(() -> new IllegalStateException("Task not found!"));
+            TaskRecord existing = liveTask(taskListId, taskId).orElseThrow(() -> new IllegalStateException("Task not found!"));
+            Task updated = existing.toTask(list.toTaskList(null));
+            updated.setTitle(task.getTitle());
+            updated.setDescription(task.getDescription());
+            updated.setDueDate(task.getDueDate());
+            updated.setPriority(task.getPriority());
+            updated.setStatus(task.getStatus());
+            updated.setTags(task.getTags());
+            updated.setUpdated(LocalDateTime.now());
+            records.add(TaskRecord.of(taskListId, updated));
+            return updated;
+        });
+    }
+
+    @Override
+    public int bulkUpdateTasks(UUID taskListId, TaskFilter filter, TaskStatus status, TaskPriority priority) {
+        if (null == status && null == priority) {
+            throw new IllegalArgumentException("Bulk update needs a new status or priority!");
+        }
+        TaskFilter where = Optional.ofNullable(filter).orElse(TaskFilter.ALL); // No filter means every task of the list
+
+        return taskLogStore.write(records -> {
+            if (liveList(taskListId).isEmpty()) {
+                throw new IllegalStateException("Task list not found!");
+            }
+            LocalDateTime now = LocalDateTime.now();
+            for (TaskRecord task : liveTasks(taskListId)) {
+                boolean matches = (where.status() == null || task.status() == where.status())
+                        && (where.priority() == null || task.priority() == where.priority())
+                        && (where.dueBefore() == null || (task.dueDate() != null && task.dueDate().isBefore(where.dueBefore())));
+                boolean changes = (status != null && task.status() != status) || (priority != null && task.priority() != priority);
+                if (matches && changes) { // Like the bulk UPDATE, tasks that already have the new values are skipped
+                    records.add(new TaskRecord(task.id(), task.taskListId(), task.title(), task.description(), task.dueDate(),
+                            status != null ? status : task.status(), priority != null ? priority : task.priority(), task.created(), now,
+                            task.parentId(), task.tags(), task.rank(), null));
+                }
+            }
+            return records.size();
+        });
+    }
+
+    @Override
+    public void deleteTask(UUID taskListId, UUID taskId) {
+        taskLogStore.write(records -> {
+            if (liveList(taskListId).isEmpty() || liveTask(taskListId, taskId).isEmpty()) {
+                return null; // Nothing to delete, like a soft delete that matched no row
+            }
+            LocalDateTime deletedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS); // Shared by the sub-tasks, a restore brings back exactly this delete
+            subtree(taskListId, taskId, TaskRecord::isLive).forEach(task -> records.add(task.withDeletedAt(deletedAt)));
+            return null;
+        });
+    }
+
+    @Override
+    public Task restoreTask(UUID taskListId, UUID taskId) {
+        return taskLogStore.write(records -> {
+            TaskListRecord list = liveList(taskListId).orElse(null);
+            TaskRecord root = taskLogStore.task(taskId)
+                    .filter(task -> task.taskListId().equals(taskListId) && !task.isLive())
+                    .orElse(null);
+            boolean parentDeleted = root != null && root.parentId() != null
+                    && taskLogStore.task(root.parentId()).map(parent -> !parent.isLive()).orElse(true);
+            if (list == null || root == null || parentDeleted) {
+                throw new IllegalStateException("Deleted task not found!"); // Unknown, already purged, or its list is deleted
+            }
+            subtree(taskListId, taskId, task -> root.deletedAt().equals(task.deletedAt()))
+                    .forEach(task -> records.add(task.withDeletedAt(null)));
+            return root.withDeletedAt(null).toTask(list.toTaskList(null));
+        });
+    }
+
+    private Optional<TaskListRecord> liveList(UUID taskListId) {
+        return taskLogStore.taskList(taskListId).filter(TaskListRecord::isLive);
+    }
+
+    private Optional<TaskRecord> liveTask(UUID taskListId, UUID taskId) {
+        return taskLogStore.task(taskId).filter(task -> task.isLive() && task.taskListId().equals(taskListId));
+    }
+
+    private List<TaskRecord> liveTasks(UUID taskListId) {
+        return taskLogStore.tasksOf(taskListId).stream()
+                .filter(TaskRecord::isLive)
+                .sorted(TaskRecord.ORDER) // Same display order as the JPA list
+                .toList();
+    }
+
+    // The task and its sub-tasks at every depth that match, a sub-task that does not match is not descended into
+    private List<TaskRecord> subtree(UUID taskListId, UUID rootId, Predicate<TaskRecord> matches) {
+        Map<UUID, List<TaskRecord>> children = new HashMap<>();
+        for (TaskRecord task : taskLogStore.tasksOf(taskListId)) {
+            if (task.parentId() != null) {
+                children.computeIfAbsent(task.parentId(), id -> new ArrayList<>()).add(task);
+            }
+        }
+        List<TaskRecord> result = new ArrayList<>();
+        Deque<TaskRecord> pending = new ArrayDeque<>();
+        taskLogStore.task(rootId).filter(matches).ifPresent(pending::add);
+        while (!pending.isEmpty()) {
+            TaskRecord task = pending.poll();
+            result.add(task);
+            children.getOrDefault(task.id(), List.of()).stream().filter(matches).forEach(pending::add);
+        }
+        return result;
+    }
+
+    private static List<Task> toTasks(TaskListRecord list, List<TaskRecord> tasks) {
+        TaskList taskList = list.toTaskList(null);
+        return tasks.stream().map(task -> task.toTask(taskList)).toList();
+    }
+}
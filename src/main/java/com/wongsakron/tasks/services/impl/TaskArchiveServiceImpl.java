@@ -0,0 +1,68 @@
+package com.wongsakron.tasks.services.impl;
+
+import com.wongsakron.tasks.domain.TaskKey;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import com.wongsakron.tasks.repositories.ArchivedTaskRepository;
+import com.wongsakron.tasks.repositories.TaskListRepository;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.services.TaskArchiveService;
+import com.wongsakron.tasks.services.TaskRollupService;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+public class TaskArchiveServiceImpl implements TaskArchiveService {
+
+    private final TaskRepository taskRepository;
+    private final TaskListRepository taskListRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TaskRollupService taskRollupService;
+
+    public TaskArchiveServiceImpl(TaskRepository taskRepository, TaskListRepository taskListRepository, ArchivedTaskRepository archivedTaskRepository,
+                                  TaskRollupService taskRollupService) {
+        this.taskRepository = taskRepository;
+        this.taskListRepository = taskListRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.taskRollupService = taskRollupService;
+    }
+
+    @Override
+    @Transactional // Copy, delete and counter update commit together, so a crash never loses or duplicates a task
+    public int archiveClosedTasks(LocalDateTime closedBefore, int batchSize) {
+        if (closedBefore == null) {
+            throw new IllegalArgumentException("Archive cutoff cannot be null!");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Archive batch size must be positive!");
+        }
+
+        List<TaskKey> batch = taskRepository.findKeysByStatusUpdatedBefore(TaskStatus.CLOSED, closedBefore, Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<UUID> ids = batch.stream().map(TaskKey::taskId).toList();
+        archivedTaskRepository.copyFromTasks(ids);
+        taskRepository.deleteAllByIdIn(ids);
+
+        Map<UUID, Long> archivedPerList = batch.stream()
+                .map(TaskKey::taskListId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(id -> id, TreeMap::new, Collectors.counting())); // Lists in ID order, the order their rows are locked in
+        archivedPerList.forEach((taskListId, count) -> {
+            taskListRepository.incrementArchivedTaskCount(taskListId, count.intValue()); // Keeps count/progress of each list unchanged
+            taskRollupService.recountTaskList(taskListId); // The dashboard counts live tasks only
+        });
+
+        return ids.size();
+    }
+}
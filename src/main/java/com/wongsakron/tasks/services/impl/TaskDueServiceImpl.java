@@ -0,0 +1,78 @@
+package com.wongsakron.tasks.services.impl;
+
+import com.wongsakron.tasks.domain.TaskDueEntry;
+import com.wongsakron.tasks.repositories.TaskListRepository;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.search.TaskDueIndex;
+import com.wongsakron.tasks.services.TaskDueService;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Next-due and overdue queries are answered by the in-memory due date index, the only database access is the
+// existence check of a list, which the second-level cache serves. Until the index is built the database answers.
+@Service
+public class TaskDueServiceImpl implements TaskDueService {
+
+    public static final int MAX_LIMIT = 100; // Upper bound of tasks returned by one query
+    static final int REBUILD_PAGE_SIZE = 5000;
+
+    private final TaskRepository taskRepository;
+    private final TaskListRepository taskListRepository;
+    private final TaskDueIndex taskDueIndex;
+
+    public TaskDueServiceImpl(TaskRepository taskRepository, TaskListRepository taskListRepository, TaskDueIndex taskDueIndex) {
+        this.taskRepository = taskRepository;
+        this.taskListRepository = taskListRepository;
+        this.taskDueIndex = taskDueIndex;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskDueEntry> getNextDue(UUID taskListId, int limit) {
+        checkQuery(taskListId, limit);
+        LocalDateTime now = LocalDateTime.now();
+        if (!taskDueIndex.isReady()) {
+            return taskRepository.findNextDueEntries(taskListId, now, Limit.of(limit));
+        }
+        return taskDueIndex.nextDue(taskListId, now, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskDueEntry> getOverdue(UUID taskListId, int limit) {
+        checkQuery(taskListId, limit);
+        LocalDateTime now = LocalDateTime.now();
+        if (!taskDueIndex.isReady()) {
+            return taskRepository.findOverdueEntries(taskListId, now, Limit.of(limit));
+        }
+        return taskDueIndex.overdue(taskListId, now, limit);
+    }
+
+    @Override
+    public int rebuildIndex() {
+        // Keyset pages, each its own short read, so the rebuild never holds one long transaction
+        return taskDueIndex.rebuild(sink -> {
+            UUID afterId = null;
+            List<TaskDueEntry> page;
+            do {
+                page = taskRepository.findDueEntriesAfter(afterId, Limit.of(REBUILD_PAGE_SIZE));
+                page.forEach(sink);
+                afterId = page.isEmpty() ? null : page.get(page.size() - 1).taskId();
+            } while (page.size() == REBUILD_PAGE_SIZE);
+        });
+    }
+
+    private void checkQuery(UUID taskListId, int limit) {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT + "!");
+        }
+        if (taskListId != null && taskListRepository.findById(taskListId).isEmpty()) { // By id, so the second-level cache answers
+            throw new IllegalStateException("Task list not found!");
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.wongsakron.tasks.services.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wongsakron.tasks.domain.ArchivedTaskExportRow;
+import com.wongsakron.tasks.domain.TaskExportProgress;
+import com.wongsakron.tasks.domain.TaskExportRow;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.repositories.ArchivedTaskRepository;
+import com.wongsakron.tasks.repositories.TaskListRepository;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.services.TaskExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Exports fan out over lists on virtual threads. Each worker reads one list in its own read-only transaction (so on
+// the replica when there is one), streams its tasks as JSON through gzip into a part file, and hands the part to the
+// export's writer, which appends it to the ZIP as a stored entry: compression runs in parallel, the ZIP is written
+// sequentially, and no list is ever held in memory. Permits are shared by all exports and bound the connections they
+// use together; a permit is returned once its part is in the ZIP, so unwritten parts never pile up on disk.
+@Service
+public class TaskExportServiceImpl implements TaskExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskExportServiceImpl.class);
+
+    public static final int MAX_LISTS = 100_000; // Upper bound of lists named in one export request
+    static final int ID_PAGE_SIZE = 1000;
+
+    private final TaskListRepository taskListRepository;
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final Duration retention;
+    private final Semaphore permits;
+    private final Map<UUID, Export> exports = new ConcurrentHashMap<>();
+
+    public TaskExportServiceImpl(
+            TaskListRepository taskListRepository,
+            TaskRepository taskRepository,
+            ArchivedTaskRepository archivedTaskRepository,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${tasks.export.directory:${java.io.tmpdir}/task-exports}") Path directory,
+            @Value("${tasks.export.parallelism:4}") int parallelism,
+            @Value("${tasks.export.retention:24h}") Duration retention
+    ) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Export parallelism must be positive!");
+        }
+        this.taskListRepository = taskListRepository;
+        this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.retention = retention;
+        this.permits = new Semaphore(parallelism);
+    }
+
+    @Override
+    public TaskExportProgress startExport(List<UUID> taskListIds) {
+        List<UUID> requested = null; // All lists, listed by the export itself
+        if (taskListIds != null && !taskListIds.isEmpty()) {
+            if (taskListIds.size() > MAX_LISTS) {
+                throw new IllegalArgumentException("At most " + MAX_LISTS + " task lists can be exported at once!");
+            }
+            if (taskListIds.contains(null)) {
+                throw new IllegalArgumentException("Task list IDs cannot be null!");
+            }
+            requested = List.copyOf(new LinkedHashSet<>(taskListIds));
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        Export export = new Export(UUID.randomUUID());
+        exports.put(export.id, export);
+        List<UUID> ids = requested;
+        Thread.ofVirtual().name("task-export-" + export.id).start(() -> run(export, ids));
+        return export.progress();
+    }
+
+    @Override
+    public Optional<TaskExportProgress> getExport(UUID exportId) {
+        return Optional.ofNullable(exports.get(exportId)).map(Export::progress);
+    }
+
+    @Override
+    public Path getExportFile(UUID exportId) {
+        Export export = exports.get(exportId);
+        if (export == null) {
+            throw new IllegalStateException("Export not found!");
+        }
+        if (export.state != TaskExportProgress.State.DONE) {
+            throw new IllegalStateException("Export is not finished!");
+        }
+        return export.file;
+    }
+
+    @Override
+    public int purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int purged = 0;
+        for (Export export : exports.values()) {
+            if (export.finished != null && export.finished.isBefore(cutoff) && exports.remove(export.id, export)) {
+                deleteQuietly(export.file);
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    private void run(Export export, List<UUID> requested) {
+        Path parts = directory.resolve(export.id + ".parts");
+        Path partial = directory.resolve(export.id + ".zip.part");
+        Path file = directory.resolve(export.id + ".zip");
+        int inFlight = 0;
+        try {
+            Files.createDirectories(parts);
+            List<UUID> ids = requested != null ? requested : findAllTaskListIds();
+            export.totalLists = ids.size();
+
+            try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+                 ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(partial)))) {
+                CompletionService<Part> done = new ExecutorCompletionService<>(workers);
+                int next = 0;
+                while (next < ids.size() || inFlight > 0) {
+                    // Wait for a permit only while none of our parts is pending, those would otherwise never return theirs
+                    if (next < ids.size() && (inFlight == 0 ? acquire() : permits.tryAcquire())) {
+                        UUID taskListId = ids.get(next++);
+                        inFlight++;
+                        done.submit(() -> writePart(parts, taskListId));
+                        continue;
+                    }
+                    Part part = done.take().get();
+                    append(zip, part, export);
+                    inFlight--;
+                    permits.release();
+                }
+                writeManifest(zip, export);
+            } // After a failure, closing the executor waits for the workers still running
+
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+            export.finish(file, Files.size(file));
+            log.info("Exported {} task lists ({} skipped) to {} in {} ms", export.exportedLists, export.skipped.size(), file,
+                    Duration.between(export.started, export.finished).toMillis());
+        } catch (Exception ex) {
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            Throwable cause = ex instanceof ExecutionException && ex.getCause() != null ? ex.getCause() : ex;
+            export.fail(cause);
+            deleteQuietly(partial);
+            log.warn("Export {} failed", export.id, cause);
+        } finally {
+            permits.release(inFlight);
+            try {
+                FileSystemUtils.deleteRecursively(parts);
+            } catch (IOException ex) {
+                log.warn("Could not delete the parts of export {}", export.id, ex);
+            }
+        }
+    }
+
+    private List<UUID> findAllTaskListIds() {
+        List<UUID> ids = new ArrayList<>();
+        UUID afterId = null;
+        List<UUID> page;
+        do {
+            page = taskListRepository.findIdsAfter(afterId, Limit.of(ID_PAGE_SIZE));
+            ids.addAll(page);
+            afterId = page.isEmpty() ? null : page.get(page.size() - 1);
+        } while (page.size() == ID_PAGE_SIZE);
+        return ids;
+    }
+
+    // Runs on a worker: one list, one read-only transaction, one gzip part file
+    private Part writePart(Path parts, UUID taskListId) throws IOException {
+        Path path = Files.createTempFile(parts, "list-", ".json.gz");
+        CRC32 crc = new CRC32();
+        Boolean found = readOnlyTransaction.execute(status -> {
+            Optional<TaskList> taskList = taskListRepository.findById(taskListId);
+            if (taskList.isEmpty()) {
+                return false; // Deleted since the export started
+            }
+            try (OutputStream out = new GZIPOutputStream(new CheckedOutputStream(new BufferedOutputStream(Files.newOutputStream(path)), crc), 8192);
+                 Stream<TaskExportRow> rows = taskRepository.streamExportRowsByTaskListId(taskListId);
+                 JsonGenerator json = objectMapper.createGenerator(out)) {
+                TaskList list = taskList.get();
+                json.writeStartObject();
+                json.writePOJOField("id", list.getId());
+                json.writeStringField("title", list.getTitle());
+                json.writeStringField("description", list.getDescription());
+                json.writePOJOField("created", list.getCreated());
+                json.writePOJOField("updated", list.getUpdated());
+                json.writeNumberField("archivedTaskCount", list.getArchivedTaskCount());
+                json.writeArrayFieldStart("tasks");
+                for (Iterator<TaskExportRow> it = rows.iterator(); it.hasNext(); ) {
+                    json.writePOJO(it.next());
+                }
+                json.writeEndArray();
+                json.writeArrayFieldStart("archivedTasks"); // Moved out of the list by the archiver, still part of it
+                try (Stream<ArchivedTaskExportRow> archivedRows = archivedTaskRepository.streamExportRowsByTaskListId(taskListId)) {
+                    for (Iterator<ArchivedTaskExportRow> it = archivedRows.iterator(); it.hasNext(); ) {
+                        json.writePOJO(it.next());
+                    }
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return true;
+        });
+        if (!Boolean.TRUE.equals(found)) {
+            Files.delete(path);
+            return new Part(taskListId, null, 0, 0);
+        }
+        return new Part(taskListId, path, Files.size(path), crc.getValue());
+    }
+
+    // Runs on the export's thread only
+    private static void append(ZipOutputStream zip, Part part, Export export) throws IOException {
+        if (part.file() == null) {
+            export.skipped.add(part.taskListId());
+            export.skippedLists = export.skipped.size();
+            return;
+        }
+        ZipEntry entry = new ZipEntry("task-lists/" + part.taskListId() + ".json.gz");
+        entry.setMethod(ZipEntry.STORED); // Compressed by the worker already
+        entry.setSize(part.size());
+        entry.setCompressedSize(part.size());
+        entry.setCrc(part.crc());
+        zip.putNextEntry(entry);
+        Files.copy(part.file(), zip);
+        zip.closeEntry();
+        Files.delete(part.file());
+        export.exportedLists++;
+        export.bytes += part.size();
+    }
+
+    private void writeManifest(ZipOutputStream zip, Export export) throws IOException {
+        zip.putNextEntry(new ZipEntry("manifest.json"));
+        JsonGenerator json = objectMapper.createGenerator(zip);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.writeStartObject();
+        json.writePOJOField("exportId", export.id);
+        json.writePOJOField("started", export.started);
+        json.writeNumberField("exportedLists", export.exportedLists);
+        json.writePOJOField("skippedLists", export.skipped); // Deleted while the export ran
+        json.writeEndObject();
+        json.close();
+        zip.closeEntry();
+    }
+
+    private boolean acquire() throws InterruptedException {
+        permits.acquire();
+        return true;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            if (path != null) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException ex) {
+            log.warn("Could not delete {}", path, ex);
+        }
+    }
+
+    private record Part(UUID taskListId, Path file, long size, long crc) {
+    }
+
+    // Progress of one export, written by its own thread only and read by anyone
+    private static final class Export {
+
+        private final UUID id;
+        private final LocalDateTime started = LocalDateTime.now();
+        private final List<UUID> skipped = new ArrayList<>();
+        private volatile TaskExportProgress.State state = TaskExportProgress.State.RUNNING;
+        private volatile int totalLists;
+        private volatile int exportedLists;
+        private volatile int skippedLists;
+        private volatile long bytes;
+        private volatile LocalDateTime finished;
+        private volatile Path file;
+        private volatile String error;
+
+        private Export(UUID id) {
+            this.id = id;
+        }
+
+        private void finish(Path file, long size) {
+            this.file = file;
+            this.bytes = size;
+            this.finished = LocalDateTime.now();
+            this.state = TaskExportProgress.State.DONE;
+        }
+
+        private void fail(Throwable cause) {
+            this.error = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+            this.finished = LocalDateTime.now();
+            this.state = TaskExportProgress.State.FAILED;
+        }
+
+        private TaskExportProgress progress() {
+            return new TaskExportProgress(id, state, totalLists, exportedLists, skippedLists, bytes, started, finished, error);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.wongsakron.tasks.services.impl;
+
+import com.wongsakron.tasks.domain.TaskCounts;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.repositories.TaskClosureRepository;
+import com.wongsakron.tasks.repositories.TaskListRepository;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.services.TaskHierarchyService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+// Subtree reads and moves go through the task_closure table, so each costs the same few queries at any depth.
+@Service
+public class TaskHierarchyServiceImpl implements TaskHierarchyService {
+
+    private final TaskRepository taskRepository;
+    private final TaskClosureRepository taskClosureRepository;
+    private final TaskListRepository taskListRepository;
+
+    public TaskHierarchyServiceImpl(
+            TaskRepository taskRepository,
+            TaskClosureRepository taskClosureRepository,
+            TaskListRepository taskListRepository
+    ) {
+        this.taskRepository = taskRepository;
+        this.taskClosureRepository = taskClosureRepository;
+        this.taskListRepository = taskListRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Task> getSubtree(UUID taskListId, UUID taskId) {
+        Task root = taskRepository.findByTaskListIdAndId(taskListId, taskId)
+                .orElseThrow(() -> new IllegalStateException("Task not found!"));
+        List<Task> subtree = new ArrayList<>();
+        subtree.add(root);
+        subtree.addAll(taskRepository.findDescendants(taskId)); // One query for every level below the root
+        return subtree;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskCounts countSubtree(UUID taskListId, UUID taskId) {
+        if (!taskRepository.existsByTaskListIdAndId(taskListId, taskId)) {
+            throw new IllegalStateException("Task not found!");
+        }
+        return taskRepository.countSubtree(taskId);
+    }
+
+    @Override
+    @Transactional
+    public Task moveSubtree(UUID taskListId, UUID taskId, UUID parentId) {
+        if (taskId == null) {
+            throw new IllegalArgumentException("Task ID cannot be null!");
+        }
+        if (Objects.equals(taskId, parentId)) {
+            throw new IllegalArgumentException("A task cannot be its own parent!");
+        }
+        // Moves of one list run one after another: two concurrent moves (A below B, B below A) would otherwise both
+        // pass the cycle check below before either has written its links
+        taskListRepository.lockById(taskListId)
+                .orElseThrow(() -> new IllegalStateException("Task not found!"));
+        Task task = taskRepository.findByTaskListIdAndId(taskListId, taskId)
+                .orElseThrow(() -> new IllegalStateException("Task not found!"));
+        if (Objects.equals(task.getParentId(), parentId)) {
+            return task; // Already there
+        }
+        if (parentId != null) {
+            if (!taskRepository.existsByTaskListIdAndId(taskListId, parentId)) {
+                throw new IllegalStateException("Parent task not found!"); // Parents must be live tasks of the same list
+            }
+            if (taskClosureRepository.existsByIdAncestorIdAndIdDescendantId(taskId, parentId)) {
+                throw new IllegalArgumentException("A task cannot be moved below its own sub-task!");
+            }
+        }
+
+        taskClosureRepository.detachSubtree(taskId); // Links inside the subtree stay, only the ones from above go
+        if (parentId != null) {
+            taskClosureRepository.attachSubtree(taskId, parentId);
+        }
+        task.setParentId(parentId);
+        task.setUpdated(LocalDateTime.now());
+        return taskRepository.save(task);
+    }
+}
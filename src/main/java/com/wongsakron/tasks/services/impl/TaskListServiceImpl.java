@@ -1,31 +1,58 @@
 package com.wongsakron.tasks.services.impl;
 
 import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.persistence.LazyLoadGuard;
 import com.wongsakron.tasks.repositories.TaskListRepository;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.search.TaskDueIndex;
+import com.wongsakron.tasks.search.TaskTagIndex;
 import com.wongsakron.tasks.services.TaskListService;
+import com.wongsakron.tasks.services.TaskRollupService;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
 @Service
+@Profile("!embedded") // LogStoreTaskListServiceImpl replaces it in the embedded profile
 public class TaskListServiceImpl implements TaskListService {
 
     private final TaskListRepository taskListRepository;
+    private final TaskRepository taskRepository;
+    private final TaskTagIndex taskTagIndex;
+    private final TaskRollupService taskRollupService;
+    private final TaskDueIndex taskDueIndex;
 
-    public TaskListServiceImpl(TaskListRepository taskListRepository) {
+    public TaskListServiceImpl(TaskListRepository taskListRepository, TaskRepository taskRepository, TaskTagIndex taskTagIndex,
+                               TaskRollupService taskRollupService, TaskDueIndex taskDueIndex) {
         this.taskListRepository = taskListRepository;
-    } // Constructor injection for TaskListRepository
+        this.taskRepository = taskRepository;
+        this.taskTagIndex = taskTagIndex;
+        this.taskRollupService = taskRollupService;
+        this.taskDueIndex = taskDueIndex;
+    } // Constructor injection for the repositories
 
     @Override
+    @Transactional(readOnly = true) // Read-only transactions may be served by the replica
     public List<TaskList> listTaskLists() {
         return taskListRepository.findAll(); // Retrieves all task lists
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<TaskList> listTaskListsWithTasks() {
+        return taskListRepository.findAllWithTasks(); // One query instead of one tasks query per list
+    }
+
+    @Override
+    @Transactional
     public TaskList createTaskList(TaskList taskList) {
         if (null != taskList.getId()) {
             throw new IllegalArgumentException("Task list already has an Id!");
@@ -36,7 +63,7 @@ public class TaskListServiceImpl implements TaskListService {
         } // Validates that the task list has a non-empty title
 
         LocalDateTime now = LocalDateTime.now();
-        return taskListRepository.save(new TaskList(
+        TaskList saved = taskListRepository.save(new TaskList(
                 null,
                 taskList.getTitle(),
                 taskList.getDescription(),
@@ -44,14 +71,30 @@ public class TaskListServiceImpl implements TaskListService {
                 now,
                 now
         )); // Save the new task list with the current timestamp for created and updated fields
+        taskRollupService.initTaskList(saved.getId());
+        return saved;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<TaskList> getTaskList(UUID id) {
         return taskListRepository.findById(id); // Retrieves a task list by its ID, returning an Optional
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Optional<TaskList> getTaskListWithTasks(UUID id) {
+        return taskListRepository.findById(id).map(this::withTasks);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskList> getTaskLists(Collection<UUID> ids) {
+        return taskListRepository.findAllById(ids); // Single IN query, order is not guaranteed
+    }
+
+    @Override
+    @Transactional
     public TaskList updateTaskList(UUID taskListId, TaskList taskList) {
 
         if(null == taskList.getId()) {
@@ -69,17 +112,46 @@ public class TaskListServiceImpl implements TaskListService {
         existingTaskList.setTitle(taskList.getTitle());
         existingTaskList.setDescription(taskList.getDescription());
         existingTaskList.setUpdated(LocalDateTime.now());
-        return taskListRepository.save(existingTaskList); // Updates the existing task list with new values and saves it
+        return withTasks(taskListRepository.save(existingTaskList)); // Updates the existing task list with new values and saves it
     }
 
     @Override
+    @Transactional
     public void deleteTaskList(UUID id) {
         Optional<TaskList> existingTaskList = taskListRepository.findById(id);
         // JPA จัดการให้เองได้ เเต่เขียนเองก็ดี
         if(existingTaskList.isEmpty()){
             throw new IllegalArgumentException("Task list not found!"); // Ensures the task list exists before attempting to delete
         } else {
-            taskListRepository.deleteById(id); // Deletes the task list by its ID
+            // Soft delete: list and tasks share one timestamp so a restore brings back exactly this delete,
+            // the rows (and archived tasks) are physically removed later by the purge job.
+            LocalDateTime deletedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            taskRepository.softDeleteByTaskListId(id, deletedAt);
+            taskListRepository.softDeleteById(id, deletedAt);
+            taskTagIndex.removeList(id);
+            taskDueIndex.removeList(id);
+            taskRollupService.recountTaskList(id); // Back to zero, the totals drop by the same amount
         }
     }
+
+    @Override
+    @Transactional
+    public TaskList restoreTaskList(UUID id) {
+        LocalDateTime deletedAt = taskListRepository.findDeletedAtById(id)
+                .orElseThrow(() -> new IllegalStateException("Deleted task list not found!")); // Already purged or never deleted
+        taskListRepository.restoreById(id);
+        taskRepository.restoreByTaskListIdDeletedAt(id, deletedAt); // Tasks deleted on their own before the list stay deleted
+        taskTagIndex.replaceList(id, taskRepository.findIndexEntriesByTaskListId(id));
+        taskDueIndex.replaceList(id, taskRepository.findDueEntriesByTaskListId(id));
+        taskRollupService.recountTaskList(id);
+        return taskListRepository.findById(id)
+                .map(this::withTasks)
+                .orElseThrow(() -> new IllegalStateException("Task list not found!"));
+    }
+
+    // Loads the tasks by list id rather than with a join fetch, so both come from the second-level cache when present.
+    private TaskList withTasks(TaskList taskList) {
+        LazyLoadGuard.initialize(taskList.getTasks());
+        return taskList;
+    }
 }
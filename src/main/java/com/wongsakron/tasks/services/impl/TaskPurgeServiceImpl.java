@@ -0,0 +1,59 @@
+package com.wongsakron.tasks.services.impl;
+
+import com.wongsakron.tasks.domain.entities.TaskRollup;
+import com.wongsakron.tasks.repositories.ArchivedTaskRepository;
+import com.wongsakron.tasks.repositories.TaskClosureRepository;
+import com.wongsakron.tasks.repositories.TaskListRepository;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.repositories.TaskRollupRepository;
+import com.wongsakron.tasks.services.TaskPurgeService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Service
+public class TaskPurgeServiceImpl implements TaskPurgeService {
+
+    private final TaskRepository taskRepository;
+    private final TaskListRepository taskListRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TaskClosureRepository taskClosureRepository;
+    private final TaskRollupRepository taskRollupRepository;
+
+    public TaskPurgeServiceImpl(TaskRepository taskRepository, TaskListRepository taskListRepository, ArchivedTaskRepository archivedTaskRepository,
+                                TaskClosureRepository taskClosureRepository, TaskRollupRepository taskRollupRepository) {
+        this.taskRepository = taskRepository;
+        this.taskListRepository = taskListRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.taskClosureRepository = taskClosureRepository;
+        this.taskRollupRepository = taskRollupRepository;
+    }
+
+    @Override
+    @Transactional // One short transaction per batch, so row locks are held only briefly
+    public int purgeDeleted(LocalDateTime deletedBefore, int batchSize) {
+        if (deletedBefore == null) {
+            throw new IllegalArgumentException("Purge cutoff cannot be null!");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Purge batch size must be positive!");
+        }
+
+        // Children first: a list is only removed once none of its tasks or archived tasks are left.
+        int purged = taskRepository.purgeDeletedBefore(deletedBefore, batchSize);
+        if (purged < batchSize) {
+            purged += taskClosureRepository.purgeOrphans(batchSize - purged); // Hierarchy links of the removed tasks
+        }
+        if (purged < batchSize) {
+            purged += archivedTaskRepository.purgeOfListsDeletedBefore(deletedBefore, batchSize - purged);
+        }
+        if (purged < batchSize) {
+            purged += taskListRepository.purgeDeletedBefore(deletedBefore, batchSize - purged);
+        }
+        if (purged < batchSize) {
+            purged += taskRollupRepository.purgeOrphans(TaskRollup.GLOBAL, batchSize - purged); // Dashboard counters of the removed lists
+        }
+        return purged;
+    }
+}
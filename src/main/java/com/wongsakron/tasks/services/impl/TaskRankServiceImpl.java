@@ -0,0 +1,92 @@
+package com.wongsakron.tasks.services.impl;
+
+import com.wongsakron.tasks.domain.TaskRanks;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.services.TaskRankService;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+@Service
+public class TaskRankServiceImpl implements TaskRankService {
+
+    private final TaskRepository taskRepository;
+
+    public TaskRankServiceImpl(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    @Override
+    @Transactional
+    public Task moveTask(UUID taskListId, UUID taskId, UUID afterTaskId) {
+        if (taskId == null) {
+            throw new IllegalArgumentException("Task ID cannot be null!");
+        }
+        if (Objects.equals(taskId, afterTaskId)) {
+            throw new IllegalArgumentException("A task cannot be moved after itself!");
+        }
+        Task task = taskRepository.findByTaskListIdAndId(taskListId, taskId)
+                .orElseThrow(() -> new IllegalStateException("Task not found!"));
+        Task previous = afterTaskId == null ? null : taskRepository.findByTaskListIdAndId(taskListId, afterTaskId)
+                .orElseThrow(() -> new IllegalStateException("Task to move after not found!"));
+        if (taskRepository.existsByTaskListIdAndRankIsNull(taskListId)) {
+            rebalance(taskListId); // Unranked tasks have no position to move between yet
+        }
+
+        String rank = rankAfter(task, previous);
+        if (rank != null && rank.length() > TaskRanks.MAX_LENGTH) {
+            rebalance(taskListId); // Keys ran out of room before the rebalancer came by
+            rank = rankAfter(task, previous);
+        }
+        if (rank == null) {
+            return task; // Already in place
+        }
+
+        task.setRank(rank); // The only row a move writes, and only its rank and updated columns (DynamicUpdate)
+        task.setUpdated(LocalDateTime.now());
+        return taskRepository.save(task);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UUID> findTaskListsToRebalance(int maxLength, int maxLists) {
+        if (maxLength <= 0 || maxLists <= 0) {
+            throw new IllegalArgumentException("Rebalance limits must be positive!");
+        }
+        return taskRepository.findTaskListIdsToRebalance(maxLength, Limit.of(maxLists));
+    }
+
+    @Override
+    @Transactional // One short transaction per list
+    public int rebalance(UUID taskListId) {
+        List<Task> tasks = taskRepository.findByTaskListId(taskListId); // Current order, unranked tasks last
+        List<String> ranks = TaskRanks.spread(tasks.size());
+        int changed = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (!ranks.get(i).equals(task.getRank())) {
+                task.setRank(ranks.get(i)); // Ordering maintenance, not a user change, so updated stays as is
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    // New rank for placing task right after previous (first when null), or null when it already sits there.
+    // The moving task is excluded from the neighbour lookup, so its own rank never bounds the new one.
+    private String rankAfter(Task task, Task previous) {
+        String before = previous == null ? "" : previous.getRank();
+        String after = taskRepository.findNextRank(task.getTaskList().getId(), before, task.getId()).orElse(null);
+        String current = task.getRank();
+        if (current.compareTo(before) > 0 && (after == null || current.compareTo(after) < 0)) {
+            return null;
+        }
+        return TaskRanks.between(before, after);
+    }
+}
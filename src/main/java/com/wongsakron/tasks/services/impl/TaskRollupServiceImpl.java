@@ -0,0 +1,243 @@
+package com.wongsakron.tasks.services.impl;
+
+import com.wongsakron.tasks.domain.TaskDueCounts;
+import com.wongsakron.tasks.domain.TaskRollupCount;
+import com.wongsakron.tasks.domain.TaskRollupKey;
+import com.wongsakron.tasks.domain.entities.TaskDueBucket;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskRollup;
+import com.wongsakron.tasks.domain.entities.TaskRollupId;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import com.wongsakron.tasks.repositories.TaskListRepository;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.repositories.TaskRollupRepository;
+import com.wongsakron.tasks.services.TaskRollupService;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+// Task writes move a task between counters in their own transaction. Set-based writes (bulk update, subtree
+// delete/restore, archiving) recount the affected list instead, under a lock on its counters: writers touching
+// the list wait, and whatever they changed before is either committed and counted, or applied as a delta afterwards.
+// Writes that bypass this service (other stacks, manual SQL) are found and fixed by the check job.
+// Counter rows are locked in one order by every writer, so two of them never wait on each other in a cycle: the list
+// rows by list ID then key, then the global rows by key on a single stripe (the primary key order, see TaskRollupKey).
+@Service
+public class TaskRollupServiceImpl implements TaskRollupService {
+
+    static final List<TaskRollupKey> KEYS = allKeys();
+
+    private final TaskRollupRepository taskRollupRepository;
+    private final TaskRepository taskRepository;
+    private final TaskListRepository taskListRepository;
+
+    public TaskRollupServiceImpl(TaskRollupRepository taskRollupRepository, TaskRepository taskRepository, TaskListRepository taskListRepository) {
+        this.taskRollupRepository = taskRollupRepository;
+        this.taskRepository = taskRepository;
+        this.taskListRepository = taskListRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskRollupCount> getRollup(UUID taskListId) {
+        if (taskListId == null) {
+            return taskRollupRepository.sumByScopeId(TaskRollup.GLOBAL);
+        }
+        List<TaskRollupCount> counts = taskRollupRepository.sumByTaskListId(taskListId); // One indexed read
+        if (counts.isEmpty() && !taskListRepository.existsById(taskListId)) {
+            throw new IllegalStateException("Task list not found!");
+        }
+        return counts; // Empty for a list whose counters the next check creates
+    }
+
+    @Override
+    @Transactional
+    public void initTaskList(UUID taskListId) {
+        taskRollupRepository.saveAll(KEYS.stream().map(key -> new TaskRollup(id(taskListId, 0, key), 0)).toList());
+    }
+
+    @Override
+    @Transactional
+    public void recordChange(UUID taskListId, TaskRollupKey before, TaskRollupKey after) {
+        if (Objects.equals(before, after)) {
+            return; // Still counted in the same place
+        }
+        Map<TaskRollupKey, Long> deltas = new HashMap<>();
+        if (before != null) {
+            deltas.put(before, -1L);
+        }
+        if (after != null) {
+            deltas.put(after, 1L);
+        }
+        add(Map.of(taskListId, deltas));
+    }
+
+    @Override
+    @Transactional
+    public void recordCreates(Map<UUID, Map<TaskRollupKey, Long>> created) {
+        add(created); // One increment per counter, not per task
+    }
+
+    @Override
+    @Transactional
+    public boolean recountTaskList(UUID taskListId) {
+        Map<TaskRollupKey, TaskRollup> rows = taskRollupRepository.lockByScopeId(taskListId).stream()
+                .collect(Collectors.toMap(TaskRollupServiceImpl::key, row -> row));
+        Map<TaskRollupKey, Long> actual = count(List.of(taskListId)).getOrDefault(taskListId, Map.of());
+
+        Map<TaskRollupKey, Long> deltas = new HashMap<>();
+        for (TaskRollupKey key : KEYS) {
+            long expected = actual.getOrDefault(key, 0L);
+            TaskRollup row = rows.get(key);
+            long current = row == null ? 0 : row.getCount();
+            if (row == null && expected != 0) {
+                taskRollupRepository.save(new TaskRollup(id(taskListId, 0, key), expected)); // A missing row counts as zero
+            } else if (row != null && current != expected) {
+                row.setCount(expected);
+            }
+            if (current != expected) {
+                deltas.put(key, expected - current); // The totals move by the same amount
+            }
+        }
+        addGlobal(deltas);
+        return !deltas.isEmpty();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UUID> findTaskListIds(UUID afterId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Rollup batch size must be positive!");
+        }
+        return taskListRepository.findIdsAfter(afterId, Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UUID> findTaskListsOutOfSync(List<UUID> taskListIds) {
+        if (taskListIds.isEmpty()) {
+            return List.of();
+        }
+        // Two queries for the whole batch, the lists that differ are recounted one by one afterwards
+        Map<UUID, Map<TaskRollupKey, Long>> stored = new HashMap<>();
+        taskRollupRepository.findByScopeIdIn(taskListIds).forEach(row -> stored
+                .computeIfAbsent(row.getId().getScopeId(), id -> new HashMap<>())
+                .put(key(row), row.getCount()));
+        Map<UUID, Map<TaskRollupKey, Long>> actual = count(taskListIds);
+
+        return taskListIds.stream()
+                .filter(taskListId -> {
+                    Map<TaskRollupKey, Long> rows = stored.getOrDefault(taskListId, Map.of());
+                    Map<TaskRollupKey, Long> counts = actual.getOrDefault(taskListId, Map.of());
+                    return KEYS.stream().anyMatch(key -> !rows.getOrDefault(key, 0L).equals(counts.getOrDefault(key, 0L)));
+                })
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public boolean rebuildGlobal() {
+        Map<TaskRollupId, TaskRollup> rows = taskRollupRepository.lockByScopeId(TaskRollup.GLOBAL).stream()
+                .collect(Collectors.toMap(TaskRollup::getId, row -> row));
+        Map<TaskRollupKey, Long> actual = new HashMap<>();
+        taskRepository.countGroupByStatusPriorityAndDue(startOfToday())
+                .forEach(counts -> split(counts, actual));
+
+        boolean changed = false;
+        for (TaskRollupKey key : KEYS) {
+            long expected = actual.getOrDefault(key, 0L);
+            long current = 0;
+            for (int stripe = 0; stripe < TaskRollup.GLOBAL_STRIPES; stripe++) {
+                TaskRollupId id = id(TaskRollup.GLOBAL, stripe, key);
+                long value = stripe == 0 ? expected : 0; // The total collapses into stripe 0
+                TaskRollup row = rows.get(id);
+                if (row == null) {
+                    taskRollupRepository.save(new TaskRollup(id, value));
+                    changed = true; // Missing counters, e.g. the first build
+                } else {
+                    current += row.getCount();
+                    row.setCount(value);
+                }
+            }
+            changed |= current != expected;
+        }
+        return changed;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isInitialized() {
+        return taskRollupRepository.existsByIdScopeId(TaskRollup.GLOBAL);
+    }
+
+    // Deltas per list and key, applied in lock order
+    private void add(Map<UUID, Map<TaskRollupKey, Long>> deltas) {
+        Map<TaskRollupKey, Long> global = new HashMap<>();
+        new TreeMap<>(deltas).forEach((taskListId, byKey) -> new TreeMap<>(byKey).forEach((key, delta) -> {
+            if (delta != 0) {
+                taskRollupRepository.increment(id(taskListId, 0, key), delta); // A missing row is created by the next check
+                global.merge(key, delta, Long::sum);
+            }
+        }));
+        addGlobal(global);
+    }
+
+    private void addGlobal(Map<TaskRollupKey, Long> deltas) {
+        int stripe = ThreadLocalRandom.current().nextInt(TaskRollup.GLOBAL_STRIPES); // One stripe per transaction
+        new TreeMap<>(deltas).forEach((key, delta) -> {
+            if (delta != 0) {
+                taskRollupRepository.increment(id(TaskRollup.GLOBAL, stripe, key), delta);
+            }
+        });
+    }
+
+    // Current counts per list of the given lists, from the tasks themselves
+    private Map<UUID, Map<TaskRollupKey, Long>> count(List<UUID> taskListIds) {
+        Map<UUID, Map<TaskRollupKey, Long>> counts = new HashMap<>();
+        taskRepository.countByTaskListIdsGroupByStatusPriorityAndDue(taskListIds, startOfToday())
+                .forEach(row -> split(row, counts.computeIfAbsent(row.taskListId(), id -> new HashMap<>())));
+        return counts;
+    }
+
+    private static void split(TaskDueCounts row, Map<TaskRollupKey, Long> into) {
+        into.merge(new TaskRollupKey(row.status(), row.priority(), TaskDueBucket.NO_DUE_DATE), row.noDueDate(), Long::sum);
+        into.merge(new TaskRollupKey(row.status(), row.priority(), TaskDueBucket.OVERDUE), row.overdue(), Long::sum);
+        into.merge(new TaskRollupKey(row.status(), row.priority(), TaskDueBucket.UPCOMING), row.upcoming(), Long::sum);
+    }
+
+    private static LocalDateTime startOfToday() {
+        return LocalDate.now().atStartOfDay(); // Same day boundary as TaskDueBucket.of
+    }
+
+    private static TaskRollupId id(UUID scopeId, int stripe, TaskRollupKey key) {
+        return new TaskRollupId(scopeId, stripe, key.status(), key.priority(), key.dueBucket());
+    }
+
+    private static TaskRollupKey key(TaskRollup row) {
+        return new TaskRollupKey(row.getId().getStatus(), row.getId().getPriority(), row.getId().getDueBucket());
+    }
+
+    private static List<TaskRollupKey> allKeys() {
+        List<TaskRollupKey> keys = new ArrayList<>();
+        for (TaskStatus status : TaskStatus.values()) {
+            for (TaskPriority priority : TaskPriority.values()) {
+                for (TaskDueBucket dueBucket : TaskDueBucket.values()) {
+                    keys.add(new TaskRollupKey(status, priority, dueBucket));
+                }
+            }
+        }
+        return List.copyOf(keys);
+    }
+}
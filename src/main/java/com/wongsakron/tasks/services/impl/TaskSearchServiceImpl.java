@@ -0,0 +1,79 @@
+package com.wongsakron.tasks.services.impl;
+
+import com.wongsakron.tasks.domain.TaskIndexEntry;
+import com.wongsakron.tasks.domain.TaskRanks;
+import com.wongsakron.tasks.domain.TaskTagQuery;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.repositories.TaskListRepository;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.search.TaskTagIndex;
+import com.wongsakron.tasks.services.TaskSearchService;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+// Tag searches are answered by the in-memory bitmap index, the matching tasks are then fetched by id.
+// Until the index is built the same filter runs over the tasks of the list instead.
+@Service
+public class TaskSearchServiceImpl implements TaskSearchService {
+
+    public static final int MAX_RESULTS = 1000; // Upper bound of tasks returned by one search
+    static final int REBUILD_PAGE_SIZE = 5000;
+
+    private final TaskRepository taskRepository;
+    private final TaskListRepository taskListRepository;
+    private final TaskTagIndex taskTagIndex;
+
+    public TaskSearchServiceImpl(TaskRepository taskRepository, TaskListRepository taskListRepository, TaskTagIndex taskTagIndex) {
+        this.taskRepository = taskRepository;
+        this.taskListRepository = taskListRepository;
+        this.taskTagIndex = taskTagIndex;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Task> searchTasks(UUID taskListId, TaskTagQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Search query cannot be null!");
+        }
+        if (!taskListRepository.existsById(taskListId)) {
+            throw new IllegalStateException("Task list not found!");
+        }
+        if (!taskTagIndex.isReady()) {
+            return taskRepository.findByTaskListId(taskListId).stream()
+                    .filter(query::matches)
+                    .limit(MAX_RESULTS)
+                    .toList();
+        }
+
+        List<UUID> ids = taskTagIndex.query(taskListId, query, MAX_RESULTS);
+        List<Task> tasks = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += TaskServiceImpl.IN_QUERY_CHUNK_SIZE) {
+            taskRepository.findByIdIn(ids.subList(from, Math.min(from + TaskServiceImpl.IN_QUERY_CHUNK_SIZE, ids.size())))
+                    .stream()
+                    .filter(task -> Objects.equals(task.getTaskList().getId(), taskListId) && query.matches(task)) // Drops entries the index has not caught up with
+                    .forEach(tasks::add);
+        }
+        tasks.sort(TaskRanks.TASK_ORDER);
+        return tasks;
+    }
+
+    @Override
+    public int rebuildIndex() {
+        // Keyset pages, each its own short read, so the rebuild never holds one long transaction
+        return taskTagIndex.rebuild(sink -> {
+            UUID afterId = null;
+            List<TaskIndexEntry> page;
+            do {
+                page = taskRepository.findIndexEntriesAfter(afterId, Limit.of(REBUILD_PAGE_SIZE));
+                page.forEach(sink);
+                afterId = page.isEmpty() ? null : page.get(page.size() - 1).taskId();
+            } while (page.size() == REBUILD_PAGE_SIZE);
+        });
+    }
+}
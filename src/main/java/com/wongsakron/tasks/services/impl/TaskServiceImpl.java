@@ -1,69 +1,136 @@
 package com.wongsakron.tasks.services.impl;
 
 
+import com.wongsakron.tasks.domain.TaskCounts;
+import com.wongsakron.tasks.domain.TaskCreate;
+import com.wongsakron.tasks.domain.TaskCreateResult;
+import com.wongsakron.tasks.domain.TaskDueEntry;
+import com.wongsakron.tasks.domain.TaskFilter;
+import com.wongsakron.tasks.domain.TaskIndexEntry;
+import com.wongsakron.tasks.domain.TaskKey;
+import com.wongsakron.tasks.domain.TaskRanks;
+import com.wongsakron.tasks.domain.TaskRollupKey;
+import com.wongsakron.tasks.domain.TaskStatusCount;
+import com.wongsakron.tasks.domain.entities.ArchivedTask;
 import com.wongsakron.tasks.domain.entities.Task;
 import com.wongsakron.tasks.domain.entities.TaskList;
 import com.wongsakron.tasks.domain.entities.TaskPriority;
 import com.wongsakron.tasks.domain.entities.TaskStatus;
+import com.wongsakron.tasks.repositories.ArchivedTaskRepository;
+import com.wongsakron.tasks.repositories.TaskClosureRepository;
 import com.wongsakron.tasks.repositories.TaskListRepository;
 import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.search.TaskDueIndex;
+import com.wongsakron.tasks.search.TaskTagIndex;
+import com.wongsakron.tasks.services.TaskRollupService;
 import com.wongsakron.tasks.services.TaskService;
-import jakarta.transaction.Transactional;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.UUID;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
+@Profile("!embedded") // LogStoreTaskServiceImpl replaces it in the embedded profile
 public class TaskServiceImpl implements TaskService {
 
+    public static final int MULTI_GET_MAX_KEYS = 1000; // Upper bound of keys accepted by getTasks
+    static final int IN_QUERY_CHUNK_SIZE = 250; // Keeps IN lists small enough for every database's parameter limit
+
     private final TaskRepository taskRepository; // Assuming a TaskRepository exists for data access
     private final TaskListRepository taskListRepository; // Assuming a TaskListRepository exists for data access
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TaskClosureRepository taskClosureRepository;
+    private final TaskTagIndex taskTagIndex; // Kept in step with every write below, applied after commit
+    private final TaskRollupService taskRollupService; // Dashboard counters, updated in the same transaction as the write
+    private final TaskDueIndex taskDueIndex; // Like the tag index, applied after commit
 
-    public TaskServiceImpl(TaskRepository taskRepository, TaskListRepository taskListRepository) {
+    public TaskServiceImpl(TaskRepository taskRepository, TaskListRepository taskListRepository, ArchivedTaskRepository archivedTaskRepository,
+                           TaskClosureRepository taskClosureRepository, TaskTagIndex taskTagIndex, TaskRollupService taskRollupService,
+                           TaskDueIndex taskDueIndex) {
         this.taskRepository = taskRepository;
         this.taskListRepository = taskListRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.taskClosureRepository = taskClosureRepository;
+        this.taskTagIndex = taskTagIndex;
+        this.taskRollupService = taskRollupService;
+        this.taskDueIndex = taskDueIndex;
     }
 
     @Override
+    @Transactional(readOnly = true) // Read-only transactions may be served by the replica
     public List<Task> listTasks(UUID taskListId) {
         return taskRepository.findByTaskListId(taskListId); // Retrieves all tasks for a specific task list
     }
 
     @Override
-    public Task createTask(UUID taskListId, Task task) {
+    @Transactional(readOnly = true)
+    public List<Task> listTasks(UUID taskListId, boolean includeArchived) {
+        if (!includeArchived || !taskListRepository.existsById(taskListId)) {
+            return listTasks(taskListId); // Archived tasks of a deleted list stay hidden until it is purged
+        }
+        List<Task> tasks = new ArrayList<>(taskRepository.findByTaskListId(taskListId));
+        archivedTaskRepository.findByTaskListId(taskListId).stream()
+                .map(ArchivedTask::toTask)
+                .forEach(tasks::add); // Archived tasks come after the active ones
+        return tasks;
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, List<Task>> listTasks(Collection<UUID> taskListIds) {
+        Map<UUID, List<Task>> tasksByList = new HashMap<>();
+        taskListIds.forEach(id -> tasksByList.put(id, new ArrayList<>())); // Lists without tasks still get an entry
+        taskRepository.findByTaskListIdIn(taskListIds)
+                .forEach(task -> tasksByList.get(task.getTaskList().getId()).add(task));
+        return tasksByList;
+    }
 
-        if (task == null) {
-            throw new IllegalArgumentException("Task payload cannot be null!");
-        }
-        if (task.getId() != null) {
-            throw new IllegalArgumentException("Task already has an Id!");
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, TaskCounts> countTasks(Collection<UUID> taskListIds) {
+        // Live tasks only, callers add the list's archivedTaskCount (see TaskCounts.withArchived)
+        Map<UUID, List<TaskStatusCount>> rows = taskRepository.countByTaskListIdsGroupByStatus(taskListIds).stream()
+                .collect(Collectors.groupingBy(TaskStatusCount::taskListId));
 
-        if (task.getTitle() == null) {
-            throw new IllegalArgumentException("Task title cannot be null!");
-        }
-        String title = task.getTitle().trim();
-        if (title.isEmpty()) {
-            throw new IllegalArgumentException("Task title cannot be blank!");
+        Map<UUID, TaskCounts> counts = new HashMap<>();
+        for (UUID taskListId : taskListIds) {
+            long total = 0;
+            long closed = 0;
+            for (TaskStatusCount row : rows.getOrDefault(taskListId, List.of())) {
+                total += row.count();
+                if (row.status() == TaskStatus.CLOSED) {
+                    closed += row.count();
+                }
+            }
+            counts.put(taskListId, new TaskCounts(total, closed));
         }
+        return counts;
+    }
 
-        if (taskListId == null) {
-            throw new IllegalArgumentException("Invalid Task List ID provided!");
-        }
+    @Override
+    @Transactional
+    public Task createTask(UUID taskListId, Task task) {
+        validateNewTask(taskListId, task);
 
         TaskPriority taskPriority = Optional.ofNullable(task.getPriority())
                 .orElse(TaskPriority.MEDIUM); // Sets a default priority if none is provided
 
         TaskStatus taskStatus = TaskStatus.OPEN;
 
-        TaskList taskList = taskListRepository.findById(taskListId)
+        UUID parentId = task.getParentId();
+        // A sub-task copies its parent's paths: the list lock makes a concurrent move of the parent (TaskHierarchyServiceImpl) wait
+        TaskList taskList = (parentId == null ? taskListRepository.findById(taskListId) : taskListRepository.lockById(taskListId))
                 .orElseThrow(() -> new IllegalStateException("Invalid Task List ID provided!")); // Validates that the task list exists
 
+        if (parentId != null && !taskRepository.existsByTaskListIdAndId(taskListId, parentId)) {
+            throw new IllegalStateException("Parent task not found!"); // Sub-tasks stay in the list of their parent
+        }
+
         LocalDateTime now = LocalDateTime.now();
 
        Task taskForSave = new Task(
@@ -77,15 +144,137 @@ public class TaskServiceImpl implements TaskService {
                         now,
                         now
                 ); // Creates a new task
-        return taskRepository.save(taskForSave); // Saves the new task to the repository
+        taskForSave.setRank(TaskRanks.between(
+                taskRepository.findMaxRankByTaskListId(taskListId).orElse(null), null)); // New tasks go to the end of the list
+        taskForSave.setParentId(parentId);
+        taskForSave.setTags(task.getTags());
+        Task saved = taskRepository.save(taskForSave); // Saves the new task to the repository
+        if (parentId != null) {
+            taskClosureRepository.insertPathsToLeaf(parentId, saved.getId()); // Links the sub-task to its parent and all ancestors
+        }
+        taskTagIndex.put(TaskIndexEntry.of(taskListId, saved));
+        taskDueIndex.put(TaskDueEntry.of(taskListId, saved));
+        taskRollupService.recordChange(taskListId, null, TaskRollupKey.of(saved, LocalDate.now()));
+        return saved;
     }
 
     @Override
+    @Transactional
+    public List<TaskCreateResult> createTasks(List<TaskCreate> creates) {
+        TaskCreateResult[] results = new TaskCreateResult[creates.size()];
+        Map<UUID, List<Integer>> byList = new LinkedHashMap<>(); // Positions of the valid creates per list
+        for (int i = 0; i < creates.size(); i++) {
+            TaskCreate create = creates.get(i);
+            try {
+                validateNewTask(create.taskListId(), create.task());
+                byList.computeIfAbsent(create.taskListId(), id -> new ArrayList<>()).add(i);
+            } catch (RuntimeException ex) {
+                results[i] = TaskCreateResult.failed(ex);
+            }
+        }
+
+        Map<UUID, TaskList> taskLists = new HashMap<>();
+        taskListRepository.findAllById(byList.keySet()).forEach(list -> taskLists.put(list.getId(), list)); // Every list checked once per batch
+
+        // Lists that get sub-tasks are locked like in createTask, in ID order so two batches never wait on each other
+        byList.entrySet().stream()
+                .filter(entry -> taskLists.containsKey(entry.getKey())
+                        && entry.getValue().stream().anyMatch(i -> creates.get(i).task().getParentId() != null))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .forEach(taskListRepository::lockById);
+
+        List<Task> toSave = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<UUID, List<Integer>> entry : byList.entrySet()) {
+            UUID taskListId = entry.getKey();
+            TaskList taskList = taskLists.get(taskListId);
+            Set<UUID> parentIds = entry.getValue().stream()
+                    .map(i -> creates.get(i).task().getParentId())
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            Set<UUID> existingParents = taskList == null || parentIds.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(taskRepository.findIdsByTaskListIdAndIdIn(taskListId, parentIds));
+            String rank = taskList == null ? null : taskRepository.findMaxRankByTaskListId(taskListId).orElse(null);
+
+            for (int i : entry.getValue()) {
+                Task task = creates.get(i).task();
+                if (taskList == null) {
+                    results[i] = TaskCreateResult.failed(new IllegalStateException("Invalid Task List ID provided!"));
+                } else if (task.getParentId() != null && !existingParents.contains(task.getParentId())) {
+                    results[i] = TaskCreateResult.failed(new IllegalStateException("Parent task not found!")); // Parents come from earlier batches
+                } else {
+                    try {
+                        Task taskForSave = new Task(null, task.getTitle(), task.getDescription(), task.getDueDate(), TaskStatus.OPEN,
+                                Optional.ofNullable(task.getPriority()).orElse(TaskPriority.MEDIUM), taskList, now, now);
+                        taskForSave.setParentId(task.getParentId());
+                        taskForSave.setTags(task.getTags()); // Rejects invalid tags of this task only
+                        rank = TaskRanks.between(rank, null); // In request order at the end of the list
+                        taskForSave.setRank(rank);
+                        toSave.add(taskForSave);
+                        positions.add(i);
+                    } catch (RuntimeException ex) {
+                        results[i] = TaskCreateResult.failed(ex);
+                    }
+                }
+            }
+        }
+
+        List<Task> saved = taskRepository.saveAll(toSave); // Flushed as JDBC batches at commit (hibernate.jdbc.batch_size)
+        Map<UUID, Map<TaskRollupKey, Long>> rollups = new HashMap<>();
+        for (int j = 0; j < saved.size(); j++) {
+            Task task = saved.get(j);
+            UUID taskListId = task.getTaskList().getId();
+            if (task.getParentId() != null) {
+                taskClosureRepository.insertPathsToLeaf(task.getParentId(), task.getId());
+            }
+            taskTagIndex.put(TaskIndexEntry.of(taskListId, task));
+            taskDueIndex.put(TaskDueEntry.of(taskListId, task));
+            rollups.computeIfAbsent(taskListId, id -> new HashMap<>())
+                    .merge(TaskRollupKey.of(task, LocalDate.now()), 1L, Long::sum);
+            results[positions.get(j)] = TaskCreateResult.created(task);
+        }
+        taskRollupService.recordCreates(rollups); // Every list in one call, so the counters are locked in order
+        return Arrays.asList(results);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Optional<Task> getTask(UUID taskListId, UUID taskId) {
         return taskRepository.findByTaskListIdAndId(taskListId, taskId); // Retrieves a specific task by its ID within a task list
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<Optional<Task>> getTasks(List<TaskKey> keys) {
+        if (keys == null || keys.isEmpty()) {
+            throw new IllegalArgumentException("At least one task must be requested!");
+        }
+        if (keys.size() > MULTI_GET_MAX_KEYS) {
+            throw new IllegalArgumentException("At most " + MULTI_GET_MAX_KEYS + " tasks can be requested at once!");
+        }
+        if (keys.stream().anyMatch(key -> key == null || key.taskListId() == null || key.taskId() == null)) {
+            throw new IllegalArgumentException("Task list ID and task ID must be provided for every item!");
+        }
+
+        List<UUID> ids = keys.stream().map(TaskKey::taskId).distinct().toList();
+        Map<UUID, Task> found = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += IN_QUERY_CHUNK_SIZE) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + IN_QUERY_CHUNK_SIZE, ids.size()));
+            taskRepository.findByIdIn(chunk).forEach(task -> found.put(task.getId(), task));
+        }
+
+        return keys.stream()
+                .map(key -> Optional.ofNullable(found.get(key.taskId()))
+                        .filter(task -> task.getTaskList() != null
+                                && Objects.equals(task.getTaskList().getId(), key.taskListId()))) // Task must belong to the requested list
+                .toList(); // Keeps the requested order, missing tasks are empty
+    }
+
+    @Override
+    @Transactional
     public Task updateTask(UUID taskListId, UUID taskId, Task task) {
         if(null == task.getId()) {
             throw new IllegalArgumentException("Task ID cannot be null!"); // Ensures that the task has a valid ID for updating
@@ -105,20 +294,88 @@ public class TaskServiceImpl implements TaskService {
         Task existingTask = taskRepository.findByTaskListIdAndId(taskListId, taskId)
                 .orElseThrow(() -> new IllegalStateException("Task not found!") // Validates that the task exists in the specified task list
         );
+        TaskRollupKey before = TaskRollupKey.of(existingTask, LocalDate.now());
 
         existingTask.setTitle(task.getTitle());
         existingTask.setDescription(task.getDescription());
         existingTask.setDueDate(task.getDueDate());
         existingTask.setPriority(task.getPriority());
         existingTask.setStatus(task.getStatus());
+        existingTask.setTags(task.getTags());
         existingTask.setUpdated(LocalDateTime.now()); // Updates the task's updated timestamp
 
-        return taskRepository.save(existingTask); // Saves the updated task to the repository
+        Task saved = taskRepository.save(existingTask); // Saves the updated task to the repository
+        taskTagIndex.put(TaskIndexEntry.of(taskListId, saved));
+        taskDueIndex.put(TaskDueEntry.of(taskListId, saved));
+        taskRollupService.recordChange(taskListId, before, TaskRollupKey.of(saved, LocalDate.now()));
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public int bulkUpdateTasks(UUID taskListId, TaskFilter filter, TaskStatus status, TaskPriority priority) {
+        if (null == status && null == priority) {
+            throw new IllegalArgumentException("Bulk update needs a new status or priority!");
+        }
+        if (!taskListRepository.existsById(taskListId)) {
+            throw new IllegalStateException("Task list not found!");
+        }
+        TaskFilter where = Optional.ofNullable(filter).orElse(TaskFilter.ALL); // No filter means every task of the list
+
+        // A JPQL bulk update also evicts the Task entries and cached task collections from the second-level cache
+        int updated = taskRepository.bulkUpdateStatusAndPriority(taskListId, where.status(), where.priority(), where.dueBefore(),
+                status, priority, LocalDateTime.now());
+        if (updated > 0) {
+            taskTagIndex.replaceList(taskListId, taskRepository.findIndexEntriesByTaskListId(taskListId)); // Re-reads the list's index fields only
+            taskDueIndex.replaceList(taskListId, taskRepository.findDueEntriesByTaskListId(taskListId));
+            taskRollupService.recountTaskList(taskListId);
+        }
+        return updated;
     }
 
     @Override
     @Transactional
     public void deleteTask(UUID taskListId, UUID taskId) {
-        taskRepository.deleteByTaskListIdAndId(taskListId, taskId);
+        // Purged later by the purge job
+        if (taskRepository.softDeleteByTaskListIdAndId(taskListId, taskId, LocalDateTime.now().truncatedTo(ChronoUnit.MICROS)) > 0) {
+            taskTagIndex.replaceList(taskListId, taskRepository.findIndexEntriesByTaskListId(taskListId)); // Sub-tasks went with it
+            taskDueIndex.replaceList(taskListId, taskRepository.findDueEntriesByTaskListId(taskListId));
+            taskRollupService.recountTaskList(taskListId);
+        }
+    }
+
+    @Override
+    @Transactional
+    public Task restoreTask(UUID taskListId, UUID taskId) {
+        if (taskRepository.restoreByTaskListIdAndId(taskListId, taskId) == 0) {
+            throw new IllegalStateException("Deleted task not found!"); // Unknown, already purged, or its list is deleted
+        }
+        taskTagIndex.replaceList(taskListId, taskRepository.findIndexEntriesByTaskListId(taskListId));
+        taskDueIndex.replaceList(taskListId, taskRepository.findDueEntriesByTaskListId(taskListId));
+        taskRollupService.recountTaskList(taskListId);
+        return taskRepository.findByTaskListIdAndId(taskListId, taskId)
+                .orElseThrow(() -> new IllegalStateException("Task not found!"));
+    }
+
+    // Payload checks of a create that need no database access
+    private static void validateNewTask(UUID taskListId, Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task payload cannot be null!");
+        }
+        if (task.getId() != null) {
+            throw new IllegalArgumentException("Task already has an Id!");
+        }
+
+        if (task.getTitle() == null) {
+            throw new IllegalArgumentException("Task title cannot be null!");
+        }
+        String title = task.getTitle().trim();
+        if (title.isEmpty()) {
+            throw new IllegalArgumentException("Task title cannot be blank!");
+        }
+
+        if (taskListId == null) {
+            throw new IllegalArgumentException("Invalid Task List ID provided!");
+        }
     }
 }
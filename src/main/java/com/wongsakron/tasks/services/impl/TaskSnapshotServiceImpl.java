@@ -0,0 +1,253 @@
+package com.wongsakron.tasks.services.impl;
+
+import com.wongsakron.tasks.domain.TaskSnapshotSummary;
+import com.wongsakron.tasks.services.TaskDueService;
+import com.wongsakron.tasks.services.TaskRollupService;
+import com.wongsakron.tasks.services.TaskSearchService;
+import com.wongsakron.tasks.services.TaskSnapshotService;
+import com.wongsakron.tasks.snapshot.SnapshotReader;
+import com.wongsakron.tasks.snapshot.SnapshotTable;
+import com.wongsakron.tasks.snapshot.SnapshotWriter;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+// Snapshots bypass JPA on purpose: rows are streamed with plain JDBC straight into the columnar file, and a restore
+// inserts each block of the memory-mapped file with one multi-row INSERT. Nothing is loaded as an entity, so neither
+// side is bound by the persistence context or fills the second-level cache. Counters and in-memory indexes are
+// derived data and are rebuilt from the restored rows instead of being part of the snapshot.
+@Service
+public class TaskSnapshotServiceImpl implements TaskSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskSnapshotServiceImpl.class);
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]*"); // A file name, never a path
+    private static final DateTimeFormatter NAME_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    static final int FETCH_SIZE = 5000; // Rows per round trip while streaming a table out
+    static final int ROLLUP_PAGE_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TaskRollupService taskRollupService;
+    private final TaskSearchService taskSearchService;
+    private final TaskDueService taskDueService;
+    private final Path directory;
+
+    public TaskSnapshotServiceImpl(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            EntityManagerFactory entityManagerFactory,
+            TaskRollupService taskRollupService,
+            TaskSearchService taskSearchService,
+            TaskDueService taskDueService,
+            @Value("${tasks.snapshot.directory:${java.io.tmpdir}/task-snapshots}") Path directory
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true); // On the replica when there is one
+        this.readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ); // All tables as of one point in time
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.taskRollupService = taskRollupService;
+        this.taskSearchService = taskSearchService;
+        this.taskDueService = taskDueService;
+        this.directory = directory;
+    }
+
+    @Override
+    public TaskSnapshotSummary createSnapshot() {
+        long started = System.nanoTime();
+        String name = "tasks-" + LocalDateTime.now().format(NAME_TIME) + ".snapshot";
+        Path file = directory.resolve(name);
+        Path partial = directory.resolve(name + ".part");
+        long[] rows = new long[SnapshotTable.values().length];
+        try {
+            Files.createDirectories(directory);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial), 1 << 16);
+                 SnapshotWriter writer = new SnapshotWriter(out)) {
+                readTransaction.executeWithoutResult(status -> {
+                    for (SnapshotTable table : SnapshotTable.values()) {
+                        dump(writer, table);
+                        rows[table.ordinal()] = writer.rowCount(table);
+                    }
+                });
+                writer.finish();
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+            TaskSnapshotSummary summary = summary(name, rows, Files.size(file), started);
+            log.info("Wrote snapshot {} ({} task lists, {} tasks, {} bytes) in {} ms",
+                    name, summary.taskLists(), summary.tasks(), summary.bytes(), summary.millis());
+            return summary;
+        } catch (IOException ex) {
+            deleteQuietly(partial);
+            throw new UncheckedIOException(ex);
+        } catch (RuntimeException ex) {
+            deleteQuietly(partial);
+            throw ex;
+        }
+    }
+
+    @Override
+    public TaskSnapshotSummary restoreSnapshot(String name) {
+        if (name == null || !NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid snapshot name!");
+        }
+        Path file = directory.resolve(name);
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalStateException("Snapshot not found!");
+        }
+        long started = System.nanoTime();
+        try {
+            verify(file); // A damaged file fails here, before anything is written
+            long[] rows = writeTransaction.execute(status -> jdbcTemplate.execute((ConnectionCallback<long[]>) con -> {
+                checkEmpty();
+                return insertAll(con, file);
+            }));
+            rebuildDerivedData();
+            TaskSnapshotSummary summary = summary(name, rows, Files.size(file), started);
+            log.info("Restored snapshot {} ({} task lists, {} tasks) in {} ms", name, summary.taskLists(), summary.tasks(), summary.millis());
+            return summary;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void dump(SnapshotWriter writer, SnapshotTable table) {
+        try {
+            writer.startTable(table);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        jdbcTemplate.query(table.selectSql(), (RowCallbackHandler) rs -> {
+            try {
+                writer.addRow(rs);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private static void verify(Path file) throws IOException {
+        try (SnapshotReader reader = new SnapshotReader(file)) {
+            while (reader.next() != null) {
+                // Checksums and row counts are checked while reading
+            }
+        }
+    }
+
+    private void checkEmpty() {
+        for (SnapshotTable table : SnapshotTable.values()) {
+            List<Integer> any = jdbcTemplate.queryForList("select 1 from " + table.tableName() + " fetch first 1 rows only", Integer.class);
+            if (!any.isEmpty()) {
+                throw new IllegalArgumentException("Snapshots can only be restored into an empty database, " + table.tableName() + " has rows!");
+            }
+        }
+    }
+
+    // Full blocks share one prepared statement per table, only the last block of a table needs its own
+    private static long[] insertAll(Connection con, Path file) throws SQLException {
+        long[] rows = new long[SnapshotTable.values().length];
+        SnapshotTable table = null;
+        PreparedStatement fullBlock = null;
+        try (SnapshotReader reader = new SnapshotReader(file)) {
+            for (SnapshotReader.Block block = reader.next(); block != null; block = reader.next()) {
+                if (block.table() != table) {
+                    closeQuietly(fullBlock);
+                    fullBlock = null;
+                    table = block.table();
+                }
+                if (block.rows() == SnapshotWriter.BLOCK_ROWS) {
+                    if (fullBlock == null) {
+                        fullBlock = con.prepareStatement(table.insertSql(SnapshotWriter.BLOCK_ROWS));
+                    }
+                    block.bind(fullBlock);
+                    fullBlock.executeUpdate();
+                } else {
+                    try (PreparedStatement ps = con.prepareStatement(table.insertSql(block.rows()))) {
+                        block.bind(ps);
+                        ps.executeUpdate();
+                    }
+                }
+                rows[table.ordinal()] += block.rows();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            closeQuietly(fullBlock);
+        }
+        return rows;
+    }
+
+    // Same steps as the rollup and index rebuild jobs, run right away so the restored data is served correctly
+    private void rebuildDerivedData() {
+        entityManagerFactory.getCache().evictAll(); // Rows were written behind Hibernate's back
+        UUID afterId = null;
+        List<UUID> page;
+        do {
+            page = taskRollupService.findTaskListIds(afterId, ROLLUP_PAGE_SIZE);
+            page.forEach(taskRollupService::recountTaskList);
+            afterId = page.isEmpty() ? null : page.get(page.size() - 1);
+        } while (page.size() == ROLLUP_PAGE_SIZE);
+        taskRollupService.rebuildGlobal();
+        taskSearchService.rebuildIndex();
+        taskDueService.rebuildIndex();
+    }
+
+    private static TaskSnapshotSummary summary(String name, long[] rows, long bytes, long started) {
+        return new TaskSnapshotSummary(
+                name,
+                rows[SnapshotTable.TASK_LISTS.ordinal()],
+                rows[SnapshotTable.TASKS.ordinal()],
+                rows[SnapshotTable.ARCHIVED_TASKS.ordinal()],
+                rows[SnapshotTable.TASK_CLOSURE.ordinal()],
+                bytes,
+                (System.nanoTime() - started) / 1_000_000
+        );
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            if (ps != null) {
+                ps.close();
+            }
+        } catch (SQLException ex) {
+            log.warn("Could not close statement", ex);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            log.warn("Could not delete {}", path, ex);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.wongsakron.tasks.snapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+// Reads a snapshot written by SnapshotWriter through a memory-mapped window that slides over the file, so values
+// are decoded straight from the page cache without copying the file into the heap. Each frame is checked against
+// its CRC32C before it is handed out, and the trailer must match the rows read. Damaged, truncated or foreign
+// files fail with IllegalArgumentException.
+public class SnapshotReader implements Closeable {
+
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024; // Mapped at once, remapped when a frame does not fit
+    private static final int MAX_FRAME_SIZE = 256 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long[] rowCounts = new long[SnapshotTable.values().length];
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+    private boolean finished;
+
+    public SnapshotReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        try {
+            ByteBuffer magic = slice(0, SnapshotWriter.MAGIC.length);
+            byte[] bytes = new byte[SnapshotWriter.MAGIC.length];
+            magic.get(bytes);
+            if (!Arrays.equals(bytes, SnapshotWriter.MAGIC)) {
+                throw corrupted("not a task snapshot");
+            }
+            position = SnapshotWriter.MAGIC.length;
+            checkHeader(nextFrame(SnapshotWriter.HEADER));
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    // The next block of rows, or null once the trailer confirmed that every row has been read
+    public Block next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        ByteBuffer body = nextFrame((byte) 0);
+        byte kind = body.get();
+        if (kind == SnapshotWriter.TRAILER) {
+            for (SnapshotTable table : SnapshotTable.values()) {
+                if (body.getLong() != rowCounts[table.ordinal()]) {
+                    throw corrupted("row count of " + table.tableName() + " does not match");
+                }
+            }
+            if (position != size) {
+                throw corrupted("unexpected data after the trailer");
+            }
+            finished = true;
+            return null;
+        }
+        if (kind != SnapshotWriter.BLOCK) {
+            throw corrupted("unexpected frame");
+        }
+        int tableIndex = body.get();
+        int rows = body.getInt();
+        if (tableIndex < 0 || tableIndex >= SnapshotTable.values().length || rows <= 0 || rows > SnapshotWriter.BLOCK_ROWS) {
+            throw corrupted("invalid block");
+        }
+        SnapshotTable table = SnapshotTable.values()[tableIndex];
+        rowCounts[tableIndex] += rows;
+        return new Block(table, rows, body.slice());
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null; // Unmapped once collected
+        channel.close();
+    }
+
+    // Returns the body of the frame at the current position after checking its checksum
+    private ByteBuffer nextFrame(byte expectedKind) throws IOException {
+        if (size - position < 8) {
+            throw corrupted("truncated, the trailer is missing");
+        }
+        ByteBuffer prefix = slice(position, 8);
+        int length = prefix.getInt();
+        int crc = prefix.getInt();
+        if (length <= 0 || length > MAX_FRAME_SIZE || length > size - position - 8) {
+            throw corrupted("invalid frame length at offset " + position);
+        }
+        ByteBuffer body = slice(position + 8, length);
+        CRC32C checksum = new CRC32C();
+        checksum.update(body.duplicate());
+        if ((int) checksum.getValue() != crc) {
+            throw corrupted("checksum mismatch at offset " + position);
+        }
+        if (expectedKind != 0 && body.get(0) != expectedKind) {
+            throw corrupted("unexpected frame at offset " + position);
+        }
+        position += 8 + length;
+        return body;
+    }
+
+    private ByteBuffer slice(long offset, int length) throws IOException {
+        if (window == null || offset < windowStart || offset + length > windowStart + window.capacity()) {
+            long mapped = Math.min(Math.max(WINDOW_SIZE, length), size - offset);
+            if (mapped < length) {
+                throw corrupted("truncated");
+            }
+            window = channel.map(FileChannel.MapMode.READ_ONLY, offset, mapped);
+            windowStart = offset;
+        }
+        return window.slice((int) (offset - windowStart), length);
+    }
+
+    private static void checkHeader(ByteBuffer body) throws IOException {
+        if (!body.equals(ByteBuffer.wrap(SnapshotWriter.header()))) {
+            throw new IllegalArgumentException("Snapshot was taken with another version or schema!");
+        }
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static IllegalArgumentException corrupted(String reason) {
+        return new IllegalArgumentException("Snapshot is corrupted: " + reason + "!");
+    }
+
+    // Rows of one table, still encoded column by column in the mapped file
+    public static final class Block {
+
+        private final SnapshotTable table;
+        private final int rows;
+        private final ByteBuffer columns;
+
+        private Block(SnapshotTable table, int rows, ByteBuffer columns) {
+            this.table = table;
+            this.rows = rows;
+            this.columns = columns;
+        }
+
+        public SnapshotTable table() {
+            return table;
+        }
+
+        public int rows() {
+            return rows;
+        }
+
+        // Binds every row to a statement from table().insertSql(rows()), row by row in column order
+        public void bind(PreparedStatement ps) throws SQLException {
+            ByteBuffer in = columns.duplicate();
+            int columnCount = table.columns().size();
+            try {
+                for (int c = 0; c < columnCount; c++) {
+                    SnapshotTable.ColumnType type = table.columns().get(c).type();
+                    ByteBuffer nulls = in.slice(in.position(), (rows + 7) / 8);
+                    in.position(in.position() + nulls.capacity());
+                    int length = in.getInt();
+                    ByteBuffer values = in.slice(in.position(), length);
+                    in.position(in.position() + length);
+                    for (int r = 0; r < rows; r++) {
+                        int index = r * columnCount + c + 1;
+                        if ((nulls.get(r >>> 3) & (1 << (r & 7))) != 0) {
+                            ps.setNull(index, sqlType(type));
+                        } else {
+                            ps.setObject(index, read(type, values));
+                        }
+                    }
+                    if (values.hasRemaining()) {
+                        throw corrupted("column " + table.columns().get(c).name() + " has extra data");
+                    }
+                }
+            } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+                throw corrupted("block of " + table.tableName() + " is malformed");
+            }
+            if (in.hasRemaining()) {
+                throw corrupted("block of " + table.tableName() + " has extra data");
+            }
+        }
+
+        private static Object read(SnapshotTable.ColumnType type, ByteBuffer values) {
+            return switch (type) {
+                case UUID -> new UUID(values.getLong(), values.getLong());
+                case STRING -> {
+                    int length = values.getInt();
+                    String value = StandardCharsets.UTF_8.decode(values.slice(values.position(), length)).toString();
+                    values.position(values.position() + length);
+                    yield value;
+                }
+                case INT -> values.getInt();
+                case TIMESTAMP -> fromMicros(values.getLong());
+            };
+        }
+
+        private static int sqlType(SnapshotTable.ColumnType type) {
+            return switch (type) {
+                case UUID -> Types.OTHER;
+                case STRING -> Types.VARCHAR;
+                case INT -> Types.INTEGER;
+                case TIMESTAMP -> Types.TIMESTAMP;
+            };
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.wongsakron.tasks.snapshot;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Tables in a snapshot, in restore order (lists before the tasks referencing them). Columns are copied as stored,
+// soft-deleted rows included. The header of a snapshot lists them, a restore refuses snapshots with other columns.
+public enum SnapshotTable {
+
+    TASK_LISTS("task_lists", List.of(
+            new Column("id", ColumnType.UUID),
+            new Column("title", ColumnType.STRING),
+            new Column("description", ColumnType.STRING),
+            new Column("archived_task_count", ColumnType.INT),
+            new Column("created", ColumnType.TIMESTAMP),
+            new Column("updated", ColumnType.TIMESTAMP),
+            new Column("deleted_at", ColumnType.TIMESTAMP))),
+    ARCHIVED_TASKS("archived_tasks", List.of( // Still counted by their list (archived_task_count)
+            new Column("id", ColumnType.UUID),
+            new Column("title", ColumnType.STRING),
+            new Column("description", ColumnType.STRING),
+            new Column("due_date", ColumnType.TIMESTAMP),
+            new Column("status", ColumnType.INT),
+            new Column("priority", ColumnType.INT),
+            new Column("task_list_id", ColumnType.UUID),
+            new Column("created", ColumnType.TIMESTAMP),
+            new Column("updated", ColumnType.TIMESTAMP),
+            new Column("archived", ColumnType.TIMESTAMP))),
+    TASKS("tasks", List.of(
+            new Column("id", ColumnType.UUID),
+            new Column("title", ColumnType.STRING),
+            new Column("description", ColumnType.STRING),
+            new Column("due_date", ColumnType.TIMESTAMP),
+            new Column("status", ColumnType.INT), // Enum ordinal
+            new Column("priority", ColumnType.INT),
+            new Column("task_list_id", ColumnType.UUID),
+            new Column("created", ColumnType.TIMESTAMP),
+            new Column("updated", ColumnType.TIMESTAMP),
+            new Column("parent_id", ColumnType.UUID),
+            new Column("tags", ColumnType.STRING),
+            new Column("rank_key", ColumnType.STRING),
+            new Column("deleted_at", ColumnType.TIMESTAMP))),
+    TASK_CLOSURE("task_closure", List.of(
+            new Column("ancestor_id", ColumnType.UUID),
+            new Column("descendant_id", ColumnType.UUID),
+            new Column("depth", ColumnType.INT)));
+
+    private final String tableName;
+    private final List<Column> columns;
+
+    SnapshotTable(String tableName, List<Column> columns) {
+        this.tableName = tableName;
+        this.columns = columns;
+    }
+
+    public String tableName() {
+        return tableName;
+    }
+
+    public List<Column> columns() {
+        return columns;
+    }
+
+    public String selectSql() {
+        return "select " + columnNames() + " from " + tableName;
+    }
+
+    // One multi-row insert per block: a single round trip and statement for up to SnapshotWriter.BLOCK_ROWS rows
+    public String insertSql(int rows) {
+        String row = columns.stream().map(column -> "?").collect(Collectors.joining(", ", "(", ")"));
+        return "insert into " + tableName + " (" + columnNames() + ") values " + String.join(", ", Collections.nCopies(rows, row));
+    }
+
+    private String columnNames() {
+        return columns.stream().map(Column::name).collect(Collectors.joining(", "));
+    }
+
+    public enum ColumnType {
+        UUID, STRING, INT, TIMESTAMP
+    }
+
+    public record Column(String name, ColumnType type) {
+    }
+}
@@ -0,0 +1,194 @@
+package com.wongsakron.tasks.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+// Writes a snapshot file: the magic bytes, a header frame describing the tables, one frame per block of up to
+// BLOCK_ROWS rows of one table and a trailer frame with the row count of every table. A block stores its rows
+// column by column: a null bitmap, then the non-null values back to back (UUIDs as 16 bytes, ints as 4,
+// timestamps as epoch microseconds, strings as length + UTF-8). Every frame is preceded by its length and the
+// CRC32C of its body, so a reader detects corruption and truncation.
+public class SnapshotWriter implements Closeable {
+
+    static final byte[] MAGIC = "TASKSNAP".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 2; // 2: archived_tasks
+    static final byte HEADER = 1;
+    static final byte BLOCK = 2;
+    static final byte TRAILER = 3;
+    public static final int BLOCK_ROWS = 1000; // Also the rows per insert statement of a restore
+
+    private final DataOutputStream out;
+    private final long[] rowCounts = new long[SnapshotTable.values().length];
+    private SnapshotTable table;
+    private ColumnBuffer[] columns;
+    private int rows;
+
+    public SnapshotWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.out.write(MAGIC);
+        writeFrame(header());
+    }
+
+    // Rows added from now on belong to the given table
+    public void startTable(SnapshotTable table) throws IOException {
+        flushBlock();
+        this.table = table;
+        this.columns = table.columns().stream().map(column -> new ColumnBuffer(column.type())).toArray(ColumnBuffer[]::new);
+    }
+
+    // Copies the current row, its columns in the order of SnapshotTable.columns()
+    public void addRow(ResultSet rs) throws SQLException, IOException {
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].add(rs, i + 1, rows);
+        }
+        rows++;
+        rowCounts[table.ordinal()]++;
+        if (rows == BLOCK_ROWS) {
+            flushBlock();
+        }
+    }
+
+    public long rowCount(SnapshotTable table) {
+        return rowCounts[table.ordinal()];
+    }
+
+    // Writes the trailer; a snapshot without one is incomplete and refused by the reader
+    public void finish() throws IOException {
+        flushBlock();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(body);
+        data.writeByte(TRAILER);
+        for (long count : rowCounts) {
+            data.writeLong(count);
+        }
+        writeFrame(body.toByteArray());
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    // Also what a reader expects, any other table layout or version is refused
+    static byte[] header() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(body);
+        data.writeByte(HEADER);
+        data.writeInt(VERSION);
+        data.writeInt(SnapshotTable.values().length);
+        for (SnapshotTable table : SnapshotTable.values()) {
+            data.writeUTF(table.tableName());
+            data.writeInt(table.columns().size());
+            for (SnapshotTable.Column column : table.columns()) {
+                data.writeUTF(column.name());
+                data.writeByte(column.type().ordinal());
+            }
+        }
+        return body.toByteArray();
+    }
+
+    private void flushBlock() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream(64 * 1024);
+        DataOutputStream data = new DataOutputStream(body);
+        data.writeByte(BLOCK);
+        data.writeByte(table.ordinal());
+        data.writeInt(rows);
+        for (ColumnBuffer column : columns) {
+            column.writeTo(data, rows);
+        }
+        writeFrame(body.toByteArray());
+        rows = 0;
+    }
+
+    private void writeFrame(byte[] body) throws IOException {
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        out.writeInt(body.length);
+        out.writeInt((int) crc.getValue());
+        out.write(body);
+    }
+
+    static long toMicros(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + value.getNano() / 1_000; // Database precision
+    }
+
+    // Values of one column of the current block
+    private static final class ColumnBuffer {
+
+        private final SnapshotTable.ColumnType type;
+        private final byte[] nulls = new byte[(BLOCK_ROWS + 7) / 8];
+        private final ByteArrayOutputStream values = new ByteArrayOutputStream();
+        private final DataOutputStream data = new DataOutputStream(values);
+
+        private ColumnBuffer(SnapshotTable.ColumnType type) {
+            this.type = type;
+        }
+
+        private void add(ResultSet rs, int index, int row) throws SQLException, IOException {
+            switch (type) {
+                case UUID -> {
+                    UUID value = rs.getObject(index, UUID.class);
+                    if (value != null) {
+                        data.writeLong(value.getMostSignificantBits());
+                        data.writeLong(value.getLeastSignificantBits());
+                    } else {
+                        markNull(row);
+                    }
+                }
+                case STRING -> {
+                    String value = rs.getString(index);
+                    if (value != null) {
+                        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                        data.writeInt(bytes.length);
+                        data.write(bytes);
+                    } else {
+                        markNull(row);
+                    }
+                }
+                case INT -> {
+                    int value = rs.getInt(index);
+                    if (!rs.wasNull()) {
+                        data.writeInt(value);
+                    } else {
+                        markNull(row);
+                    }
+                }
+                case TIMESTAMP -> {
+                    LocalDateTime value = rs.getObject(index, LocalDateTime.class);
+                    if (value != null) {
+                        data.writeLong(toMicros(value));
+                    } else {
+                        markNull(row);
+                    }
+                }
+            }
+        }
+
+        private void markNull(int row) {
+            nulls[row >>> 3] |= (byte) (1 << (row & 7));
+        }
+
+        private void writeTo(DataOutputStream block, int rows) throws IOException {
+            block.write(nulls, 0, (rows + 7) / 8);
+            block.writeInt(values.size());
+            values.writeTo(block);
+            Arrays.fill(nulls, (byte) 0);
+            values.reset();
+        }
+    }
+}
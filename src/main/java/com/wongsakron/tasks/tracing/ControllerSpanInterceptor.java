@@ -0,0 +1,58 @@
+package com.wongsakron.tasks.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// One span per controller action, from the handler call until the response body starts being written. Writing the
+// body (Jackson) gets its own span, started by ResponseSerializationSpanAdvice, so the two can be told apart.
+// Both are observations kept open (in scope) on the request thread, the attributes hold their scopes.
+public class ControllerSpanInterceptor implements HandlerInterceptor {
+
+    static final String CONTROLLER_OBSERVATION = "tasks.controller";
+    static final String SERIALIZATION_OBSERVATION = "http.response.serialize";
+    static final String CONTROLLER_SPAN_ATTRIBUTE = ControllerSpanInterceptor.class.getName() + ".controller";
+    static final String SERIALIZATION_SPAN_ATTRIBUTE = ControllerSpanInterceptor.class.getName() + ".serialization";
+
+    private final ObservationRegistry registry;
+
+    public ControllerSpanInterceptor(ObservationRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            String name = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+            Observation controller = Observation.createNotStarted(CONTROLLER_OBSERVATION, registry)
+                    .contextualName(name)
+                    .lowCardinalityKeyValue("code.function", name)
+                    .start();
+            request.setAttribute(CONTROLLER_SPAN_ATTRIBUTE, controller.openScope());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        // Ends the controller span too when no body was written (empty responses, errors left to the container)
+        stop(request, SERIALIZATION_SPAN_ATTRIBUTE, null);
+        stop(request, CONTROLLER_SPAN_ATTRIBUTE, ex);
+    }
+
+    // Closes the scope and stops the observation held in the attribute, once
+    static void stop(HttpServletRequest request, String attribute, Exception ex) {
+        if (request.getAttribute(attribute) instanceof Observation.Scope scope) {
+            request.removeAttribute(attribute);
+            Observation observation = scope.getCurrentObservation();
+            if (ex != null) {
+                observation.error(ex);
+            }
+            scope.close();
+            observation.stop();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.wongsakron.tasks.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// Called right before the message converter writes the body: ends the controller action's span and starts the
+// serialization span, which ControllerSpanInterceptor ends after the body was written.
+@ControllerAdvice
+@ConditionalOnProperty(prefix = "tasks.tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseSerializationSpanAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ObservationRegistry registry;
+
+    public ResponseSerializationSpanAdvice(ObservationRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(ControllerSpanInterceptor.CONTROLLER_SPAN_ATTRIBUTE) != null) {
+            HttpServletRequest servlet = servletRequest.getServletRequest();
+            ControllerSpanInterceptor.stop(servlet, ControllerSpanInterceptor.CONTROLLER_SPAN_ATTRIBUTE, null);
+            if (servlet.getAttribute(ControllerSpanInterceptor.SERIALIZATION_SPAN_ATTRIBUTE) == null) {
+                Observation serialization = Observation.createNotStarted(ControllerSpanInterceptor.SERIALIZATION_OBSERVATION, registry)
+                        .highCardinalityKeyValue("http.response.content_type", String.valueOf(selectedContentType))
+                        .start();
+                servlet.setAttribute(ControllerSpanInterceptor.SERIALIZATION_SPAN_ATTRIBUTE, serialization.openScope());
+            }
+        }
+        return body;
+    }
+}
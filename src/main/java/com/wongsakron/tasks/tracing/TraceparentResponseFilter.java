@@ -0,0 +1,38 @@
+package com.wongsakron.tasks.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// The response carries the request span's traceparent so a client can find its trace in the exported spans. The
+// request span itself, continuing a caller's traceparent, is started by Spring's ServerHttpObservationFilter.
+public class TraceparentResponseFilter extends OncePerRequestFilter {
+
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    public TraceparentResponseFilter(Tracer tracer, Propagator propagator) {
+        this.tracer = tracer;
+        this.propagator = propagator;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        Span span = tracer.currentSpan();
+        if (span != null) {
+            propagator.inject(span.context(), response, HttpServletResponse::setHeader); // Before the body commits the headers
+        }
+        filterChain.doFilter(request, response);
+    }
+}
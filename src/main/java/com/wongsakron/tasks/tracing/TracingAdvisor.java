@@ -0,0 +1,107 @@
+package com.wongsakron.tasks.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// A span per call of a service (services.impl) or repository (repositories) method, named Type.method. Only calls
+// inside an observation (a request, a scheduled job) are observed, so other threads do not start traces of their own.
+// Applied by the proxy Spring already puts around these beans for transactions, and runs outside the transaction,
+// so a service span includes its commit.
+public class TracingAdvisor extends StaticMethodMatcherPointcutAdvisor implements MethodInterceptor {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String SERVICES_PACKAGE = "com.wongsakron.tasks.services.impl";
+    private static final String REPOSITORIES_PACKAGE = "com.wongsakron.tasks.repositories";
+    static final String OBSERVATION_NAME = "tasks.method";
+
+    private final ObjectProvider<ObservationRegistry> registryProvider;
+    private final Map<Class<?>, String> typeNames = new ConcurrentHashMap<>();
+    private volatile ObservationRegistry registry;
+
+    // The registry is looked up on the first call: advisors are created while post-processors are still being set up
+    public TracingAdvisor(ObjectProvider<ObservationRegistry> registryProvider) {
+        this.registryProvider = registryProvider;
+        setAdvice(this);
+        setOrder(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return method.getDeclaringClass() != Object.class && typeName(targetClass) != null;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ObservationRegistry registry = registry();
+        if (registry.getCurrentObservation() == null) {
+            return invocation.proceed();
+        }
+        String name = spanName(invocation);
+        Observation observation = Observation.createNotStarted(OBSERVATION_NAME, registry)
+                .contextualName(name)
+                .lowCardinalityKeyValue("code.function", name)
+                .start();
+        Observation.Scope scope = observation.openScope();
+        try {
+            return invocation.proceed();
+        } catch (Throwable ex) {
+            observation.error(ex);
+            throw ex;
+        } finally {
+            scope.close();
+            observation.stop();
+        }
+    }
+
+    private String spanName(MethodInvocation invocation) {
+        Method method = invocation.getMethod();
+        String typeName = invocation.getThis() == null ? null : typeName(invocation.getThis().getClass());
+        return (typeName == null ? method.getDeclaringClass().getSimpleName() : typeName) + "." + method.getName();
+    }
+
+    private ObservationRegistry registry() {
+        ObservationRegistry current = registry;
+        if (current == null) {
+            current = registryProvider.getIfAvailable(() -> ObservationRegistry.NOOP);
+            registry = current;
+        }
+        return current;
+    }
+
+    // Service class or repository interface name, null for classes that are not traced
+    private String typeName(Class<?> targetClass) {
+        String name = typeNames.get(targetClass);
+        if (name == null) {
+            name = resolveTypeName(targetClass);
+            typeNames.put(targetClass, name);
+        }
+        return name.isEmpty() ? null : name;
+    }
+
+    private static String resolveTypeName(Class<?> targetClass) {
+        Class<?> userClass = ClassUtils.getUserClass(targetClass);
+        if (userClass.getPackageName().equals(SERVICES_PACKAGE) && AnnotatedElementUtils.hasAnnotation(userClass, Service.class)) {
+            return userClass.getSimpleName();
+        }
+        // Spring Data repositories are JDK proxies of their interface
+        for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(targetClass)) {
+            if (type.getPackageName().equals(REPOSITORIES_PACKAGE)) {
+                return type.getSimpleName();
+            }
+        }
+        return "";
+    }
+}
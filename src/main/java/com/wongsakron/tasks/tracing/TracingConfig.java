@@ -0,0 +1,54 @@
+package com.wongsakron.tasks.tracing;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Application spans on top of Spring Boot's request tracing (Micrometer Tracing on OpenTelemetry, management.tracing.*):
+// controller action and response body (ControllerSpanInterceptor, ResponseSerializationSpanAdvice), service and
+// repository calls (TracingAdvisor) and the request span's traceparent on the response (TraceparentResponseFilter).
+// SQL spans come from datasource-micrometer (jdbc.*).
+@Configuration
+@ConditionalOnProperty(prefix = "tasks.tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TracingConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<ObservationRegistry> observationRegistry;
+
+    public TracingConfig(ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Bean
+    public FilterRegistrationBean<TraceparentResponseFilter> traceparentResponseFilter(
+            ObjectProvider<Tracer> tracer,
+            ObjectProvider<Propagator> propagator
+    ) {
+        FilterRegistrationBean<TraceparentResponseFilter> registration = new FilterRegistrationBean<>(new TraceparentResponseFilter(
+                tracer.getIfAvailable(() -> Tracer.NOOP), propagator.getIfAvailable(() -> Propagator.NOOP)));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2); // Just inside the request span (ServerHttpObservationFilter)
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ControllerSpanInterceptor(observationRegistry.getObject())).order(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    // Infrastructure role: picked up by the proxy creator that applies @Transactional. Static, so it is created
+    // before the other beans of this class.
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static TracingAdvisor tracingAdvisor(ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new TracingAdvisor(observationRegistry);
+    }
+}
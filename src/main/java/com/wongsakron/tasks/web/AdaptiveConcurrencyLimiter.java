@@ -0,0 +1,88 @@
+package com.wongsakron.tasks.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// AIMD concurrency limit driven by latency: grows by ~1 per round trip while latency stays near the
+// observed baseline, and shrinks multiplicatively when latency climbs past tolerance * baseline or requests fail.
+// Both sides are moving averages: the recent latency over about SHORT_WINDOW samples against a baseline over about
+// LONG_WINDOW samples. Routes with different normal latencies share a limiter, so a single fast sample must not
+// become the baseline every slower route is then measured against.
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int SHORT_WINDOW = 5;
+    private static final int LONG_WINDOW = 100;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance; // How much slower than the baseline a request may be before we back off
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile double limit; // Written under the lock, read lock-free on the acquire path
+    private long samples;
+    private double recentRttNanos;
+    private double baselineRttNanos;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, double tolerance, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid concurrency limits for " + name + "!");
+        }
+        this.name = name;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.incrementAndGet();
+                return false; // Saturated, caller should shed the request
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightBeforeRelease = inFlight.getAndDecrement();
+        onSample(rttNanos, dropped, inFlightBeforeRelease);
+    }
+
+    private synchronized void onSample(long rttNanos, boolean dropped, int inFlightAtSample) {
+        samples++;
+        // Plain means until a window is full, so the first samples do not count for more than later ones
+        recentRttNanos += (rttNanos - recentRttNanos) / Math.min(samples, SHORT_WINDOW);
+        baselineRttNanos += (rttNanos - baselineRttNanos) / Math.min(samples, LONG_WINDOW);
+
+        if (dropped || recentRttNanos > baselineRttNanos * tolerance) {
+            limit = Math.max(minLimit, limit * backoffRatio); // Multiplicative decrease
+        } else if (inFlightAtSample * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit); // Additive increase, only when the limit is actually in use
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+}
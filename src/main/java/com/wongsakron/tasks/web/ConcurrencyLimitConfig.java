@@ -0,0 +1,63 @@
+package com.wongsakron.tasks.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "tasks.concurrency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+    private final Duration retryAfter;
+    private final ObjectMapper objectMapper;
+
+    public ConcurrencyLimitConfig(
+            @Value("${tasks.concurrency.read.initial-limit:20}") int readInitial,
+            @Value("${tasks.concurrency.read.min-limit:4}") int readMin,
+            @Value("${tasks.concurrency.read.max-limit:200}") int readMax,
+            @Value("${tasks.concurrency.write.initial-limit:10}") int writeInitial,
+            @Value("${tasks.concurrency.write.min-limit:2}") int writeMin,
+            @Value("${tasks.concurrency.write.max-limit:100}") int writeMax,
+            @Value("${tasks.concurrency.latency-tolerance:2.0}") double tolerance,
+            @Value("${tasks.concurrency.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${tasks.concurrency.retry-after:1s}") Duration retryAfter,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        // Separate budgets so a burst of slow writes cannot starve reads and vice versa
+        this.readLimiter = new AdaptiveConcurrencyLimiter("read", readInitial, readMin, readMax, tolerance, backoffRatio);
+        this.writeLimiter = new AdaptiveConcurrencyLimiter("write", writeInitial, writeMin, writeMax, tolerance, backoffRatio);
+        this.retryAfter = retryAfter;
+        this.objectMapper = objectMapper;
+        registerMetrics(meterRegistry, readLimiter);
+        registerMetrics(meterRegistry, writeLimiter);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(readLimiter, writeLimiter, retryAfter, objectMapper))
+                .addPathPatterns("/task-lists", "/task-lists/**", "/tasks/**");
+    }
+
+    private static void registerMetrics(MeterRegistry registry, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("tasks.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("budget", limiter.getName())
+                .register(registry);
+        Gauge.builder("tasks.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("budget", limiter.getName())
+                .register(registry);
+        FunctionCounter.builder("tasks.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                .tag("budget", limiter.getName())
+                .register(registry);
+    }
+}
@@ -0,0 +1,81 @@
+package com.wongsakron.tasks.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wongsakron.tasks.domain.dto.ErrorResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+// Sheds load in front of the controllers: requests beyond the current limit get a fast 503 + Retry-After
+// instead of queueing in Tomcat and the connection pool.
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String LIMITER_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".limiter";
+    private static final String START_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".start";
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+    private final Duration retryAfter;
+    private final ObjectMapper objectMapper;
+
+    public ConcurrencyLimitInterceptor(
+            AdaptiveConcurrencyLimiter readLimiter,
+            AdaptiveConcurrencyLimiter writeLimiter,
+            Duration retryAfter,
+            ObjectMapper objectMapper
+    ) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.retryAfter = retryAfter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        AdaptiveConcurrencyLimiter limiter = isRead(request) ? readLimiter : writeLimiter;
+
+        if (!limiter.tryAcquire()) {
+            reject(request, response);
+            return false;
+        }
+
+        request.setAttribute(LIMITER_ATTRIBUTE, limiter);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(LIMITER_ATTRIBUTE) instanceof AdaptiveConcurrencyLimiter limiter)
+                || !(request.getAttribute(START_ATTRIBUTE) instanceof Long started)) {
+            return;
+        }
+        long rtt = System.nanoTime() - started;
+        boolean dropped = ex != null || response.getStatus() >= 500; // Server errors count as overload signals
+        limiter.release(rtt, dropped);
+    }
+
+    private boolean isRead(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod())
+                || HttpMethod.HEAD.matches(request.getMethod())
+                || request.getRequestURI().endsWith("/multi-get"); // POST only to carry the keys, it is a read
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws Exception {
+        var body = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Server is overloaded, please retry later",
+                "uri=" + request.getRequestURI()
+        );
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,26 @@
+package com.wongsakron.tasks.web;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(
+            @Value("${tasks.idempotency.ttl:24h}") Duration ttl,
+            @Value("${tasks.idempotency.max-entries:100000}") int maxEntries,
+            @Value("${tasks.idempotency.wait-timeout:10s}") Duration waitTimeout,
+            MeterRegistry meterRegistry
+    ) {
+        IdempotencyStore store = new IdempotencyStore(ttl, maxEntries, waitTimeout, Clock.systemUTC());
+        Gauge.builder("tasks.idempotency.entries", store, IdempotencyStore::size).register(meterRegistry);
+        return store;
+    }
+}
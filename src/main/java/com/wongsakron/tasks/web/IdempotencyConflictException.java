@@ -0,0 +1,11 @@
+package com.wongsakron.tasks.web;
+
+// The original request for an Idempotency-Key did not finish within the wait timeout, mapped to 409.
+public class IdempotencyConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,131 @@
+package com.wongsakron.tasks.web;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Remembers the result of a request per Idempotency-Key, so a client retry gets the first response back
+// instead of creating a duplicate. Concurrent duplicates wait for the first one; failures are not remembered,
+// so a retry after an error runs again. Entries expire after the TTL and the store never grows past maxEntries.
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Duration waitTimeout;
+    private final Clock clock;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Expiry> expiryOrder = new ConcurrentLinkedQueue<>(); // Same TTL for all, so insertion order is expiry order
+    private final AtomicInteger queued = new AtomicInteger(); // ConcurrentLinkedQueue.size() is O(n)
+
+    public IdempotencyStore(Duration ttl, int maxEntries, Duration waitTimeout, Clock clock) {
+        if (ttl.isNegative() || ttl.isZero() || maxEntries < 1) {
+            throw new IllegalArgumentException("Invalid idempotency store settings!");
+        }
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.waitTimeout = waitTimeout;
+        this.clock = clock;
+    }
+
+    // Runs the action once per (scope, key). Without a key the action simply runs.
+    // request identifies the payload, reusing a key for a different payload is rejected.
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, String scope, Object request, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters!");
+        }
+
+        String storeKey = scope + '\n' + key;
+        while (true) {
+            long now = clock.millis();
+            evictExpired(now);
+
+            Entry created = new Entry(request, new CompletableFuture<>(), now + ttl.toMillis());
+            Entry existing = entries.putIfAbsent(storeKey, created);
+
+            if (existing == null) {
+                Expiry expiry = new Expiry(storeKey, created);
+                expiryOrder.add(expiry);
+                queued.incrementAndGet();
+                return (T) run(expiry, action);
+            }
+            if (existing.expiresAt() <= now) {
+                entries.remove(storeKey, existing); // Expired but not evicted yet, take its place
+                continue;
+            }
+            if (!Objects.equals(existing.request(), request)) {
+                throw new IllegalArgumentException(HEADER + " was already used for a different request!");
+            }
+            return (T) await(existing);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private Object run(Expiry expiry, Supplier<?> action) {
+        Entry entry = expiry.entry();
+        try {
+            Object result = action.get();
+            entry.result().complete(result);
+            return result;
+        } catch (RuntimeException ex) {
+            entries.remove(expiry.storeKey(), entry); // Let the client retry after a failure
+            if (expiryOrder.remove(expiry)) {
+                queued.decrementAndGet(); // A forgotten failure must not count against maxEntries
+            }
+            entry.result().completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private Object await(Entry entry) {
+        try {
+            return entry.result().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            throw new IdempotencyConflictException("A request with this " + HEADER + " is still in progress, retry later!");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause; // The duplicate fails the same way the original did
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for the original request!");
+        }
+    }
+
+    private void evictExpired(long now) {
+        Expiry head;
+        while ((head = expiryOrder.peek()) != null
+                && (head.entry().expiresAt() <= now || queued.get() > maxEntries)) {
+            if (expiryOrder.remove(head)) {
+                queued.decrementAndGet();
+                entries.remove(head.storeKey(), head.entry()); // No-op if the key was already replaced
+            }
+        }
+    }
+
+    private record Entry(Object request, CompletableFuture<Object> result, long expiresAt) {
+    }
+
+    private record Expiry(String storeKey, Entry entry) {
+    }
+}
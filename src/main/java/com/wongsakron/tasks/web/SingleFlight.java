@@ -0,0 +1,101 @@
+package com.wongsakron.tasks.web;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+// Coalesces concurrent identical reads: while a load for a key is in flight, other callers for the same key
+// wait for its result instead of querying the database again. Nothing is cached once the load completes.
+// A caller waits at most maxWait, then falls back to its own load so a stuck leader cannot stall everyone.
+// While bypass is true for the current caller it neither leads nor joins a load, e.g. a client that just wrote and
+// must read from the primary could otherwise get the result of a load another client ran on the replica.
+public class SingleFlight<K, V> {
+
+    private final String name;
+    private final Duration maxWait;
+    private final BooleanSupplier bypass;
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    public SingleFlight(String name, Duration maxWait) {
+        this(name, maxWait, () -> false);
+    }
+
+    public SingleFlight(String name, Duration maxWait, BooleanSupplier bypass) {
+        this.name = name;
+        this.maxWait = maxWait;
+        this.bypass = bypass;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        if (bypass.getAsBoolean()) {
+            loads.incrementAndGet();
+            return loader.get();
+        }
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, own);
+        if (leader == null) {
+            return lead(key, own, loader);
+        }
+
+        coalesced.incrementAndGet();
+        try {
+            return leader.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            timeouts.incrementAndGet();
+            loads.incrementAndGet();
+            return loader.get(); // Bounded wait, load on our own
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause; // Same failure the leader saw
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced read!");
+        }
+    }
+
+    private V lead(K key, CompletableFuture<V> own, Supplier<V> loader) {
+        loads.incrementAndGet();
+        try {
+            V value = loader.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException ex) {
+            own.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, own); // Later callers start a fresh load and see newer data
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getLoads() {
+        return loads.get();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+}
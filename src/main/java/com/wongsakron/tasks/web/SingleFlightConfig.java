@@ -0,0 +1,76 @@
+package com.wongsakron.tasks.web;
+
+import com.wongsakron.tasks.datasource.ReadYourWritesTracker;
+import com.wongsakron.tasks.datasource.RoutingClientHolder;
+import com.wongsakron.tasks.domain.TaskKey;
+import com.wongsakron.tasks.domain.dto.TaskDto;
+import com.wongsakron.tasks.domain.dto.TaskListDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+// Coalescing for the hot read endpoints. Values are DTOs: they are immutable and fully mapped by the leader,
+// so waiting requests never touch the leader's persistence context or lazy associations.
+// A client inside its read-your-writes window loads on its own: a shared load may have started before the client's
+// write committed, or, with a replica, have been routed to the replica for another client, and miss the write.
+@Configuration
+public class SingleFlightConfig {
+
+    private final Duration maxWait;
+    private final MeterRegistry meterRegistry;
+    private final BooleanSupplier readsOwnWrites;
+
+    public SingleFlightConfig(
+            @Value("${tasks.singleflight.max-wait:2s}") Duration maxWait,
+            MeterRegistry meterRegistry,
+            ReadYourWritesTracker readYourWritesTracker
+    ) {
+        this.maxWait = maxWait;
+        this.meterRegistry = meterRegistry;
+        this.readsOwnWrites = () -> readYourWritesTracker.isSticky(RoutingClientHolder.get());
+    }
+
+    @Bean
+    public SingleFlight<UUID, Optional<TaskListDto>> taskListReads() {
+        return register(new SingleFlight<>("task-list", maxWait, readsOwnWrites));
+    }
+
+    @Bean
+    public SingleFlight<TaskListingKey, List<TaskDto>> taskListingReads() {
+        return register(new SingleFlight<>("task-listing", maxWait, readsOwnWrites));
+    }
+
+    @Bean
+    public SingleFlight<TaskKey, Optional<TaskDto>> taskReads() {
+        return register(new SingleFlight<>("task", maxWait, readsOwnWrites));
+    }
+
+    private <K, V> SingleFlight<K, V> register(SingleFlight<K, V> singleFlight) {
+        FunctionCounter.builder("tasks.singleflight.loads", singleFlight, SingleFlight::getLoads)
+                .tag("read", singleFlight.getName())
+                .register(meterRegistry);
+        FunctionCounter.builder("tasks.singleflight.coalesced", singleFlight, SingleFlight::getCoalesced)
+                .tag("read", singleFlight.getName())
+                .register(meterRegistry);
+        FunctionCounter.builder("tasks.singleflight.timeouts", singleFlight, SingleFlight::getTimeouts)
+                .tag("read", singleFlight.getName())
+                .register(meterRegistry);
+        Gauge.builder("tasks.singleflight.inflight", singleFlight, SingleFlight::getInFlight)
+                .tag("read", singleFlight.getName())
+                .register(meterRegistry);
+        return singleFlight;
+    }
+
+    // Key of GET /task-lists/{id}/tasks, archived tasks make a different response
+    public record TaskListingKey(UUID taskListId, boolean includeArchived) {
+    }
+}
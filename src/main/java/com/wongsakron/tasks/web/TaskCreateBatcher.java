@@ -0,0 +1,209 @@
+package com.wongsakron.tasks.web;
+
+import com.wongsakron.tasks.datasource.ReadYourWritesTracker;
+import com.wongsakron.tasks.datasource.RoutingClientHolder;
+import com.wongsakron.tasks.domain.TaskCreate;
+import com.wongsakron.tasks.domain.TaskCreateResult;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.services.TaskService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Group commit for task creates: concurrent creates are queued and written by a few writer threads, each taking up
+// to maxBatchSize of them, waiting at most maxDelay after the first for more to arrive. A batch is one transaction
+// (TaskService.createTasks), so a burst pays for one commit per batch instead of one per task. Every caller still
+// gets its own task or its own error. If the batch transaction itself fails, its creates run again one by one.
+// Disabled, create simply calls TaskService.createTask on the caller's thread.
+// The writers have no routing client of their own, so each caller's write is recorded with the read-your-writes
+// tracker once its task has committed, keeping that caller's next reads on the primary.
+public class TaskCreateBatcher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskCreateBatcher.class);
+
+    private final TaskService taskService;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final Duration maxDelay;
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final List<Thread> writers = new ArrayList<>();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchedTasks = new AtomicLong();
+    private final AtomicLong retriedBatches = new AtomicLong();
+    private volatile boolean closed;
+
+    public TaskCreateBatcher(
+            TaskService taskService,
+            ReadYourWritesTracker readYourWritesTracker,
+            boolean enabled,
+            int maxBatchSize,
+            Duration maxDelay,
+            int writerCount
+    ) {
+        if (maxBatchSize < 1 || maxDelay.isNegative() || writerCount < 1) {
+            throw new IllegalArgumentException("Invalid create batching settings!");
+        }
+        this.taskService = taskService;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = maxDelay;
+        if (enabled) {
+            for (int i = 0; i < writerCount; i++) {
+                writers.add(Thread.ofPlatform().name("task-create-batcher-" + i).daemon().start(this::runWriter));
+            }
+        }
+    }
+
+    // Same contract as TaskService.createTask, blocks until the batch holding this create has committed
+    public Task create(UUID taskListId, Task task) {
+        if (!enabled || closed) {
+            return taskService.createTask(taskListId, task);
+        }
+        Pending pending = new Pending(new TaskCreate(taskListId, task), RoutingClientHolder.get(), new CompletableFuture<>());
+        queue.add(pending);
+        if (closed && queue.remove(pending)) {
+            return taskService.createTask(taskListId, task); // Closed meanwhile, no writer would pick it up
+        }
+        try {
+            return pending.result().get().getOrThrow();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt(); // The create may still be written
+            throw new IllegalStateException("Interrupted while waiting for a batched create!");
+        }
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public long getBatchedTasks() {
+        return batchedTasks.get();
+    }
+
+    public long getRetriedBatches() {
+        return retriedBatches.get();
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    // Writes what is queued, then stops the writers. Later creates run unbatched.
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            for (Thread writer : writers) {
+                writer.join();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt(); // The writers still drain the queue, just without anyone waiting for them
+            return;
+        }
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left); // Queued after the writers checked for the last time
+        if (!left.isEmpty()) {
+            write(left);
+        }
+    }
+
+    private void runWriter() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (true) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelay.toNanos();
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                write(batch);
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Task create batch failed", ex); // Never expected, write completes every create
+                batch.forEach(pending -> pending.result().completeExceptionally(ex));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        if (batch.size() == 1) {
+            complete(batch.get(0)); // Nothing to share, the regular path
+            return;
+        }
+        List<TaskCreateResult> results;
+        try {
+            results = taskService.createTasks(batch.stream().map(Pending::create).toList());
+        } catch (RuntimeException ex) {
+            // The whole transaction failed (e.g. a constraint of one row), so find out per task
+            log.warn("Task create batch of {} failed, retrying one by one: {}", batch.size(), ex.getMessage());
+            retriedBatches.incrementAndGet();
+            batch.forEach(this::complete);
+            return;
+        }
+        batches.incrementAndGet();
+        batchedTasks.addAndGet(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            finish(batch.get(i), results.get(i));
+        }
+    }
+
+    private void complete(Pending pending) {
+        TaskCreateResult result;
+        try {
+            result = TaskCreateResult.created(taskService.createTask(pending.create().taskListId(), pending.create().task()));
+        } catch (RuntimeException ex) {
+            result = TaskCreateResult.failed(ex);
+        }
+        finish(pending, result);
+    }
+
+    // Committed by now, record the write before the caller is released so its next read cannot reach the replica first
+    private void finish(Pending pending, TaskCreateResult result) {
+        if (result.error() == null) {
+            readYourWritesTracker.recordWrite(pending.clientKey());
+        }
+        pending.result().complete(result);
+    }
+
+    private record Pending(TaskCreate create, String clientKey, CompletableFuture<TaskCreateResult> result) {
+    }
+}
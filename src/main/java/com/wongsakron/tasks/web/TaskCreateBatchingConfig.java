@@ -0,0 +1,34 @@
+package com.wongsakron.tasks.web;
+
+import com.wongsakron.tasks.datasource.ReadYourWritesTracker;
+import com.wongsakron.tasks.services.TaskService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class TaskCreateBatchingConfig {
+
+    @Bean(destroyMethod = "close")
+    public TaskCreateBatcher taskCreateBatcher(
+            TaskService taskService,
+            ReadYourWritesTracker readYourWritesTracker,
+            @Value("${tasks.create-batching.enabled:false}") boolean enabled,
+            @Value("${tasks.create-batching.max-batch-size:100}") int maxBatchSize,
+            @Value("${tasks.create-batching.max-delay:5ms}") Duration maxDelay,
+            @Value("${tasks.create-batching.writers:2}") int writers,
+            MeterRegistry meterRegistry
+    ) {
+        TaskCreateBatcher batcher = new TaskCreateBatcher(taskService, readYourWritesTracker, enabled, maxBatchSize, maxDelay, writers);
+        FunctionCounter.builder("tasks.create-batching.batches", batcher, TaskCreateBatcher::getBatches).register(meterRegistry);
+        FunctionCounter.builder("tasks.create-batching.tasks", batcher, TaskCreateBatcher::getBatchedTasks).register(meterRegistry);
+        FunctionCounter.builder("tasks.create-batching.retried-batches", batcher, TaskCreateBatcher::getRetriedBatches).register(meterRegistry);
+        Gauge.builder("tasks.create-batching.queued", batcher, TaskCreateBatcher::getQueued).register(meterRegistry);
+        return batcher;
+    }
+}
@@ -0,0 +1,33 @@
+package com.wongsakron.tasks.web;
+
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.UUID;
+
+// Compact binary representations of the DTOs, picked by Accept / Content-Type on every endpoint.
+// Both converters reuse Spring Boot's Jackson settings so dates and enums look the same as in JSON.
+// The builder is a prototype bean, each converter configures its own copy with its binary factory.
+// UUIDs are written as strings too, Jackson would otherwise write them as 16 raw bytes in binary formats.
+@Configuration
+public class WireFormatConfig {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).serializerByType(UUID.class, ToStringSerializer.instance).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).serializerByType(UUID.class, ToStringSerializer.instance).build());
+    }
+}
@@ -0,0 +1,80 @@
+package com.wongsakron.tasks.accesslog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AccessLogITTest {
+
+    @TempDir
+    static Path logDirectory;
+
+    @DynamicPropertySource
+    static void accessLogProperties(DynamicPropertyRegistry registry) {
+        registry.add("tasks.access-log.directory", () -> logDirectory.toString());
+    }
+
+    @Autowired
+    MockMvc mvc;
+    @Autowired
+    ObjectMapper om;
+    @Autowired
+    AccessLogWriter accessLogWriter;
+
+    @Test
+    void requests_shouldBeLoggedWithRouteListIdStatusSqlAndBytes() throws Exception {
+        long writtenBefore = accessLogWriter.getWritten();
+        var res = mvc.perform(post("/task-lists")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"L\",\"description\":\"D\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        UUID listId = UUID.fromString(om.readTree(res.getResponse().getContentAsString()).get("id").asText());
+        var tasks = mvc.perform(get("/task-lists/{id}/tasks", listId)).andExpect(status().isOk()).andReturn();
+        mvc.perform(get("/task-lists/{id}/tasks/{taskId}", listId, "not-a-uuid")).andExpect(status().is4xxClientError());
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (accessLogWriter.getWritten() < writtenBefore + 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        List<String> lines = Files.readAllLines(logDirectory.resolve(AccessLogWriter.FILE_NAME));
+        List<JsonNode> entries = lines.subList(lines.size() - 3, lines.size()).stream().map(this::parse).toList();
+
+        assertThat(entries.get(0).get("method").asText()).isEqualTo("POST");
+        assertThat(entries.get(0).get("route").asText()).isEqualTo("/task-lists");
+        assertThat(entries.get(0).get("sql").asInt()).isPositive();
+        assertThat(entries.get(1).get("route").asText()).isEqualTo("/task-lists/{task_list_id}/tasks");
+        assertThat(entries.get(1).get("taskListId").asText()).isEqualTo(listId.toString());
+        assertThat(entries.get(1).get("status").asInt()).isEqualTo(200);
+        assertThat(entries.get(1).get("bytes").asLong()).isEqualTo(tasks.getResponse().getContentAsByteArray().length);
+        assertThat(entries.get(2).get("route").asText()).isEqualTo("/task-lists/{task_list_id}/tasks/{task_id}");
+        assertThat(entries.get(2).get("status").asInt()).isBetween(400, 499);
+    }
+
+    private JsonNode parse(String line) {
+        try {
+            return om.readTree(line);
+        } catch (Exception ex) {
+            throw new AssertionError(line, ex);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.wongsakron.tasks.accesslog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AccessLogRingBufferTest {
+
+    private static AccessLogEntry entry(int status) {
+        return new AccessLogEntry(0, "GET", "/task-lists", null, status, 1, 0, 0);
+    }
+
+    @Test
+    void offerAndDrain_shouldKeepOfferOrder_acrossTheWrapAround() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(4);
+        List<AccessLogEntry> drained = new ArrayList<>();
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 3; i++) {
+                assertThat(buffer.offer(entry(round * 10 + i))).isTrue();
+            }
+            assertThat(buffer.drainTo(drained, 2)).isEqualTo(2);
+            assertThat(buffer.drainTo(drained, 10)).isEqualTo(1);
+        }
+
+        assertThat(drained).extracting(AccessLogEntry::status).containsExactly(0, 1, 2, 10, 11, 12, 20, 21, 22);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void offer_whenFull_shouldDropAndCount_insteadOfBlocking() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(2);
+
+        assertThat(buffer.offer(entry(1))).isTrue();
+        assertThat(buffer.offer(entry(2))).isTrue();
+        assertThat(buffer.offer(entry(3))).isFalse();
+        assertThat(buffer.getDropped()).isEqualTo(1);
+
+        List<AccessLogEntry> drained = new ArrayList<>();
+        buffer.drainTo(drained, 1);
+        assertThat(buffer.offer(entry(4))).isTrue(); // The drained slot is free again
+        buffer.drainTo(drained, 10);
+        assertThat(drained).extracting(AccessLogEntry::status).containsExactly(1, 2, 4);
+    }
+
+    @Test
+    void constructor_whenSizeNotAPowerOfTwo_shouldThrowIllegalArgument() {
+        assertThatThrownBy(() -> new AccessLogRingBuffer(1000)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void offer_fromManyThreads_shouldDeliverEveryAcceptedEntryOnce() throws Exception {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(256);
+        int producers = 8;
+        int perProducer = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            pool.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    buffer.offer(entry(base + i));
+                }
+                done.countDown();
+            });
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        List<AccessLogEntry> drained = new ArrayList<>();
+        while (done.getCount() > 0 || buffer.size() > 0) {
+            buffer.drainTo(drained, 64);
+            for (AccessLogEntry e : drained) {
+                assertThat(seen.add(e.status())).isTrue();
+            }
+            drained.clear();
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(seen.size() + buffer.getDropped()).isEqualTo((long) producers * perProducer);
+    }
+}
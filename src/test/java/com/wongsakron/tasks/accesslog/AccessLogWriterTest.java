@@ -0,0 +1,56 @@
+package com.wongsakron.tasks.accesslog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AccessLogWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void close_shouldWriteEveryBufferedEntry_asOneJsonLineEach() throws Exception {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(16);
+        UUID listId = UUID.randomUUID();
+        buffer.offer(new AccessLogEntry(0, "GET", "/task-lists/{task_list_id}/tasks", listId, 200, 1500, 2, 321));
+        buffer.offer(new AccessLogEntry(0, "GET", "/a\"b", null, 404, 10, 0, 0));
+
+        AccessLogWriter writer = new AccessLogWriter(buffer, directory, 1024 * 1024, 3);
+        writer.close();
+
+        List<String> lines = Files.readAllLines(directory.resolve(AccessLogWriter.FILE_NAME));
+        assertThat(lines).containsExactly(
+                "{\"ts\":\"1970-01-01T00:00:00Z\",\"method\":\"GET\",\"route\":\"/task-lists/{task_list_id}/tasks\",\"taskListId\":\""
+                        + listId + "\",\"status\":200,\"latencyUs\":1500,\"sql\":2,\"bytes\":321}",
+                "{\"ts\":\"1970-01-01T00:00:00Z\",\"method\":\"GET\",\"route\":\"/a\\\"b\",\"status\":404,\"latencyUs\":10,\"sql\":0,\"bytes\":0}");
+        assertThat(writer.getWritten()).isEqualTo(2);
+        assertThat(writer.getDropped()).isZero();
+    }
+
+    @Test
+    void write_whenFilePassesMaxSize_shouldRollAndKeepAtMostMaxFiles() throws Exception {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(16);
+        AccessLogWriter writer = new AccessLogWriter(buffer, directory, 100, 2); // Every entry is over 100 bytes
+
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(new AccessLogEntry(0, "GET", "/task-lists", null, 200 + i, 1, 0, 0));
+            long expected = i + 1;
+            while (writer.getWritten() < expected) {
+                Thread.sleep(1);
+            }
+        }
+        writer.close();
+
+        assertThat(Files.readString(directory.resolve(AccessLogWriter.FILE_NAME))).isEmpty();
+        assertThat(Files.readString(directory.resolve(AccessLogWriter.FILE_NAME + ".1"))).contains("\"status\":204");
+        assertThat(Files.readString(directory.resolve(AccessLogWriter.FILE_NAME + ".2"))).contains("\"status\":203");
+        assertThat(directory.resolve(AccessLogWriter.FILE_NAME + ".3")).doesNotExist();
+    }
+}
@@ -0,0 +1,86 @@
+package com.wongsakron.tasks.benchmarks;
+
+import com.wongsakron.tasks.TasksApplication;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.services.TaskListService;
+import com.wongsakron.tasks.web.TaskCreateBatcher;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Creates TASKS tasks from THREADS concurrent callers through TaskCreateBatcher, once with batching off (one
+// transaction per task) and once on, and prints tasks per second. Runs on a file-backed H2 database so commits
+// cost a disk write, unless -Dspring.datasource.url=... (plus username/password) points it at a real database.
+// Not a unit test (surefire skips it), run with:
+//   ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.wongsakron.tasks.benchmarks.CreateBatchingBenchmark
+public class CreateBatchingBenchmark {
+
+    private static final int THREADS = 64;
+    private static final int LISTS = 20;
+    private static final int TASKS = 20_000;
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Files.createTempDirectory("create-batching-benchmark");
+        run("unbatched", directory.resolve("unbatched"), false);
+        run("batched", directory.resolve("batched"), true);
+    }
+
+    private static void run(String name, Path directory, boolean batching) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TasksApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "tasks.concurrency.enabled=false",
+                        "tasks.archive.enabled=false",
+                        "tasks.purge.enabled=false",
+                        "tasks.ranks.enabled=false",
+                        "tasks.tags.index.enabled=false",
+                        "tasks.rollups.enabled=false",
+                        "tasks.due.index.enabled=false",
+                        "tasks.export.enabled=false",
+                        "logging.level.root=WARN")
+                .run( // Arguments, so they win over the test application.properties
+                        "--spring.datasource.url=" + System.getProperty("spring.datasource.url", "jdbc:h2:file:" + directory.resolve("tasks")),
+                        "--spring.datasource.username=" + System.getProperty("spring.datasource.username", "sa"),
+                        "--spring.datasource.password=" + System.getProperty("spring.datasource.password", ""),
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--tasks.create-batching.enabled=" + batching);
+             ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+
+            TaskListService taskListService = context.getBean(TaskListService.class);
+            TaskCreateBatcher batcher = context.getBean(TaskCreateBatcher.class);
+
+            List<UUID> listIds = new ArrayList<>();
+            for (int l = 0; l < LISTS; l++) {
+                TaskList list = new TaskList();
+                list.setTitle("List " + l);
+                listIds.add(taskListService.createTaskList(list).getId());
+            }
+
+            long started = System.nanoTime();
+            List<Future<Task>> creates = new ArrayList<>(TASKS);
+            for (int t = 0; t < TASKS; t++) {
+                UUID listId = listIds.get(t % LISTS);
+                Task task = new Task();
+                task.setTitle("Task " + t);
+                task.setDescription("Some description of task " + t);
+                creates.add(executor.submit(() -> batcher.create(listId, task)));
+            }
+            for (Future<Task> create : creates) {
+                create.get();
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+            System.out.printf("%-9s %8d tasks in %6.2f s = %8.0f tasks/s (%d batches)%n",
+                    name, TASKS, seconds, TASKS / seconds, batcher.getBatches());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.wongsakron.tasks.benchmarks;
+
+import com.wongsakron.tasks.TasksApplication;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.services.TaskListService;
+import com.wongsakron.tasks.services.TaskService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Runs the same service calls (creates, single-task reads, list reads) against the JPA services on a file-backed H2
+// database and against the embedded task log ("embedded" profile), each on THREADS threads, and prints operations
+// per second. Both store their data under a fresh temporary directory; background jobs are switched off.
+// Not a unit test (surefire skips it), run with:
+//   ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.wongsakron.tasks.benchmarks.LogStoreBenchmark
+public class LogStoreBenchmark {
+
+    private static final int THREADS = 8;
+    private static final int LISTS = 100;
+    private static final int TASKS_PER_LIST = 200;
+    private static final int READS = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Files.createTempDirectory("log-store-benchmark");
+        run("jpa/h2", directory.resolve("h2"));
+        run("embedded", directory.resolve("log"), "embedded");
+    }
+
+    private static void run(String name, Path directory, String... profiles) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TasksApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(profiles)
+                .properties(
+                        "tasks.concurrency.enabled=false",
+                        "tasks.archive.enabled=false",
+                        "tasks.purge.enabled=false",
+                        "tasks.ranks.enabled=false",
+                        "tasks.tags.index.enabled=false",
+                        "tasks.rollups.enabled=false",
+                        "tasks.due.index.enabled=false",
+                        "tasks.export.enabled=false",
+                        "logging.level.root=WARN")
+                .run( // Arguments, so they win over application.properties and application-embedded.properties
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.url=jdbc:h2:file:" + directory.resolve("tasks"),
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--tasks.logstore.directory=" + directory);
+             ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+
+            TaskListService taskListService = context.getBean(TaskListService.class);
+            TaskService taskService = context.getBean(TaskService.class);
+
+            List<UUID> listIds = new ArrayList<>();
+            for (int l = 0; l < LISTS; l++) {
+                TaskList list = new TaskList();
+                list.setTitle("List " + l);
+                listIds.add(taskListService.createTaskList(list).getId());
+            }
+
+            List<Task> created = new ArrayList<>();
+            long started = System.nanoTime();
+            List<Future<List<Task>>> creates = new ArrayList<>();
+            for (UUID listId : listIds) {
+                creates.add(executor.submit(() -> {
+                    List<Task> tasks = new ArrayList<>(TASKS_PER_LIST);
+                    for (int t = 0; t < TASKS_PER_LIST; t++) {
+                        Task task = new Task();
+                        task.setTitle("Task " + t);
+                        task.setDescription("Some description of task " + t);
+                        task.setPriority(TaskPriority.values()[t % 3]);
+                        tasks.add(taskService.createTask(listId, task));
+                    }
+                    return tasks;
+                }));
+            }
+            for (Future<List<Task>> future : creates) {
+                created.addAll(future.get());
+            }
+            print(name, "create task", created.size(), started);
+
+            started = System.nanoTime();
+            List<Future<?>> reads = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                reads.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int r = 0; r < READS / THREADS; r++) {
+                        Task task = created.get(random.nextInt(created.size()));
+                        taskService.getTask(task.getTaskList().getId(), task.getId()).orElseThrow();
+                    }
+                }));
+            }
+            for (Future<?> future : reads) {
+                future.get();
+            }
+            print(name, "get task", READS, started);
+
+            started = System.nanoTime();
+            reads.clear();
+            for (int i = 0; i < THREADS; i++) {
+                reads.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int r = 0; r < READS / 100 / THREADS; r++) {
+                        taskService.listTasks(listIds.get(random.nextInt(listIds.size())));
+                    }
+                }));
+            }
+            for (Future<?> future : reads) {
+                future.get();
+            }
+            print(name, "list tasks", READS / 100, started);
+        }
+    }
+
+    private static void print(String name, String operation, int count, long started) {
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("%-9s %-11s %8d ops in %6.2f s = %10.0f ops/s%n", name, operation, count, seconds, count / seconds);
+    }
+}
@@ -0,0 +1,137 @@
+package com.wongsakron.tasks.benchmarks;
+
+import com.wongsakron.tasks.TasksApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Drives the same closed-loop load against the servlet/JPA stack and the WebFlux/R2DBC stack ("reactive" profile)
+// and prints throughput and latency percentiles per concurrency level. Each stack runs in-process on a random port
+// with its own in-memory H2 database; concurrency limiting and background jobs are switched off for a fair comparison.
+// Not a unit test (surefire skips it), run with:
+//   ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.wongsakron.tasks.benchmarks.ReactiveStackBenchmark
+public class ReactiveStackBenchmark {
+
+    private static final int[] CONCURRENCY = {16, 64, 256};
+    private static final int TASKS_PER_LIST = 50;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASURE = Duration.ofSeconds(15);
+    private static final Pattern ID = Pattern.compile("\"id\":\"([0-9a-f-]{36})\"");
+
+    public static void main(String[] args) throws Exception {
+        run("servlet", WebApplicationType.SERVLET, "jdbc:h2:mem:bench-servlet");
+        run("reactive", WebApplicationType.REACTIVE, "jdbc:h2:mem:bench-reactive", "reactive");
+    }
+
+    private static void run(String name, WebApplicationType type, String jdbcUrl, String... profiles) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TasksApplication.class)
+                .web(type)
+                .profiles(profiles)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.url=" + jdbcUrl + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.r2dbc.url=" + jdbcUrl.replace("jdbc:h2:mem:", "r2dbc:h2:mem:///") + ";DB_CLOSE_DELAY=-1",
+                        "spring.r2dbc.username=sa",
+                        "spring.r2dbc.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "tasks.concurrency.enabled=false",
+                        "tasks.archive.enabled=false",
+                        "tasks.purge.enabled=false",
+                        "tasks.ranks.enabled=false",
+                        "tasks.tags.index.enabled=false",
+                        "tasks.rollups.enabled=false",
+                        "tasks.due.index.enabled=false",
+                        "logging.level.root=WARN")
+                .run()) {
+
+            String port = context.getEnvironment().getProperty("local.server.port");
+            String base = "http://localhost:" + port;
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+            URI target = URI.create(base + "/task-lists/" + seed(client, base) + "/tasks");
+
+            for (int concurrency : CONCURRENCY) {
+                load(client, target, concurrency, WARMUP);
+                List<Long> latencies = load(client, target, concurrency, MEASURE);
+                Collections.sort(latencies);
+                System.out.printf("%-8s c=%4d  %8.0f req/s  p50=%6.2f ms  p99=%6.2f ms%n",
+                        name, concurrency, latencies.size() / (double) MEASURE.toSeconds(),
+                        percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6);
+            }
+        }
+    }
+
+    // One list with TASKS_PER_LIST tasks, created through the API under test
+    private static String seed(HttpClient client, String base) throws Exception {
+        String list = post(client, base + "/task-lists", "{\"title\":\"Benchmark\",\"description\":\"load\"}");
+        Matcher matcher = ID.matcher(list);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Unexpected response: " + list);
+        }
+        String listId = matcher.group(1);
+        for (int i = 0; i < TASKS_PER_LIST; i++) {
+            post(client, base + "/task-lists/" + listId + "/tasks", "{\"title\":\"Task " + i + "\",\"priority\":\"MEDIUM\"}");
+        }
+        return listId;
+    }
+
+    private static String post(HttpClient client, String uri, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    // Closed loop: every virtual user sends its next request as soon as the previous one completes
+    private static List<Long> load(HttpClient client, URI target, int concurrency, Duration duration) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(target).GET().build();
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<List<Long>>> users = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                users.add(executor.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 200) {
+                            latencies.add(System.nanoTime() - start);
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+
+            List<Long> all = new ArrayList<>();
+            for (Future<List<Long>> user : users) {
+                all.addAll(user.get());
+            }
+            return all;
+        }
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return Double.NaN;
+        }
+        return sorted.get(Math.min(sorted.size() - 1, (int) (p * sorted.size())));
+    }
+}
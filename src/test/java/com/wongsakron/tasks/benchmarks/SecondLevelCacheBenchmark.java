@@ -0,0 +1,102 @@
+package com.wongsakron.tasks.benchmarks;
+
+import com.wongsakron.tasks.TasksApplication;
+import com.wongsakron.tasks.domain.dto.TaskListDto;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.mappers.TaskListMapper;
+import com.wongsakron.tasks.services.TaskListService;
+import com.wongsakron.tasks.services.TaskService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+// Repeated getTaskList + mapping (what GET /task-lists/{id} does) with and without the second-level cache,
+// printing time per read and SQL statements per read. Each run uses its own in-memory H2 database; pass
+// -Dspring.datasource.url=... (plus username/password) to measure against a real database, where every saved
+// round trip counts for more. Not a unit test (surefire skips it), run with:
+//   ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.wongsakron.tasks.benchmarks.SecondLevelCacheBenchmark
+public class SecondLevelCacheBenchmark {
+
+    private static final int TASKS_PER_LIST = 50;
+    private static final int WARMUP_READS = 20_000;
+    private static final int READS = 50_000;
+
+    public static void main(String[] args) {
+        run("no-cache", false, "jdbc:h2:mem:bench-nocache");
+        run("l2-cache", true, "jdbc:h2:mem:bench-l2cache");
+    }
+
+    private static void run(String name, boolean cacheEnabled, String jdbcUrl) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TasksApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.url=" + jdbcUrl + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "tasks.cache.enabled=" + cacheEnabled,
+                        "tasks.concurrency.enabled=false",
+                        "tasks.archive.enabled=false",
+                        "tasks.purge.enabled=false",
+                        "tasks.ranks.enabled=false",
+                        "tasks.tags.index.enabled=false",
+                        "tasks.rollups.enabled=false",
+                        "tasks.due.index.enabled=false",
+                        "logging.level.root=WARN")
+                .run()) {
+
+            TaskListService taskListService = context.getBean(TaskListService.class);
+            TaskListMapper taskListMapper = context.getBean(TaskListMapper.class);
+            TransactionTemplate tx = context.getBean(TransactionTemplate.class);
+            Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+            statistics.setStatisticsEnabled(true); // Also count statements in the run without cache
+
+            UUID id = seed(taskListService, context.getBean(TaskService.class));
+
+            for (int i = 0; i < WARMUP_READS; i++) {
+                read(tx, taskListService, taskListMapper, id);
+            }
+            statistics.clear();
+
+            long start = System.nanoTime();
+            long checksum = 0;
+            for (int i = 0; i < READS; i++) {
+                checksum += read(tx, taskListService, taskListMapper, id).count();
+            }
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("%-9s %8.2f us/read  %6.2f statements/read  L2 hit ratio %5.1f%%  (checksum %d)%n",
+                    name, elapsed / 1e3 / READS,
+                    statistics.getPrepareStatementCount() / (double) READS,
+                    hitRatio(statistics), checksum);
+        }
+    }
+
+    // One list with TASKS_PER_LIST tasks
+    private static UUID seed(TaskListService taskListService, TaskService taskService) {
+        UUID id = taskListService.createTaskList(new TaskList(null, "Benchmark", "cache", null, null, null)).getId();
+        for (int i = 0; i < TASKS_PER_LIST; i++) {
+            taskService.createTask(id, new Task(null, "Task " + i, "d", null, null, TaskPriority.MEDIUM, null, null, null));
+        }
+        return id;
+    }
+
+    private static TaskListDto read(TransactionTemplate tx, TaskListService taskListService, TaskListMapper taskListMapper, UUID id) {
+        return tx.execute(status -> taskListMapper.toDto(taskListService.getTaskListWithTasks(id).orElseThrow()));
+    }
+
+    private static double hitRatio(Statistics statistics) {
+        long hits = statistics.getSecondLevelCacheHitCount();
+        long requests = hits + statistics.getSecondLevelCacheMissCount();
+        return requests == 0 ? 0 : 100.0 * hits / requests;
+    }
+}
@@ -0,0 +1,85 @@
+package com.wongsakron.tasks.benchmarks;
+
+import com.wongsakron.tasks.TasksApplication;
+import com.wongsakron.tasks.domain.TaskSnapshotSummary;
+import com.wongsakron.tasks.services.TaskSnapshotService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Takes a snapshot of LISTS x TASKS_PER_LIST tasks, empties the database and restores it, printing rows per second
+// of both directions. Runs on in-memory H2 unless -Dspring.datasource.url=... (plus username/password) points it at
+// a real database. Not a unit test (surefire skips it), run with:
+//   ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.wongsakron.tasks.benchmarks.SnapshotBenchmark
+public class SnapshotBenchmark {
+
+    private static final int LISTS = 1_000;
+    private static final int TASKS_PER_LIST = 500;
+
+    public static void main(String[] args) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TasksApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.url=jdbc:h2:mem:bench-snapshot;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "tasks.concurrency.enabled=false",
+                        "tasks.archive.enabled=false",
+                        "tasks.purge.enabled=false",
+                        "tasks.ranks.enabled=false",
+                        "tasks.tags.index.enabled=false",
+                        "tasks.rollups.enabled=false",
+                        "tasks.due.index.enabled=false",
+                        "tasks.export.enabled=false",
+                        "logging.level.root=WARN")
+                .run()) {
+
+            JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+            TaskSnapshotService snapshotService = context.getBean(TaskSnapshotService.class);
+            seed(jdbc);
+
+            TaskSnapshotSummary snapshot = snapshotService.createSnapshot();
+            print("snapshot", snapshot);
+
+            for (String table : List.of("task_closure", "task_rollups", "tasks", "task_lists")) {
+                jdbc.update("delete from " + table);
+            }
+            print("restore", snapshotService.restoreSnapshot(snapshot.name()));
+            Files.deleteIfExists(Path.of(System.getProperty("java.io.tmpdir"), "task-snapshots", snapshot.name()));
+        }
+    }
+
+    // Plain JDBC batches, seeding through the services would take longer than the benchmark
+    private static void seed(JdbcTemplate jdbc) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int l = 0; l < LISTS; l++) {
+            UUID listId = UUID.randomUUID();
+            jdbc.update("insert into task_lists (id, title, description, archived_task_count, created, updated) values (?, ?, ?, 0, ?, ?)",
+                    listId, "List " + l, "Benchmark list", now, now);
+            List<Object[]> tasks = new ArrayList<>(TASKS_PER_LIST);
+            for (int t = 0; t < TASKS_PER_LIST; t++) {
+                tasks.add(new Object[]{UUID.randomUUID(), "Task " + t, "Some description of task " + t, now.plusDays(t % 30),
+                        t % 2, t % 3, listId, now, now, t % 5 == 0 ? "home,work" : null, String.format("a%04d", t)});
+            }
+            jdbc.batchUpdate("insert into tasks (id, title, description, due_date, status, priority, task_list_id, created, updated, tags, rank_key) " +
+                    "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", tasks);
+        }
+    }
+
+    private static void print(String name, TaskSnapshotSummary summary) {
+        long rows = summary.taskLists() + summary.tasks() + summary.archivedTasks() + summary.hierarchyLinks();
+        System.out.printf("%-8s %,9d rows  %,12d bytes  %,7d ms  %,10.0f rows/s%n",
+                name, rows, summary.bytes(), summary.millis(), rows * 1000.0 / Math.max(1, summary.millis()));
+    }
+}
@@ -0,0 +1,104 @@
+package com.wongsakron.tasks.benchmarks;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Measures time from process launch to the first successful GET /task-lists for the plain jar,
+// the jar with CDS only, and the fast-start layout (AOT + CDS). Every run uses a fresh JVM and in-memory H2.
+// Not a unit test (surefire skips it), build the fast-start profile first and run with:
+//   ./mvnw -Pfast-start -DskipTests package
+//   ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.wongsakron.tasks.benchmarks.StartupBenchmark
+public class StartupBenchmark {
+
+    private static final int RUNS = 5;
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    public static void main(String[] args) throws Exception {
+        Path target = Path.of(args.length > 0 ? args[0] : "target");
+        Path fastStart = target.resolve("fast-start");
+        Path jsa = fastStart.resolve("application.jsa");
+        Path plainJar = findJar(target);
+        Path extractedJar = fastStart.resolve(plainJar.getFileName());
+
+        run("plain", List.of("-jar", plainJar.toString()));
+        run("cds", List.of("-XX:SharedArchiveFile=" + jsa, "-jar", extractedJar.toString()));
+        run("aot+cds", List.of("-XX:SharedArchiveFile=" + jsa, "-Dspring.aot.enabled=true", "-jar", extractedJar.toString()));
+    }
+
+    private static Path findJar(Path target) throws IOException {
+        try (var files = Files.list(target)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".jar"))
+                    .filter(p -> !p.getFileName().toString().endsWith("-plain.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No application jar in " + target + ", run the fast-start build first"));
+        }
+    }
+
+    private static void run(String name, List<String> jvmArgs) throws Exception {
+        long[] millis = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            millis[i] = timeToFirstRequest(jvmArgs);
+        }
+        Arrays.sort(millis);
+        System.out.printf("%-8s time-to-first-request  min=%6d ms  median=%6d ms  max=%6d ms%n",
+                name, millis[0], millis[RUNS / 2], millis[RUNS - 1]);
+    }
+
+    private static long timeToFirstRequest(List<String> jvmArgs) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.addAll(List.of(
+                "--server.port=" + port,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.url=jdbc:h2:mem:startup",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password="
+        ));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/task-lists")).GET().build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with code " + process.exitValue());
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return Duration.ofNanos(System.nanoTime() - start).toMillis();
+                    }
+                } catch (IOException notListeningYet) {
+                    // Port not open yet, keep polling
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("No successful request within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.wongsakron.tasks.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.wongsakron.tasks.domain.dto.TaskDto;
+import com.wongsakron.tasks.domain.dto.TaskListDto;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Compares payload size and encode/decode CPU per task for JSON, Smile and CBOR.
+// Not a unit test (surefire skips it), run with:
+//   ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.wongsakron.tasks.benchmarks.WireFormatBenchmark
+public class WireFormatBenchmark {
+
+    private static final int TASKS = 1_000;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int ROUNDS = 500;
+
+    public static void main(String[] args) throws Exception {
+        TaskListDto payload = sampleList(TASKS);
+
+        run("json", configure(new ObjectMapper()), payload);
+        run("smile", configure(new SmileMapper()), payload);
+        run("cbor", configure(new CBORMapper()), payload);
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        return mapper.findAndRegisterModules() // java.time support, same as the application
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static void run(String name, ObjectMapper mapper, TaskListDto payload) throws Exception {
+        byte[] bytes = mapper.writeValueAsBytes(payload);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(payload), TaskListDto.class);
+        }
+
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            bytes = mapper.writeValueAsBytes(payload);
+            long encoded = System.nanoTime();
+            mapper.readValue(bytes, TaskListDto.class);
+            decodeNanos += System.nanoTime() - encoded;
+            encodeNanos += encoded - start;
+        }
+
+        long perTaskOps = (long) ROUNDS * TASKS;
+        System.out.printf("%-6s size=%8d bytes (%5.1f bytes/task)  encode=%6.0f ns/task  decode=%6.0f ns/task%n",
+                name, bytes.length, (double) bytes.length / TASKS,
+                (double) encodeNanos / perTaskOps, (double) decodeNanos / perTaskOps);
+    }
+
+    private static TaskListDto sampleList(int size) {
+        List<TaskDto> tasks = new ArrayList<>(size);
+        LocalDateTime due = LocalDateTime.now().plusDays(7);
+        for (int i = 0; i < size; i++) {
+            tasks.add(new TaskDto(
+                    UUID.randomUUID(),
+                    "Task " + i,
+                    "Description of task number " + i,
+                    due.plusMinutes(i),
+                    TaskPriority.values()[i % TaskPriority.values().length],
+                    i % 3 == 0 ? TaskStatus.CLOSED : TaskStatus.OPEN,
+                    null,
+                    Set.of("tag-" + i % 10)
+            ));
+        }
+        return new TaskListDto(UUID.randomUUID(), "Benchmark list", "Large list", size, 0.33, tasks);
+    }
+}
@@ -0,0 +1,115 @@
+package com.wongsakron.tasks.cache;
+
+import com.wongsakron.tasks.domain.dto.TaskDto;
+import com.wongsakron.tasks.domain.dto.TaskListDto;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import com.wongsakron.tasks.mappers.TaskListMapper;
+import com.wongsakron.tasks.services.TaskListService;
+import com.wongsakron.tasks.services.TaskService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+public class SecondLevelCacheITTest {
+
+    @Autowired
+    TaskListService taskListService;
+    @Autowired
+    TaskService taskService;
+    @Autowired
+    TaskListMapper taskListMapper;
+    @Autowired
+    TransactionTemplate tx;
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    // Same shape as GET /task-lists/{id}: load and map in one session
+    private TaskListDto read(UUID id) {
+        return tx.execute(status -> taskListService.getTaskListWithTasks(id).map(taskListMapper::toDto).orElse(null));
+    }
+
+    private Statistics statistics() {
+        return emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private UUID listWithTasks(String... titles) {
+        UUID id = taskListService.createTaskList(new TaskList(null, "Cached", "D", null, null, null)).getId();
+        for (String title : titles) {
+            taskService.createTask(id, new Task(null, title, "d", null, null, TaskPriority.MEDIUM, null, null, null));
+        }
+        return id;
+    }
+
+    @Test
+    void getTaskList_repeated_shouldBeServedWithoutSql() {
+        UUID id = listWithTasks("a", "b");
+        read(id); // warms list, tasks collection and tasks
+        statistics().clear();
+
+        TaskListDto dto = read(id);
+
+        assertThat(dto.count()).isEqualTo(2);
+        assertThat(statistics().getPrepareStatementCount()).isZero();
+        assertThat(statistics().getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(4); // list + collection + 2 tasks
+    }
+
+    @Test
+    void createAndDeleteTask_shouldInvalidateCachedTasksOfList() {
+        UUID id = listWithTasks("a");
+        assertThat(read(id).count()).isEqualTo(1);
+
+        Task b = taskService.createTask(id, new Task(null, "b", "d", null, null, TaskPriority.LOW, null, null, null));
+        assertThat(read(id).tasks()).extracting(TaskDto::title).containsExactlyInAnyOrder("a", "b");
+
+        taskService.deleteTask(id, b.getId()); // JPQL bulk update
+        assertThat(read(id).tasks()).extracting(TaskDto::title).containsExactly("a");
+
+        taskService.restoreTask(id, b.getId()); // Native update
+        assertThat(read(id).tasks()).extracting(TaskDto::title).containsExactlyInAnyOrder("a", "b");
+    }
+
+    @Test
+    void updateTask_shouldBeVisibleThroughCache() {
+        UUID id = listWithTasks("a");
+        TaskDto a = read(id).tasks().getFirst();
+
+        taskService.updateTask(id, a.id(), new Task(a.id(), "a", "d", null, TaskStatus.CLOSED, TaskPriority.HIGH, null, null, null));
+
+        assertThat(read(id).progress()).isEqualTo(1.0);
+    }
+
+    @Test
+    void deleteAndRestoreTaskList_shouldBypassStaleEntries() {
+        UUID id = listWithTasks("a", "b");
+        assertThat(read(id)).isNotNull();
+
+        taskListService.deleteTaskList(id);
+        assertThat(read(id)).isNull();
+
+        taskListService.restoreTaskList(id);
+        assertThat(read(id).count()).isEqualTo(2);
+    }
+
+    @Test
+    void statistics_shouldBeExposedPerRegion() {
+        read(listWithTasks("a"));
+
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests").tag("region", Task.CACHE_REGION).meters()).isNotEmpty();
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests").tag("region", TaskList.CACHE_REGION).meters()).isNotEmpty();
+    }
+}
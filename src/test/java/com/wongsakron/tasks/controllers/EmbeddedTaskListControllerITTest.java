@@ -0,0 +1,61 @@
+package com.wongsakron.tasks.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Every task list scenario again, with the task lists stored in the embedded task log. The dashboard has no
+// embedded implementation and must say so instead of counting the (empty) JPA tables.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:embedded;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=sa"
+})
+@ActiveProfiles("embedded")
+public class EmbeddedTaskListControllerITTest extends TaskListControllerITTest {
+
+    @TempDir
+    static Path logDirectory;
+
+    @DynamicPropertySource
+    static void logStoreProperties(DynamicPropertyRegistry registry) {
+        registry.add("tasks.logstore.directory", () -> logDirectory.toString());
+        registry.add("tasks.logstore.segment-size", () -> "1MB");
+    }
+
+    @Test
+    @Override
+    void dashboard_shouldCountTasksOfListAndAcrossLists() throws Exception {
+        mvc.perform(get("/task-lists/{task_list_id}/dashboard", UUID.randomUUID()))
+                .andExpect(status().isNotImplemented())
+                .andExpect(jsonPath("$.message").value(containsString("not available with embedded storage")));
+        mvc.perform(get("/dashboard"))
+                .andExpect(status().isNotImplemented());
+    }
+
+    @Test
+    @Override
+    void dashboard_shouldListNextDueAndOverdueOpenTasks() throws Exception {
+        mvc.perform(get("/dashboard/next-due"))
+                .andExpect(status().isNotImplemented());
+        mvc.perform(get("/task-lists/{task_list_id}/dashboard/overdue", UUID.randomUUID()))
+                .andExpect(status().isNotImplemented());
+    }
+
+    @Test
+    @Override
+    void dashboard_shouldReturn404_whenListNotFound() throws Exception {
+        mvc.perform(get("/task-lists/{task_list_id}/dashboard", UUID.randomUUID()))
+                .andExpect(status().isNotImplemented());
+    }
+}
@@ -0,0 +1,66 @@
+package com.wongsakron.tasks.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Every task scenario again, with the tasks stored in the embedded task log. Search, manual ordering and
+// sub-trees have no embedded implementation and must say so instead of answering from the (empty) JPA tables.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:embedded;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=sa"
+})
+@ActiveProfiles("embedded")
+public class EmbeddedTasksControllerITTest extends TasksControllerITTest {
+
+    @TempDir
+    static Path logDirectory;
+
+    @DynamicPropertySource
+    static void logStoreProperties(DynamicPropertyRegistry registry) {
+        registry.add("tasks.logstore.directory", () -> logDirectory.toString());
+        registry.add("tasks.logstore.segment-size", () -> "1MB");
+    }
+
+    @Test
+    @Override
+    void moveTask_shouldReorderListAndTasks_and404_forUnknownTask() throws Exception {
+        mvc.perform(post("/task-lists/{task_list_id}/tasks/{task_id}/move", UUID.randomUUID(), UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isNotImplemented());
+    }
+
+    @Test
+    @Override
+    void subTasks_shouldReturnSubtree_rollUpProgress_andMoveWithParent() throws Exception {
+        UUID listId = UUID.randomUUID();
+        UUID taskId = UUID.randomUUID();
+        mvc.perform(get("/task-lists/{task_list_id}/tasks/{task_id}/subtree", listId, taskId))
+                .andExpect(status().isNotImplemented());
+        mvc.perform(get("/task-lists/{task_list_id}/tasks/{task_id}/progress", listId, taskId))
+                .andExpect(status().isNotImplemented());
+        mvc.perform(put("/task-lists/{task_list_id}/tasks/{task_id}/parent", listId, taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isNotImplemented());
+    }
+
+    @Test
+    @Override
+    void searchTasks_shouldCombineTags_andFollowUpdatesAndDeletes() throws Exception {
+        mvc.perform(get("/task-lists/{task_list_id}/tasks/search", UUID.randomUUID()).param("tag", "work"))
+                .andExpect(status().isNotImplemented());
+    }
+}
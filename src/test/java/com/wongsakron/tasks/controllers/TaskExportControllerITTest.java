@@ -0,0 +1,153 @@
+package com.wongsakron.tasks.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.services.TaskArchiveService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TaskExportControllerITTest {
+
+    @Autowired
+    MockMvc mvc;
+    @Autowired
+    ObjectMapper om;
+    @Autowired
+    TaskRepository taskRepo;
+    @Autowired
+    TaskArchiveService archiveService;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    static record TLReq(String title, String description) {
+    }
+    static record TCreate(String title, String description) {
+    }
+
+    private String createList(String title, String... taskTitles) throws Exception {
+        var res = mvc.perform(post("/task-lists")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(new TLReq(title, "d"))))
+                .andExpect(status().isOk())
+                .andReturn();
+        String id = om.readTree(res.getResponse().getContentAsString()).get("id").asText();
+        for (String taskTitle : taskTitles) {
+            mvc.perform(post("/task-lists/{task_list_id}/tasks", id)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(om.writeValueAsString(new TCreate(taskTitle, "d"))))
+                    .andExpect(status().isOk());
+        }
+        return id;
+    }
+
+    // Closes the task long ago and runs the archiver, which moves it to the list's archive
+    private void archive(String taskListId, String taskTitle) {
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(60);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> taskRepo.findByTaskListId(UUID.fromString(taskListId)).stream()
+                .filter(task -> task.getTitle().equals(taskTitle))
+                .forEach(task -> {
+                    task.setStatus(TaskStatus.CLOSED);
+                    task.setUpdated(longAgo);
+                }));
+        assertThat(archiveService.archiveClosedTasks(longAgo.plusDays(1), 100)).isEqualTo(1);
+    }
+
+    private JsonNode awaitExport(String exportId) throws Exception {
+        for (int i = 0; i < 200; i++) {
+            var res = mvc.perform(get("/exports/{export_id}", exportId))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            JsonNode progress = om.readTree(res.getResponse().getContentAsString());
+            if (!"RUNNING".equals(progress.get("state").asText())) {
+                return progress;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Export " + exportId + " did not finish");
+    }
+
+    @Test
+    void export_shouldWriteOneCompressedEntryPerList_andSkipMissingLists() throws Exception {
+        String first = createList("Export A", "a1", "a2", "a-old");
+        archive(first, "a-old");
+        String second = createList("Export B", "b1");
+        String missing = UUID.randomUUID().toString();
+
+        var res = mvc.perform(post("/exports")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"taskListIds\":[\"" + first + "\",\"" + second + "\",\"" + missing + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").exists())
+                .andReturn();
+        String exportId = om.readTree(res.getResponse().getContentAsString()).get("id").asText();
+
+        JsonNode progress = awaitExport(exportId);
+        assertThat(progress.get("state").asText()).isEqualTo("DONE");
+        assertThat(progress.get("totalLists").asInt()).isEqualTo(3);
+        assertThat(progress.get("exportedLists").asInt()).isEqualTo(2);
+        assertThat(progress.get("skippedLists").asInt()).isEqualTo(1);
+
+        var download = mvc.perform(get("/exports/{export_id}/download", exportId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/zip"))
+                .andExpect(header().string("Content-Disposition", containsString("tasks-" + exportId + ".zip")))
+                .andReturn();
+
+        Map<String, JsonNode> entries = new HashMap<>();
+        try (var zip = new ZipInputStream(new ByteArrayInputStream(download.getResponse().getContentAsByteArray()))) {
+            for (ZipEntry entry; (entry = zip.getNextEntry()) != null; ) {
+                byte[] data = zip.readAllBytes();
+                if (entry.getName().endsWith(".gz")) {
+                    data = new GZIPInputStream(new ByteArrayInputStream(data)).readAllBytes();
+                }
+                entries.put(entry.getName(), om.readTree(data));
+            }
+        }
+
+        assertThat(entries).containsOnlyKeys(
+                "task-lists/" + first + ".json.gz", "task-lists/" + second + ".json.gz", "manifest.json");
+        JsonNode list = entries.get("task-lists/" + first + ".json.gz");
+        assertThat(list.get("title").asText()).isEqualTo("Export A");
+        assertThat(list.get("tasks")).extracting(task -> task.get("title").asText()).containsExactly("a1", "a2");
+        assertThat(list.get("archivedTaskCount").asInt()).isEqualTo(1);
+        assertThat(list.get("archivedTasks")).extracting(task -> task.get("title").asText()).containsExactly("a-old");
+        assertThat(entries.get("task-lists/" + second + ".json.gz").get("archivedTasks")).isEmpty();
+        assertThat(entries.get("manifest.json").get("skippedLists")).extracting(JsonNode::asText).containsExactly(missing);
+    }
+
+    @Test
+    void export_whenUnknownOrInvalid_shouldReturn404Or400() throws Exception {
+        mvc.perform(get("/exports/{export_id}", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/exports/{export_id}/download", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+        mvc.perform(post("/exports")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"taskListIds\":[null]}"))
+                .andExpect(status().isBadRequest());
+    }
+}
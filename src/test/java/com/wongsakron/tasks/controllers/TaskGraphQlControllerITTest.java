@@ -0,0 +1,122 @@
+package com.wongsakron.tasks.controllers;
+
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import com.wongsakron.tasks.repositories.TaskListRepository;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureGraphQlTester;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureGraphQlTester
+public class TaskGraphQlControllerITTest {
+
+    @Autowired
+    ExecutionGraphQlServiceTester graphQl;
+    @Autowired
+    TaskListRepository listRepo;
+    @Autowired
+    TaskRepository taskRepo;
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    // helper create list with tasks, every second task is CLOSED
+    private TaskList createListWithTasks(String title, int taskCount) {
+        var now = LocalDateTime.now();
+        TaskList list = listRepo.save(new TaskList(null, title, "D", null, now, now));
+        for (int i = 0; i < taskCount; i++) {
+            var status = i % 2 == 0 ? TaskStatus.OPEN : TaskStatus.CLOSED;
+            taskRepo.save(new Task(null, title + "-" + i, "d", now.plusDays(1), status, TaskPriority.MEDIUM, list, now, now));
+        }
+        return list;
+    }
+
+    private Statistics statistics() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        stats.clear();
+        return stats;
+    }
+
+    @Test
+    void taskList_shouldReturnOnlySelectedFields_withCountAndProgress() {
+        var list = createListWithTasks("GQL", 4);
+
+        graphQl.document("""
+                        query($id: ID!) { taskList(id: $id) { title count progress } }
+                        """)
+                .variable("id", list.getId().toString())
+                .execute()
+                .path("taskList.title").entity(String.class).isEqualTo("GQL")
+                .path("taskList.count").entity(Integer.class).isEqualTo(4)
+                .path("taskList.progress").entity(Double.class).isEqualTo(0.5)
+                .path("taskList.tasks").pathDoesNotExist();
+    }
+
+    @Test
+    void taskList_countAndProgress_shouldIncludeArchivedTasksAsClosed() {
+        var list = createListWithTasks("Archived", 2);
+        new TransactionTemplate(transactionManager) // The archiver's increment, the only write of the count
+                .executeWithoutResult(status -> listRepo.incrementArchivedTaskCount(list.getId(), 2));
+
+        graphQl.document("""
+                        query($id: ID!) { taskList(id: $id) { count progress } }
+                        """)
+                .variable("id", list.getId().toString())
+                .execute()
+                .path("taskList.count").entity(Integer.class).isEqualTo(4)
+                .path("taskList.progress").entity(Double.class).isEqualTo(0.75);
+    }
+
+    @Test
+    void nestedQuery_shouldRunOneQueryPerLevel_notPerList() {
+        createListWithTasks("N1", 3);
+        createListWithTasks("N2", 3);
+        createListWithTasks("N3", 3);
+
+        Statistics stats = statistics();
+
+        List<String> titles = graphQl.document("""
+                        { taskLists { title count progress tasks { title status taskList { title } } } }
+                        """)
+                .execute()
+                .path("taskLists[*].tasks[*].title").entityList(String.class).get();
+
+        assertThat(titles).contains("N1-0", "N2-2", "N3-1");
+        // lists + counts + tasks + parent lists, independent of how many lists and tasks exist
+        assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void task_shouldResolveParentList() {
+        var list = createListWithTasks("Parent", 1);
+        var task = taskRepo.findByTaskListId(list.getId()).get(0);
+
+        graphQl.document("""
+                        query($listId: ID!, $id: ID!) { task(taskListId: $listId, id: $id) { title priority taskList { id title } } }
+                        """)
+                .variable("listId", list.getId().toString())
+                .variable("id", task.getId().toString())
+                .execute()
+                .path("task.title").entity(String.class).isEqualTo("Parent-0")
+                .path("task.priority").entity(String.class).isEqualTo("MEDIUM")
+                .path("task.taskList.title").entity(String.class).isEqualTo("Parent");
+    }
+}
@@ -2,15 +2,22 @@ package com.wongsakron.tasks.controllers;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.wongsakron.tasks.web.WireFormatConfig;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -23,11 +30,15 @@ public class TaskListControllerITTest {
     MockMvc mvc;
     @Autowired
     ObjectMapper om;
+    @Autowired
+    MappingJackson2SmileHttpMessageConverter smileConverter;
 
     static record TLReq(String title, String description){
     }
     static record TLUpdate(java.util.UUID id, String title, String description){
     }
+    static record TCreate(String title, String description, String dueDate, String priority, String status) {
+    }
 
     private String createListAndReturnId(String title, String desc) throws Exception {
         var res = mvc.perform(post("/task-lists")
@@ -166,5 +177,137 @@ public class TaskListControllerITTest {
                 .andExpect(content().string("null"));
     }
 
+    // test: POST /task-lists/{id}/restore after delete -> list is visible again, second restore -> 404
+    @Test
+    void restore_afterDelete_shouldBringListBack() throws Exception {
+        var id = createListAndReturnId("R", "r");
+        mvc.perform(delete("/task-lists/{task_list_id}", id)).andExpect(status().isOk());
+
+        mvc.perform(post("/task-lists/{task_list_id}/restore", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id.toString()))
+                .andExpect(jsonPath("$.title").value("R"));
+
+        mvc.perform(get("/task-lists/{task_list_id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("R"));
+
+        mvc.perform(post("/task-lists/{task_list_id}/restore", id))
+                .andExpect(status().isNotFound());
+    }
+
+
+    // test: binary formats via content negotiation
+    @Test
+    void get_shouldReturnSmile_whenAcceptIsSmile() throws Exception {
+        var id = createListAndReturnId("Bin", "b");
+
+        var res = mvc.perform(get("/task-lists/{task_list_id}", id)
+                        .accept(WireFormatConfig.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WireFormatConfig.APPLICATION_SMILE))
+                .andReturn();
+
+        JsonNode body = new SmileMapper().readTree(res.getResponse().getContentAsByteArray());
+        assertThat(body.get("id").asText()).isEqualTo(id);
+        assertThat(body.get("title").asText()).isEqualTo("Bin");
+    }
+
+    @Test
+    void binaryFormats_shouldUseTheApplicationsJacksonSettings() {
+        // Spring Boot writes dates as ISO strings, a builder of its own would write them as timestamps
+        assertThat(smileConverter.getObjectMapper().isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)).isFalse();
+    }
+
+    @Test
+    void create_shouldAcceptAndReturnCbor() throws Exception {
+        var cbor = new CBORMapper();
+
+        var res = mvc.perform(post("/task-lists")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cbor.writeValueAsBytes(new TLReq("Cbor", "c"))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        JsonNode body = cbor.readTree(res.getResponse().getContentAsByteArray());
+        assertThat(body.get("id").isTextual()).isTrue(); // Not binary, same id as the JSON representation
+        assertThat(UUID.fromString(body.get("id").asText())).isNotNull();
+        assertThat(body.get("title").asText()).isEqualTo("Cbor");
+
+        mvc.perform(get("/task-lists/{task_list_id}", body.get("id").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Cbor"));
+    }
+
+    @Test
+    void dashboard_shouldCountTasksOfListAndAcrossLists() throws Exception {
+        var id = createListAndReturnId("Dash", "d");
+        for (var task : new TCreate[]{
+                new TCreate("late", "d", LocalDateTime.now().minusDays(2).toString(), "HIGH", null),
+                new TCreate("soon", "d", LocalDateTime.now().plusDays(2).toString(), null, null),
+                new TCreate("someday", "d", null, "LOW", null)}) {
+            mvc.perform(post("/task-lists/{task_list_id}/tasks", id)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(om.writeValueAsString(task)))
+                    .andExpect(status().isOk());
+        }
+
+        mvc.perform(get("/task-lists/{task_list_id}/dashboard", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.taskListId").value(id))
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.byStatus.OPEN").value(3))
+                .andExpect(jsonPath("$.byStatus.CLOSED").value(0)) // Every value is present
+                .andExpect(jsonPath("$.byPriority.HIGH").value(1))
+                .andExpect(jsonPath("$.byPriority.MEDIUM").value(1))
+                .andExpect(jsonPath("$.byDueDate.OVERDUE").value(1))
+                .andExpect(jsonPath("$.byDueDate.UPCOMING").value(1))
+                .andExpect(jsonPath("$.byDueDate.NO_DUE_DATE").value(1))
+                .andExpect(jsonPath("$.overdueOpen").value(1))
+                .andExpect(jsonPath("$.counts", hasSize(3)));
+
+        mvc.perform(get("/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.taskListId").value(nullValue()))
+                .andExpect(jsonPath("$.total").value(greaterThanOrEqualTo(3)))
+                .andExpect(jsonPath("$.overdueOpen").value(greaterThanOrEqualTo(1)));
+    }
+
+    @Test
+    void dashboard_shouldListNextDueAndOverdueOpenTasks() throws Exception {
+        var id = createListAndReturnId("Due", "d");
+        for (var task : new TCreate[]{
+                new TCreate("late", "d", LocalDateTime.now().minusDays(1).toString(), null, null),
+                new TCreate("later", "d", LocalDateTime.now().plusDays(2).toString(), "LOW", null),
+                new TCreate("soon", "d", LocalDateTime.now().plusDays(1).toString(), "HIGH", null),
+                new TCreate("someday", "d", null, null, null)}) {
+            mvc.perform(post("/task-lists/{task_list_id}/tasks", id)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(om.writeValueAsString(task)))
+                    .andExpect(status().isOk());
+        }
+
+        mvc.perform(get("/task-lists/{task_list_id}/dashboard/next-due", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title", contains("soon", "later")))
+                .andExpect(jsonPath("$[0].taskListId").value(id))
+                .andExpect(jsonPath("$[0].priority").value("HIGH"));
+
+        mvc.perform(get("/task-lists/{task_list_id}/dashboard/overdue", id).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title", contains("late")));
+
+        mvc.perform(get("/dashboard/next-due").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void dashboard_shouldReturn404_whenListNotFound() throws Exception {
+        mvc.perform(get("/task-lists/{task_list_id}/dashboard", UUID.randomUUID()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404));
+    }
 
 }
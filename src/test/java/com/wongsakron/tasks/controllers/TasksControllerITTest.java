@@ -12,6 +12,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -57,6 +58,16 @@ public class TasksControllerITTest {
         JsonNode body = om.readTree(res.getResponse().getContentAsString());
         return body.get("id").asText();
     }
+    private String createSubTask(String listId, String title, String parentId) throws Exception {
+        var res = mvc.perform(post("/task-lists/{task_list_id}/tasks", listId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"" + title + "\",\"parentId\":\"" + parentId + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.parentId").value(parentId))
+                .andReturn();
+        return om.readTree(res.getResponse().getContentAsString()).get("id").asText();
+    }
+
     // create: happy path + 404 (not found list) + 400(title invalid)
     @Test
     void createTask_shouldReturn200_or404_whenListNotFound_or400_whenServiceValidates() throws Exception{
@@ -158,6 +169,167 @@ public class TasksControllerITTest {
                 .andExpect(jsonPath("$.status").value(400));
     }
 
+    @Test
+    void bulkUpdateTasks_shouldCloseMatchingTasks_andReturnCount() throws Exception {
+        var listId = createList();
+        var a = createTask(listId, "A");
+        createTask(listId, "B");
+
+        mvc.perform(get("/task-lists/{task_list_id}", listId)) // puts the list and its tasks in the caches
+                .andExpect(jsonPath("$.progress").value(0.0));
+
+        mvc.perform(patch("/task-lists/{task_list_id}/tasks", listId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{\"status\":\"OPEN\"},\"status\":\"CLOSED\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(2));
+
+        mvc.perform(get("/task-lists/{task_list_id}/tasks/{task_id}", listId, a))
+                .andExpect(jsonPath("$.status").value("CLOSED"));
+        mvc.perform(get("/task-lists/{task_list_id}", listId))
+                .andExpect(jsonPath("$.progress").value(1.0));
+
+        // Nothing left to change
+        mvc.perform(patch("/task-lists/{task_list_id}/tasks", listId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"CLOSED\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(0));
+    }
+
+    @Test
+    void bulkUpdateTasks_shouldReturn400_withoutChange_and404_forUnknownList() throws Exception {
+        var listId = createList();
+
+        mvc.perform(patch("/task-lists/{task_list_id}/tasks", listId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{\"status\":\"OPEN\"}}"))
+                .andExpect(status().isBadRequest());
+
+        mvc.perform(patch("/task-lists/{task_list_id}/tasks", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"CLOSED\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void moveTask_shouldReorderListAndTasks_and404_forUnknownTask() throws Exception {
+        var listId = createList();
+        var a = createTask(listId, "A");
+        createTask(listId, "B");
+        var c = createTask(listId, "C");
+
+        mvc.perform(get("/task-lists/{task_list_id}", listId)) // puts the list and its tasks in the caches
+                .andExpect(jsonPath("$.tasks[*].title", contains("A", "B", "C")));
+
+        mvc.perform(post("/task-lists/{task_list_id}/tasks/{task_id}/move", listId, c)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"afterTaskId\":\"" + a + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(c));
+
+        mvc.perform(get("/task-lists/{task_list_id}/tasks", listId))
+                .andExpect(jsonPath("$[*].title", contains("A", "C", "B")));
+        mvc.perform(get("/task-lists/{task_list_id}", listId))
+                .andExpect(jsonPath("$.tasks[*].title", contains("A", "C", "B")));
+
+        // No afterTaskId moves the task to the top
+        mvc.perform(post("/task-lists/{task_list_id}/tasks/{task_id}/move", listId, c)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isOk());
+        mvc.perform(get("/task-lists/{task_list_id}/tasks", listId))
+                .andExpect(jsonPath("$[*].title", contains("C", "A", "B")));
+
+        mvc.perform(post("/task-lists/{task_list_id}/tasks/{task_id}/move", listId, UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void subTasks_shouldReturnSubtree_rollUpProgress_andMoveWithParent() throws Exception {
+        var listId = createList();
+        var epic = createTask(listId, "Epic");
+        var other = createTask(listId, "Other");
+        var story = createSubTask(listId, "Story", epic);
+        createSubTask(listId, "Sub", story);
+
+        mvc.perform(get("/task-lists/{task_list_id}/tasks/{task_id}/subtree", listId, epic))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title", contains("Epic", "Story", "Sub")))
+                .andExpect(jsonPath("$[1].parentId").value(epic));
+
+        mvc.perform(patch("/task-lists/{task_list_id}/tasks", listId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{\"priority\":\"MEDIUM\"},\"status\":\"CLOSED\"}"))
+                .andExpect(status().isOk());
+        mvc.perform(get("/task-lists/{task_list_id}/tasks/{task_id}/progress", listId, epic))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(3))
+                .andExpect(jsonPath("$.closed").value(3))
+                .andExpect(jsonPath("$.progress").value(1.0));
+
+        mvc.perform(put("/task-lists/{task_list_id}/tasks/{task_id}/parent", listId, story)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"parentId\":\"" + other + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.parentId").value(other));
+        mvc.perform(get("/task-lists/{task_list_id}/tasks/{task_id}/subtree", listId, other))
+                .andExpect(jsonPath("$[*].title", contains("Other", "Story", "Sub")));
+
+        // A task cannot go below its own sub-task
+        mvc.perform(put("/task-lists/{task_list_id}/tasks/{task_id}/parent", listId, other)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"parentId\":\"" + story + "\"}"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/task-lists/{task_list_id}/tasks/{task_id}/subtree", listId, UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    private String createTaggedTask(String listId, String title, String tags) throws Exception {
+        var res = mvc.perform(post("/task-lists/{task_list_id}/tasks", listId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"" + title + "\",\"tags\":[" + tags + "]}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        return om.readTree(res.getResponse().getContentAsString()).get("id").asText();
+    }
+
+    @Test
+    void searchTasks_shouldCombineTags_andFollowUpdatesAndDeletes() throws Exception {
+        var listId = createList();
+        var report = createTaggedTask(listId, "Report", "\"Work\",\"urgent\"");
+        var slides = createTaggedTask(listId, "Slides", "\"work\"");
+        createTaggedTask(listId, "Groceries", "\"home\"");
+
+        mvc.perform(get("/task-lists/{task_list_id}/tasks/{task_id}", listId, report))
+                .andExpect(jsonPath("$.tags", contains("urgent", "work")));
+        mvc.perform(get("/task-lists/{task_list_id}/tasks/search", listId).param("tag", "work"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title", contains("Report", "Slides")));
+        mvc.perform(get("/task-lists/{task_list_id}/tasks/search", listId)
+                        .param("anyTag", "urgent", "home").param("notTag", "work"))
+                .andExpect(jsonPath("$[*].title", contains("Groceries")));
+
+        // PUT replaces the tags, the index follows after the commit
+        mvc.perform(put("/task-lists/{task_list_id}/tasks/{task_id}", listId, slides)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"" + slides + "\",\"title\":\"Slides\",\"priority\":\"HIGH\",\"status\":\"OPEN\",\"tags\":[\"home\"]}"))
+                .andExpect(status().isOk());
+        mvc.perform(delete("/task-lists/{task_list_id}/tasks/{task_id}", listId, report))
+                .andExpect(status().isOk());
+        mvc.perform(get("/task-lists/{task_list_id}/tasks/search", listId).param("tag", "home").param("priority", "HIGH"))
+                .andExpect(jsonPath("$[*].title", contains("Slides")));
+        mvc.perform(get("/task-lists/{task_list_id}/tasks/search", listId).param("tag", "work"))
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        mvc.perform(get("/task-lists/{task_list_id}/tasks/search", listId).param("tag", "not valid"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/task-lists/{task_list_id}/tasks/search", UUID.randomUUID()).param("tag", "work"))
+                .andExpect(status().isNotFound());
+    }
+
     // Delete: happy path 200 + check get after delete  = body empty
     @Test
     void deleteTask_shouldReturn200_andGetAfterDeleteShouldBeEmptyBody() throws Exception{
@@ -173,6 +345,88 @@ public class TasksControllerITTest {
                 .andExpect(content().string("null"));
     }
 
+    // Idempotency-Key: retry with the same key returns the same task and creates nothing new
+    @Test
+    void createTask_withSameIdempotencyKey_shouldCreateOnce() throws Exception {
+        var listId = createList();
+        var body = om.writeValueAsString(new TCreate("Once", "D", null, "HIGH", null));
+
+        var first = mvc.perform(post("/task-lists/{task_list_id}/tasks", listId)
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        var replay = mvc.perform(post("/task-lists/{task_list_id}/tasks", listId)
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(replay).isEqualTo(first);
+        mvc.perform(get("/task-lists/{task_list_id}/tasks", listId))
+                .andExpect(jsonPath("$.length()").value(1));
+
+        // same key, different payload -> 400
+        mvc.perform(post("/task-lists/{task_list_id}/tasks", listId)
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(new TCreate("Other", "D", null, "HIGH", null))))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Restore: deleted task comes back, restoring again -> 404
+    @Test
+    void restoreTask_afterDelete_shouldBringTaskBack() throws Exception {
+        var listId = createList();
+        var taskId = createTask(listId, "T-restore");
+        mvc.perform(delete("/task-lists/{task_list_id}/tasks/{task_id}", listId, taskId))
+                .andExpect(status().isOk());
+
+        mvc.perform(post("/task-lists/{task_list_id}/tasks/{task_id}/restore", listId, taskId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("T-restore"));
+
+        mvc.perform(get("/task-lists/{task_list_id}/tasks/{task_id}", listId, taskId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(taskId));
+
+        mvc.perform(post("/task-lists/{task_list_id}/tasks/{task_id}/restore", listId, taskId))
+                .andExpect(status().isNotFound());
+    }
+
+    // multi-get: order kept, missing reported
+    @Test
+    void multiGet_shouldReturnTasksInRequestOrder_andReportMissing() throws Exception {
+        var listA = createList();
+        var listB = createList();
+        var a1 = createTask(listA, "A1");
+        var b1 = createTask(listB, "B1");
+        var unknown = UUID.randomUUID().toString();
+
+        var body = """
+                { "items": [
+                    { "taskListId": "%s", "taskId": "%s" },
+                    { "taskListId": "%s", "taskId": "%s" },
+                    { "taskListId": "%s", "taskId": "%s" }
+                ] }
+                """.formatted(listB, b1, listA, unknown, listA, a1);
+
+        mvc.perform(post("/tasks/multi-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks[*].title", contains("B1", "A1")))
+                .andExpect(jsonPath("$.missing.length()").value(1))
+                .andExpect(jsonPath("$.missing[0].taskId").value(unknown));
 
+        mvc.perform(post("/tasks/multi-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"items\": [] }"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+    }
 
 }
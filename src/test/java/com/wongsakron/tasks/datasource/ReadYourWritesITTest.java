@@ -0,0 +1,95 @@
+package com.wongsakron.tasks.datasource;
+
+import com.wongsakron.tasks.domain.dto.TaskListDto;
+import com.wongsakron.tasks.web.SingleFlight;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+// No replica configured: client writes are still tracked, from the commit of their transaction
+@SpringBootTest
+public class ReadYourWritesITTest {
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    ReadYourWritesTracker readYourWritesTracker;
+    @Autowired
+    SingleFlight<UUID, Optional<TaskListDto>> taskListReads;
+
+    @AfterEach
+    void cleanup() {
+        RoutingClientHolder.clear();
+    }
+
+    private void transaction(String clientKey, boolean readOnly, boolean rollback) {
+        RoutingClientHolder.set(clientKey);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(readOnly);
+        tx.executeWithoutResult(status -> {
+            if (rollback) {
+                status.setRollbackOnly();
+            }
+        });
+    }
+
+    @Test
+    void committedWrite_shouldMakeTheClientSticky() {
+        transaction("writer", false, false);
+        transaction("reader", true, false);
+        transaction("rolled-back", false, true);
+
+        assertThat(readYourWritesTracker.isSticky("writer")).isTrue();
+        assertThat(readYourWritesTracker.isSticky("reader")).isFalse();
+        assertThat(readYourWritesTracker.isSticky("rolled-back")).isFalse();
+    }
+
+    @Test
+    void readAfterWrite_shouldNotJoinALoadStartedBeforeTheWrite() throws Exception {
+        UUID listId = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        long loads = taskListReads.getLoads();
+        long coalesced = taskListReads.getCoalesced();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Optional<TaskListDto>> earlier = executor.submit(() -> taskListReads.execute(listId, () -> {
+                await(release);
+                return Optional.empty();
+            }));
+            Thread.sleep(50); // Let the earlier load start
+
+            transaction("put-then-get", false, false);
+            assertThat(taskListReads.execute(listId, Optional::empty)).isEmpty();
+
+            release.countDown();
+            earlier.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(taskListReads.getLoads()).isEqualTo(loads + 2); // Loaded on its own
+        assertThat(taskListReads.getCoalesced()).isEqualTo(coalesced);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
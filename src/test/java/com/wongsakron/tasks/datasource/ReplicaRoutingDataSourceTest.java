@@ -0,0 +1,154 @@
+package com.wongsakron.tasks.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnlyTx;
+    private TransactionTemplate writeTx;
+    private ReadYourWritesTracker tracker;
+    private ReplicaLagMonitor lagMonitor;
+
+    // each database answers with its own name so we can see where a query went
+    private DataSource h2(String name) {
+        var ds = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "sa");
+        var init = new JdbcTemplate(ds);
+        init.execute("CREATE TABLE IF NOT EXISTS marker (name VARCHAR(20))");
+        init.execute("DELETE FROM marker");
+        init.update("INSERT INTO marker (name) VALUES (?)", name.startsWith("primary") ? "primary" : "replica");
+        return ds;
+    }
+
+    @BeforeEach
+    void setup() {
+        String suffix = UUID.randomUUID().toString();
+        DataSource primary = h2("primary-" + suffix);
+        DataSource replica = h2("replica-" + suffix);
+
+        tracker = new ReadYourWritesTracker(Duration.ofSeconds(30));
+        lagMonitor = new ReplicaLagMonitor(replica, "", Duration.ofSeconds(5));
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, tracker, lagMonitor)
+        );
+
+        jdbc = new JdbcTemplate(routing);
+        var txManager = new DataSourceTransactionManager(routing);
+        readOnlyTx = new TransactionTemplate(txManager);
+        readOnlyTx.setReadOnly(true);
+        writeTx = new TransactionTemplate(txManager);
+    }
+
+    @AfterEach
+    void cleanup() {
+        RoutingClientHolder.clear();
+    }
+
+    private String whereAmI(TransactionTemplate tx) {
+        return tx.execute(status -> jdbc.queryForObject("SELECT name FROM marker", String.class));
+    }
+
+    @Test
+    void readOnlyTransaction_shouldGoToReplica_andWriteTransactionToPrimary() {
+        RoutingClientHolder.set("client-a");
+
+        assertThat(whereAmI(readOnlyTx)).isEqualTo("replica");
+        assertThat(whereAmI(writeTx)).isEqualTo("primary");
+    }
+
+    @Test
+    void outsideTransaction_shouldGoToPrimary() {
+        assertThat(jdbc.queryForObject("SELECT name FROM marker", String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    void readAfterWrite_shouldStickToPrimary_onlyForTheWritingClient() {
+        RoutingClientHolder.set("writer");
+        whereAmI(writeTx); // write transaction marks the client as sticky
+
+        assertThat(whereAmI(readOnlyTx)).isEqualTo("primary");
+
+        RoutingClientHolder.set("someone-else");
+        assertThat(whereAmI(readOnlyTx)).isEqualTo("replica");
+    }
+
+    @Test
+    void stickyWindow_shouldStartAtCommit_andNotAfterRollback() {
+        RoutingClientHolder.set("slow-writer");
+        tracker = new ReadYourWritesTracker(Duration.ofMillis(200));
+        var routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                h2("primary-" + UUID.randomUUID()), h2("replica-" + UUID.randomUUID()), tracker, lagMonitor));
+        var slowJdbc = new JdbcTemplate(routing);
+        var tx = new TransactionTemplate(new DataSourceTransactionManager(routing));
+
+        tx.executeWithoutResult(status -> {
+            slowJdbc.update("INSERT INTO marker (name) VALUES ('x')");
+            sleep(300); // Longer than the window
+        });
+        assertThat(tracker.isSticky("slow-writer")).isTrue();
+
+        RoutingClientHolder.set("rolled-back");
+        tx.executeWithoutResult(status -> {
+            slowJdbc.update("INSERT INTO marker (name) VALUES ('x')");
+            status.setRollbackOnly();
+        });
+        assertThat(tracker.isSticky("rolled-back")).isFalse();
+    }
+
+    @Test
+    void stickiness_shouldExpireAfterWindow() throws Exception {
+        tracker = new ReadYourWritesTracker(Duration.ofMillis(50));
+        tracker.recordWrite("writer");
+        assertThat(tracker.isSticky("writer")).isTrue();
+
+        Thread.sleep(80);
+
+        assertThat(tracker.isSticky("writer")).isFalse();
+        tracker.evictExpired();
+        assertThat(tracker.size()).isZero();
+    }
+
+    @Test
+    void laggingReplica_shouldFallBackToPrimary() {
+        RoutingClientHolder.set("client-b");
+        lagMonitor.markUnusable();
+
+        assertThat(whereAmI(readOnlyTx)).isEqualTo("primary");
+
+        lagMonitor.check(); // replica reachable again and no lag query, so it is usable
+        assertThat(lagMonitor.isReplicaUsable()).isTrue();
+        assertThat(whereAmI(readOnlyTx)).isEqualTo("replica");
+    }
+
+    @Test
+    void lagQueryAboveThreshold_shouldMarkReplicaUnusable() {
+        var replica = h2("replica-lag-" + UUID.randomUUID());
+        var monitor = new ReplicaLagMonitor(replica, "SELECT 30", Duration.ofSeconds(5));
+
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isFalse();
+        assertThat(monitor.getLastLag()).isEqualTo(Duration.ofSeconds(30));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
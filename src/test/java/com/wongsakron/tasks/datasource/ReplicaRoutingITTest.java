@@ -0,0 +1,80 @@
+package com.wongsakron.tasks.datasource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.*;
+
+// The JPA stack on top of the routing datasource. Both pools reach the same H2 database, replica connections
+// carry a session variable naming them, so every query can tell which pool served its transaction.
+@SpringBootTest(properties = {
+        "tasks.datasource.replica.jdbc-url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1",
+        "tasks.datasource.replica.username=sa",
+        "tasks.datasource.replica.password=sa",
+        "tasks.datasource.replica.connection-init-sql=SET @ROLE = 'replica'"
+})
+public class ReplicaRoutingITTest {
+
+    @PersistenceContext
+    EntityManager em;
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    ApplicationContext context;
+
+    @AfterEach
+    void cleanup() {
+        RoutingClientHolder.clear();
+    }
+
+    private String role(boolean readOnly) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(readOnly);
+        return tx.execute(status -> {
+            Object role = em.createNativeQuery("select @ROLE").getSingleResult();
+            return role == null ? "primary" : role.toString();
+        });
+    }
+
+    @Test
+    void readOnlyTransaction_shouldGoToReplica_unlessTheClientJustWrote() {
+        RoutingClientHolder.set("reader");
+        assertThat(role(true)).isEqualTo("replica");
+
+        RoutingClientHolder.set("writer");
+        assertThat(role(false)).isEqualTo("primary");
+        assertThat(role(true)).isEqualTo("primary"); // Sticky after its write
+    }
+
+    @Test
+    void writeAfterReadInTheSameSession_shouldGoToPrimary() {
+        // A shared EntityManager as open-in-view (or any caller spanning transactions) would bind it
+        TransactionSynchronizationManager.bindResource(emf, new EntityManagerHolder(emf.createEntityManager()));
+        try {
+            RoutingClientHolder.set("same-session");
+            assertThat(role(true)).isEqualTo("replica");
+            assertThat(role(false)).isEqualTo("primary"); // Not the replica connection of the read before
+        } finally {
+            EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.unbindResource(emf);
+            holder.getEntityManager().close();
+        }
+    }
+
+    @Test
+    void openInView_shouldBeOff() {
+        assertThat(context.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+    }
+}
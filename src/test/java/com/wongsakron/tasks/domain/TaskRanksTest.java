@@ -0,0 +1,65 @@
+package com.wongsakron.tasks.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TaskRanksTest {
+
+    @Test
+    void between_shouldReturnKeyStrictlyBetweenNeighbours() {
+        assertThat(TaskRanks.between("a", "b")).isGreaterThan("a").isLessThan("b");
+        assertThat(TaskRanks.between("a", "a1")).isGreaterThan("a").isLessThan("a1");
+        assertThat(TaskRanks.between(null, "01")).isLessThan("01").isNotEmpty();
+        assertThat(TaskRanks.between("zz", null)).isGreaterThan("zz");
+        assertThat(TaskRanks.between(null, null)).isNotEmpty();
+    }
+
+    @Test
+    void between_randomInserts_shouldKeepOrder_andNeverEndInZero() {
+        Random random = new Random(42);
+        List<String> keys = new ArrayList<>(TaskRanks.spread(5));
+
+        for (int i = 0; i < 10_000; i++) {
+            int at = random.nextInt(keys.size() + 1);
+            String before = at == 0 ? null : keys.get(at - 1);
+            String after = at == keys.size() ? null : keys.get(at);
+            keys.add(at, TaskRanks.between(before, after));
+        }
+
+        assertThat(keys).isSorted().doesNotHaveDuplicates();
+        assertThat(keys).noneMatch(key -> key.endsWith("0"));
+    }
+
+    @Test
+    void between_repeatedAppends_shouldGrowKeysSlowly() {
+        String last = null;
+        for (int i = 0; i < 1_000; i++) {
+            String next = TaskRanks.between(last, null);
+            assertThat(last == null || next.compareTo(last) > 0).isTrue();
+            last = next;
+        }
+        assertThat(last.length()).isLessThanOrEqualTo(30);
+    }
+
+    @Test
+    void between_invalidRanks_shouldThrow() {
+        assertThatThrownBy(() -> TaskRanks.between("b", "a")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TaskRanks.between("a", "a")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TaskRanks.between("a0", null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TaskRanks.between("A", null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void spread_shouldReturnShortAscendingKeys() {
+        List<String> keys = TaskRanks.spread(1_000);
+
+        assertThat(keys).hasSize(1_000).isSorted().doesNotHaveDuplicates();
+        assertThat(keys).allSatisfy(key -> assertThat(key).hasSizeLessThanOrEqualTo(3));
+        assertThat(TaskRanks.spread(0)).isEmpty();
+    }
+}
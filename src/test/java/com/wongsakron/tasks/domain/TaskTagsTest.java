@@ -0,0 +1,39 @@
+package com.wongsakron.tasks.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TaskTagsTest {
+
+    @Test
+    void normalize_shouldLowerCaseTrimDeduplicateAndSort() {
+        assertThat(TaskTags.normalize(Arrays.asList(" Work", "home", "work", "", null)))
+                .containsExactly("home", "work");
+        assertThat(TaskTags.normalize(null)).isEmpty();
+    }
+
+    @Test
+    void normalize_shouldRejectInvalidTagsAndTooManyTags() {
+        assertThatThrownBy(() -> TaskTags.normalize(List.of("a,b")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TaskTags.normalize(List.of("x".repeat(33))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TaskTags.normalize(IntStream.range(0, TaskTags.MAX_TAGS + 1).mapToObj(i -> "t" + i).toList()))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("at most");
+    }
+
+    @Test
+    void joinAndParse_shouldRoundTrip() {
+        String column = TaskTags.join(List.of("b", "A", "c-1"));
+
+        assertThat(column).isEqualTo("a,b,c-1");
+        assertThat(TaskTags.parse(column)).containsExactly("a", "b", "c-1");
+        assertThat(TaskTags.join(List.of())).isNull();
+        assertThat(TaskTags.parse(null)).isEmpty();
+    }
+}
@@ -0,0 +1,204 @@
+package com.wongsakron.tasks.logstore;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wongsakron.tasks.services.TaskService;
+import com.wongsakron.tasks.services.impl.LogStoreTaskServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureGraphQlTester;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Same scenarios as the controller tests, with task lists and tasks stored in the embedded task log.
+// JPA keeps an in-memory database of its own (application-embedded.properties would point it at a file), so
+// recreating its schema does not drop the rows of the contexts cached for the JPA tests.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:embedded;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=sa"
+})
+@AutoConfigureMockMvc
+@AutoConfigureGraphQlTester
+@ActiveProfiles("embedded")
+public class LogStoreControllersITTest {
+
+    @TempDir
+    static Path logDirectory;
+
+    @DynamicPropertySource
+    static void logStoreProperties(DynamicPropertyRegistry registry) {
+        registry.add("tasks.logstore.directory", () -> logDirectory.toString());
+        registry.add("tasks.logstore.segment-size", () -> "1MB");
+    }
+
+    @Autowired
+    MockMvc mvc;
+    @Autowired
+    ObjectMapper om;
+    @Autowired
+    TaskService taskService;
+    @Autowired
+    TaskLogStore taskLogStore;
+    @Autowired
+    ExecutionGraphQlServiceTester graphQl;
+
+    private String createList(String title) throws Exception {
+        var res = mvc.perform(post("/task-lists")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"" + title + "\",\"description\":\"D\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        return om.readTree(res.getResponse().getContentAsString()).get("id").asText();
+    }
+
+    private String createTask(String listId, String body) throws Exception {
+        var res = mvc.perform(post("/task-lists/{task_list_id}/tasks", listId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode json = om.readTree(res.getResponse().getContentAsString());
+        return json.get("id").asText();
+    }
+
+    @Test
+    void embeddedProfile_shouldServeTasksFromTheLogStore() {
+        assertThat(taskService).isInstanceOf(LogStoreTaskServiceImpl.class);
+    }
+
+    @Test
+    void createGetUpdateAndList_shouldRoundTripThroughTheLog() throws Exception {
+        var listId = createList("Log");
+        var first = createTask(listId, "{\"title\":\"first\",\"priority\":\"HIGH\"}");
+        var second = createTask(listId, "{\"title\":\"second\"}");
+
+        mvc.perform(get("/task-lists/{task_list_id}/tasks/{task_id}", listId, second))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("second"))
+                .andExpect(jsonPath("$.priority").value("MEDIUM"))
+                .andExpect(jsonPath("$.status").value("OPEN"));
+
+        mvc.perform(put("/task-lists/{task_list_id}/tasks/{task_id}", listId, first)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"" + first + "\",\"title\":\"first\",\"priority\":\"HIGH\",\"status\":\"CLOSED\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CLOSED"));
+
+        mvc.perform(get("/task-lists/{task_list_id}/tasks", listId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title", contains("first", "second"))); // Creation order through the rank keys
+
+        mvc.perform(get("/task-lists/{task_list_id}", listId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.progress").value(0.5));
+
+        assertThat(taskLogStore.tasksOf(UUID.fromString(listId))).hasSize(2);
+    }
+
+    @Test
+    void invalidRequests_shouldMapToTheSameStatusesAsTheJpaServices() throws Exception {
+        var listId = createList("Errors");
+
+        mvc.perform(post("/task-lists/{task_list_id}/tasks", listId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"  \"}"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/task-lists/{task_list_id}/tasks", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"T\"}"))
+                .andExpect(status().isNotFound());
+        mvc.perform(post("/task-lists/{task_list_id}/tasks", listId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"T\",\"parentId\":\"" + UUID.randomUUID() + "\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deleteAndRestore_shouldTakeSubTasksAlong() throws Exception {
+        var listId = createList("Tree");
+        var parent = createTask(listId, "{\"title\":\"parent\"}");
+        createTask(listId, "{\"title\":\"child\",\"parentId\":\"" + parent + "\"}");
+
+        mvc.perform(delete("/task-lists/{task_list_id}/tasks/{task_id}", listId, parent))
+                .andExpect(status().isOk());
+        mvc.perform(get("/task-lists/{task_list_id}/tasks", listId))
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        mvc.perform(post("/task-lists/{task_list_id}/tasks/{task_id}/restore", listId, parent))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("parent"));
+        mvc.perform(get("/task-lists/{task_list_id}/tasks", listId))
+                .andExpect(jsonPath("$[*].title", containsInAnyOrder("parent", "child")));
+
+        mvc.perform(delete("/task-lists/{task_list_id}", listId)).andExpect(status().isOk());
+        mvc.perform(get("/task-lists/{task_list_id}", listId)).andExpect(content().string("null"));
+        mvc.perform(post("/task-lists/{task_list_id}/restore", listId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(2));
+    }
+
+    @Test
+    void bulkUpdate_shouldCountOnlyChangedTasks() throws Exception {
+        var listId = createList("Bulk");
+        createTask(listId, "{\"title\":\"a\",\"priority\":\"LOW\"}");
+        createTask(listId, "{\"title\":\"b\",\"priority\":\"HIGH\"}");
+
+        mvc.perform(patch("/task-lists/{task_list_id}/tasks", listId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"priority\":\"HIGH\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1));
+    }
+
+    @Test
+    void graphQl_shouldResolveListsAndTasksFromTheLog() throws Exception {
+        var listId = createList("GQL");
+        createTask(listId, "{\"title\":\"open\"}");
+        var closed = createTask(listId, "{\"title\":\"closed\"}");
+        mvc.perform(put("/task-lists/{task_list_id}/tasks/{task_id}", listId, closed)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"" + closed + "\",\"title\":\"closed\",\"priority\":\"MEDIUM\",\"status\":\"CLOSED\"}"))
+                .andExpect(status().isOk());
+
+        graphQl.document("""
+                        query($id: ID!) { taskList(id: $id) { title count progress tasks { title taskList { title } } } }
+                        """)
+                .variable("id", listId)
+                .execute()
+                .path("taskList.title").entity(String.class).isEqualTo("GQL")
+                .path("taskList.count").entity(Integer.class).isEqualTo(2)
+                .path("taskList.progress").entity(Double.class).isEqualTo(0.5)
+                .path("taskList.tasks[*].title").entityList(String.class).containsExactly("open", "closed")
+                .path("taskList.tasks[0].taskList.title").entity(String.class).isEqualTo("GQL");
+    }
+
+    @Test
+    void jpaOnlyRoutes_shouldAnswerNotImplemented() throws Exception {
+        mvc.perform(get("/exports/{export_id}", UUID.randomUUID()))
+                .andExpect(status().isNotImplemented());
+        mvc.perform(post("/exports").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isNotImplemented());
+        mvc.perform(post("/snapshots"))
+                .andExpect(status().isNotImplemented());
+        mvc.perform(post("/snapshots/{name}/restore", "nightly"))
+                .andExpect(status().isNotImplemented())
+                .andExpect(jsonPath("$.message").value("/snapshots/nightly/restore is not available with embedded storage!"));
+    }
+}
@@ -0,0 +1,194 @@
+package com.wongsakron.tasks.logstore;
+
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TaskLogStoreTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    @TempDir
+    Path directory;
+    private TaskLogStore store;
+    private final LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    private TaskLogStore reopen() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+        store = TaskLogStore.open(directory, SEGMENT_SIZE);
+        return store;
+    }
+
+    private TaskListRecord list(String title) {
+        return new TaskListRecord(UUID.randomUUID(), title, "d", now, now, null);
+    }
+
+    private TaskRecord task(UUID taskListId, String title) {
+        return new TaskRecord(UUID.randomUUID(), taskListId, title, "ü", now.plusDays(1), TaskStatus.OPEN, TaskPriority.HIGH,
+                now, now, null, "home,work", "m", null);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    void write_shouldBeReadableRightAway_andAfterReopening() throws IOException {
+        reopen();
+        TaskListRecord list = list("L");
+        TaskRecord task = task(list.id(), "T");
+        store.write(records -> records.addAll(List.of(list, task)));
+        TaskRecord closed = new TaskRecord(task.id(), list.id(), "T", null, null, TaskStatus.CLOSED, TaskPriority.LOW,
+                now, now.plusHours(1), null, null, null, null);
+        store.write(records -> records.add(closed));
+
+        assertThat(store.task(task.id())).contains(closed);
+        reopen();
+
+        assertThat(store.taskList(list.id())).contains(list);
+        assertThat(store.task(task.id())).contains(closed); // The latest version wins
+        assertThat(store.tasksOf(list.id())).containsExactly(closed);
+        assertThat(store.taskCount()).isEqualTo(1);
+    }
+
+    @Test
+    void write_whenChangeThrows_shouldAppendNothing() throws IOException {
+        reopen();
+        TaskListRecord list = list("L");
+
+        assertThatThrownBy(() -> store.write(records -> {
+            records.add(list);
+            throw new IllegalStateException("Invalid");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(store.taskList(list.id())).isEmpty();
+        assertThat(store.logBytes()).isZero();
+    }
+
+    @Test
+    void tasksOf_shouldFollowTasksMovedToAnotherList() throws IOException {
+        reopen();
+        TaskListRecord from = list("from");
+        TaskListRecord to = list("to");
+        TaskRecord task = task(from.id(), "T");
+        store.write(records -> records.addAll(List.of(from, to, task)));
+
+        TaskRecord moved = new TaskRecord(task.id(), to.id(), task.title(), task.description(), task.dueDate(), task.status(),
+                task.priority(), task.created(), task.updated(), null, task.tags(), task.rank(), null);
+        store.write(records -> records.add(moved));
+
+        assertThat(store.tasksOf(from.id())).isEmpty();
+        assertThat(store.tasksOf(to.id())).containsExactly(moved);
+        assertThat(store.tasksOf(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void open_whenLastWriteIsTorn_shouldKeepEveryCompleteWrite() throws IOException {
+        reopen();
+        TaskListRecord kept = list("kept");
+        store.write(records -> records.add(kept));
+        long end = store.logBytes();
+        store.write(records -> records.add(list("torn")));
+        store.close();
+        store = null;
+
+        try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            file.seek(end + 12); // Inside the second frame, as if the process died while writing it
+            file.write(0x5A);
+        }
+        reopen();
+
+        assertThat(store.taskLists()).containsExactly(kept);
+        assertThat(store.logBytes()).isEqualTo(end);
+
+        TaskListRecord next = list("next"); // Appends go where the torn frame started
+        store.write(records -> records.add(next));
+        reopen();
+        assertThat(store.taskLists()).containsExactlyInAnyOrder(kept, next);
+    }
+
+    @Test
+    void open_whenAnOlderSegmentIsDamaged_shouldRefuseToStart() throws IOException {
+        reopen();
+        TaskListRecord list = list("L");
+        store.write(records -> records.add(list));
+        for (int i = 0; i < 200; i++) { // Fills more than one segment
+            store.write(records -> records.add(task(list.id(), "x".repeat(500))));
+        }
+        assertThat(segments()).hasSizeGreaterThan(1);
+        store.close();
+        store = null;
+
+        try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            file.seek(20);
+            file.write(0x5A);
+        }
+
+        assertThatThrownBy(() -> TaskLogStore.open(directory, SEGMENT_SIZE))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("is corrupted");
+    }
+
+    @Test
+    void write_whenLargerThanASegment_shouldThrowIllegalArgument() throws IOException {
+        reopen();
+
+        assertThatThrownBy(() -> store.write(records -> records.add(list("x".repeat(SEGMENT_SIZE)))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void compact_shouldKeepTheLatestVersions_andDropOldTombstones() throws IOException {
+        reopen();
+        TaskListRecord list = list("L");
+        TaskRecord task = task(list.id(), "T");
+        TaskRecord purged = task(list.id(), "deleted long ago").withDeletedAt(now.minusDays(30));
+        TaskRecord recentlyDeleted = task(list.id(), "deleted recently").withDeletedAt(now.minusDays(1));
+        store.write(records -> records.addAll(List.of(list, task, purged, recentlyDeleted)));
+        for (int i = 0; i < 300; i++) {
+            TaskRecord version = new TaskRecord(task.id(), list.id(), "T" + i, "x".repeat(300), null, TaskStatus.OPEN,
+                    TaskPriority.MEDIUM, now, now, null, null, "m", null);
+            store.write(records -> records.add(version));
+        }
+        List<Path> before = segments();
+        assertThat(before).hasSizeGreaterThan(1);
+
+        assertThat(store.compactIfNeeded(2.0, 100, now.minusDays(7))).isTrue();
+
+        assertThat(segments()).hasSize(1).doesNotContainAnyElementsOf(before);
+        assertThat(store.task(task.id())).get().extracting(TaskRecord::title).isEqualTo("T299");
+        assertThat(store.task(purged.id())).isEmpty();
+        assertThat(store.tasksOf(list.id())).hasSize(2);
+        assertThat(store.compactIfNeeded(2.0, 100, now.minusDays(7))).isFalse(); // Nothing superseded any more
+
+        reopen();
+        assertThat(store.task(task.id())).get().extracting(TaskRecord::title).isEqualTo("T299");
+        assertThat(store.task(recentlyDeleted.id())).contains(recentlyDeleted);
+        assertThat(store.task(purged.id())).isEmpty();
+        assertThat(store.taskListCount()).isEqualTo(1);
+    }
+}
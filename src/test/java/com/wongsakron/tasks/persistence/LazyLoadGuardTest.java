@@ -0,0 +1,121 @@
+package com.wongsakron.tasks.persistence;
+
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import com.wongsakron.tasks.repositories.TaskListRepository;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Runs with tasks.jpa.lazy-load-guard=fail from the test properties
+@DataJpaTest
+@Import({LazyLoadGuardConfig.class, SimpleMeterRegistry.class})
+public class LazyLoadGuardTest {
+
+    @Autowired
+    TaskListRepository listRepo;
+    @Autowired
+    TaskRepository taskRepo;
+    @Autowired
+    TestEntityManager em;
+    @Autowired
+    LazyLoadGuard guard;
+
+    UUID listId;
+    UUID taskId;
+
+    @BeforeEach
+    void setUp() {
+        var now = LocalDateTime.now();
+        TaskList list = listRepo.save(new TaskList(null, "L", "D", null, now, now));
+        taskId = taskRepo.save(new Task(null, "A", "a", null, TaskStatus.OPEN, TaskPriority.HIGH, list, now, now)).getId();
+        taskRepo.save(new Task(null, "B", "b", null, TaskStatus.CLOSED, TaskPriority.LOW, list, now, now));
+        listId = list.getId();
+        em.flush();
+        em.clear(); // Later loads start from lazy associations
+    }
+
+    @Test
+    void touchingLazyCollection_shouldFail() {
+        TaskList list = listRepo.findById(listId).orElseThrow();
+        long before = guard.getViolations();
+
+        assertThatThrownBy(() -> list.getTasks().size())
+                .isInstanceOf(LazyLoadViolationException.class)
+                .hasMessageContaining("TaskList.tasks");
+        assertThat(guard.getViolations()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void touchingLazyProxy_shouldFail() {
+        Task task = taskRepo.findById(taskId).orElseThrow();
+
+        assertThat(task.getTaskList().getId()).isEqualTo(listId); // The id is known without loading
+        assertThatThrownBy(() -> task.getTaskList().getTitle())
+                .isInstanceOf(LazyLoadViolationException.class)
+                .hasMessageContaining(TaskList.class.getName());
+    }
+
+    @Test
+    void explicitInitialize_shouldLoad() {
+        TaskList list = listRepo.findById(listId).orElseThrow();
+
+        LazyLoadGuard.initialize(list.getTasks());
+
+        assertThat(list.getTasks()).extracting(Task::getTitle).containsExactlyInAnyOrder("A", "B");
+    }
+
+    @Test
+    void entityGraph_shouldLoadTasksWithTheLists() {
+        TaskList list = listRepo.findAllWithTasks().stream()
+                .filter(l -> l.getId().equals(listId))
+                .findFirst().orElseThrow();
+
+        assertThat(Hibernate.isInitialized(list.getTasks())).isTrue();
+        assertThat(list.getTasks()).hasSize(2);
+    }
+
+    @Test
+    void equalsHashCodeToString_shouldNotLoadAssociations() {
+        // Task first, otherwise its taskList would resolve to the already loaded list instead of a proxy
+        Task task = taskRepo.findById(taskId).orElseThrow();
+        em.clear();
+        TaskList list = listRepo.findById(listId).orElseThrow();
+        em.clear();
+
+        Set<Object> set = new HashSet<>();
+        set.add(list);
+        set.add(task);
+
+        assertThat(list.toString()).doesNotContain("tasks");
+        assertThat(task.toString()).contains("taskListId=" + listId);
+        assertThat(Hibernate.isInitialized(list.getTasks())).isFalse();
+        assertThat(Hibernate.isInitialized(task.getTaskList())).isFalse();
+    }
+
+    @Test
+    void equals_shouldCompareIds() {
+        TaskList loaded = listRepo.findById(listId).orElseThrow();
+        em.clear();
+        TaskList reloaded = listRepo.findById(listId).orElseThrow();
+
+        assertThat(reloaded).isEqualTo(loaded).hasSameHashCodeAs(loaded);
+        assertThat(new TaskList(null, "L", "D", null, null, null))
+                .isNotEqualTo(new TaskList(null, "L", "D", null, null, null)); // Unsaved entities have no identity yet
+    }
+}
@@ -0,0 +1,157 @@
+package com.wongsakron.tasks.reactive;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Same scenarios as the servlet controller tests, against the WebFlux + R2DBC routes.
+// R2DBC and JPA share the in-memory H2 database, Hibernate creates the schema.
+@SpringBootTest(properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.r2dbc.url=r2dbc:h2:mem:///testdb;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=sa"
+})
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+public class ReactiveTaskRoutesITTest {
+
+    @Autowired
+    WebTestClient client;
+
+    // helper create list -> return id
+    private String createList(String title) {
+        JsonNode body = client.post().uri("/task-lists")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", title, "description", "d"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class).returnResult().getResponseBody();
+        return body.get("id").asText();
+    }
+
+    private String createTask(String listId, String title) {
+        JsonNode body = client.post().uri("/task-lists/{task_list_id}/tasks", listId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", title, "priority", "HIGH"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class).returnResult().getResponseBody();
+        return body.get("id").asText();
+    }
+
+    @Test
+    void createAndGetTaskList_shouldReturnSameShapeAsServletStack() {
+        var id = createList("Reactive");
+        createTask(id, "T1");
+
+        client.get().uri("/task-lists/{task_list_id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Reactive")
+                .jsonPath("$.count").isEqualTo(1)
+                .jsonPath("$.progress").isEqualTo(0.0)
+                .jsonPath("$.tasks[0].title").isEqualTo("T1")
+                .jsonPath("$.tasks[0].status").isEqualTo("OPEN")
+                .jsonPath("$.tasks[0].priority").isEqualTo("HIGH");
+    }
+
+    @Test
+    void updateTask_shouldChangeFields() {
+        var listId = createList("U");
+        var taskId = createTask(listId, "Old");
+
+        client.put().uri("/task-lists/{task_list_id}/tasks/{task_id}", listId, taskId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("id", taskId, "title", "New", "priority", "LOW", "status", "CLOSED"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("New")
+                .jsonPath("$.status").isEqualTo("CLOSED");
+
+        client.get().uri("/task-lists/{task_list_id}", listId)
+                .exchange()
+                .expectBody()
+                .jsonPath("$.progress").isEqualTo(1.0);
+    }
+
+    @Test
+    void deleteAndRestoreTask_shouldHideThenBringBack() {
+        var listId = createList("D");
+        var taskId = createTask(listId, "T-del");
+
+        client.delete().uri("/task-lists/{task_list_id}/tasks/{task_id}", listId, taskId)
+                .exchange()
+                .expectStatus().isOk();
+
+        String body = client.get().uri("/task-lists/{task_list_id}/tasks/{task_id}", listId, taskId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+        assertThat(body).isEqualTo("null"); // same as the servlet stack for an empty Optional
+
+        client.post().uri("/task-lists/{task_list_id}/tasks/{task_id}/restore", listId, taskId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("T-del");
+
+        client.post().uri("/task-lists/{task_list_id}/tasks/{task_id}/restore", listId, taskId)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.message").isEqualTo("Deleted task not found!");
+    }
+
+    @Test
+    void deleteTaskList_thenRestore_shouldBringTasksBack() {
+        var listId = createList("LD");
+        createTask(listId, "A");
+
+        client.delete().uri("/task-lists/{task_list_id}", listId).exchange().expectStatus().isOk();
+        client.get().uri("/task-lists/{task_list_id}/tasks", listId)
+                .exchange()
+                .expectBody().jsonPath("$.length()").isEqualTo(0);
+
+        client.post().uri("/task-lists/{task_list_id}/restore", listId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.count").isEqualTo(1);
+    }
+
+    @Test
+    void errors_shouldUseErrorResponseBody() {
+        // blank title -> IllegalArgumentException -> 400
+        client.post().uri("/task-lists")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", " "))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.details").isEqualTo("uri=/task-lists");
+
+        // unknown list -> IllegalStateException -> 404
+        client.post().uri("/task-lists/{task_list_id}/tasks", UUID.randomUUID())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", "T"))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Invalid Task List ID provided!");
+    }
+}
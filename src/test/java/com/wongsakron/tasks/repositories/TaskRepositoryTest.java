@@ -7,9 +7,13 @@ import com.wongsakron.tasks.domain.entities.TaskStatus;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -22,6 +26,9 @@ public class TaskRepositoryTest {
     @Autowired
     TaskListRepository listRepo;
 
+    @Autowired
+    TestEntityManager em;
+
     @Test
     void findTaskByTaskListId_and_findTaskByTaskListIdAndId_shouldWork() {
         TaskList list = new TaskList(
@@ -118,4 +125,83 @@ public class TaskRepositoryTest {
                 .extracting(Task::getTitle)
                 .containsExactly("B");
     }
+
+    @Test
+    void findByIdIn_shouldReturnOnlyExistingTasks() {
+        TaskList list = listRepo.save(new TaskList(null, "L", "D", null, LocalDateTime.now(), LocalDateTime.now()));
+
+        Task t1 = taskRepo.save(new Task(null, "A", "a", LocalDateTime.now(), TaskStatus.OPEN, TaskPriority.MEDIUM, list, LocalDateTime.now(), LocalDateTime.now()));
+        Task t2 = taskRepo.save(new Task(null, "B", "b", LocalDateTime.now(), TaskStatus.OPEN, TaskPriority.LOW, list, LocalDateTime.now(), LocalDateTime.now()));
+
+        List<Task> found = taskRepo.findByIdIn(List.of(t1.getId(), t2.getId(), UUID.randomUUID()));
+
+        assertThat(found).extracting(Task::getTitle).containsExactlyInAnyOrder("A", "B");
+    }
+
+    @Test
+    void bulkUpdateStatusAndPriority_shouldOnlyChangeMatchingTasks_andBumpUpdated() {
+        var old = LocalDateTime.now().minusDays(10).truncatedTo(ChronoUnit.MICROS);
+        TaskList list = listRepo.save(new TaskList(null, "L", "D", null, old, old));
+        TaskList other = listRepo.save(new TaskList(null, "O", "D", null, old, old));
+        Task overdue = taskRepo.save(new Task(null, "overdue", "d", old.plusDays(1), TaskStatus.OPEN, TaskPriority.LOW, list, old, old));
+        Task later = taskRepo.save(new Task(null, "later", "d", old.plusDays(30), TaskStatus.OPEN, TaskPriority.LOW, list, old, old));
+        Task closed = taskRepo.save(new Task(null, "closed", "d", old.plusDays(1), TaskStatus.CLOSED, TaskPriority.LOW, list, old, old));
+        Task elsewhere = taskRepo.save(new Task(null, "elsewhere", "d", old.plusDays(1), TaskStatus.OPEN, TaskPriority.LOW, other, old, old));
+        var now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        int updated = taskRepo.bulkUpdateStatusAndPriority(list.getId(), null, null, old.plusDays(2),
+                TaskStatus.CLOSED, null, now);
+        em.clear(); // Bulk updates bypass the persistence context
+
+        assertThat(updated).isEqualTo(1); // "closed" matches the filter but already has the new status
+        assertThat(taskRepo.findById(overdue.getId())).get()
+                .returns(TaskStatus.CLOSED, Task::getStatus)
+                .returns(TaskPriority.LOW, Task::getPriority)
+                .returns(now, Task::getUpdated);
+        assertThat(taskRepo.findById(later.getId()).get().getStatus()).isEqualTo(TaskStatus.OPEN);
+        assertThat(taskRepo.findById(closed.getId()).get().getUpdated()).isEqualTo(old);
+        assertThat(taskRepo.findById(elsewhere.getId()).get().getStatus()).isEqualTo(TaskStatus.OPEN);
+    }
+
+    @Test
+    void findByTaskListId_shouldOrderByRank_withUnrankedTasksLast() {
+        var now = LocalDateTime.now();
+        TaskList list = listRepo.save(new TaskList(null, "L", "D", null, now, now));
+        ranked(list, "second", "m");
+        ranked(list, "unranked", null);
+        ranked(list, "first", "c");
+        ranked(list, "third", "m5");
+        em.flush();
+        em.clear();
+
+        assertThat(taskRepo.findByTaskListId(list.getId()))
+                .extracting(Task::getTitle)
+                .containsExactly("first", "second", "third", "unranked");
+        assertThat(taskRepo.findMaxRankByTaskListId(list.getId())).contains("m5");
+        assertThat(taskRepo.existsByTaskListIdAndRankIsNull(list.getId())).isTrue();
+        assertThat(taskRepo.findTaskListIdsToRebalance(1, Limit.of(10))).containsExactly(list.getId());
+    }
+
+    @Test
+    void findNextRank_shouldSkipExcludedTask_andStayInList() {
+        var now = LocalDateTime.now();
+        TaskList list = listRepo.save(new TaskList(null, "L", "D", null, now, now));
+        TaskList other = listRepo.save(new TaskList(null, "O", "D", null, now, now));
+        ranked(list, "a", "a");
+        Task b = ranked(list, "b", "b");
+        ranked(list, "c", "c");
+        ranked(other, "elsewhere", "b5");
+        em.flush();
+
+        assertThat(taskRepo.findNextRank(list.getId(), "", b.getId())).contains("a");
+        assertThat(taskRepo.findNextRank(list.getId(), "a", b.getId())).contains("c");
+        assertThat(taskRepo.findNextRank(list.getId(), "c", b.getId())).isEmpty();
+    }
+
+    private Task ranked(TaskList list, String title, String rank) {
+        var now = LocalDateTime.now();
+        Task task = new Task(null, title, "d", null, TaskStatus.OPEN, TaskPriority.MEDIUM, list, now, now);
+        task.setRank(rank);
+        return taskRepo.save(task);
+    }
 }
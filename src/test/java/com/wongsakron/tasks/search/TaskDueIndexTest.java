@@ -0,0 +1,122 @@
+package com.wongsakron.tasks.search;
+
+import com.wongsakron.tasks.domain.TaskDueEntry;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TaskDueIndexTest {
+
+    private final UUID listId = UUID.randomUUID();
+    private final UUID otherListId = UUID.randomUUID();
+    private final LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+    private TaskDueIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskDueIndex();
+        index.rebuild(sink -> { });
+    }
+
+    private TaskDueEntry put(UUID taskListId, TaskStatus status, TaskPriority priority, LocalDateTime dueDate) {
+        TaskDueEntry entry = new TaskDueEntry(UUID.randomUUID(), taskListId, "t", status, priority, dueDate);
+        index.put(entry);
+        return entry;
+    }
+
+    private static List<UUID> ids(List<TaskDueEntry> entries) {
+        return entries.stream().map(TaskDueEntry::taskId).toList();
+    }
+
+    @Test
+    void nextDue_shouldOrderByDueDateThenPriority_fromNowOn() {
+        TaskDueEntry tomorrowLow = put(listId, TaskStatus.OPEN, TaskPriority.LOW, now.plusDays(1));
+        TaskDueEntry tomorrowHigh = put(listId, TaskStatus.OPEN, TaskPriority.HIGH, now.plusDays(1));
+        TaskDueEntry dueNow = put(listId, TaskStatus.OPEN, TaskPriority.MEDIUM, now);
+        TaskDueEntry nextWeek = put(listId, TaskStatus.OPEN, TaskPriority.HIGH, now.plusDays(7));
+        put(listId, TaskStatus.OPEN, TaskPriority.HIGH, now.minusMinutes(1));
+
+        assertThat(ids(index.nextDue(listId, now, 10)))
+                .containsExactly(dueNow.taskId(), tomorrowHigh.taskId(), tomorrowLow.taskId(), nextWeek.taskId());
+        assertThat(ids(index.nextDue(listId, now, 2))).containsExactly(dueNow.taskId(), tomorrowHigh.taskId());
+    }
+
+    @Test
+    void overdue_shouldReturnLongestOverdueFirst_perListOrAcrossLists() {
+        TaskDueEntry lastWeek = put(listId, TaskStatus.OPEN, TaskPriority.LOW, now.minusDays(7));
+        TaskDueEntry yesterday = put(otherListId, TaskStatus.OPEN, TaskPriority.LOW, now.minusDays(1));
+        put(listId, TaskStatus.OPEN, TaskPriority.LOW, now);
+
+        assertThat(ids(index.overdue(listId, now, 10))).containsExactly(lastWeek.taskId());
+        assertThat(ids(index.overdue(null, now, 10))).containsExactly(lastWeek.taskId(), yesterday.taskId());
+        assertThat(index.overdue(UUID.randomUUID(), now, 10)).isEmpty();
+    }
+
+    @Test
+    void put_shouldOnlyTrackOpenTasksWithDueDate_andMoveChangedTasks() {
+        put(listId, TaskStatus.CLOSED, TaskPriority.HIGH, now.plusDays(1));
+        put(listId, TaskStatus.OPEN, TaskPriority.HIGH, null);
+        TaskDueEntry task = put(listId, TaskStatus.OPEN, TaskPriority.LOW, now.plusDays(2));
+        assertThat(index.size()).isEqualTo(1);
+
+        index.put(new TaskDueEntry(task.taskId(), otherListId, "moved", TaskStatus.OPEN, TaskPriority.LOW, now.minusDays(2)));
+        assertThat(index.nextDue(null, now, 10)).isEmpty();
+        assertThat(index.overdue(otherListId, now, 10)).extracting(TaskDueEntry::title).containsExactly("moved");
+        assertThat(index.overdue(listId, now, 10)).isEmpty();
+
+        index.put(new TaskDueEntry(task.taskId(), otherListId, "moved", TaskStatus.CLOSED, TaskPriority.LOW, now.minusDays(2)));
+        assertThat(index.size()).isZero(); // Closing a task drops it
+    }
+
+    @Test
+    void removeAndReplaceList_shouldDropTheTasksOfTheList() {
+        TaskDueEntry removed = put(listId, TaskStatus.OPEN, TaskPriority.LOW, now.plusDays(1));
+        TaskDueEntry kept = put(listId, TaskStatus.OPEN, TaskPriority.LOW, now.plusDays(2));
+        TaskDueEntry other = put(otherListId, TaskStatus.OPEN, TaskPriority.LOW, now.plusDays(3));
+
+        index.remove(removed.taskId());
+        assertThat(ids(index.nextDue(null, now, 10))).containsExactly(kept.taskId(), other.taskId());
+
+        index.replaceList(listId, List.of(removed));
+        assertThat(ids(index.nextDue(listId, now, 10))).containsExactly(removed.taskId());
+
+        index.removeList(listId);
+        assertThat(ids(index.nextDue(null, now, 10))).containsExactly(other.taskId());
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuild_shouldSwapInTheLoadedEntries_andReplayWritesMadeMeanwhile() {
+        TaskDueIndex fresh = new TaskDueIndex();
+        assertThat(fresh.isReady()).isFalse();
+        TaskDueEntry loaded = new TaskDueEntry(UUID.randomUUID(), listId, "a", TaskStatus.OPEN, TaskPriority.LOW, now.plusDays(1));
+        TaskDueEntry writtenDuringRebuild = new TaskDueEntry(UUID.randomUUID(), listId, "b", TaskStatus.OPEN, TaskPriority.LOW, now.plusDays(2));
+
+        int size = fresh.rebuild(sink -> {
+            sink.accept(loaded);
+            fresh.put(writtenDuringRebuild);
+        });
+
+        assertThat(fresh.isReady()).isTrue();
+        assertThat(size).isEqualTo(2);
+        assertThat(fresh.nextDue(listId, now, 10)).containsExactly(loaded, writtenDuringRebuild);
+    }
+
+    @Test
+    void rebuild_whenLoaderFails_shouldKeepTheOldIndex() {
+        TaskDueEntry entry = put(listId, TaskStatus.OPEN, TaskPriority.LOW, now.plusDays(1));
+
+        assertThatThrownBy(() -> index.rebuild(sink -> {
+            throw new IllegalStateException("DB down");
+        })).hasMessageContaining("DB down");
+
+        assertThat(index.nextDue(listId, now, 10)).containsExactly(entry);
+    }
+}
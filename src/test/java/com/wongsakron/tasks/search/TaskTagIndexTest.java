@@ -0,0 +1,157 @@
+package com.wongsakron.tasks.search;
+
+import com.wongsakron.tasks.domain.TaskIndexEntry;
+import com.wongsakron.tasks.domain.TaskTagQuery;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TaskTagIndexTest {
+
+    private final UUID listId = UUID.randomUUID();
+    private final UUID otherListId = UUID.randomUUID();
+    private TaskTagIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskTagIndex();
+        index.rebuild(sink -> { });
+    }
+
+    private UUID put(UUID taskListId, TaskStatus status, TaskPriority priority, String tags) {
+        UUID id = UUID.randomUUID();
+        index.put(new TaskIndexEntry(id, taskListId, status, priority, tags));
+        return id;
+    }
+
+    private static TaskTagQuery query(Set<String> allOf, Set<String> anyOf, Set<String> noneOf) {
+        return new TaskTagQuery(allOf, anyOf, noneOf, null, null);
+    }
+
+    @Test
+    void query_shouldCombineAllAnyAndNoneOf() {
+        UUID workUrgent = put(listId, TaskStatus.OPEN, TaskPriority.HIGH, "urgent,work");
+        UUID workHome = put(listId, TaskStatus.OPEN, TaskPriority.LOW, "home,work");
+        UUID home = put(listId, TaskStatus.CLOSED, TaskPriority.LOW, "home");
+        put(listId, TaskStatus.OPEN, TaskPriority.LOW, null);
+
+        assertThat(index.query(listId, query(Set.of("work"), Set.of(), Set.of()), 10))
+                .containsExactlyInAnyOrder(workUrgent, workHome);
+        assertThat(index.query(listId, query(Set.of("work"), Set.of(), Set.of("home")), 10))
+                .containsExactly(workUrgent);
+        assertThat(index.query(listId, query(Set.of(), Set.of("urgent", "home"), Set.of()), 10))
+                .containsExactlyInAnyOrder(workUrgent, workHome, home);
+        assertThat(index.query(listId, new TaskTagQuery(Set.of("home"), Set.of(), Set.of(), TaskStatus.OPEN, TaskPriority.LOW), 10))
+                .containsExactly(workHome);
+        assertThat(index.query(listId, query(Set.of("unknown"), Set.of(), Set.of()), 10)).isEmpty();
+    }
+
+    @Test
+    void query_shouldOnlyReturnTasksOfTheList_upToLimit() {
+        put(otherListId, TaskStatus.OPEN, TaskPriority.LOW, "work");
+        for (int i = 0; i < 5; i++) {
+            put(listId, TaskStatus.OPEN, TaskPriority.LOW, "work");
+        }
+
+        assertThat(index.query(listId, query(Set.of("work"), Set.of(), Set.of()), 3)).hasSize(3);
+        assertThat(index.query(otherListId, query(Set.of("work"), Set.of(), Set.of()), 10)).hasSize(1);
+        assertThat(index.query(UUID.randomUUID(), query(Set.of(), Set.of(), Set.of()), 10)).isEmpty();
+    }
+
+    @Test
+    void put_existingTask_shouldReplaceItsBits() {
+        UUID id = put(listId, TaskStatus.OPEN, TaskPriority.LOW, "work");
+        index.put(new TaskIndexEntry(id, listId, TaskStatus.CLOSED, TaskPriority.LOW, "home"));
+
+        assertThat(index.query(listId, query(Set.of("work"), Set.of(), Set.of()), 10)).isEmpty();
+        assertThat(index.query(listId, new TaskTagQuery(Set.of("home"), Set.of(), Set.of(), TaskStatus.CLOSED, null), 10))
+                .containsExactly(id);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.tagCount()).isEqualTo(1); // Empty tag bitmaps are dropped
+    }
+
+    @Test
+    void removeAndReplaceList_shouldDropTheTasksOfTheList() {
+        UUID removed = put(listId, TaskStatus.OPEN, TaskPriority.LOW, "work");
+        put(listId, TaskStatus.OPEN, TaskPriority.LOW, "work");
+        UUID other = put(otherListId, TaskStatus.OPEN, TaskPriority.LOW, "work");
+
+        index.remove(removed);
+        assertThat(index.query(listId, query(Set.of("work"), Set.of(), Set.of()), 10)).hasSize(1).doesNotContain(removed);
+
+        UUID kept = UUID.randomUUID();
+        index.replaceList(listId, List.of(new TaskIndexEntry(kept, listId, TaskStatus.OPEN, TaskPriority.LOW, "home")));
+        assertThat(index.query(listId, query(Set.of(), Set.of(), Set.of()), 10)).containsExactly(kept);
+
+        index.removeList(listId);
+        assertThat(index.query(listId, query(Set.of(), Set.of(), Set.of()), 10)).isEmpty();
+        assertThat(index.query(otherListId, query(Set.of("work"), Set.of(), Set.of()), 10)).containsExactly(other);
+    }
+
+    @Test
+    void rebuild_shouldSwapInTheLoadedEntries_andReplayWritesMadeMeanwhile() {
+        TaskTagIndex fresh = new TaskTagIndex();
+        assertThat(fresh.isReady()).isFalse();
+        UUID loaded = UUID.randomUUID();
+        UUID writtenDuringRebuild = UUID.randomUUID();
+
+        int size = fresh.rebuild(sink -> {
+            sink.accept(new TaskIndexEntry(loaded, listId, TaskStatus.OPEN, TaskPriority.LOW, "work"));
+            fresh.put(new TaskIndexEntry(writtenDuringRebuild, listId, TaskStatus.OPEN, TaskPriority.LOW, "work"));
+        });
+
+        assertThat(fresh.isReady()).isTrue();
+        assertThat(size).isEqualTo(2);
+        assertThat(fresh.query(listId, query(Set.of("work"), Set.of(), Set.of()), 10))
+                .containsExactlyInAnyOrder(loaded, writtenDuringRebuild);
+    }
+
+    @Test
+    void rebuild_whenLoaderFails_shouldKeepTheOldIndex() {
+        UUID id = put(listId, TaskStatus.OPEN, TaskPriority.LOW, "work");
+
+        assertThatThrownBy(() -> index.rebuild(sink -> {
+            throw new IllegalStateException("DB down");
+        })).hasMessageContaining("DB down");
+
+        assertThat(index.query(listId, query(Set.of("work"), Set.of(), Set.of()), 10)).containsExactly(id);
+    }
+
+    @Test
+    void query_shouldMatchTheSameTasksAsFilteringEachTask() {
+        Random random = new Random(7);
+        String[] tags = {"a", "b", "c", "d", "e"};
+        List<TaskIndexEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            StringBuilder taskTags = new StringBuilder();
+            for (String tag : tags) {
+                if (random.nextInt(3) == 0) {
+                    taskTags.append(taskTags.isEmpty() ? "" : ",").append(tag);
+                }
+            }
+            TaskIndexEntry entry = new TaskIndexEntry(UUID.randomUUID(), listId,
+                    TaskStatus.values()[random.nextInt(TaskStatus.values().length)],
+                    TaskPriority.values()[random.nextInt(TaskPriority.values().length)],
+                    taskTags.isEmpty() ? null : taskTags.toString());
+            entries.add(entry);
+            index.put(entry);
+        }
+
+        TaskTagQuery query = new TaskTagQuery(Set.of("a"), Set.of("b", "c"), Set.of("d"), TaskStatus.OPEN, null);
+        List<UUID> expected = entries.stream()
+                .filter(entry -> query.matches(entry.status(), entry.priority(), entry.tagSet()))
+                .map(TaskIndexEntry::taskId)
+                .toList();
+
+        assertThat(index.query(listId, query, entries.size())).containsExactlyInAnyOrderElementsOf(expected);
+    }
+}
@@ -0,0 +1,118 @@
+package com.wongsakron.tasks.services;
+
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import com.wongsakron.tasks.mappers.impl.TaskListMapperImpl;
+import com.wongsakron.tasks.mappers.impl.TaskMapperImpl;
+import com.wongsakron.tasks.repositories.ArchivedTaskRepository;
+import com.wongsakron.tasks.repositories.TaskListRepository;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.services.impl.TaskArchiveServiceImpl;
+import com.wongsakron.tasks.services.impl.TaskRollupServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Import({TaskArchiveServiceImpl.class, TaskRollupServiceImpl.class})
+public class TaskArchiveServiceImplTest {
+
+    @Autowired
+    TaskArchiveService archiveService;
+    @Autowired
+    TaskRepository taskRepo;
+    @Autowired
+    TaskListRepository listRepo;
+    @Autowired
+    ArchivedTaskRepository archivedRepo;
+    @Autowired
+    TestEntityManager em;
+
+    private Task task(TaskList list, String title, TaskStatus status, LocalDateTime updated) {
+        return taskRepo.save(new Task(null, title, "d", null, status, TaskPriority.MEDIUM, list, updated, updated));
+    }
+
+    @Test
+    void archiveClosedTasks_shouldMoveOnlyOldClosedTasks_andKeepCountAndProgress() {
+        var now = LocalDateTime.now();
+        TaskList list = listRepo.save(new TaskList(null, "L", "D", null, now, now));
+        task(list, "old-closed-1", TaskStatus.CLOSED, now.minusDays(40));
+        task(list, "old-closed-2", TaskStatus.CLOSED, now.minusDays(35));
+        task(list, "recent-closed", TaskStatus.CLOSED, now);
+        task(list, "old-open", TaskStatus.OPEN, now.minusDays(40));
+        em.flush();
+        em.clear();
+
+        int moved = archiveService.archiveClosedTasks(now.minusDays(30), 10);
+        em.clear();
+
+        assertThat(moved).isEqualTo(2);
+        assertThat(taskRepo.findByTaskListId(list.getId()))
+                .extracting(Task::getTitle)
+                .containsExactlyInAnyOrder("recent-closed", "old-open");
+        assertThat(archivedRepo.findByTaskListId(list.getId())).hasSize(2);
+
+        // count and progress still include the archived tasks: 4 tasks, 3 closed
+        TaskList reloaded = listRepo.findById(list.getId()).orElseThrow();
+        assertThat(reloaded.getArchivedTaskCount()).isEqualTo(2);
+        var dto = new TaskListMapperImpl(new TaskMapperImpl()).toDto(reloaded);
+        assertThat(dto.count()).isEqualTo(4);
+        assertThat(dto.progress()).isEqualTo(0.75);
+    }
+
+    @Test
+    void updateOfAListLoadedBeforeAnArchiveRun_shouldKeepTheArchivedCount() {
+        var now = LocalDateTime.now();
+        TaskList list = listRepo.save(new TaskList(null, "L", "D", null, now, now));
+        task(list, "old-closed-1", TaskStatus.CLOSED, now.minusDays(40));
+        task(list, "old-closed-2", TaskStatus.CLOSED, now.minusDays(40));
+        em.flush();
+        em.clear();
+
+        // A title update read the list (archivedTaskCount 0), the archiver commits before the update is flushed
+        TaskList loaded = listRepo.findById(list.getId()).orElseThrow();
+        assertThat(archiveService.archiveClosedTasks(now.minusDays(30), 10)).isEqualTo(2);
+        loaded.setTitle("Renamed");
+        listRepo.save(loaded);
+        em.flush();
+        em.clear();
+
+        TaskList reloaded = listRepo.findById(list.getId()).orElseThrow();
+        assertThat(reloaded.getTitle()).isEqualTo("Renamed");
+        assertThat(reloaded.getArchivedTaskCount()).isEqualTo(2);
+    }
+
+    @Test
+    void archiveClosedTasks_shouldRespectBatchSize_andResumeOnNextCall() {
+        var now = LocalDateTime.now();
+        TaskList list = listRepo.save(new TaskList(null, "L", "D", null, now, now));
+        for (int i = 0; i < 5; i++) {
+            task(list, "closed-" + i, TaskStatus.CLOSED, now.minusDays(60 - i));
+        }
+        em.flush();
+        em.clear();
+
+        assertThat(archiveService.archiveClosedTasks(now.minusDays(30), 2)).isEqualTo(2);
+        assertThat(archiveService.archiveClosedTasks(now.minusDays(30), 2)).isEqualTo(2);
+        assertThat(archiveService.archiveClosedTasks(now.minusDays(30), 2)).isEqualTo(1);
+        assertThat(archiveService.archiveClosedTasks(now.minusDays(30), 2)).isZero();
+        em.clear();
+
+        assertThat(taskRepo.findByTaskListId(list.getId())).isEmpty();
+        assertThat(listRepo.findById(list.getId()).orElseThrow().getArchivedTaskCount()).isEqualTo(5);
+    }
+
+    @Test
+    void archiveClosedTasks_whenBatchSizeInvalid_shouldThrow() {
+        assertThatThrownBy(() -> archiveService.archiveClosedTasks(LocalDateTime.now(), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,91 @@
+package com.wongsakron.tasks.services;
+
+import com.wongsakron.tasks.domain.TaskDueEntry;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import com.wongsakron.tasks.repositories.TaskListRepository;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.search.TaskDueIndex;
+import com.wongsakron.tasks.services.impl.TaskDueServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Import({TaskDueServiceImpl.class, TaskDueIndex.class})
+public class TaskDueServiceImplTest {
+
+    @Autowired
+    TaskDueService dueService;
+    @Autowired
+    TaskRepository taskRepo;
+    @Autowired
+    TaskListRepository listRepo;
+    @Autowired
+    TestEntityManager em;
+
+    private TaskList list;
+
+    @BeforeEach
+    void setUp() {
+        var now = LocalDateTime.now();
+        list = listRepo.save(new TaskList(null, "L", "D", null, now, now));
+        newTask("late", TaskStatus.OPEN, TaskPriority.LOW, now.minusDays(2));
+        newTask("later", TaskStatus.OPEN, TaskPriority.LOW, now.plusDays(2));
+        newTask("soon", TaskStatus.OPEN, TaskPriority.LOW, now.plusDays(1));
+        newTask("soon but important", TaskStatus.OPEN, TaskPriority.HIGH, now.plusDays(1));
+        newTask("closed", TaskStatus.CLOSED, TaskPriority.HIGH, now.plusHours(1));
+        newTask("undated", TaskStatus.OPEN, TaskPriority.HIGH, null);
+        em.flush();
+        em.clear();
+    }
+
+    private void newTask(String title, TaskStatus status, TaskPriority priority, LocalDateTime dueDate) {
+        var now = LocalDateTime.now();
+        taskRepo.save(new Task(null, title, "d", dueDate, status, priority, list, now, now));
+    }
+
+    @Test
+    void getNextDueAndOverdue_shouldAnswerFromTheIndex_inDueDateThenPriorityOrder() {
+        assertThat(dueService.rebuildIndex()).isEqualTo(4); // OPEN tasks with a due date only
+
+        assertThat(dueService.getNextDue(list.getId(), 10))
+                .extracting(TaskDueEntry::title)
+                .containsExactly("soon but important", "soon", "later");
+        assertThat(dueService.getNextDue(list.getId(), 1)).extracting(TaskDueEntry::title).containsExactly("soon but important");
+        assertThat(dueService.getOverdue(list.getId(), 10)).extracting(TaskDueEntry::title).containsExactly("late");
+        assertThat(dueService.getOverdue(null, 100)).extracting(TaskDueEntry::title).contains("late");
+    }
+
+    @Test
+    void getNextDueAndOverdue_beforeTheIndexIsBuilt_shouldGiveTheSameAnswersFromTheDatabase() {
+        var notBuilt = new TaskDueServiceImpl(taskRepo, listRepo, new TaskDueIndex()); // The shared index may be built by another test
+
+        assertThat(notBuilt.getNextDue(list.getId(), 10))
+                .extracting(TaskDueEntry::title)
+                .containsExactly("soon but important", "soon", "later");
+        assertThat(notBuilt.getOverdue(list.getId(), 10)).extracting(TaskDueEntry::title).containsExactly("late");
+    }
+
+    @Test
+    void getNextDue_whenLimitOutOfRange_shouldThrowIllegalArgument() {
+        assertThatThrownBy(() -> dueService.getNextDue(list.getId(), 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> dueService.getOverdue(null, TaskDueServiceImpl.MAX_LIMIT + 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getNextDue_whenListMissing_shouldThrowIllegalState() {
+        assertThatThrownBy(() -> dueService.getNextDue(UUID.randomUUID(), 10))
+                .isInstanceOf(IllegalStateException.class).hasMessageContaining("Task list not found");
+    }
+}
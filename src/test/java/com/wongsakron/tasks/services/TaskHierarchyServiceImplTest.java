@@ -0,0 +1,190 @@
+package com.wongsakron.tasks.services;
+
+import com.wongsakron.tasks.domain.TaskCounts;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import com.wongsakron.tasks.repositories.TaskClosureRepository;
+import com.wongsakron.tasks.repositories.TaskListRepository;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.search.TaskDueIndex;
+import com.wongsakron.tasks.search.TaskTagIndex;
+import com.wongsakron.tasks.services.impl.TaskArchiveServiceImpl;
+import com.wongsakron.tasks.services.impl.TaskHierarchyServiceImpl;
+import com.wongsakron.tasks.services.impl.TaskRollupServiceImpl;
+import com.wongsakron.tasks.services.impl.TaskServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Import({TaskHierarchyServiceImpl.class, TaskServiceImpl.class, TaskArchiveServiceImpl.class, TaskRollupServiceImpl.class, TaskTagIndex.class, TaskDueIndex.class})
+public class TaskHierarchyServiceImplTest {
+
+    @Autowired
+    TaskHierarchyService hierarchyService;
+    @Autowired
+    TaskService taskService;
+    @Autowired
+    TaskArchiveService archiveService;
+    @Autowired
+    TaskRepository taskRepo;
+    @Autowired
+    TaskListRepository listRepo;
+    @Autowired
+    TaskClosureRepository closureRepo;
+    @Autowired
+    TestEntityManager em;
+
+    private UUID listId;
+
+    @BeforeEach
+    void setUp() {
+        var now = LocalDateTime.now();
+        listId = listRepo.save(new TaskList(null, "L", "D", null, now, now)).getId();
+    }
+
+    private UUID create(String title, UUID parentId) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setParentId(parentId);
+        UUID id = taskService.createTask(listId, task).getId();
+        em.flush();
+        return id;
+    }
+
+    private void close(UUID taskId) {
+        Task task = taskRepo.findById(taskId).orElseThrow();
+        task.setStatus(TaskStatus.CLOSED);
+        em.flush();
+    }
+
+    @Test
+    void getSubtree_shouldReturnRootThenDescendantsByDepth() {
+        UUID epic = create("epic", null);
+        UUID story = create("story", epic);
+        UUID other = create("other", epic);
+        create("sub", story);
+        create("unrelated", null);
+        em.clear();
+
+        assertThat(hierarchyService.getSubtree(listId, epic))
+                .extracting(Task::getTitle)
+                .containsExactly("epic", "story", "other", "sub");
+        assertThat(hierarchyService.getSubtree(listId, other))
+                .extracting(Task::getTitle)
+                .containsExactly("other");
+        assertThat(closureRepo.count()).isEqualTo(4); // epic-story, epic-other, story-sub, epic-sub
+    }
+
+    @Test
+    void countSubtree_shouldRollUpAllLevels() {
+        UUID epic = create("epic", null);
+        UUID story = create("story", epic);
+        UUID sub = create("sub", story);
+        create("sub2", story);
+        close(sub);
+        em.clear();
+
+        assertThat(hierarchyService.countSubtree(listId, epic)).isEqualTo(new TaskCounts(4, 1));
+        assertThat(hierarchyService.countSubtree(listId, story)).isEqualTo(new TaskCounts(3, 1));
+        assertThat(hierarchyService.countSubtree(listId, sub).progress()).isEqualTo(1.0);
+        assertThatThrownBy(() -> hierarchyService.countSubtree(listId, UUID.randomUUID()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void moveSubtree_shouldRelinkWholeSubtree() {
+        UUID epicA = create("epicA", null);
+        UUID epicB = create("epicB", null);
+        UUID story = create("story", epicA);
+        create("sub", story);
+        em.clear();
+
+        Task moved = hierarchyService.moveSubtree(listId, story, epicB);
+        em.flush();
+        em.clear();
+
+        assertThat(moved.getParentId()).isEqualTo(epicB);
+        assertThat(hierarchyService.getSubtree(listId, epicA)).extracting(Task::getTitle).containsExactly("epicA");
+        assertThat(hierarchyService.getSubtree(listId, epicB)).extracting(Task::getTitle).containsExactly("epicB", "story", "sub");
+
+        hierarchyService.moveSubtree(listId, story, null); // Back to the top level
+        em.flush();
+        em.clear();
+
+        assertThat(hierarchyService.getSubtree(listId, epicB)).extracting(Task::getTitle).containsExactly("epicB");
+        assertThat(hierarchyService.getSubtree(listId, story)).extracting(Task::getTitle).containsExactly("story", "sub");
+        assertThat(closureRepo.count()).isEqualTo(1); // story-sub
+    }
+
+    @Test
+    void moveSubtree_belowOwnSubTask_shouldThrow() {
+        UUID epic = create("epic", null);
+        UUID story = create("story", epic);
+        UUID sub = create("sub", story);
+
+        assertThatThrownBy(() -> hierarchyService.moveSubtree(listId, epic, sub))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> hierarchyService.moveSubtree(listId, epic, epic))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> hierarchyService.moveSubtree(listId, epic, UUID.randomUUID()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void deleteTask_shouldDeleteSubtree_andRestoreBringsItBack() {
+        UUID epic = create("epic", null);
+        UUID story = create("story", epic);
+        create("sub", story);
+        create("unrelated", null);
+        em.clear();
+
+        taskService.deleteTask(listId, story);
+        em.clear();
+
+        assertThat(taskService.listTasks(listId)).extracting(Task::getTitle).containsExactly("epic", "unrelated");
+
+        taskService.restoreTask(listId, story);
+        em.clear();
+
+        assertThat(hierarchyService.getSubtree(listId, epic)).extracting(Task::getTitle).containsExactly("epic", "story", "sub");
+    }
+
+    @Test
+    void restoreTask_underDeletedParent_shouldThrow() {
+        UUID epic = create("epic", null);
+        UUID story = create("story", epic);
+        em.clear();
+
+        taskService.deleteTask(listId, epic);
+        em.clear();
+
+        assertThatThrownBy(() -> taskService.restoreTask(listId, story))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void archiveClosedTasks_shouldSkipTasksOfAHierarchy() {
+        UUID epic = create("epic", null);
+        UUID story = create("story", epic);
+        UUID single = create("single", null);
+        close(epic);
+        close(story);
+        close(single);
+        em.clear();
+
+        assertThat(archiveService.archiveClosedTasks(LocalDateTime.now().plusDays(1), 10)).isEqualTo(1);
+        em.clear();
+
+        assertThat(taskService.listTasks(listId)).extracting(Task::getTitle).containsExactly("epic", "story");
+    }
+}
@@ -2,6 +2,9 @@ package com.wongsakron.tasks.services;
 
 import com.wongsakron.tasks.domain.entities.TaskList;
 import com.wongsakron.tasks.repositories.TaskListRepository;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.search.TaskDueIndex;
+import com.wongsakron.tasks.search.TaskTagIndex;
 import com.wongsakron.tasks.services.impl.TaskListServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,6 +27,18 @@ public class TaskListServiceImplTest {
     @Mock
     TaskListRepository listRepo;
 
+    @Mock
+    TaskRepository taskRepo;
+
+    @Mock
+    TaskTagIndex tagIndex;
+
+    @Mock
+    TaskRollupService rollups;
+
+    @Mock
+    TaskDueIndex dueIndex;
+
     @InjectMocks
     TaskListServiceImpl svc;
 
@@ -119,7 +134,8 @@ public class TaskListServiceImplTest {
 
         assertThat(saved.getTitle()).isEqualTo("My list");
 
-        verifyNoMoreInteractions(listRepo);
+        verify(rollups).initTaskList(saved.getId()); // Zero counters for the dashboard
+        verifyNoMoreInteractions(listRepo, rollups);
     }
 
     // getTaskList
@@ -151,6 +167,33 @@ public class TaskListServiceImplTest {
         verifyNoMoreInteractions(listRepo);
     }
 
+    @Test
+    void getTaskListWithTasks_found_shouldReturnListWithTasks() {
+        UUID id = UUID.randomUUID();
+
+        when(listRepo.findById(id)).thenReturn(Optional.of(sample));
+
+        var opt = svc.getTaskListWithTasks(id);
+
+        assertThat(opt).containsSame(sample);
+        assertThat(opt.get().getTasks()).isNotNull();
+
+        verify(listRepo).findById(id);
+        verifyNoMoreInteractions(listRepo);
+    }
+
+    @Test
+    void listTaskListsWithTasks_shouldUseEntityGraphQuery() {
+        when(listRepo.findAllWithTasks()).thenReturn(List.of(sample));
+
+        var result = svc.listTaskListsWithTasks();
+
+        assertThat(result).containsExactly(sample);
+
+        verify(listRepo).findAllWithTasks();
+        verifyNoMoreInteractions(listRepo);
+    }
+
     // updateTaskList
     @Test
     void updateTaskList_whenBodyIdNull_shouldThrow() {
@@ -257,10 +300,11 @@ public class TaskListServiceImplTest {
 
         verify(listRepo,never()).deleteById(id);
         verifyNoMoreInteractions(listRepo);
+        verifyNoInteractions(taskRepo, rollups);
     }
 
     @Test
-    void deleteTaskList_shouldCallDeleteByIdOnce() {
+    void deleteTaskList_shouldSoftDeleteListAndTasksWithSameTimestamp() {
         UUID id = UUID.randomUUID();
 
         when(listRepo.findById(id)).thenReturn(Optional.of(sample));
@@ -268,8 +312,51 @@ public class TaskListServiceImplTest {
         // act
         svc.deleteTaskList(id);
 
-        verify(listRepo).deleteById(id);
-        verifyNoMoreInteractions(listRepo);
+        var taskDeletedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        var listDeletedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(listRepo).findById(id);
+        verify(taskRepo).softDeleteByTaskListId(eq(id), taskDeletedAt.capture());
+        verify(listRepo).softDeleteById(eq(id), listDeletedAt.capture());
+        assertThat(taskDeletedAt.getValue()).isEqualTo(listDeletedAt.getValue()); // restore relies on the shared timestamp
+        verify(listRepo, never()).deleteById(any());
+        verify(tagIndex).removeList(id);
+        verify(dueIndex).removeList(id);
+        verify(rollups).recountTaskList(id);
+        verifyNoMoreInteractions(listRepo, taskRepo, tagIndex, rollups, dueIndex);
+    }
+
+    @Test
+    void restoreTaskList_shouldRestoreListAndTasksDeletedWithIt() {
+        UUID id = UUID.randomUUID();
+        LocalDateTime deletedAt = LocalDateTime.now().minusHours(1);
+
+        when(listRepo.findDeletedAtById(id)).thenReturn(Optional.of(deletedAt));
+        when(listRepo.findById(id)).thenReturn(Optional.of(sample));
+
+        assertThat(svc.restoreTaskList(id)).isSameAs(sample);
+
+        verify(listRepo).findDeletedAtById(id);
+        verify(listRepo).restoreById(id);
+        verify(taskRepo).restoreByTaskListIdDeletedAt(id, deletedAt);
+        verify(taskRepo).findIndexEntriesByTaskListId(id);
+        verify(tagIndex).replaceList(id, List.of());
+        verify(taskRepo).findDueEntriesByTaskListId(id);
+        verify(dueIndex).replaceList(id, List.of());
+        verify(rollups).recountTaskList(id);
+        verify(listRepo).findById(id);
+        verifyNoMoreInteractions(listRepo, taskRepo, tagIndex, rollups, dueIndex);
+    }
+
+    @Test
+    void restoreTaskList_whenNotDeleted_shouldThrowIllegalState() {
+        UUID id = UUID.randomUUID();
+        when(listRepo.findDeletedAtById(id)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> svc.restoreTaskList(id))
+                .isInstanceOf(IllegalStateException.class).hasMessageContaining("Deleted task list not found");
+
+        verify(listRepo, never()).restoreById(any());
+        verifyNoInteractions(taskRepo);
     }
 
 
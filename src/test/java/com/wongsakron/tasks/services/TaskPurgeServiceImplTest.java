@@ -0,0 +1,117 @@
+package com.wongsakron.tasks.services;
+
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import com.wongsakron.tasks.repositories.TaskListRepository;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.search.TaskDueIndex;
+import com.wongsakron.tasks.search.TaskTagIndex;
+import com.wongsakron.tasks.services.impl.TaskListServiceImpl;
+import com.wongsakron.tasks.services.impl.TaskPurgeServiceImpl;
+import com.wongsakron.tasks.services.impl.TaskRollupServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Import({TaskPurgeServiceImpl.class, TaskListServiceImpl.class, TaskRollupServiceImpl.class, TaskTagIndex.class, TaskDueIndex.class})
+public class TaskPurgeServiceImplTest {
+
+    @Autowired
+    TaskPurgeService purgeService;
+    @Autowired
+    TaskListService taskListService;
+    @Autowired
+    TaskRepository taskRepo;
+    @Autowired
+    TaskListRepository listRepo;
+    @Autowired
+    TestEntityManager em;
+
+    private TaskList listWithTasks(String title, int taskCount) {
+        var now = LocalDateTime.now();
+        TaskList list = listRepo.save(new TaskList(null, title, "D", null, now, now));
+        for (int i = 0; i < taskCount; i++) {
+            taskRepo.save(new Task(null, title + "-" + i, "d", null, TaskStatus.OPEN, TaskPriority.MEDIUM, list, now, now));
+        }
+        em.flush();
+        em.clear();
+        return list;
+    }
+
+    private long rows(String table) {
+        return ((Number) em.getEntityManager()
+                .createNativeQuery("select count(*) from " + table)
+                .getSingleResult()).longValue();
+    }
+
+    @Test
+    void deleteTaskList_shouldHideListAndTasks_butKeepRows() {
+        var list = listWithTasks("Soft", 2);
+
+        taskListService.deleteTaskList(list.getId());
+        em.clear();
+
+        assertThat(listRepo.findById(list.getId())).isEmpty();
+        assertThat(taskRepo.findByTaskListId(list.getId())).isEmpty();
+        assertThat(rows("task_lists")).isEqualTo(1);
+        assertThat(rows("tasks")).isEqualTo(2);
+    }
+
+    @Test
+    void restoreTaskList_shouldBringBackListAndItsTasks() {
+        var list = listWithTasks("Restore", 2);
+        taskListService.deleteTaskList(list.getId());
+        em.clear();
+
+        var restored = taskListService.restoreTaskList(list.getId());
+        em.clear();
+
+        assertThat(restored.getTitle()).isEqualTo("Restore");
+        assertThat(taskRepo.findByTaskListId(list.getId())).hasSize(2);
+    }
+
+    @Test
+    void purgeDeleted_shouldRemoveOnlyRowsDeletedBeforeCutoff_inBatches() {
+        var deleted = listWithTasks("Gone", 3);
+        var kept = listWithTasks("Kept", 1);
+        taskListService.deleteTaskList(deleted.getId());
+        em.clear();
+
+        var cutoff = LocalDateTime.now().plusSeconds(1);
+        assertThat(purgeService.purgeDeleted(cutoff, 2)).isEqualTo(2); // two of the three tasks
+        assertThat(purgeService.purgeDeleted(cutoff, 2)).isEqualTo(2); // last task, then the list
+        assertThat(purgeService.purgeDeleted(cutoff, 2)).isZero();
+        em.clear();
+
+        assertThat(rows("task_lists")).isEqualTo(1);
+        assertThat(rows("tasks")).isEqualTo(1);
+        assertThat(listRepo.findById(kept.getId())).isPresent();
+        assertThatThrownBy(() -> taskListService.restoreTaskList(deleted.getId()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void purgeDeleted_shouldKeepRowsInsideRetentionWindow() {
+        var list = listWithTasks("Recent", 1);
+        taskListService.deleteTaskList(list.getId());
+        em.clear();
+
+        assertThat(purgeService.purgeDeleted(LocalDateTime.now().minusDays(7), 10)).isZero();
+        assertThat(rows("tasks")).isEqualTo(1);
+    }
+
+    @Test
+    void purgeDeleted_whenBatchSizeInvalid_shouldThrow() {
+        assertThatThrownBy(() -> purgeService.purgeDeleted(LocalDateTime.now(), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,180 @@
+package com.wongsakron.tasks.services;
+
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import com.wongsakron.tasks.repositories.TaskListRepository;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.services.impl.TaskRankServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Import(TaskRankServiceImpl.class)
+public class TaskRankServiceImplTest {
+
+    @Autowired
+    TaskRankService rankService;
+    @Autowired
+    TaskRepository taskRepo;
+    @Autowired
+    TaskListRepository listRepo;
+    @Autowired
+    TestEntityManager em;
+
+    private List<Task> listWithRankedTasks(String... ranks) {
+        var now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS); // Stored with micro precision, compared after a reload
+        TaskList list = listRepo.save(new TaskList(null, "L", "D", null, now, now));
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < ranks.length; i++) {
+            Task task = new Task(null, "t" + i, "d", null, TaskStatus.OPEN, TaskPriority.MEDIUM, list, now.plusSeconds(i), now.plusSeconds(i));
+            task.setRank(ranks[i]);
+            tasks.add(taskRepo.save(task));
+        }
+        em.flush();
+        em.clear();
+        return tasks;
+    }
+
+    private List<String> titles(UUID taskListId) {
+        em.flush();
+        em.clear();
+        return taskRepo.findByTaskListId(taskListId).stream().map(Task::getTitle).toList();
+    }
+
+    private String rank(UUID taskId) {
+        return taskRepo.findById(taskId).orElseThrow().getRank();
+    }
+
+    @Test
+    void moveTask_shouldRewriteOnlyTheMovedTask() {
+        var tasks = listWithRankedTasks("a", "b", "c", "d");
+        UUID listId = tasks.get(0).getTaskList().getId();
+
+        rankService.moveTask(listId, tasks.get(3).getId(), tasks.get(0).getId());
+
+        assertThat(titles(listId)).containsExactly("t0", "t3", "t1", "t2");
+        assertThat(rank(tasks.get(0).getId())).isEqualTo("a");
+        assertThat(rank(tasks.get(1).getId())).isEqualTo("b");
+        assertThat(rank(tasks.get(2).getId())).isEqualTo("c");
+    }
+
+    @Test
+    void moveTask_withoutAfterTask_shouldMoveToTop() {
+        var tasks = listWithRankedTasks("a", "b", "c");
+        UUID listId = tasks.get(0).getTaskList().getId();
+
+        rankService.moveTask(listId, tasks.get(2).getId(), null);
+
+        assertThat(titles(listId)).containsExactly("t2", "t0", "t1");
+    }
+
+    @Test
+    void moveTask_whenAlreadyInPlace_shouldKeepRankAndUpdated() {
+        var tasks = listWithRankedTasks("a", "b", "c");
+        UUID listId = tasks.get(0).getTaskList().getId();
+
+        rankService.moveTask(listId, tasks.get(1).getId(), tasks.get(0).getId());
+        em.flush();
+        em.clear();
+
+        Task unchanged = taskRepo.findById(tasks.get(1).getId()).orElseThrow();
+        assertThat(unchanged.getRank()).isEqualTo("b");
+        assertThat(unchanged.getUpdated()).isEqualTo(tasks.get(1).getUpdated());
+    }
+
+    @Test
+    void moveTask_repeatedlyIntoSameGap_shouldKeepOrder() {
+        var tasks = listWithRankedTasks("a", "b", "c", "d");
+        UUID listId = tasks.get(0).getTaskList().getId();
+
+        // Alternately moving the last two tasks right after the first keeps splitting the same gap
+        for (int i = 0; i < 50; i++) {
+            rankService.moveTask(listId, tasks.get(2 + i % 2).getId(), tasks.get(0).getId());
+        }
+
+        assertThat(titles(listId)).containsExactly("t0", "t3", "t2", "t1");
+    }
+
+    @Test
+    void moveTask_withUnrankedTasks_shouldRankListFirst() {
+        var tasks = listWithRankedTasks(null, null, null);
+        UUID listId = tasks.get(0).getTaskList().getId();
+
+        rankService.moveTask(listId, tasks.get(0).getId(), tasks.get(2).getId());
+
+        assertThat(titles(listId)).containsExactly("t1", "t2", "t0");
+        assertThat(taskRepo.existsByTaskListIdAndRankIsNull(listId)).isFalse();
+    }
+
+    @Test
+    void moveTask_invalidTasks_shouldThrow() {
+        var tasks = listWithRankedTasks("a", "b");
+        UUID listId = tasks.get(0).getTaskList().getId();
+
+        assertThatThrownBy(() -> rankService.moveTask(listId, tasks.get(0).getId(), tasks.get(0).getId()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> rankService.moveTask(listId, UUID.randomUUID(), null))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> rankService.moveTask(listId, tasks.get(0).getId(), UUID.randomUUID()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rebalance_shouldShortenLongRanks_andKeepOrder() {
+        var tasks = listWithRankedTasks("a", "a0000000000001", "a0000000000002", "b");
+        UUID listId = tasks.get(0).getTaskList().getId();
+
+        assertThat(rankService.findTaskListsToRebalance(12, 10)).containsExactly(listId);
+
+        rankService.rebalance(listId);
+
+        assertThat(titles(listId)).containsExactly("t0", "t1", "t2", "t3");
+        assertThat(taskRepo.findByTaskListId(listId)).allSatisfy(task -> assertThat(task.getRank()).hasSizeLessThanOrEqualTo(2));
+        assertThat(rankService.findTaskListsToRebalance(12, 10)).isEmpty();
+    }
+
+    // Another transaction renames the task after this one loaded it: the rank write must not put the old title back
+    private void renameBehindTheContext(UUID taskId, String title) {
+        em.getEntityManager().createQuery("update Task t set t.title = :title where t.id = :id")
+                .setParameter("title", title)
+                .setParameter("id", taskId)
+                .executeUpdate();
+    }
+
+    @Test
+    void moveTask_shouldNotRevertAConcurrentEdit() {
+        var tasks = listWithRankedTasks("a", "b", "c");
+        UUID listId = tasks.get(0).getTaskList().getId();
+        taskRepo.findByTaskListId(listId); // Loaded before the concurrent edit
+        renameBehindTheContext(tasks.get(2).getId(), "Renamed");
+
+        rankService.moveTask(listId, tasks.get(2).getId(), null);
+
+        assertThat(titles(listId)).containsExactly("Renamed", "t0", "t1");
+    }
+
+    @Test
+    void rebalance_shouldNotRevertAConcurrentEdit() {
+        var tasks = listWithRankedTasks("a", "a0000000000001", "b");
+        UUID listId = tasks.get(0).getTaskList().getId();
+        taskRepo.findByTaskListId(listId); // Loaded before the concurrent edit
+        renameBehindTheContext(tasks.get(1).getId(), "Renamed");
+
+        assertThat(rankService.rebalance(listId)).isPositive();
+
+        assertThat(titles(listId)).containsExactly("t0", "Renamed", "t2");
+    }
+}
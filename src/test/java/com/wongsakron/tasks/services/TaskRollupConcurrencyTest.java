@@ -0,0 +1,106 @@
+package com.wongsakron.tasks.services;
+
+import com.wongsakron.tasks.domain.TaskRollupCount;
+import com.wongsakron.tasks.domain.TaskRollupKey;
+import com.wongsakron.tasks.domain.entities.TaskDueBucket;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import com.wongsakron.tasks.search.TaskDueIndex;
+import com.wongsakron.tasks.search.TaskTagIndex;
+import com.wongsakron.tasks.services.impl.TaskListServiceImpl;
+import com.wongsakron.tasks.services.impl.TaskRollupServiceImpl;
+import com.wongsakron.tasks.services.impl.TaskServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Every service call commits on its own, from several threads at once, like concurrent requests
+@DataJpaTest
+@Import({TaskRollupServiceImpl.class, TaskServiceImpl.class, TaskListServiceImpl.class, TaskTagIndex.class, TaskDueIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TaskRollupConcurrencyTest {
+
+    private static final TaskRollupKey LOW = new TaskRollupKey(TaskStatus.OPEN, TaskPriority.LOW, TaskDueBucket.NO_DUE_DATE);
+    private static final TaskRollupKey HIGH = new TaskRollupKey(TaskStatus.OPEN, TaskPriority.HIGH, TaskDueBucket.NO_DUE_DATE);
+
+    @Autowired
+    TaskRollupService rollupService;
+    @Autowired
+    TaskListService listService;
+
+    private UUID createList() {
+        TaskList list = new TaskList();
+        list.setTitle("L");
+        return listService.createTaskList(list).getId();
+    }
+
+    private static long count(List<TaskRollupCount> rollup, TaskRollupKey key) {
+        return rollup.stream()
+                .filter(row -> new TaskRollupKey(row.status(), row.priority(), row.dueBucket()).equals(key))
+                .mapToLong(TaskRollupCount::count)
+                .sum();
+    }
+
+    @Test
+    void writesInOppositeOrders_shouldNotDeadlock() throws Exception {
+        UUID first = createList();
+        UUID second = createList();
+        rollupService.rebuildGlobal(); // Creates the global counters
+        int threads = 8;
+        int rounds = 50;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            boolean reversed = t % 2 == 1;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < rounds; i++) {
+                    // Moves a task one way or the other: the two counters come in opposite orders
+                    rollupService.recordChange(first, reversed ? HIGH : LOW, reversed ? LOW : HIGH);
+                    // A batch over both lists, listed in opposite orders
+                    Map<UUID, Map<TaskRollupKey, Long>> created = new LinkedHashMap<>();
+                    Map<TaskRollupKey, Long> counts = new LinkedHashMap<>();
+                    counts.put(reversed ? HIGH : LOW, 1L);
+                    counts.put(reversed ? LOW : HIGH, 1L);
+                    created.put(reversed ? second : first, counts);
+                    created.put(reversed ? first : second, counts);
+                    rollupService.recordCreates(created);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS); // Rethrows a deadlock or lock timeout
+        }
+        executor.shutdown();
+
+        long creates = (long) threads * rounds;
+        List<TaskRollupCount> firstRollup = rollupService.getRollup(first);
+        List<TaskRollupCount> totals = rollupService.getRollup(null);
+        assertThat(count(firstRollup, LOW)).isEqualTo(creates); // The moves cancel out
+        assertThat(count(firstRollup, HIGH)).isEqualTo(creates);
+        assertThat(count(rollupService.getRollup(second), LOW)).isEqualTo(creates);
+        assertThat(count(totals, LOW)).isEqualTo(2 * creates);
+        assertThat(count(totals, HIGH)).isEqualTo(2 * creates);
+    }
+}
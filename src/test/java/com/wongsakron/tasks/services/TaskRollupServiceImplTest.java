@@ -0,0 +1,183 @@
+package com.wongsakron.tasks.services;
+
+import com.wongsakron.tasks.domain.TaskFilter;
+import com.wongsakron.tasks.domain.TaskRollupCount;
+import com.wongsakron.tasks.domain.TaskRollupKey;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskDueBucket;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskRollup;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.repositories.TaskRollupRepository;
+import com.wongsakron.tasks.search.TaskDueIndex;
+import com.wongsakron.tasks.search.TaskTagIndex;
+import com.wongsakron.tasks.services.impl.TaskListServiceImpl;
+import com.wongsakron.tasks.services.impl.TaskRollupServiceImpl;
+import com.wongsakron.tasks.services.impl.TaskServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Import({TaskRollupServiceImpl.class, TaskServiceImpl.class, TaskListServiceImpl.class, TaskTagIndex.class, TaskDueIndex.class})
+public class TaskRollupServiceImplTest {
+
+    @Autowired
+    TaskRollupService rollupService;
+    @Autowired
+    TaskService taskService;
+    @Autowired
+    TaskListService listService;
+    @Autowired
+    TaskRepository taskRepo;
+    @Autowired
+    TaskRollupRepository rollupRepo;
+    @Autowired
+    TestEntityManager em;
+
+    private UUID listId;
+
+    @BeforeEach
+    void setUp() {
+        TaskList list = new TaskList();
+        list.setTitle("L");
+        listId = listService.createTaskList(list).getId();
+        flushAndClear();
+    }
+
+    private void flushAndClear() {
+        em.flush();
+        em.clear(); // Every call below runs in its own transaction in the application
+    }
+
+    private Task create(String title, TaskPriority priority, LocalDateTime dueDate) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setPriority(priority);
+        task.setDueDate(dueDate);
+        Task saved = taskService.createTask(listId, task);
+        flushAndClear();
+        return saved;
+    }
+
+    private static Map<TaskRollupKey, Long> nonZero(List<TaskRollupCount> rollup) {
+        return rollup.stream()
+                .filter(row -> row.count() != 0)
+                .collect(Collectors.toMap(row -> new TaskRollupKey(row.status(), row.priority(), row.dueBucket()), TaskRollupCount::count));
+    }
+
+    private static TaskRollupKey key(TaskStatus status, TaskPriority priority, TaskDueBucket due) {
+        return new TaskRollupKey(status, priority, due);
+    }
+
+    @Test
+    void createTaskList_shouldCreateZeroCountersForEveryCombination() {
+        List<TaskRollupCount> rollup = rollupService.getRollup(listId);
+
+        assertThat(rollup).hasSize(TaskStatus.values().length * TaskPriority.values().length * TaskDueBucket.values().length);
+        assertThat(nonZero(rollup)).isEmpty();
+    }
+
+    @Test
+    void taskWrites_shouldMoveTasksBetweenCounters() {
+        Task overdue = create("overdue", TaskPriority.HIGH, LocalDateTime.now().minusDays(2));
+        create("upcoming", TaskPriority.LOW, LocalDateTime.now().plusDays(2));
+        Task undated = create("undated", TaskPriority.LOW, null);
+
+        assertThat(nonZero(rollupService.getRollup(listId))).containsOnly(
+                entry(key(TaskStatus.OPEN, TaskPriority.HIGH, TaskDueBucket.OVERDUE), 1L),
+                entry(key(TaskStatus.OPEN, TaskPriority.LOW, TaskDueBucket.UPCOMING), 1L),
+                entry(key(TaskStatus.OPEN, TaskPriority.LOW, TaskDueBucket.NO_DUE_DATE), 1L));
+
+        Task body = new Task();
+        body.setId(overdue.getId());
+        body.setTitle("overdue");
+        body.setStatus(TaskStatus.CLOSED);
+        body.setPriority(TaskPriority.HIGH);
+        body.setDueDate(overdue.getDueDate());
+        taskService.updateTask(listId, overdue.getId(), body);
+        flushAndClear();
+
+        assertThat(taskService.bulkUpdateTasks(listId, new TaskFilter(TaskStatus.OPEN, null, null), null, TaskPriority.MEDIUM)).isEqualTo(2);
+        flushAndClear();
+
+        taskService.deleteTask(listId, undated.getId());
+        flushAndClear();
+
+        assertThat(nonZero(rollupService.getRollup(listId))).containsOnly(
+                entry(key(TaskStatus.CLOSED, TaskPriority.HIGH, TaskDueBucket.OVERDUE), 1L),
+                entry(key(TaskStatus.OPEN, TaskPriority.MEDIUM, TaskDueBucket.UPCOMING), 1L));
+        assertThat(rollupService.findTaskListsOutOfSync(List.of(listId))).isEmpty();
+    }
+
+    @Test
+    void getRollup_whenListMissing_shouldThrowIllegalState() {
+        assertThatThrownBy(() -> rollupService.getRollup(UUID.randomUUID()))
+                .isInstanceOf(IllegalStateException.class).hasMessageContaining("Task list not found");
+    }
+
+    @Test
+    void recountTaskList_shouldRepairCountersChangedBehindTheirBack() {
+        create("a", TaskPriority.MEDIUM, null);
+        create("b", TaskPriority.MEDIUM, null);
+
+        // Changed without going through the services, as the reactive stack would
+        taskRepo.bulkUpdateStatusAndPriority(listId, null, null, null, TaskStatus.CLOSED, null, LocalDateTime.now());
+        flushAndClear();
+
+        assertThat(rollupService.findTaskListsOutOfSync(List.of(listId))).containsExactly(listId);
+        assertThat(rollupService.recountTaskList(listId)).isTrue();
+        flushAndClear();
+
+        assertThat(rollupService.findTaskListsOutOfSync(List.of(listId))).isEmpty();
+        assertThat(rollupService.recountTaskList(listId)).isFalse();
+        assertThat(nonZero(rollupService.getRollup(listId))).containsOnly(
+                entry(key(TaskStatus.CLOSED, TaskPriority.MEDIUM, TaskDueBucket.NO_DUE_DATE), 2L));
+    }
+
+    @Test
+    void rebuildGlobal_shouldSumAllListsIntoTheTotals() {
+        rollupService.rebuildGlobal(); // Creates the global counters, a first start does the same
+        flushAndClear();
+        create("a", TaskPriority.HIGH, LocalDateTime.now().minusDays(1));
+        create("b", TaskPriority.HIGH, LocalDateTime.now().minusDays(1));
+        Map<TaskRollupKey, Long> incremental = nonZero(rollupService.getRollup(null));
+
+        assertThat(rollupService.isInitialized()).isTrue();
+        assertThat(rollupService.rebuildGlobal()).isFalse(); // The striped increments already added up
+        flushAndClear();
+
+        assertThat(nonZero(rollupService.getRollup(null)))
+                .isEqualTo(incremental)
+                .containsEntry(key(TaskStatus.OPEN, TaskPriority.HIGH, TaskDueBucket.OVERDUE), 2L);
+        assertThat(rollupRepo.findByScopeIdIn(List.of(TaskRollup.GLOBAL)))
+                .filteredOn(row -> row.getId().getStripe() != 0)
+                .allMatch(row -> row.getCount() == 0); // Collapsed into stripe 0
+    }
+
+    @Test
+    void deleteTaskList_shouldDropItsTasksFromTheTotals() {
+        create("a", TaskPriority.LOW, null);
+        rollupService.rebuildGlobal();
+        flushAndClear();
+
+        listService.deleteTaskList(listId);
+        flushAndClear();
+
+        assertThat(nonZero(rollupService.getRollup(null))).isEmpty();
+        assertThatThrownBy(() -> rollupService.getRollup(listId)).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,114 @@
+package com.wongsakron.tasks.services;
+
+import com.wongsakron.tasks.domain.TaskTagQuery;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import com.wongsakron.tasks.repositories.TaskListRepository;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.search.TaskTagIndex;
+import com.wongsakron.tasks.services.impl.TaskSearchServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Import({TaskSearchServiceImpl.class, TaskTagIndex.class})
+public class TaskSearchServiceImplTest {
+
+    @Autowired
+    TaskSearchService searchService;
+    @Autowired
+    TaskTagIndex tagIndex;
+    @Autowired
+    TaskRepository taskRepo;
+    @Autowired
+    TaskListRepository listRepo;
+    @Autowired
+    TestEntityManager em;
+
+    private TaskList newList() {
+        var now = LocalDateTime.now();
+        return listRepo.save(new TaskList(null, "L", "D", null, now, now));
+    }
+
+    private Task newTask(TaskList list, String title, String rank, TaskStatus status, String... tags) {
+        var now = LocalDateTime.now();
+        Task task = new Task(null, title, "d", null, status, TaskPriority.MEDIUM, list, now, now);
+        task.setRank(rank);
+        task.setTags(List.of(tags));
+        return taskRepo.save(task);
+    }
+
+    private List<String> search(UUID listId, TaskTagQuery query) {
+        return searchService.searchTasks(listId, query).stream().map(Task::getTitle).toList();
+    }
+
+    @Test
+    void searchTasks_shouldUseTheIndex_andReturnTasksInListOrder() {
+        TaskList list = newList();
+        newTask(list, "second", "b", TaskStatus.OPEN, "work", "urgent");
+        newTask(list, "first", "a", TaskStatus.OPEN, "work");
+        newTask(list, "closed", "c", TaskStatus.CLOSED, "work");
+        newTask(list, "home", "d", TaskStatus.OPEN, "home");
+        newTask(newList(), "other list", "a", TaskStatus.OPEN, "work");
+        em.flush();
+        em.clear();
+
+        assertThat(searchService.rebuildIndex()).isEqualTo(5);
+        assertThat(tagIndex.isReady()).isTrue();
+
+        assertThat(search(list.getId(), new TaskTagQuery(Set.of("work"), null, null, TaskStatus.OPEN, null)))
+                .containsExactly("first", "second");
+        assertThat(search(list.getId(), new TaskTagQuery(null, Set.of("urgent", "home"), null, null, null)))
+                .containsExactly("second", "home");
+        assertThat(search(list.getId(), new TaskTagQuery(Set.of("work"), null, Set.of("urgent"), null, null)))
+                .containsExactly("first", "closed");
+    }
+
+    @Test
+    void searchTasks_shouldDropStaleIndexEntries() {
+        TaskList list = newList();
+        Task task = newTask(list, "t", "a", TaskStatus.OPEN, "work");
+        em.flush();
+        em.clear();
+        searchService.rebuildIndex();
+
+        // Changed behind the index's back, as another instance would
+        taskRepo.bulkUpdateStatusAndPriority(list.getId(), null, null, null, TaskStatus.CLOSED, null, LocalDateTime.now());
+        em.clear();
+
+        assertThat(search(list.getId(), new TaskTagQuery(Set.of("work"), null, null, TaskStatus.OPEN, null))).isEmpty();
+        assertThat(taskRepo.findById(task.getId())).isPresent();
+    }
+
+    @Test
+    void searchTasks_beforeTheIndexIsBuilt_shouldFilterTheTasksOfTheList() {
+        TaskList list = newList();
+        newTask(list, "b", "b", TaskStatus.OPEN, "work");
+        newTask(list, "a", "a", TaskStatus.OPEN, "work", "home");
+        em.flush();
+        em.clear();
+
+        var notBuilt = new TaskSearchServiceImpl(taskRepo, listRepo, new TaskTagIndex()); // The shared index may be built by another test
+        assertThat(notBuilt.searchTasks(list.getId(), new TaskTagQuery(Set.of("WORK"), null, Set.of("home"), null, null)))
+                .extracting(Task::getTitle)
+                .containsExactly("b");
+    }
+
+    @Test
+    void searchTasks_whenListMissing_shouldThrowIllegalState() {
+        assertThatThrownBy(() -> searchService.searchTasks(UUID.randomUUID(), new TaskTagQuery(null, null, null, null, null)))
+                .isInstanceOf(IllegalStateException.class).hasMessageContaining("Task list not found");
+    }
+}
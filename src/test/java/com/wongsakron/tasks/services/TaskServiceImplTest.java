@@ -1,11 +1,24 @@
 package com.wongsakron.tasks.services;
 
+import com.wongsakron.tasks.domain.TaskCreate;
+import com.wongsakron.tasks.domain.TaskDueEntry;
+import com.wongsakron.tasks.domain.TaskFilter;
+import com.wongsakron.tasks.domain.TaskIndexEntry;
+import com.wongsakron.tasks.domain.TaskKey;
+import com.wongsakron.tasks.domain.TaskRollupKey;
+import com.wongsakron.tasks.domain.TaskStatusCount;
+import com.wongsakron.tasks.domain.entities.ArchivedTask;
 import com.wongsakron.tasks.domain.entities.Task;
 import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.domain.entities.TaskDueBucket;
 import com.wongsakron.tasks.domain.entities.TaskPriority;
 import com.wongsakron.tasks.domain.entities.TaskStatus;
+import com.wongsakron.tasks.repositories.ArchivedTaskRepository;
+import com.wongsakron.tasks.repositories.TaskClosureRepository;
 import com.wongsakron.tasks.repositories.TaskListRepository;
 import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.search.TaskDueIndex;
+import com.wongsakron.tasks.search.TaskTagIndex;
 import com.wongsakron.tasks.services.impl.TaskServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -29,6 +42,16 @@ public class TaskServiceImplTest {
     TaskRepository taskRepo;
     @Mock
     TaskListRepository taskListRepo;
+    @Mock
+    ArchivedTaskRepository archivedTaskRepo;
+    @Mock
+    TaskClosureRepository closureRepo;
+    @Mock
+    TaskTagIndex tagIndex;
+    @Mock
+    TaskRollupService rollups;
+    @Mock
+    TaskDueIndex dueIndex;
 
     @InjectMocks
     TaskServiceImpl svc;
@@ -84,6 +107,65 @@ public class TaskServiceImplTest {
         verifyNoMoreInteractions(taskRepo, taskListRepo);
     }
 
+    // countTasks (GraphQL count/progress)
+    @Test
+    void countTasks_shouldSumStatuses_andReturnZeroForListsWithoutTasks() {
+        UUID emptyListId = UUID.randomUUID();
+        when(taskRepo.countByTaskListIdsGroupByStatus(anyCollection())).thenReturn(List.of(
+                new TaskStatusCount(listId, TaskStatus.OPEN, 3L),
+                new TaskStatusCount(listId, TaskStatus.CLOSED, 1L)
+        ));
+
+        var out = svc.countTasks(List.of(listId, emptyListId));
+
+        assertThat(out.get(listId).total()).isEqualTo(4);
+        assertThat(out.get(listId).closed()).isEqualTo(1);
+        assertThat(out.get(listId).withArchived(4).progress()).isEqualTo(0.625); // archived tasks count as closed
+        assertThat(out.get(emptyListId).total()).isZero();
+        assertThat(out.get(emptyListId).progress()).isNull();
+
+        verify(taskRepo).countByTaskListIdsGroupByStatus(anyCollection());
+        verifyNoMoreInteractions(taskRepo, taskListRepo); // One query, archived counts come with the list
+    }
+
+    @Test
+    void listTask_withIncludeArchived_shouldAppendArchivedTasks() {
+        ArchivedTask archived = mock(ArchivedTask.class);
+        Task archivedView = new Task();
+        archivedView.setTitle("Old");
+        when(archived.toTask()).thenReturn(archivedView);
+        when(taskListRepo.existsById(listId)).thenReturn(true);
+        when(taskRepo.findByTaskListId(listId)).thenReturn(List.of(sample));
+        when(archivedTaskRepo.findByTaskListId(listId)).thenReturn(List.of(archived));
+
+        var out = svc.listTasks(listId, true);
+
+        assertThat(out).extracting(Task::getTitle).containsExactly("T", "Old");
+        verify(taskListRepo).existsById(listId);
+        verify(taskRepo).findByTaskListId(listId);
+        verify(archivedTaskRepo).findByTaskListId(listId);
+        verifyNoMoreInteractions(taskRepo, taskListRepo, archivedTaskRepo);
+    }
+
+    @Test
+    void listTask_withoutIncludeArchived_shouldNotReadArchive() {
+        when(taskRepo.findByTaskListId(listId)).thenReturn(List.of(sample));
+
+        assertThat(svc.listTasks(listId, false)).hasSize(1);
+
+        verifyNoInteractions(archivedTaskRepo);
+    }
+
+    @Test
+    void listTask_withIncludeArchived_whenListDeleted_shouldNotReadArchive() {
+        when(taskListRepo.existsById(listId)).thenReturn(false); // soft-deleted lists are hidden
+        when(taskRepo.findByTaskListId(listId)).thenReturn(List.of());
+
+        assertThat(svc.listTasks(listId, true)).isEmpty();
+
+        verifyNoInteractions(archivedTaskRepo);
+    }
+
     // createTask
     @Test
     void createTask_whenTaskHasId_shouldThrows_andNeverSave() {
@@ -137,6 +219,7 @@ public class TaskServiceImplTest {
         input.setDescription("D");
         input.setDueDate(LocalDateTime.now().plusDays(2));
         input.setPriority(null); // set default
+        input.setTags(List.of("Work", "home"));
 
         when(taskListRepo.findById(listId)).thenReturn(Optional.of(list));
         when(taskRepo.save(any(Task.class))).thenAnswer(inv -> inv.getArgument(0));
@@ -156,11 +239,136 @@ public class TaskServiceImplTest {
         assertThat(toSave.getCreated()).isNotNull();
         assertThat(toSave.getUpdated()).isNotNull();
         assertThat(toSave.getTaskList()).isSameAs(list);
+        assertThat(toSave.getRank()).isNotNull(); // First task of an empty list
+        assertThat(toSave.getTags()).containsExactly("home", "work");
 
         assertThat(saved.getTaskList()).isSameAs(list);
 
         verify(taskListRepo).findById(listId);
+        verify(taskRepo).findMaxRankByTaskListId(listId);
+        verify(tagIndex).put(new TaskIndexEntry(null, listId, TaskStatus.OPEN, TaskPriority.MEDIUM, "home,work"));
+        verify(rollups).recordChange(listId, null, new TaskRollupKey(TaskStatus.OPEN, TaskPriority.MEDIUM, TaskDueBucket.UPCOMING));
+        verify(dueIndex).put(new TaskDueEntry(null, listId, "T", TaskStatus.OPEN, TaskPriority.MEDIUM, toSave.getDueDate()));
+        verifyNoMoreInteractions(taskListRepo, taskRepo, tagIndex, rollups, dueIndex);
+    }
+
+    // createTasks (group commit)
+    @Test
+    void createTasks_shouldSaveValidCreatesTogether_andFailInvalidOnesOnTheirOwn() {
+        UUID missingListId = UUID.randomUUID();
+        UUID parentId = UUID.randomUUID();
+        Task first = new Task();
+        first.setTitle("first");
+        Task blank = new Task();
+        blank.setTitle(" ");
+        Task orphan = new Task();
+        orphan.setTitle("orphan");
+        orphan.setParentId(UUID.randomUUID());
+        Task child = new Task();
+        child.setTitle("child");
+        child.setParentId(parentId);
+        Task elsewhere = new Task();
+        elsewhere.setTitle("elsewhere");
+
+        when(taskListRepo.findAllById(anyCollection())).thenReturn(List.of(list));
+        when(taskRepo.findIdsByTaskListIdAndIdIn(eq(listId), anyCollection())).thenReturn(List.of(parentId));
+        when(taskRepo.findMaxRankByTaskListId(listId)).thenReturn(Optional.of("m"));
+        when(taskRepo.saveAll(anyList())).thenAnswer(inv -> {
+            List<Task> tasks = inv.getArgument(0);
+            tasks.forEach(task -> task.setId(UUID.randomUUID()));
+            return tasks;
+        });
+
+        var results = svc.createTasks(List.of(
+                new TaskCreate(listId, first),
+                new TaskCreate(listId, blank),
+                new TaskCreate(listId, orphan),
+                new TaskCreate(listId, child),
+                new TaskCreate(missingListId, elsewhere)));
+
+        assertThat(results).hasSize(5);
+        assertThat(results.get(0).getOrThrow().getTitle()).isEqualTo("first");
+        assertThat(results.get(1).error()).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Task title cannot be blank!");
+        assertThat(results.get(2).error()).isInstanceOf(IllegalStateException.class).hasMessageContaining("Parent task not found!");
+        assertThat(results.get(3).getOrThrow().getParentId()).isEqualTo(parentId);
+        assertThat(results.get(4).error()).isInstanceOf(IllegalStateException.class).hasMessageContaining("Invalid Task List ID provided!");
+        assertThat(results.get(0).task().getRank()).isGreaterThan("m");
+        assertThat(results.get(3).task().getRank()).isGreaterThan(results.get(0).task().getRank()); // Request order
+
+        verify(taskListRepo).findAllById(anyCollection()); // Once per batch, not per task
+        verify(taskListRepo).lockById(listId); // Gets a sub-task
+        verify(taskListRepo, never()).lockById(missingListId);
+        verify(taskRepo).findMaxRankByTaskListId(listId);
+        verify(taskRepo).saveAll(anyList());
+        verify(taskRepo, never()).save(any());
+        verify(closureRepo).insertPathsToLeaf(parentId, results.get(3).task().getId());
+        verify(rollups).recordCreates(Map.of(listId, Map.of(new TaskRollupKey(TaskStatus.OPEN, TaskPriority.MEDIUM, TaskDueBucket.NO_DUE_DATE), 2L)));
+        verify(rollups, never()).recordChange(any(), any(), any());
+    }
+
+    @Test
+    void createTask_shouldRankNewTaskAfterLastOne() {
+        Task input = new Task();
+        input.setTitle("T");
+
+        when(taskListRepo.findById(listId)).thenReturn(Optional.of(list));
+        when(taskRepo.findMaxRankByTaskListId(listId)).thenReturn(Optional.of("m"));
+        when(taskRepo.save(any(Task.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        var saved = svc.createTask(listId, input);
+
+        assertThat(saved.getRank()).isGreaterThan("m");
+        verify(taskListRepo).findById(listId);
+        verify(taskRepo).findMaxRankByTaskListId(listId);
+        verify(taskRepo).save(any(Task.class));
+        verifyNoMoreInteractions(taskListRepo, taskRepo);
+    }
+
+    @Test
+    void createTask_withParent_shouldLinkSubTaskToAncestors() {
+        UUID parentId = UUID.randomUUID();
+        UUID newId = UUID.randomUUID();
+        Task input = new Task();
+        input.setTitle("Sub");
+        input.setParentId(parentId);
+
+        when(taskListRepo.lockById(listId)).thenReturn(Optional.of(list));
+        when(taskRepo.existsByTaskListIdAndId(listId, parentId)).thenReturn(true);
+        when(taskRepo.save(any(Task.class))).thenAnswer(inv -> {
+            Task toSave = inv.getArgument(0);
+            toSave.setId(newId);
+            return toSave;
+        });
+
+        var saved = svc.createTask(listId, input);
+
+        assertThat(saved.getParentId()).isEqualTo(parentId);
+        verify(taskListRepo).lockById(listId); // Before the parent's paths are read
+        verify(taskRepo).existsByTaskListIdAndId(listId, parentId);
+        verify(taskRepo).findMaxRankByTaskListId(listId);
+        verify(taskRepo).save(any(Task.class));
+        verify(closureRepo).insertPathsToLeaf(parentId, newId);
+        verifyNoMoreInteractions(taskListRepo, taskRepo, closureRepo);
+    }
+
+    @Test
+    void createTask_whenParentNotInList_shouldThrowIllegalState_andNeverSave() {
+        UUID parentId = UUID.randomUUID();
+        Task input = new Task();
+        input.setTitle("Sub");
+        input.setParentId(parentId);
+
+        when(taskListRepo.lockById(listId)).thenReturn(Optional.of(list));
+        when(taskRepo.existsByTaskListIdAndId(listId, parentId)).thenReturn(false);
+
+        assertThatThrownBy(() -> svc.createTask(listId, input))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Parent task not found");
+
+        verify(taskListRepo).lockById(listId); // Before the parent's paths are read
+        verify(taskRepo).existsByTaskListIdAndId(listId, parentId);
         verifyNoMoreInteractions(taskListRepo, taskRepo);
+        verifyNoInteractions(closureRepo);
     }
 
     @Test
@@ -184,6 +392,68 @@ public class TaskServiceImplTest {
 
     }
 
+    // getTasks (multi-get)
+    @Test
+    void getTasks_shouldPreserveOrder_andReportMissingOrForeignTasksAsEmpty() {
+        Task t1 = new Task();
+        t1.setId(UUID.randomUUID());
+        t1.setTaskList(list);
+        Task t2 = new Task();
+        t2.setId(UUID.randomUUID());
+        t2.setTaskList(list);
+        UUID missingId = UUID.randomUUID();
+        UUID otherListId = UUID.randomUUID();
+
+        when(taskRepo.findByIdIn(anyCollection())).thenReturn(List.of(t1, t2));
+
+        var out = svc.getTasks(List.of(
+                new TaskKey(listId, t2.getId()),
+                new TaskKey(listId, missingId),
+                new TaskKey(listId, t1.getId()),
+                new TaskKey(otherListId, t1.getId()) // exists but in another list
+        ));
+
+        assertThat(out).hasSize(4);
+        assertThat(out.get(0)).containsSame(t2);
+        assertThat(out.get(1)).isEmpty();
+        assertThat(out.get(2)).containsSame(t1);
+        assertThat(out.get(3)).isEmpty();
+
+        verify(taskRepo, times(1)).findByIdIn(anyCollection()); // one IN query for the whole batch
+        verifyNoMoreInteractions(taskRepo, taskListRepo);
+    }
+
+    @Test
+    void getTasks_shouldChunkLargeInputs() {
+        List<TaskKey> keys = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            keys.add(new TaskKey(listId, UUID.randomUUID()));
+        }
+        when(taskRepo.findByIdIn(anyCollection())).thenReturn(Collections.emptyList());
+
+        var out = svc.getTasks(keys);
+
+        assertThat(out).hasSize(600).allMatch(Optional::isEmpty);
+        verify(taskRepo, times(3)).findByIdIn(anyCollection()); // 250 + 250 + 100
+        verifyNoMoreInteractions(taskRepo, taskListRepo);
+    }
+
+    @Test
+    void getTasks_whenEmptyOrTooManyOrIncomplete_shouldThrow() {
+        assertThatThrownBy(() -> svc.getTasks(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        List<TaskKey> tooMany = Collections.nCopies(TaskServiceImpl.MULTI_GET_MAX_KEYS + 1, new TaskKey(listId, taskId));
+        assertThatThrownBy(() -> svc.getTasks(tooMany))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("At most");
+
+        assertThatThrownBy(() -> svc.getTasks(List.of(new TaskKey(null, taskId))))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoMoreInteractions(taskRepo, taskListRepo);
+    }
+
     // UpdateTask
 
     @Test
@@ -290,28 +560,125 @@ public class TaskServiceImplTest {
         assertThat(out.getPriority()).isEqualTo(TaskPriority.HIGH);
         assertThat(out.getStatus()).isEqualTo(TaskStatus.CLOSED);
         assertThat(out.getUpdated()).isNotNull();
+        assertThat(out.getTags()).isEmpty(); // PUT replaces the tags as well
 
         verify(taskRepo).findByTaskListIdAndId(listId, taskId);
         verify(taskRepo).save(existing);
-        verifyNoMoreInteractions(taskRepo, taskListRepo);
+        verify(tagIndex).put(new TaskIndexEntry(taskId, listId, TaskStatus.CLOSED, TaskPriority.HIGH, null));
+        verify(rollups).recordChange(listId,
+                new TaskRollupKey(TaskStatus.OPEN, TaskPriority.LOW, TaskDueBucket.NO_DUE_DATE), // Captured before the mutation
+                new TaskRollupKey(TaskStatus.CLOSED, TaskPriority.HIGH, TaskDueBucket.UPCOMING));
+        verify(dueIndex).put(new TaskDueEntry(taskId, listId, "New", TaskStatus.CLOSED, TaskPriority.HIGH, body.getDueDate())); // Drops it from the index
+        verifyNoMoreInteractions(taskRepo, taskListRepo, tagIndex, rollups, dueIndex);
+    }
+
+    // bulkUpdateTasks
+    @Test
+    void bulkUpdateTasks_shouldRunOneUpdate_andReturnCount() {
+        var filter = new TaskFilter(TaskStatus.OPEN, null, null);
+        when(taskListRepo.existsById(listId)).thenReturn(true);
+        when(taskRepo.bulkUpdateStatusAndPriority(eq(listId), eq(TaskStatus.OPEN), isNull(), isNull(),
+                eq(TaskStatus.CLOSED), isNull(), any(LocalDateTime.class))).thenReturn(42);
+
+        assertThat(svc.bulkUpdateTasks(listId, filter, TaskStatus.CLOSED, null)).isEqualTo(42);
+
+        verify(taskListRepo).existsById(listId);
+        verify(taskRepo).bulkUpdateStatusAndPriority(eq(listId), eq(TaskStatus.OPEN), isNull(), isNull(),
+                eq(TaskStatus.CLOSED), isNull(), any(LocalDateTime.class));
+        verify(taskRepo).findIndexEntriesByTaskListId(listId);
+        verify(tagIndex).replaceList(listId, List.of());
+        verify(taskRepo).findDueEntriesByTaskListId(listId);
+        verify(dueIndex).replaceList(listId, List.of());
+        verify(rollups).recountTaskList(listId);
+        verifyNoMoreInteractions(taskRepo, taskListRepo, tagIndex, rollups, dueIndex);
+    }
+
+    @Test
+    void bulkUpdateTasks_withoutFilter_shouldMatchWholeList() {
+        when(taskListRepo.existsById(listId)).thenReturn(true);
+
+        svc.bulkUpdateTasks(listId, null, null, TaskPriority.HIGH);
+
+        verify(taskRepo).bulkUpdateStatusAndPriority(eq(listId), isNull(), isNull(), isNull(),
+                isNull(), eq(TaskPriority.HIGH), any(LocalDateTime.class));
+    }
+
+    @Test
+    void bulkUpdateTasks_withNothingToSet_shouldThrow() {
+        assertThatThrownBy(() -> svc.bulkUpdateTasks(listId, TaskFilter.ALL, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(taskRepo, taskListRepo);
+    }
+
+    @Test
+    void bulkUpdateTasks_whenListMissing_shouldThrowIllegalState() {
+        when(taskListRepo.existsById(listId)).thenReturn(false);
+
+        assertThatThrownBy(() -> svc.bulkUpdateTasks(listId, TaskFilter.ALL, TaskStatus.CLOSED, null))
+                .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(taskRepo);
     }
 
     @Test
-    void deleteTask_shouldCallDeleteByListAndId() {
+    void deleteTask_shouldSoftDeleteByListAndId() {
         svc.deleteTask(listId, taskId);
-        verify(taskRepo).deleteByTaskListIdAndId(listId, taskId);
+        verify(taskRepo).softDeleteByTaskListIdAndId(eq(listId), eq(taskId), any(LocalDateTime.class));
         verifyNoMoreInteractions(taskRepo, taskListRepo);
+        verifyNoInteractions(tagIndex, rollups, dueIndex); // Nothing was deleted
+    }
+
+    @Test
+    void deleteTask_shouldRefreshTagIndexOfList() {
+        when(taskRepo.softDeleteByTaskListIdAndId(eq(listId), eq(taskId), any(LocalDateTime.class))).thenReturn(3);
+
+        svc.deleteTask(listId, taskId);
+
+        verify(taskRepo).softDeleteByTaskListIdAndId(eq(listId), eq(taskId), any(LocalDateTime.class));
+        verify(taskRepo).findIndexEntriesByTaskListId(listId);
+        verify(tagIndex).replaceList(listId, List.of());
+        verify(taskRepo).findDueEntriesByTaskListId(listId);
+        verify(dueIndex).replaceList(listId, List.of());
+        verify(rollups).recountTaskList(listId);
+        verifyNoMoreInteractions(taskRepo, taskListRepo, tagIndex, rollups, dueIndex);
     }
 
     @Test
     void deleteTask_whenRepositoryThrows_shouldPropagate() {
         doThrow(new IllegalStateException("DB error"))
-                .when(taskRepo).deleteByTaskListIdAndId(listId, taskId);
+                .when(taskRepo).softDeleteByTaskListIdAndId(eq(listId), eq(taskId), any(LocalDateTime.class));
 
         assertThatThrownBy(() -> svc.deleteTask(listId, taskId))
                 .isInstanceOf(IllegalStateException.class).hasMessageContaining("DB error");
 
-        verify(taskRepo).deleteByTaskListIdAndId(listId, taskId);
+        verify(taskRepo).softDeleteByTaskListIdAndId(eq(listId), eq(taskId), any(LocalDateTime.class));
+        verifyNoMoreInteractions(taskRepo, taskListRepo);
+    }
+
+    @Test
+    void restoreTask_shouldRestoreAndReturnTask() {
+        when(taskRepo.restoreByTaskListIdAndId(listId, taskId)).thenReturn(1);
+        when(taskRepo.findByTaskListIdAndId(listId, taskId)).thenReturn(Optional.of(sample));
+
+        assertThat(svc.restoreTask(listId, taskId)).isSameAs(sample);
+
+        verify(taskRepo).restoreByTaskListIdAndId(listId, taskId);
+        verify(taskRepo).findIndexEntriesByTaskListId(listId);
+        verify(taskRepo).findByTaskListIdAndId(listId, taskId);
+        verify(tagIndex).replaceList(listId, List.of());
+        verify(taskRepo).findDueEntriesByTaskListId(listId);
+        verify(dueIndex).replaceList(listId, List.of());
+        verify(rollups).recountTaskList(listId);
+        verifyNoMoreInteractions(taskRepo, taskListRepo, tagIndex, rollups, dueIndex);
+    }
+
+    @Test
+    void restoreTask_whenNothingRestored_shouldThrowIllegalState() {
+        when(taskRepo.restoreByTaskListIdAndId(listId, taskId)).thenReturn(0);
+
+        assertThatThrownBy(() -> svc.restoreTask(listId, taskId))
+                .isInstanceOf(IllegalStateException.class).hasMessageContaining("Deleted task not found");
+
+        verify(taskRepo).restoreByTaskListIdAndId(listId, taskId);
         verifyNoMoreInteractions(taskRepo, taskListRepo);
     }
 
@@ -0,0 +1,198 @@
+package com.wongsakron.tasks.services;
+
+import com.wongsakron.tasks.domain.TaskRollupCount;
+import com.wongsakron.tasks.domain.TaskSnapshotSummary;
+import com.wongsakron.tasks.domain.TaskTagQuery;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.domain.entities.TaskClosure;
+import com.wongsakron.tasks.domain.entities.TaskClosureId;
+import com.wongsakron.tasks.domain.entities.TaskList;
+import com.wongsakron.tasks.domain.entities.TaskPriority;
+import com.wongsakron.tasks.domain.entities.TaskStatus;
+import com.wongsakron.tasks.repositories.TaskClosureRepository;
+import com.wongsakron.tasks.repositories.TaskListRepository;
+import com.wongsakron.tasks.repositories.TaskRepository;
+import com.wongsakron.tasks.search.TaskDueIndex;
+import com.wongsakron.tasks.search.TaskTagIndex;
+import com.wongsakron.tasks.services.impl.TaskDueServiceImpl;
+import com.wongsakron.tasks.services.impl.TaskRollupServiceImpl;
+import com.wongsakron.tasks.services.impl.TaskSearchServiceImpl;
+import com.wongsakron.tasks.services.impl.TaskSnapshotServiceImpl;
+import com.wongsakron.tasks.snapshot.SnapshotWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Import({TaskSnapshotServiceImpl.class, TaskRollupServiceImpl.class, TaskSearchServiceImpl.class, TaskDueServiceImpl.class,
+        TaskTagIndex.class, TaskDueIndex.class})
+public class TaskSnapshotServiceImplTest {
+
+    @Autowired
+    TaskSnapshotService snapshotService;
+    @Autowired
+    TaskRollupService rollupService;
+    @Autowired
+    TaskSearchService searchService;
+    @Autowired
+    TaskRepository taskRepo;
+    @Autowired
+    TaskListRepository listRepo;
+    @Autowired
+    TaskClosureRepository closureRepo;
+    @Autowired
+    DataSource dataSource;
+    @Autowired
+    TestEntityManager em;
+
+    private final List<Path> snapshots = new ArrayList<>();
+    private JdbcTemplate jdbc;
+    private TaskList list;
+    private Task parent;
+    private Task child;
+    private UUID archivedId;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(dataSource);
+        var now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        list = listRepo.save(new TaskList(null, "Snapshot", "Ünïcode description", null, now, now));
+        TaskList deleted = new TaskList(null, "Deleted", null, null, now, now);
+        deleted.setDeletedAt(now);
+        listRepo.save(deleted);
+
+        parent = taskRepo.save(new Task(null, "parent", "d", now.plusDays(1), TaskStatus.OPEN, TaskPriority.HIGH, list, now, now));
+        child = new Task(null, "child", null, null, TaskStatus.CLOSED, TaskPriority.LOW, list, now, now);
+        child.setParentId(parent.getId());
+        child.setTags(Set.of("work", "urgent"));
+        child = taskRepo.save(child);
+        closureRepo.save(new TaskClosure(new TaskClosureId(parent.getId(), child.getId()), 1));
+
+        List<Task> more = new ArrayList<>();
+        for (int i = 0; i < SnapshotWriter.BLOCK_ROWS + 200; i++) { // One full block and a partial one
+            more.add(new Task(null, "task " + i, null, null, TaskStatus.OPEN, TaskPriority.MEDIUM, list, now, now));
+        }
+        more.get(0).setDeletedAt(now);
+        taskRepo.saveAll(more);
+        em.flush();
+
+        archivedId = UUID.randomUUID(); // As the archive job leaves it: moved out of tasks, still counted by its list
+        jdbc.update("insert into archived_tasks (id, title, description, due_date, status, priority, task_list_id, created, updated, archived)"
+                + " values (?, 'archived', null, null, ?, ?, ?, ?, ?, ?)",
+                archivedId, TaskStatus.CLOSED.ordinal(), TaskPriority.LOW.ordinal(), list.getId(), now, now, now);
+        jdbc.update("update task_lists set archived_task_count = 1 where id = ?", list.getId());
+        em.clear();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (Path snapshot : snapshots) {
+            Files.deleteIfExists(snapshot);
+        }
+    }
+
+    private TaskSnapshotSummary createSnapshot() {
+        TaskSnapshotSummary summary = snapshotService.createSnapshot();
+        snapshots.add(Path.of(System.getProperty("java.io.tmpdir"), "task-snapshots", summary.name()));
+        return summary;
+    }
+
+    private void clearDatabase() {
+        for (String table : List.of("task_closure", "task_rollups", "tasks", "archived_tasks", "task_lists")) {
+            jdbc.update("delete from " + table);
+        }
+    }
+
+    @Test
+    void restoreSnapshot_shouldBringBackEveryRow_includingDeletedOnes_andRebuildDerivedData() {
+        TaskSnapshotSummary snapshot = createSnapshot();
+        assertThat(snapshot.taskLists()).isEqualTo(2);
+        assertThat(snapshot.tasks()).isEqualTo(SnapshotWriter.BLOCK_ROWS + 202);
+        assertThat(snapshot.archivedTasks()).isEqualTo(1);
+        assertThat(snapshot.hierarchyLinks()).isEqualTo(1);
+
+        clearDatabase();
+        TaskSnapshotSummary restored = snapshotService.restoreSnapshot(snapshot.name());
+        em.clear();
+
+        assertThat(restored.tasks()).isEqualTo(snapshot.tasks());
+        assertThat(restored.archivedTasks()).isEqualTo(1);
+        assertThat(jdbc.queryForObject("select count(*) from tasks where deleted_at is not null", Long.class)).isEqualTo(1);
+        assertThat(jdbc.queryForObject("select count(*) from task_lists where deleted_at is not null", Long.class)).isEqualTo(1);
+
+        TaskList restoredList = listRepo.findById(list.getId()).orElseThrow();
+        assertThat(restoredList.getDescription()).isEqualTo("Ünïcode description");
+        assertThat(restoredList.getCreated()).isEqualTo(list.getCreated());
+        assertThat(restoredList.getArchivedTaskCount()).isEqualTo(1);
+        assertThat(jdbc.queryForObject("select title from archived_tasks where id = ? and task_list_id = ?", String.class,
+                archivedId, list.getId())).isEqualTo("archived");
+        Task restoredChild = taskRepo.findById(child.getId()).orElseThrow();
+        assertThat(restoredChild.getParentId()).isEqualTo(parent.getId());
+        assertThat(restoredChild.getTags()).containsExactly("urgent", "work");
+        assertThat(restoredChild.getStatus()).isEqualTo(TaskStatus.CLOSED);
+        assertThat(restoredChild.getDescription()).isNull();
+        assertThat(closureRepo.findById(new TaskClosureId(parent.getId(), child.getId()))).isPresent();
+
+        assertThat(rollupService.getRollup(list.getId()).stream().mapToLong(TaskRollupCount::count).sum())
+                .isEqualTo(SnapshotWriter.BLOCK_ROWS + 201); // Live tasks only
+        assertThat(searchService.searchTasks(list.getId(), new TaskTagQuery(Set.of("work"), Set.of(), Set.of(), null, null)))
+                .extracting(Task::getId).containsExactly(child.getId());
+    }
+
+    @Test
+    void restoreSnapshot_whenDatabaseNotEmpty_shouldThrowIllegalArgument() {
+        TaskSnapshotSummary snapshot = createSnapshot();
+
+        assertThatThrownBy(() -> snapshotService.restoreSnapshot(snapshot.name()))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("empty database");
+    }
+
+    @Test
+    void restoreSnapshot_whenOnlyArchivedTasksLeft_shouldThrowIllegalArgument() {
+        TaskSnapshotSummary snapshot = createSnapshot();
+        for (String table : List.of("task_closure", "task_rollups", "tasks", "task_lists")) {
+            jdbc.update("delete from " + table);
+        }
+
+        assertThatThrownBy(() -> snapshotService.restoreSnapshot(snapshot.name()))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("archived_tasks has rows");
+    }
+
+    @Test
+    void restoreSnapshot_whenFileDamaged_shouldFailBeforeWritingAnything() throws Exception {
+        TaskSnapshotSummary snapshot = createSnapshot();
+        Path file = snapshots.get(0);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x10;
+        Files.write(file, bytes);
+        clearDatabase();
+
+        assertThatThrownBy(() -> snapshotService.restoreSnapshot(snapshot.name()))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Snapshot is corrupted");
+        assertThat(jdbc.queryForObject("select count(*) from tasks", Long.class)).isZero();
+    }
+
+    @Test
+    void restoreSnapshot_whenNameMissingOrInvalid_shouldThrow() {
+        assertThatThrownBy(() -> snapshotService.restoreSnapshot("../etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> snapshotService.restoreSnapshot(UUID.randomUUID() + ".snapshot"))
+                .isInstanceOf(IllegalStateException.class).hasMessageContaining("Snapshot not found");
+    }
+}
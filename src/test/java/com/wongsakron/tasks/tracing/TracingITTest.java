@@ -0,0 +1,141 @@
+package com.wongsakron.tasks.tracing;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Tracing is on (Spring Boot turns it off in tests otherwise), the test properties sample every request and the
+// spans are exported into memory
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(metrics = false)
+public class TracingITTest {
+
+    private static final String CALLER_TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    @TestConfiguration
+    static class InMemoryExporterConfig {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @Autowired
+    MockMvc mvc;
+    @Autowired
+    InMemorySpanExporter exporter;
+    @Autowired
+    SdkTracerProvider tracerProvider;
+
+    @BeforeEach
+    void setUp() {
+        exporter.reset();
+    }
+
+    // Spans are exported in batches, in the background
+    private List<SpanData> spans() {
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+        return exporter.getFinishedSpanItems();
+    }
+
+    @Test
+    void listTaskLists_shouldBeTracedThroughControllerServiceRepositoryAndSql() throws Exception {
+        mvc.perform(post("/task-lists")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"L\",\"description\":\"D\"}"))
+                .andExpect(status().isOk());
+        spans();
+        exporter.reset();
+
+        mvc.perform(get("/task-lists").header("traceparent", "00-" + CALLER_TRACE_ID + "-00f067aa0ba902b7-01"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("traceparent", startsWith("00-" + CALLER_TRACE_ID + "-")));
+
+        List<SpanData> spans = spans().stream().filter(span -> span.getTraceId().equals(CALLER_TRACE_ID)).toList();
+        Map<String, SpanData> byName = spans.stream().collect(Collectors.toMap(TracingITTest::name, Function.identity(), (a, b) -> a));
+        SpanData server = byName.get("http get /task-lists");
+        SpanData controller = byName.get("TaskListController.listTaskLists");
+        SpanData service = byName.get("TaskListServiceImpl.listTaskListsWithTasks");
+        SpanData connection = byName.get("connection");
+        SpanData repository = byName.get("TaskListRepository.findAllWithTasks");
+        SpanData query = byName.get("query");
+        SpanData resultSet = byName.get("result-set");
+        SpanData serialize = byName.get("http.response.serialize");
+
+        assertThat(server.getKind()).isEqualTo(SpanKind.SERVER);
+        assertThat(server.getParentSpanId()).isEqualTo("00f067aa0ba902b7");
+        assertThat(server.getAttributes().get(stringKey("uri"))).isEqualTo("/task-lists");
+        assertThat(controller.getParentSpanId()).isEqualTo(server.getSpanId());
+        assertThat(service.getParentSpanId()).isEqualTo(controller.getSpanId());
+        assertThat(connection.getParentSpanId()).isEqualTo(service.getSpanId()); // The transaction takes the connection
+        assertThat(repository.getParentSpanId()).isEqualTo(connection.getSpanId());
+        assertThat(query.getParentSpanId()).isEqualTo(repository.getSpanId());
+        assertThat(query.getKind()).isEqualTo(SpanKind.CLIENT);
+        assertThat(query.getAttributes().get(stringKey("jdbc.query[0]"))).containsIgnoringCase("task_lists");
+        assertThat(resultSet.getParentSpanId()).isEqualTo(repository.getSpanId());
+        assertThat(Long.parseLong(resultSet.getAttributes().get(stringKey("jdbc.row-count")))).isPositive();
+        assertThat(serialize.getParentSpanId()).isEqualTo(server.getSpanId()); // After the controller action, not inside it
+    }
+
+    @Test
+    void writes_shouldRecordTheChangedRows() throws Exception {
+        mvc.perform(post("/task-lists")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"L\",\"description\":\"D\"}"))
+                .andExpect(status().isOk());
+
+        assertThat(spans())
+                .filteredOn(span -> name(span).equals("query")
+                        && span.getAttributes().get(stringKey("jdbc.query[0]")).toLowerCase().startsWith("insert"))
+                .isNotEmpty()
+                .allMatch(span -> Long.parseLong(span.getAttributes().get(stringKey("jdbc.row-affected"))) >= 1);
+    }
+
+    @Test
+    void errors_shouldBeRecordedOnTheSpanThatThrew() throws Exception {
+        mvc.perform(get("/task-lists/{id}/dashboard/next-due", UUID.randomUUID())).andExpect(status().isNotFound());
+
+        assertThat(spans())
+                .filteredOn(span -> name(span).equals("TaskDueServiceImpl.getNextDue"))
+                .singleElement()
+                .satisfies(span -> {
+                    assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+                    assertThat(span.getStatus().getDescription()).contains("Task list not found");
+                    assertThat(span.getEvents()).anySatisfy(event -> assertThat(event.getAttributes().get(stringKey("exception.type")))
+                            .isEqualTo(IllegalStateException.class.getName()));
+                });
+    }
+
+    // Micrometer writes span names in lower-hyphen case, the application's spans keep Type.method in code.function
+    private static String name(SpanData span) {
+        String function = span.getAttributes().get(stringKey("code.function"));
+        return function != null ? function : span.getName();
+    }
+}
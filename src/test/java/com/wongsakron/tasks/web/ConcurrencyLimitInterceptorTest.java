@@ -0,0 +1,118 @@
+package com.wongsakron.tasks.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ConcurrencyLimitInterceptorTest {
+
+    private static final long FAST = Duration.ofMillis(5).toNanos();
+    private static final long SLOW = Duration.ofMillis(500).toNanos();
+
+    @Test
+    void limiter_shouldRejectWhenInFlightReachesLimit() {
+        var limiter = new AdaptiveConcurrencyLimiter("read", 2, 1, 10, 2.0, 0.5);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+        assertThat(limiter.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void limiter_shouldShrinkOnSlowResponses_andNotGoBelowMin() {
+        var limiter = new AdaptiveConcurrencyLimiter("read", 8, 2, 10, 2.0, 0.5);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, false); // establishes the latency baseline
+        }
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(SLOW, false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void limiter_shouldShrinkOnDroppedRequests_andGrowBackWhenHealthy() {
+        var limiter = new AdaptiveConcurrencyLimiter("write", 4, 1, 10, 2.0, 0.5);
+
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        // keep the limit busy with fast requests, it should grow additively
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+            limiter.release(FAST, false);
+        }
+        assertThat(limiter.getLimit()).isGreaterThan(2).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void limiter_withTwoLatencyPopulations_shouldGrow_untilBothGetSlower() {
+        var limiter = new AdaptiveConcurrencyLimiter("read", 4, 1, 20, 2.0, 0.5);
+        long cached = Duration.ofMillis(2).toNanos(); // e.g. a cached task read
+        long listing = Duration.ofMillis(80).toNanos(); // e.g. a large listing, normal for that route
+        var random = new Random(42);
+
+        for (int i = 0; i < 200; i++) {
+            saturate(limiter, () -> random.nextBoolean() ? cached : listing);
+        }
+        assertThat(limiter.getLimit()).isGreaterThan(4); // The listings' latency is not taken for overload
+
+        int grown = limiter.getLimit();
+        for (int i = 0; i < 3; i++) {
+            saturate(limiter, () -> (random.nextBoolean() ? cached : listing) * 5); // Everything got slower
+        }
+        assertThat(limiter.getLimit()).isLessThan(grown);
+    }
+
+    // One round trip at full load: as many requests as the limit allows, then all of them complete
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, LongSupplier rtt) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(rtt.getAsLong(), false);
+        }
+    }
+
+    @Test
+    void interceptor_shouldReturn503WithRetryAfter_whenSaturated() throws Exception {
+        var read = new AdaptiveConcurrencyLimiter("read", 1, 1, 1, 2.0, 0.5);
+        var write = new AdaptiveConcurrencyLimiter("write", 1, 1, 1, 2.0, 0.5);
+        var interceptor = new ConcurrencyLimitInterceptor(read, write, Duration.ofSeconds(2), new ObjectMapper());
+
+        var first = new MockHttpServletRequest("GET", "/task-lists");
+        assertThat(interceptor.preHandle(first, new MockHttpServletResponse(), new Object())).isTrue();
+
+        var rejectedResponse = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("GET", "/task-lists"), rejectedResponse, new Object())).isFalse();
+        assertThat(rejectedResponse.getStatus()).isEqualTo(503);
+        assertThat(rejectedResponse.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(rejectedResponse.getContentAsString()).contains("\"status\":503");
+
+        // writes have their own budget
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("POST", "/task-lists"), new MockHttpServletResponse(), new Object())).isTrue();
+
+        // completing the first read frees its slot
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), new Object(), null);
+        assertThat(read.getInFlight()).isZero();
+    }
+}
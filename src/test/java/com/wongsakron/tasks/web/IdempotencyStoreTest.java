@@ -0,0 +1,195 @@
+package com.wongsakron.tasks.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class IdempotencyStoreTest {
+
+    // clock the test moves by hand
+    private static class TestClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private final TestClock clock = new TestClock();
+    private final IdempotencyStore store = new IdempotencyStore(Duration.ofHours(1), 100, Duration.ofSeconds(5), clock);
+
+    @Test
+    void execute_sameKey_shouldRunOnce_andReplayResult() {
+        var calls = new AtomicInteger();
+
+        String first = store.execute("k1", "POST /x", "body", () -> "created-" + calls.incrementAndGet());
+        String replay = store.execute("k1", "POST /x", "body", () -> "created-" + calls.incrementAndGet());
+
+        assertThat(first).isEqualTo("created-1");
+        assertThat(replay).isEqualTo("created-1");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void execute_withoutKey_shouldAlwaysRun() {
+        var calls = new AtomicInteger();
+
+        store.execute(null, "POST /x", "body", calls::incrementAndGet);
+        store.execute(null, "POST /x", "body", calls::incrementAndGet);
+
+        assertThat(calls).hasValue(2);
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void execute_sameKeyDifferentScope_shouldRunForEachScope() {
+        var calls = new AtomicInteger();
+
+        store.execute("k1", "POST /a", "body", calls::incrementAndGet);
+        store.execute("k1", "POST /b", "body", calls::incrementAndGet);
+
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void execute_sameKeyDifferentBody_shouldThrowIllegalArgument() {
+        store.execute("k1", "POST /x", "body", () -> "ok");
+
+        assertThatThrownBy(() -> store.execute("k1", "POST /x", "other", () -> "ok"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("different request");
+    }
+
+    @Test
+    void execute_blankKey_shouldThrowIllegalArgument() {
+        assertThatThrownBy(() -> store.execute(" ", "POST /x", "body", () -> "ok"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void execute_whenActionFails_shouldNotRememberFailure() {
+        assertThatThrownBy(() -> store.execute("k1", "POST /x", "body", () -> {
+            throw new IllegalStateException("DB error");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(store.execute("k1", "POST /x", "body", () -> "ok")).isEqualTo("ok"); // retry runs again
+    }
+
+    @Test
+    void execute_failures_shouldNotTakeRoomFromRememberedResults() {
+        var small = new IdempotencyStore(Duration.ofHours(1), 2, Duration.ofSeconds(5), clock);
+        var calls = new AtomicInteger();
+        small.execute("k1", "POST /x", "body", calls::incrementAndGet);
+
+        for (int i = 0; i < 3; i++) {
+            String key = "failing" + i;
+            assertThatThrownBy(() -> small.execute(key, "POST /x", "body", () -> {
+                throw new IllegalStateException("DB error");
+            })).isInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(small.execute("k1", "POST /x", "body", calls::incrementAndGet)).isEqualTo(1); // still remembered
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void execute_afterTtl_shouldRunAgain() {
+        var calls = new AtomicInteger();
+        store.execute("k1", "POST /x", "body", calls::incrementAndGet);
+
+        clock.advance(Duration.ofHours(2));
+
+        assertThat(store.execute("k1", "POST /x", "body", calls::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    void execute_shouldNeverHoldMoreThanMaxEntries() {
+        var small = new IdempotencyStore(Duration.ofHours(1), 3, Duration.ofSeconds(5), clock);
+
+        for (int i = 0; i < 10; i++) {
+            small.execute("k" + i, "POST /x", "body", () -> "ok");
+        }
+
+        assertThat(small.size()).isLessThanOrEqualTo(4); // bound is enforced before each insert
+    }
+
+    @Test
+    void execute_concurrentDuplicates_shouldRunActionOnce() throws Exception {
+        var calls = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        int duplicates = 8;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(duplicates)) {
+            var results = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < duplicates; i++) {
+                results.add(executor.submit(() -> store.execute("k1", "POST /x", "body", () -> {
+                    await(release);
+                    return calls.incrementAndGet();
+                })));
+            }
+            Thread.sleep(100); // let every duplicate reach the store
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            }
+        }
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void execute_whenOriginalIsStillRunning_shouldTimeOutWithConflict() throws Exception {
+        var quick = new IdempotencyStore(Duration.ofHours(1), 100, Duration.ofMillis(50), clock);
+        var release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            var original = executor.submit(() -> quick.execute("k1", "POST /x", "body", () -> {
+                await(release);
+                return "ok";
+            }));
+            Thread.sleep(50);
+
+            assertThatThrownBy(() -> quick.execute("k1", "POST /x", "body", () -> "duplicate"))
+                    .isInstanceOf(IdempotencyConflictException.class);
+
+            release.countDown();
+            assertThat(original.get(5, TimeUnit.SECONDS)).isEqualTo("ok");
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
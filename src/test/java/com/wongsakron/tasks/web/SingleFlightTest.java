@@ -0,0 +1,142 @@
+package com.wongsakron.tasks.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    @Test
+    void execute_concurrentSameKey_shouldLoadOnce() throws Exception {
+        var flight = new SingleFlight<String, Integer>("test", Duration.ofSeconds(5));
+        var loads = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        int callers = 10;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> flight.execute("list-1", () -> {
+                    await(release);
+                    return loads.incrementAndGet();
+                })));
+            }
+            Thread.sleep(100); // let every caller join the in-flight load
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            }
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(flight.getLoads()).isEqualTo(1);
+        assertThat(flight.getCoalesced()).isEqualTo(callers - 1);
+        assertThat(flight.getInFlight()).isZero();
+    }
+
+    @Test
+    void execute_sequentialCalls_shouldNotCache() {
+        var flight = new SingleFlight<String, Integer>("test", Duration.ofSeconds(5));
+        var loads = new AtomicInteger();
+
+        assertThat(flight.execute("list-1", loads::incrementAndGet)).isEqualTo(1);
+        assertThat(flight.execute("list-1", loads::incrementAndGet)).isEqualTo(2); // completed loads are not reused
+        assertThat(flight.getCoalesced()).isZero();
+    }
+
+    @Test
+    void execute_differentKeys_shouldLoadIndependently() {
+        var flight = new SingleFlight<String, String>("test", Duration.ofSeconds(5));
+
+        assertThat(flight.execute("a", () -> "A")).isEqualTo("A");
+        assertThat(flight.execute("b", () -> "B")).isEqualTo("B");
+        assertThat(flight.getLoads()).isEqualTo(2);
+    }
+
+    @Test
+    void execute_whenLeaderFails_shouldPropagateToWaiters_andNotRememberFailure() throws Exception {
+        var flight = new SingleFlight<String, String>("test", Duration.ofSeconds(5));
+        var release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<String> leader = executor.submit(() -> flight.execute("k", () -> {
+                await(release);
+                throw new IllegalStateException("DB error");
+            }));
+            Thread.sleep(50);
+            Future<String> waiter = executor.submit(() -> flight.execute("k", () -> "unused"));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertThatThrownBy(leader::get).hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(waiter::get).hasCauseInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(flight.execute("k", () -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    void execute_whenLeaderIsSlow_shouldFallBackToOwnLoadAfterMaxWait() throws Exception {
+        var flight = new SingleFlight<String, String>("test", Duration.ofMillis(50));
+        var release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<String> leader = executor.submit(() -> flight.execute("k", () -> {
+                await(release);
+                return "leader";
+            }));
+            Thread.sleep(50);
+
+            assertThat(flight.execute("k", () -> "own")).isEqualTo("own");
+            assertThat(flight.getTimeouts()).isEqualTo(1);
+
+            release.countDown();
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("leader");
+        }
+    }
+
+    @Test
+    void execute_whenCallerBypasses_shouldNeitherJoinNorLeadAnInFlightLoad() throws Exception {
+        var stickyCallers = ConcurrentHashMap.<Thread>newKeySet();
+        var flight = new SingleFlight<String, String>("test", Duration.ofSeconds(5),
+                () -> stickyCallers.contains(Thread.currentThread()));
+        var release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<String> leader = executor.submit(() -> flight.execute("k", () -> {
+                await(release);
+                return "replica";
+            }));
+            Thread.sleep(50);
+
+            stickyCallers.add(Thread.currentThread()); // Just wrote, must not get the other client's load
+            assertThat(flight.execute("k", () -> "primary")).isEqualTo("primary");
+            assertThat(flight.getCoalesced()).isZero();
+            assertThat(flight.getInFlight()).isEqualTo(1); // Did not replace the running leader either
+
+            release.countDown();
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("replica");
+        }
+        assertThat(flight.getLoads()).isEqualTo(2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.wongsakron.tasks.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wongsakron.tasks.datasource.ReadYourWritesTracker;
+import com.wongsakron.tasks.datasource.RoutingClientFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Batching on and a replica configured (the same H2 database, routing is what is under test)
+@SpringBootTest(properties = {
+        "tasks.create-batching.enabled=true",
+        "tasks.datasource.replica.jdbc-url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1",
+        "tasks.datasource.replica.username=sa",
+        "tasks.datasource.replica.password=sa"
+})
+@AutoConfigureMockMvc
+public class TaskCreateBatcherITTest {
+
+    @Autowired
+    MockMvc mvc;
+    @Autowired
+    ObjectMapper om;
+    @Autowired
+    ReadYourWritesTracker readYourWritesTracker;
+
+    @Test
+    void batchedCreate_shouldMakeTheCallingClientStickToThePrimary() throws Exception {
+        var res = mvc.perform(post("/task-lists")
+                        .header(RoutingClientFilter.CLIENT_ID_HEADER, "list-owner")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"L\",\"description\":\"D\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String listId = om.readTree(res.getResponse().getContentAsString()).get("id").asText();
+        assertThat(readYourWritesTracker.isSticky("task-writer")).isFalse();
+
+        // The insert commits on a batcher thread, the client that asked for it must still read its own write
+        mvc.perform(post("/task-lists/{id}/tasks", listId)
+                        .header(RoutingClientFilter.CLIENT_ID_HEADER, "task-writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"T\"}"))
+                .andExpect(status().isOk());
+
+        assertThat(readYourWritesTracker.isSticky("task-writer")).isTrue();
+    }
+}
@@ -0,0 +1,164 @@
+package com.wongsakron.tasks.web;
+
+import com.wongsakron.tasks.datasource.ReadYourWritesTracker;
+import com.wongsakron.tasks.datasource.RoutingClientHolder;
+import com.wongsakron.tasks.domain.TaskCreate;
+import com.wongsakron.tasks.domain.TaskCreateResult;
+import com.wongsakron.tasks.domain.entities.Task;
+import com.wongsakron.tasks.services.TaskService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TaskCreateBatcherTest {
+
+    private final UUID listId = UUID.randomUUID();
+    private final ReadYourWritesTracker noReplica = new ReadYourWritesTracker(Duration.ZERO);
+
+    private static Task task(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        return task;
+    }
+
+    private static Task saved(Task task) {
+        Task saved = task(task.getTitle());
+        saved.setId(UUID.randomUUID());
+        return saved;
+    }
+
+    // Fails the creates titled "bad" on their own, like a validation error
+    private static List<TaskCreateResult> answer(List<TaskCreate> creates) {
+        return creates.stream()
+                .map(create -> create.task().getTitle().equals("bad")
+                        ? TaskCreateResult.failed(new IllegalArgumentException("Task title is bad!"))
+                        : TaskCreateResult.created(saved(create.task())))
+                .toList();
+    }
+
+    private List<Future<Task>> createConcurrently(TaskCreateBatcher batcher, ExecutorService executor, List<String> titles) {
+        List<Future<Task>> results = new ArrayList<>();
+        for (String title : titles) {
+            results.add(executor.submit(() -> batcher.create(listId, task(title))));
+        }
+        return results;
+    }
+
+    @Test
+    void create_concurrentCalls_shouldShareBatches_andGetTheirOwnResults() throws Exception {
+        TaskService taskService = mock(TaskService.class);
+        when(taskService.createTasks(anyList())).thenAnswer(inv -> answer(inv.getArgument(0)));
+        List<String> titles = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            titles.add(i == 7 ? "bad" : "task " + i);
+        }
+
+        try (TaskCreateBatcher batcher = new TaskCreateBatcher(taskService, noReplica, true, 50, Duration.ofMillis(200), 1);
+             ExecutorService executor = Executors.newFixedThreadPool(titles.size())) {
+            List<Future<Task>> results = createConcurrently(batcher, executor, titles);
+
+            for (int i = 0; i < titles.size(); i++) {
+                Future<Task> result = results.get(i);
+                if (i == 7) {
+                    assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                            .hasCauseInstanceOf(IllegalArgumentException.class)
+                            .hasMessageContaining("Task title is bad!");
+                } else {
+                    assertThat(result.get(5, TimeUnit.SECONDS).getTitle()).isEqualTo(titles.get(i));
+                }
+            }
+            assertThat(batcher.getBatchedTasks()).isGreaterThan(1);
+            assertThat(batcher.getBatches()).isLessThan(titles.size()); // Fewer transactions than creates
+        }
+        verify(taskService, atLeastOnce()).createTasks(anyList());
+    }
+
+    @Test
+    void create_whenBatchTransactionFails_shouldRetryEachCreateOnItsOwn() throws Exception {
+        TaskService taskService = mock(TaskService.class);
+        when(taskService.createTasks(anyList())).thenThrow(new RuntimeException("Unique constraint violated"));
+        when(taskService.createTask(eq(listId), any(Task.class))).thenAnswer(inv -> {
+            Task task = inv.getArgument(1);
+            if (task.getTitle().equals("bad")) {
+                throw new IllegalStateException("Parent task not found!");
+            }
+            return saved(task);
+        });
+
+        try (TaskCreateBatcher batcher = new TaskCreateBatcher(taskService, noReplica, true, 10, Duration.ofMillis(200), 1);
+             ExecutorService executor = Executors.newFixedThreadPool(3)) {
+            List<Future<Task>> results = createConcurrently(batcher, executor, List.of("a", "bad", "b"));
+
+            assertThat(results.get(0).get(5, TimeUnit.SECONDS).getTitle()).isEqualTo("a");
+            assertThatThrownBy(() -> results.get(1).get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+            assertThat(results.get(2).get(5, TimeUnit.SECONDS).getTitle()).isEqualTo("b");
+        }
+        verify(taskService, times(3)).createTask(eq(listId), any(Task.class));
+    }
+
+    @Test
+    void create_batched_shouldRecordEachCallersWrite_onlyOnceCreated() throws Exception {
+        TaskService taskService = mock(TaskService.class);
+        when(taskService.createTasks(anyList())).thenAnswer(inv -> answer(inv.getArgument(0)));
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofSeconds(30));
+        List<String> titles = List.of("a", "bad", "b");
+
+        try (TaskCreateBatcher batcher = new TaskCreateBatcher(taskService, tracker, true, 10, Duration.ofMillis(200), 1);
+             ExecutorService executor = Executors.newFixedThreadPool(titles.size())) {
+            List<Future<?>> results = new ArrayList<>();
+            for (String title : titles) {
+                results.add(executor.submit(() -> {
+                    RoutingClientHolder.set("client-" + title);
+                    try {
+                        return batcher.create(listId, task(title));
+                    } finally {
+                        RoutingClientHolder.clear();
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                try {
+                    result.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException ignored) {
+                    // "bad" fails, checked below through the tracker
+                }
+            }
+        }
+        // Written on the batcher's thread, still the callers are the ones whose reads must stay on the primary
+        assertThat(tracker.isSticky("client-a")).isTrue();
+        assertThat(tracker.isSticky("client-b")).isTrue();
+        assertThat(tracker.isSticky("client-bad")).isFalse();
+    }
+
+    @Test
+    void create_whenDisabled_shouldCallCreateTaskDirectly() throws Exception {
+        TaskService taskService = mock(TaskService.class);
+        Task input = task("T");
+        Task saved = saved(input);
+        when(taskService.createTask(listId, input)).thenReturn(saved);
+
+        try (TaskCreateBatcher batcher = new TaskCreateBatcher(taskService, noReplica, false, 10, Duration.ofMillis(5), 1)) {
+            assertThat(batcher.create(listId, input)).isSameAs(saved);
+        }
+        verify(taskService, never()).createTasks(anyList());
+    }
+
+    @Test
+    void constructor_whenSettingsInvalid_shouldThrowIllegalArgument() {
+        TaskService taskService = mock(TaskService.class);
+
+        assertThatThrownBy(() -> new TaskCreateBatcher(taskService, noReplica, true, 0, Duration.ofMillis(5), 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}